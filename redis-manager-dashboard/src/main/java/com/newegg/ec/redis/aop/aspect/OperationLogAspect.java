@@ -1,21 +1,24 @@
 package com.newegg.ec.redis.aop.aspect;
 
-import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.newegg.ec.redis.entity.Cluster;
 import com.newegg.ec.redis.entity.OperationLog;
 import com.newegg.ec.redis.entity.Result;
 import com.newegg.ec.redis.entity.User;
 import com.newegg.ec.redis.plugin.install.entity.InstallationParam;
 import com.newegg.ec.redis.service.IOperationLogService;
+import com.newegg.ec.redis.util.BatchWriter;
+import com.newegg.ec.redis.util.Metrics;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
@@ -23,9 +26,10 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.Timestamp;
 import java.util.List;
-import java.util.concurrent.*;
 
 /**
  * @author fw13
@@ -33,12 +37,31 @@ import java.util.concurrent.*;
  */
 @Aspect
 @Component
-public class OperationLogAspect implements ApplicationListener<ContextRefreshedEvent> {
+public class OperationLogAspect implements ApplicationListener<ContextRefreshedEvent>, DisposableBean {
 
-    private BlockingQueue<OperationLog> operationLogs = new LinkedBlockingDeque<>();
+    private static final String TRUNCATED = "...(truncated)";
+
+    /**
+     * 关闭时等待剩余日志写入的最长时间(ms)
+     */
+    private static final long CLOSE_TIMEOUT = 10000;
 
     private Logger logger = LoggerFactory.getLogger(OperationLogAspect.class);
 
+    @Value("${redis-manager.operation-log.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${redis-manager.operation-log.batch-size:100}")
+    private int batchSize;
+
+    @Value("${redis-manager.operation-log.flush-interval-millis:1000}")
+    private long flushInterval;
+
+    @Value("${redis-manager.operation-log.max-params-length:4096}")
+    private int maxParamsLength;
+
+    private volatile BatchWriter<OperationLog> operationLogWriter;
+
     @Autowired
     private IOperationLogService operationLogService;
 
@@ -64,7 +87,7 @@ public class OperationLogAspect implements ApplicationListener<ContextRefreshedE
 
             Object[] args = joinPoint.getArgs();
 
-            String requestParams = JSONObject.toJSONString(args);
+            String requestParams = toLimitedJSONString(args, maxParamsLength);
 
             Integer operationGroupId = getOperationGroupId(args);
 
@@ -84,7 +107,10 @@ public class OperationLogAspect implements ApplicationListener<ContextRefreshedE
 
             OperationLog log = new OperationLog(groupId, userId, userIp,operationGroupId, type + " " + objType, requestParams, new Timestamp(System.currentTimeMillis()));
 
-            operationLogs.add(log);
+            BatchWriter<OperationLog> writer = operationLogWriter;
+            if (writer != null) {
+                writer.offer(log);
+            }
 
         } catch (Exception e) {
             logger.error("operation log aspect error", e);
@@ -92,27 +118,41 @@ public class OperationLogAspect implements ApplicationListener<ContextRefreshedE
     }
 
     /**
-     * consume queue 2 save db
+     * 批量写入数据库，单次 insert 多行
      */
-    private void saveLogs() {
-        while (true) {
-            try {
-                OperationLog log = operationLogs.poll(5, TimeUnit.MILLISECONDS);
-                if (log != null) {
-                    operationLogService.insertLog(log);
-                }
-            } catch (Exception e) {
-                logger.error("insert operation log to db error", e);
-            }
+    @Override
+    public synchronized void onApplicationEvent(ContextRefreshedEvent event) {
+        if (operationLogWriter != null) {
+            return;
         }
+        BatchWriter<OperationLog> writer = new BatchWriter<>("Save-Logs", queueCapacity, batchSize, flushInterval,
+                operationLogService::insertLogBatch);
+        Metrics.gauge("operation_log_queue_size", "Operation logs waiting to be saved", writer::getPending);
+        Metrics.gauge("operation_log_dropped", "Operation logs dropped since start", writer::getDropped);
+        operationLogWriter = writer;
     }
 
     @Override
-    public void onApplicationEvent(ContextRefreshedEvent event) {
-        ExecutorService pool = new ThreadPoolExecutor(1, 1,
-                0L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setNameFormat("Save-Logs-%d").setDaemon(true).build());
-        pool.submit(this::saveLogs);
+    public void destroy() {
+        BatchWriter<OperationLog> writer = operationLogWriter;
+        if (writer != null) {
+            writer.close(CLOSE_TIMEOUT);
+        }
+    }
+
+    /**
+     * 序列化超过 maxLength 时停止并截断，避免大参数(批量导入的 key、配置文件等)占用过多内存和数据库空间
+     */
+    static String toLimitedJSONString(Object object, int maxLength) {
+        LimitedWriter writer = new LimitedWriter(maxLength);
+        try {
+            JSON.writeJSONString(writer, object);
+        } catch (Exception e) {
+            if (!writer.isTruncated()) {
+                throw e;
+            }
+        }
+        return writer.isTruncated() ? writer.toString() + TRUNCATED : writer.toString();
     }
 
     /**
@@ -125,8 +165,7 @@ public class OperationLogAspect implements ApplicationListener<ContextRefreshedE
             operationGroupId = (Integer)((JSONObject)arg).get("groupId");
         }else{
             if (arg instanceof List) {
-                JSONArray argArray = (JSONArray)JSONObject.toJSON(arg);
-                JSONObject jsonObject = (JSONObject)argArray.get(0);
+                JSONObject jsonObject = (JSONObject)JSONObject.toJSON(((List) arg).get(0));
                 operationGroupId = (Integer)jsonObject.get("groupId");
             }else {
                 if (arg instanceof InstallationParam){
@@ -142,4 +181,45 @@ public class OperationLogAspect implements ApplicationListener<ContextRefreshedE
 
         return operationGroupId;
     }
+
+    private static class LimitedWriter extends Writer {
+
+        private final StringBuilder builder = new StringBuilder();
+
+        private final int maxLength;
+
+        private boolean truncated;
+
+        LimitedWriter(int maxLength) {
+            this.maxLength = Math.max(maxLength, 0);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int remaining = maxLength - builder.length();
+            if (len > remaining) {
+                builder.append(cbuf, off, Math.max(remaining, 0));
+                truncated = true;
+                throw new IOException("Exceeded max length " + maxLength);
+            }
+            builder.append(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
 }
@@ -4,6 +4,11 @@ import com.newegg.ec.redis.entity.AutoCommandParam;
 import com.newegg.ec.redis.entity.AutoCommandResult;
 import com.newegg.ec.redis.entity.DataCommandsParam;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * 数据相关操作
  *
@@ -85,6 +90,18 @@ public interface IDatabaseCommand {
 
     String DEL = "DEL";
 
+    /**
+     * console 支持的命令，key 都是第一个参数
+     */
+    Set<String> CONSOLE_COMMANDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            GET, SET, HGET, HMGET, HGETALL, HKEYS, HSET, LINDEX, LLEN, LRANGE, LPUSH, RPUSH,
+            SCARD, SADD, SMEMBERS, SRANDMEMBER, ZCARD, ZSCORE, ZCOUNT, ZRANGE, ZADD, TYPE, DEL)));
+
+    /**
+     * 参数全部是 key 的命令
+     */
+    Set<String> MULTI_KEY_COMMANDS = Collections.singleton(DEL);
+
     boolean exists(String key);
 
     String type(String key);
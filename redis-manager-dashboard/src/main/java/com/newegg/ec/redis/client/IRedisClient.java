@@ -41,6 +41,15 @@ public interface IRedisClient extends IDatabaseCommand {
      */
     Map<String, String> getInfo(String section) throws Exception;
 
+    /**
+     * 只获取指定的 section，一次往返
+     *
+     * @param sections
+     * @param multiSection 节点支持 INFO 多个参数(Redis 7+)，不支持时按 section 分别请求
+     * @return section -> fields, 每个请求的 section 都有对应的 map
+     */
+    Map<String, Map<String, String>> getInfoSections(List<String> sections, boolean multiSection) throws Exception;
+
     Map<String, String> getClusterInfo() throws Exception;
 
     Set<String> scan(AutoCommandParam autoCommandParam);
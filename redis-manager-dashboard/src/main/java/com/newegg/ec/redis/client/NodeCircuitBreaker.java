@@ -0,0 +1,181 @@
+package com.newegg.ec.redis.client;
+
+import com.newegg.ec.redis.util.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.HostAndPort;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import static com.newegg.ec.redis.client.RedisURI.TIMEOUT;
+import static javax.management.timer.Timer.ONE_MINUTE;
+import static javax.management.timer.Timer.ONE_SECOND;
+
+/**
+ * 节点熔断：所有 RedisClient 共用，按 host:port 记录连接状态
+ * <p>
+ * CLOSED: 连续失败 FAILURE_THRESHOLD 次后进入 OPEN
+ * OPEN: 直接拒绝，退避时间到后只放行一个请求作为探测，进入 HALF_OPEN
+ * HALF_OPEN: 探测成功回到 CLOSED，失败回到 OPEN 且退避时间翻倍(最长 MAX_BACKOFF)
+ * <p>
+ * 节点宕机时每个退避周期只会有一次超时等待
+ *
+ * @date 2026/10/19
+ */
+public class NodeCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeCircuitBreaker.class);
+
+    private static final Map<String, Breaker> BREAKER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 测试中替换以控制时间
+     */
+    static LongSupplier clock = System::currentTimeMillis;
+
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private static final long INITIAL_BACKOFF = 5 * ONE_SECOND;
+
+    private static final long MAX_BACKOFF = 5 * ONE_MINUTE;
+
+    /**
+     * 探测请求超过该时间没有结果则允许新的探测
+     */
+    private static final long PROBE_TIMEOUT = 3L * TIMEOUT;
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    static {
+        for (State state : State.values()) {
+            Metrics.gauge("circuit_breakers", "Node circuit breakers by state", () -> count(state), "state", state.name());
+        }
+    }
+
+    private NodeCircuitBreaker() {
+    }
+
+    public static boolean allowRequest(HostAndPort hostAndPort) {
+        Breaker breaker = BREAKER_MAP.get(hostAndPort.toString());
+        return breaker == null || breaker.allowRequest();
+    }
+
+    public static void onSuccess(HostAndPort hostAndPort) {
+        Breaker breaker = BREAKER_MAP.get(hostAndPort.toString());
+        if (breaker != null && breaker.onSuccess()) {
+            logger.info("Circuit closed, node = " + hostAndPort);
+        }
+    }
+
+    public static void onFailure(HostAndPort hostAndPort) {
+        Breaker breaker = BREAKER_MAP.computeIfAbsent(hostAndPort.toString(), key -> new Breaker());
+        long backoff = breaker.onFailure();
+        if (backoff > 0) {
+            logger.warn("Circuit open, node = " + hostAndPort + ", retry after " + backoff / ONE_SECOND + "s");
+        }
+    }
+
+    public static State getState(String host, int port) {
+        Breaker breaker = BREAKER_MAP.get(host + ":" + port);
+        return breaker == null ? State.CLOSED : breaker.getState();
+    }
+
+    /**
+     * 距离下一次探测的毫秒数，非 OPEN 状态返回 0
+     */
+    public static long getRetryAfter(HostAndPort hostAndPort) {
+        Breaker breaker = BREAKER_MAP.get(hostAndPort.toString());
+        return breaker == null ? 0 : breaker.getRetryAfter();
+    }
+
+    /**
+     * 处于该状态的熔断器数量，未记录过失败的节点不计入 CLOSED
+     */
+    public static long count(State state) {
+        return BREAKER_MAP.values().stream().filter(breaker -> breaker.getState() == state).count();
+    }
+
+    public static void reset(HostAndPort hostAndPort) {
+        BREAKER_MAP.remove(hostAndPort.toString());
+    }
+
+    private static class Breaker {
+
+        private State state = State.CLOSED;
+
+        private int failures;
+
+        private long backoff = INITIAL_BACKOFF;
+
+        /**
+         * OPEN: 下一次允许探测的时间; HALF_OPEN: 探测开始时间
+         */
+        private long time;
+
+        synchronized boolean allowRequest() {
+            long now = clock.getAsLong();
+            switch (state) {
+                case OPEN:
+                    if (now < time) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    time = now;
+                    return true;
+                case HALF_OPEN:
+                    if (now - time < PROBE_TIMEOUT) {
+                        return false;
+                    }
+                    time = now;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        /**
+         * @return true if the circuit is closed by this call
+         */
+        synchronized boolean onSuccess() {
+            boolean recovered = state != State.CLOSED;
+            state = State.CLOSED;
+            failures = 0;
+            backoff = INITIAL_BACKOFF;
+            return recovered;
+        }
+
+        /**
+         * @return 进入 OPEN 时的退避时间，否则 0
+         */
+        synchronized long onFailure() {
+            long now = clock.getAsLong();
+            switch (state) {
+                case OPEN:
+                    return 0;
+                case HALF_OPEN:
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF);
+                    break;
+                default:
+                    if (++failures < FAILURE_THRESHOLD) {
+                        return 0;
+                    }
+                    break;
+            }
+            state = State.OPEN;
+            time = now + backoff;
+            return backoff;
+        }
+
+        synchronized State getState() {
+            return state;
+        }
+
+        synchronized long getRetryAfter() {
+            return state == State.OPEN ? Math.max(time - clock.getAsLong(), 0) : 0;
+        }
+    }
+}
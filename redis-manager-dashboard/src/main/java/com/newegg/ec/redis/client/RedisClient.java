@@ -7,6 +7,7 @@ import com.newegg.ec.redis.util.RedisUtil;
 import com.newegg.ec.redis.util.SignUtil;
 import redis.clients.jedis.*;
 import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisDataException;
 import redis.clients.jedis.params.MigrateParams;
 import redis.clients.jedis.util.Slowlog;
 
@@ -29,6 +30,8 @@ public class RedisClient implements IRedisClient {
 
     private static final String PONG = "PONG";
 
+    private static final String INFO = "INFO";
+
     /**
      * info subkey
      */
@@ -46,12 +49,23 @@ public class RedisClient implements IRedisClient {
 
     private RedisURI redisURI;
 
+    /**
+     * 实际连接的节点
+     */
+    private HostAndPort hostAndPort;
+
     public RedisClient(RedisURI redisURI) {
         this.redisURI = redisURI;
         String redisPassword = redisURI.getRequirePass();
         String clientName = redisURI.getClientName();
         Set<HostAndPort> hostAndPortSet = redisURI.getHostAndPortSet();
+        int rejected = 0;
         for (HostAndPort hostAndPort : hostAndPortSet) {
+            // 熔断中的节点直接跳过，不再等待连接超时
+            if (!NodeCircuitBreaker.allowRequest(hostAndPort)) {
+                rejected++;
+                continue;
+            }
             try {
                 jedis = new Jedis(hostAndPort.getHost(), hostAndPort.getPort(), TIMEOUT, TIMEOUT);
                 if (!Strings.isNullOrEmpty(redisPassword)) {
@@ -61,13 +75,24 @@ public class RedisClient implements IRedisClient {
                     jedis.clientSetname(clientName);
                 }
                 if (ping()) {
+                    this.hostAndPort = hostAndPort;
+                    NodeCircuitBreaker.onSuccess(hostAndPort);
                     break;
                 }
             } catch (JedisConnectionException e) {
+                NodeCircuitBreaker.onFailure(hostAndPort);
                 // try next nodes
                 close();
+                jedis = null;
             }
         }
+        if (rejected > 0 && rejected == hostAndPortSet.size()) {
+            throw new JedisConnectionException("Circuit open for " + hostAndPortSet + ", retry after "
+                    + NodeCircuitBreaker.getRetryAfter(hostAndPortSet.iterator().next()) + "ms.");
+        }
+        if (jedis == null) {
+            throw new JedisConnectionException("Could not connect to " + hostAndPortSet);
+        }
     }
 
     @Override
@@ -85,6 +110,33 @@ public class RedisClient implements IRedisClient {
         return RedisUtil.parseInfoToMap(jedis.info(section));
     }
 
+    @Override
+    public Map<String, Map<String, String>> getInfoSections(List<String> sections, boolean multiSection) throws Exception {
+        Map<String, Map<String, String>> sectionMap = new LinkedHashMap<>();
+        RedisPipeline pipeline = new RedisPipeline(jedis);
+        List<Object> replies = null;
+        if (multiSection && sections.size() > 1) {
+            replies = pipeline.append(INFO, sections.toArray(new String[0])).sync();
+            if (RedisPipeline.isError(replies.get(0))) {
+                // 低版本不支持多个参数
+                replies = null;
+            }
+        }
+        if (replies == null) {
+            sections.forEach(section -> pipeline.append(INFO, section));
+            replies = pipeline.sync();
+        }
+        for (Object reply : replies) {
+            if (RedisPipeline.isError(reply)) {
+                throw (JedisDataException) reply;
+            }
+            sectionMap.putAll(RedisUtil.parseInfoSections((String) RedisPipeline.decode(reply)));
+        }
+        // 节点没有的 section(如 sentinel 的 memory)返回空
+        sections.forEach(section -> sectionMap.putIfAbsent(section, new LinkedHashMap<>()));
+        return sectionMap;
+    }
+
     @Override
     public Map<String, String> getClusterInfo() throws Exception {
         return RedisUtil.parseInfoToMap(jedis.clusterInfo());
@@ -643,7 +695,9 @@ public class RedisClient implements IRedisClient {
 
     @Override
     public String memoryPurge() {
-        return null;
+        Client client = jedis.getClient();
+        client.sendCommand(RedisPipeline.command("MEMORY"), "PURGE");
+        return client.getStatusCodeReply();
     }
 
     @Override
@@ -689,6 +743,7 @@ public class RedisClient implements IRedisClient {
     @Override
     public void close() {
         try {
+            // 只在建立连接时记录熔断失败：命令读超时、主动断开(结束 MONITOR)不代表节点不可用
             if (jedis != null) {
                 jedis.close();
             }
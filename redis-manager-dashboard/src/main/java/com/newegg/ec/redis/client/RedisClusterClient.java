@@ -26,13 +26,10 @@ public class RedisClusterClient implements IRedisClusterClient {
 
     private JedisCluster jedisCluster;
 
-    private RedisClient redisClient;
-
     public RedisClusterClient(RedisURI redisURI) {
         Set<HostAndPort> hostAndPortSet = redisURI.getHostAndPortSet();
         String redisPassword = redisURI.getRequirePass();
         jedisCluster = new JedisCluster(hostAndPortSet, TIMEOUT, TIMEOUT, MAX_ATTEMPTS, redisPassword, new GenericObjectPoolConfig());
-        redisClient = RedisClientFactory.buildRedisClient(redisURI);
     }
 
     @Override
@@ -232,9 +229,6 @@ public class RedisClusterClient implements IRedisClusterClient {
 
     @Override
     public void close() {
-        if (redisClient != null) {
-            redisClient.close();
-        }
         if (jedisCluster != null) {
             jedisCluster.close();
         }
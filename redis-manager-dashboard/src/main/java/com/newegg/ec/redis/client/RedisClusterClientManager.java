@@ -0,0 +1,201 @@
+package com.newegg.ec.redis.client;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.util.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.exceptions.*;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static javax.management.timer.Timer.ONE_MINUTE;
+
+/**
+ * 每个 cluster 模式的集群缓存一个 RedisClusterClient，数据操作复用 slot 缓存和连接池
+ * <p>
+ * 集群的 nodes 或密码变化时重建；MOVED/ASK 重试耗尽、集群不可达时丢弃，下次使用时重建；
+ * 集群 nodes 更新或集群删除时由 ClusterService 主动失效；长时间未使用的客户端定时关闭
+ * <p>
+ * 客户端按引用计数：getClusterClient 借出后必须 releaseClusterClient 归还，失效的客户端在最后一个使用者归还后才关闭
+ *
+ * @date 2026/10/19
+ */
+@Component
+public class RedisClusterClientManager implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisClusterClientManager.class);
+
+    @Value("${redis-manager.cluster-client.idle-minutes:30}")
+    private int idleMinutes;
+
+    private final Map<Integer, ClientHolder> clientMap = new ConcurrentHashMap<>();
+
+    /**
+     * 借出的客户端 -> holder，用于归还
+     */
+    private final Map<IRedisClusterClient, ClientHolder> leasedMap = new ConcurrentHashMap<>();
+
+    public RedisClusterClientManager() {
+        Metrics.gauge("cluster_clients", "Cached redis cluster clients", clientMap::size);
+    }
+
+    /**
+     * 使用完后必须调用 releaseClusterClient
+     */
+    public IRedisClusterClient getClusterClient(Cluster cluster, RedisNode seedNode) {
+        Integer clusterId = cluster.getClusterId();
+        String fingerprint = fingerprint(cluster);
+        while (true) {
+            ClientHolder holder = clientMap.get(clusterId);
+            if (holder != null && Objects.equals(holder.fingerprint, fingerprint)) {
+                if (holder.acquire()) {
+                    return holder.client;
+                }
+                // 已失效关闭，等待被替换
+                clientMap.remove(clusterId, holder);
+                continue;
+            }
+            // 在锁外建立连接
+            logger.info("Build cluster client, cluster name = " + cluster.getClusterName());
+            ClientHolder newHolder = new ClientHolder(RedisClientFactory.buildRedisClusterClient(seedNode, cluster.getRedisPassword()), fingerprint);
+            leasedMap.put(newHolder.client, newHolder);
+            if (holder == null ? clientMap.putIfAbsent(clusterId, newHolder) == null : clientMap.replace(clusterId, holder, newHolder)) {
+                if (holder != null) {
+                    retire(holder);
+                }
+                newHolder.acquire();
+                return newHolder.client;
+            }
+            // 其他线程已经替换，丢弃本次建立的客户端
+            retire(newHolder);
+        }
+    }
+
+    public void releaseClusterClient(IRedisClusterClient client) {
+        if (client == null) {
+            return;
+        }
+        ClientHolder holder = leasedMap.get(client);
+        if (holder != null) {
+            release(holder);
+        }
+    }
+
+    /**
+     * 重定向风暴、集群不可达等异常说明 slot 缓存已不可信，丢弃客户端
+     *
+     * @param clusterId
+     * @param e
+     */
+    public void handleException(Integer clusterId, Exception e) {
+        if (e instanceof JedisRedirectionException
+                || e instanceof JedisClusterMaxAttemptsException
+                || e instanceof JedisNoReachableClusterNodeException
+                || e instanceof JedisClusterException
+                || e instanceof JedisConnectionException) {
+            logger.warn("Invalidate cluster client, cluster id = " + clusterId + ", " + e.getMessage());
+            invalidate(clusterId);
+        }
+    }
+
+    public void invalidate(Integer clusterId) {
+        if (clusterId == null) {
+            return;
+        }
+        ClientHolder holder = clientMap.remove(clusterId);
+        if (holder != null) {
+            retire(holder);
+        }
+    }
+
+    @Scheduled(cron = "0 0/5 * * * ?")
+    public void evictIdleClients() {
+        long now = System.currentTimeMillis();
+        clientMap.forEach((clusterId, holder) -> {
+            if (now - holder.lastAccess > idleMinutes * ONE_MINUTE && clientMap.remove(clusterId, holder)) {
+                retire(holder);
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        clientMap.clear();
+        leasedMap.values().forEach(ClientHolder::close);
+        leasedMap.clear();
+    }
+
+    /**
+     * 移出缓存后释放缓存持有的引用，正在使用的请求结束后再关闭
+     */
+    private void retire(ClientHolder holder) {
+        release(holder);
+    }
+
+    private void release(ClientHolder holder) {
+        if (holder.release()) {
+            leasedMap.remove(holder.client, holder);
+            holder.close();
+        }
+    }
+
+    private static String fingerprint(Cluster cluster) {
+        return cluster.getRedisMode() + "|" + cluster.getNodes() + "|" + Objects.hashCode(cluster.getRedisPassword());
+    }
+
+    private static class ClientHolder {
+
+        private final IRedisClusterClient client;
+
+        private final String fingerprint;
+
+        private volatile long lastAccess;
+
+        /**
+         * 缓存持有一个引用，每个使用者一个引用；为 0 时已关闭
+         */
+        private final AtomicInteger refCount = new AtomicInteger(1);
+
+        ClientHolder(IRedisClusterClient client, String fingerprint) {
+            this.client = client;
+            this.fingerprint = fingerprint;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        boolean acquire() {
+            while (true) {
+                int count = refCount.get();
+                if (count <= 0) {
+                    return false;
+                }
+                if (refCount.compareAndSet(count, count + 1)) {
+                    lastAccess = System.currentTimeMillis();
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return true if no reference left and the client should be closed
+         */
+        boolean release() {
+            return refCount.decrementAndGet() == 0;
+        }
+
+        void close() {
+            try {
+                client.close();
+            } catch (Exception e) {
+                logger.warn("Close cluster client failed.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.newegg.ec.redis.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.RedisNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static com.newegg.ec.redis.util.RedisUtil.getNodeString;
+
+/**
+ * 对多个节点并行执行同一个操作，每个节点一个连接，整体有一个截止时间
+ * <p>
+ * 超时或失败的节点不出现在结果中，调用方通过结果数量判断是否完整
+ *
+ * @date 2026/10/19
+ */
+@Component
+public class RedisNodeFanOut implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisNodeFanOut.class);
+
+    @Value("${redis-manager.fan-out.threads:16}")
+    private int threads;
+
+    @Value("${redis-manager.fan-out.timeout-millis:5000}")
+    private long defaultTimeout;
+
+    private ExecutorService threadPool;
+
+    @FunctionalInterface
+    public interface NodeCall<T> {
+
+        T call(RedisClient redisClient) throws Exception;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        if (threadPool != null) {
+            return;
+        }
+        threadPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("redis-fan-out-pool-thread-%d").setDaemon(true).build());
+    }
+
+    public <T> Map<RedisNode, T> execute(List<RedisNode> redisNodeList, String redisPassword, NodeCall<T> nodeCall) {
+        return execute(redisNodeList, redisPassword, nodeCall, defaultTimeout);
+    }
+
+    /**
+     * @param redisNodeList
+     * @param redisPassword
+     * @param nodeCall
+     * @param timeoutMillis 所有节点的截止时间
+     * @return node -> result, 保持 redisNodeList 的顺序
+     */
+    public <T> Map<RedisNode, T> execute(List<RedisNode> redisNodeList, String redisPassword, NodeCall<T> nodeCall, long timeoutMillis) {
+        Map<RedisNode, T> resultMap = new LinkedHashMap<>();
+        if (redisNodeList == null || redisNodeList.isEmpty()) {
+            return resultMap;
+        }
+        List<Callable<T>> taskList = new ArrayList<>(redisNodeList.size());
+        redisNodeList.forEach(redisNode -> taskList.add(() -> {
+            RedisClient redisClient = null;
+            try {
+                redisClient = RedisClientFactory.buildRedisClient(redisNode, redisPassword);
+                return nodeCall.call(redisClient);
+            } finally {
+                if (redisClient != null) {
+                    redisClient.close();
+                }
+            }
+        }));
+        List<Future<T>> futureList;
+        try {
+            futureList = threadPool.invokeAll(taskList, timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return resultMap;
+        }
+        for (int i = 0; i < futureList.size(); i++) {
+            RedisNode redisNode = redisNodeList.get(i);
+            Future<T> future = futureList.get(i);
+            try {
+                T result = future.get();
+                if (result != null) {
+                    resultMap.put(redisNode, result);
+                }
+            } catch (CancellationException e) {
+                logger.warn("Request timeout, redis node = " + getNodeString(redisNode) + ", timeout = " + timeoutMillis + "ms");
+            } catch (ExecutionException e) {
+                logger.error("Request failed, redis node = " + getNodeString(redisNode), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return resultMap;
+    }
+}
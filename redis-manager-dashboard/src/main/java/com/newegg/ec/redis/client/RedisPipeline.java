@@ -0,0 +1,117 @@
+package com.newegg.ec.redis.client;
+
+import redis.clients.jedis.Client;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.commands.ProtocolCommand;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在一个连接上批量发送命令，一次 flush，一次读取全部回复
+ * <p>
+ * 回复保持 Jedis 原始类型(byte[], Long, List)，错误回复以 JedisDataException 对象的形式放在对应位置，
+ * 不会中断后续命令的读取
+ *
+ * @date 2026/10/19
+ */
+public class RedisPipeline {
+
+    private static final Map<String, ProtocolCommand> COMMAND_CACHE = new ConcurrentHashMap<>();
+
+    private Client client;
+
+    private int pending;
+
+    public RedisPipeline(Jedis jedis) {
+        this.client = jedis.getClient();
+    }
+
+    public static ProtocolCommand command(String command) {
+        return COMMAND_CACHE.computeIfAbsent(command.toUpperCase(), name -> {
+            byte[] raw = SafeEncoder.encode(name);
+            return () -> raw;
+        });
+    }
+
+    public RedisPipeline append(String command, String... args) {
+        client.sendCommand(command(command), args);
+        pending++;
+        return this;
+    }
+
+    public RedisPipeline append(String command, byte[]... args) {
+        client.sendCommand(command(command), args);
+        pending++;
+        return this;
+    }
+
+    public int size() {
+        return pending;
+    }
+
+    /**
+     * Flush and read all replies
+     *
+     * @return raw replies, one per command
+     */
+    public List<Object> sync() {
+        if (pending == 0) {
+            return Collections.emptyList();
+        }
+        int count = pending;
+        pending = 0;
+        return client.getMany(count);
+    }
+
+    /**
+     * Flush and read all replies, decode bulk replies to string
+     *
+     * @return
+     */
+    public List<Object> syncAndDecode() {
+        List<Object> replies = sync();
+        List<Object> decoded = new ArrayList<>(replies.size());
+        for (Object reply : replies) {
+            decoded.add(decode(reply));
+        }
+        return decoded;
+    }
+
+    public static boolean isError(Object reply) {
+        return reply instanceof JedisDataException;
+    }
+
+    public static Object decode(Object reply) {
+        if (reply instanceof byte[]) {
+            return SafeEncoder.encode((byte[]) reply);
+        }
+        if (reply instanceof List) {
+            List<?> list = (List<?>) reply;
+            List<Object> decoded = new ArrayList<>(list.size());
+            for (Object item : list) {
+                decoded.add(decode(item));
+            }
+            return decoded;
+        }
+        if (reply instanceof JedisDataException) {
+            return ((JedisDataException) reply).getMessage();
+        }
+        return reply;
+    }
+
+    public static long toLong(Object reply) {
+        if (reply instanceof Long) {
+            return (Long) reply;
+        }
+        if (reply instanceof byte[]) {
+            return Long.parseLong(SafeEncoder.encode((byte[]) reply));
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,322 @@
+package com.newegg.ec.redis.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.NodeRole;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.util.SlotMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import static com.newegg.ec.redis.client.RedisClient.REPLICATION;
+import static com.newegg.ec.redis.util.RedisNodeInfoUtil.CONNECTED_SLAVES;
+import static com.newegg.ec.redis.util.RedisNodeInfoUtil.ROLE;
+import static com.newegg.ec.redis.util.RedisUtil.*;
+import static javax.management.timer.Timer.ONE_MINUTE;
+import static javax.management.timer.Timer.ONE_SECOND;
+
+/**
+ * 每个集群缓存一份节点拓扑快照，后台每 10 秒检测一次变化
+ * <p>
+ * cluster 模式比较 CLUSTER INFO 中的 epoch、节点数和槽位状态，standalone 模式比较 INFO replication 中的角色和从节点列表，
+ * 只有发生变化或超过 max-age 时才重新执行 CLUSTER NODES；快照不可变，读取方拿到的是同一时刻的完整视图
+ *
+ * @date 2026/10/19
+ */
+@Component
+public class RedisTopologyCache implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTopologyCache.class);
+
+    /**
+     * 拓扑变化会影响这些字段，不包含随时间变化的计数
+     */
+    private static final List<String> CLUSTER_SIGNATURE_KEYS = Arrays.asList(
+            "cluster_state", "cluster_slots_assigned", "cluster_slots_ok", "cluster_slots_pfail", "cluster_slots_fail",
+            "cluster_known_nodes", "cluster_size", "cluster_current_epoch", "cluster_my_epoch");
+
+    /**
+     * slave0:ip=127.0.0.1,port=8801,state=online,offset=1234,lag=0
+     */
+    private static final Pattern SLAVE_KEY_PATTERN = Pattern.compile("slave\\d+");
+
+    @Value("${redis-manager.topology.max-age-seconds:60}")
+    private int maxAgeSeconds;
+
+    @Value("${redis-manager.topology.idle-minutes:30}")
+    private int idleMinutes;
+
+    private ExecutorService threadPool;
+
+    private final Map<Integer, SnapshotHolder> snapshotMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        if (threadPool != null) {
+            return;
+        }
+        threadPool = new ThreadPoolExecutor(2, 4, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("redis-topology-pool-thread-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 返回缓存的快照，不存在或集群的 nodes/mode/password 变化时同步构建
+     * <p>
+     * 在 map 之外访问 redis，并发构建同一集群时保留先放入的快照
+     *
+     * @param cluster
+     * @return null if get nodes failed
+     */
+    public TopologySnapshot getSnapshot(Cluster cluster) {
+        String clusterKey = clusterKey(cluster);
+        SnapshotHolder holder = snapshotMap.get(cluster.getClusterId());
+        if (holder == null || !Objects.equals(holder.clusterKey, clusterKey)) {
+            TopologySnapshot snapshot = load(cluster);
+            if (snapshot == null) {
+                return null;
+            }
+            holder = snapshotMap.merge(cluster.getClusterId(), new SnapshotHolder(clusterKey, cluster, snapshot),
+                    (old, value) -> Objects.equals(old.clusterKey, clusterKey) ? old : value);
+        }
+        holder.lastAccess = System.currentTimeMillis();
+        return holder.snapshot;
+    }
+
+    /**
+     * 拓扑操作(meet/forget/replicate/failover/slots)之后调用，下次读取时重新构建
+     *
+     * @param clusterId
+     */
+    public void invalidate(Integer clusterId) {
+        if (clusterId != null) {
+            snapshotMap.remove(clusterId);
+        }
+    }
+
+    @Scheduled(cron = "0/10 * * * * ?")
+    public void refresh() {
+        if (threadPool == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        snapshotMap.forEach((clusterId, holder) -> {
+            if (now - holder.lastAccess > idleMinutes * ONE_MINUTE) {
+                snapshotMap.remove(clusterId, holder);
+                return;
+            }
+            if (holder.refreshing.compareAndSet(false, true)) {
+                threadPool.submit(() -> {
+                    try {
+                        refresh(clusterId, holder);
+                    } finally {
+                        holder.refreshing.set(false);
+                    }
+                });
+            }
+        });
+    }
+
+    private void refresh(Integer clusterId, SnapshotHolder holder) {
+        Cluster cluster = holder.cluster;
+        TopologySnapshot snapshot = holder.snapshot;
+        String signature = probe(cluster);
+        boolean expired = System.currentTimeMillis() - snapshot.createTime > maxAgeSeconds * ONE_SECOND;
+        if (signature != null && Objects.equals(signature, snapshot.signature) && !expired) {
+            return;
+        }
+        TopologySnapshot newSnapshot = load(cluster);
+        if (newSnapshot == null) {
+            // 拿不到拓扑时不再返回旧数据
+            snapshotMap.remove(clusterId, holder);
+            return;
+        }
+        if (!expired) {
+            logger.info("Topology changed, cluster name = " + cluster.getClusterName());
+        }
+        snapshotMap.replace(clusterId, holder, new SnapshotHolder(holder.clusterKey, cluster, newSnapshot, holder.lastAccess));
+    }
+
+    /**
+     * 构建快照，签名与 CLUSTER NODES 使用同一个连接，签名先获取，若中途发生变化下一次检测会重建
+     *
+     * @param cluster
+     * @return null if failed
+     */
+    public TopologySnapshot load(Cluster cluster) {
+        String redisMode = cluster.getRedisMode();
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(new RedisURI(cluster.getNodes(), cluster.getRedisPassword()));
+            String signature = signature(redisMode, redisClient);
+            List<RedisNode> nodeList = new ArrayList<>();
+            if (STANDALONE.equalsIgnoreCase(redisMode)) {
+                nodeList = redisClient.nodes();
+            } else if (CLUSTER.equalsIgnoreCase(redisMode)) {
+                nodeList = redisClient.clusterNodes();
+            } else if (SENTINEL.equalsIgnoreCase(redisMode)) {
+                nodeList = redisClient.sentinelNodes(nodesToHostAndPortSet(cluster.getNodes()));
+            }
+            nodeList.forEach(redisNode -> redisNode.setClusterId(cluster.getClusterId()));
+            return new TopologySnapshot(cluster.getClusterId(), signature, nodeList, CLUSTER.equalsIgnoreCase(redisMode));
+        } catch (Exception e) {
+            logger.error("Get redis node list failed, " + cluster.getClusterName(), e);
+            return null;
+        } finally {
+            if (redisClient != null) {
+                redisClient.close();
+            }
+        }
+    }
+
+    /**
+     * 获取拓扑签名，sentinel 模式没有廉价的签名，返回空字符串，只按 max-age 重建
+     *
+     * @param cluster
+     * @return null if failed
+     */
+    private String probe(Cluster cluster) {
+        String redisMode = cluster.getRedisMode();
+        if (!CLUSTER.equalsIgnoreCase(redisMode) && !STANDALONE.equalsIgnoreCase(redisMode)) {
+            return "";
+        }
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(new RedisURI(cluster.getNodes(), cluster.getRedisPassword()));
+            return signature(redisMode, redisClient);
+        } catch (Exception e) {
+            logger.warn("Probe topology failed, cluster name = " + cluster.getClusterName() + ", " + e.getMessage());
+            return null;
+        } finally {
+            if (redisClient != null) {
+                redisClient.close();
+            }
+        }
+    }
+
+    private static String signature(String redisMode, RedisClient redisClient) throws Exception {
+        StringBuilder signature = new StringBuilder();
+        if (CLUSTER.equalsIgnoreCase(redisMode)) {
+            Map<String, String> clusterInfo = redisClient.getClusterInfo();
+            CLUSTER_SIGNATURE_KEYS.forEach(key -> signature.append(clusterInfo.get(key)).append('|'));
+        } else if (STANDALONE.equalsIgnoreCase(redisMode)) {
+            // 只取角色和从节点地址，offset 每次写入都会变化
+            Map<String, String> replication = redisClient.getInfo(REPLICATION);
+            signature.append(replication.get(ROLE)).append('|')
+                    .append(replication.get(MASTER_HOST)).append(':').append(replication.get(MASTER_PORT)).append('|')
+                    .append(replication.get(CONNECTED_SLAVES));
+            new TreeMap<>(replication).forEach((key, value) -> {
+                if (SLAVE_KEY_PATTERN.matcher(key).matches()) {
+                    signature.append('|').append(slaveAddress(value));
+                }
+            });
+        }
+        return signature.toString();
+    }
+
+    /**
+     * ip=127.0.0.1,port=8801,state=online,offset=1234,lag=0 => ip=127.0.0.1,port=8801,state=online
+     */
+    private static String slaveAddress(String value) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (String item : value.split(",")) {
+            if (!item.startsWith("offset=") && !item.startsWith("lag=")) {
+                joiner.add(item);
+            }
+        }
+        return joiner.toString();
+    }
+
+    private static String clusterKey(Cluster cluster) {
+        return cluster.getRedisMode() + "|" + cluster.getNodes() + "|" + Objects.hashCode(cluster.getRedisPassword());
+    }
+
+    private static class SnapshotHolder {
+
+        private final String clusterKey;
+
+        private final Cluster cluster;
+
+        private final TopologySnapshot snapshot;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private volatile long lastAccess;
+
+        SnapshotHolder(String clusterKey, Cluster cluster, TopologySnapshot snapshot) {
+            this(clusterKey, cluster, snapshot, System.currentTimeMillis());
+        }
+
+        SnapshotHolder(String clusterKey, Cluster cluster, TopologySnapshot snapshot, long lastAccess) {
+            this.clusterKey = clusterKey;
+            this.cluster = cluster;
+            this.snapshot = snapshot;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * 不可变的拓扑快照，节点对象在快照之间不共享，读取方不要修改
+     */
+    public static class TopologySnapshot {
+
+        private final Integer clusterId;
+
+        private final String signature;
+
+        private final List<RedisNode> nodeList;
+
+        private final List<RedisNode> masterNodeList;
+
+        private final SlotMap slotMap;
+
+        private final long createTime = System.currentTimeMillis();
+
+        TopologySnapshot(Integer clusterId, String signature, List<RedisNode> nodeList, boolean clusterMode) {
+            this.clusterId = clusterId;
+            this.signature = signature;
+            this.nodeList = Collections.unmodifiableList(new ArrayList<>(nodeList));
+            List<RedisNode> masterList = new ArrayList<>();
+            nodeList.forEach(redisNode -> {
+                if (Objects.equals(NodeRole.MASTER, redisNode.getNodeRole())) {
+                    masterList.add(redisNode);
+                }
+            });
+            this.masterNodeList = Collections.unmodifiableList(masterList);
+            this.slotMap = clusterMode ? SlotMap.fromClusterNodes(masterList) : null;
+        }
+
+        public Integer getClusterId() {
+            return clusterId;
+        }
+
+        public List<RedisNode> getNodeList() {
+            return nodeList;
+        }
+
+        public List<RedisNode> getMasterNodeList() {
+            return masterNodeList;
+        }
+
+        /**
+         * @return null if not cluster mode
+         */
+        public SlotMap getSlotMap() {
+            return slotMap;
+        }
+
+        public long getCreateTime() {
+            return createTime;
+        }
+    }
+}
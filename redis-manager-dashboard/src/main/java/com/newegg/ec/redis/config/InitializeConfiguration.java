@@ -1,6 +1,7 @@
 package com.newegg.ec.redis.config;
 
 import com.newegg.ec.redis.dao.*;
+import com.newegg.ec.redis.entity.Cluster;
 import com.newegg.ec.redis.entity.Group;
 import com.newegg.ec.redis.entity.User;
 import com.newegg.ec.redis.plugin.alert.dao.IAlertChannelDao;
@@ -55,6 +56,24 @@ public class InitializeConfiguration implements ApplicationListener<ContextRefre
     @Autowired
     private ISentinelMastersDao sentinelMastersDao;
 
+    @Autowired
+    private ISlowLogDao slowLogDao;
+
+    @Autowired
+    private ICommandStatsDao commandStatsDao;
+
+    @Autowired
+    private IConfigSnapshotDao configSnapshotDao;
+
+    @Autowired
+    private IMachineInfoDao machineInfoDao;
+
+    @Autowired
+    private INodeInfoDao nodeInfoDao;
+
+    @Value("${spring.datasource.database}")
+    private String database;
+
     @Value("${redis-manager.auth.user-name:admin}")
     private String userName;
 
@@ -64,6 +83,7 @@ public class InitializeConfiguration implements ApplicationListener<ContextRefre
     @Override
     public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
         createTables();
+        upgradeTables();
         initDefaultAuth();
     }
 
@@ -79,6 +99,29 @@ public class InitializeConfiguration implements ApplicationListener<ContextRefre
         redisNodeDao.createRedisNodeTable();
         operationLogDao.createLogTable();
         sentinelMastersDao.createSentinelMastersTable();
+        slowLogDao.createSlowLogTable();
+        slowLogDao.createSlowLogStatTable();
+        commandStatsDao.createCommandStatsTable();
+        commandStatsDao.createCommandStatsHourTable();
+        configSnapshotDao.createConfigSnapshotTable();
+        configSnapshotDao.createConfigContentTable();
+        configSnapshotDao.createConfigBaselineTable();
+        machineInfoDao.createMachineInfoTable();
+    }
+
+    /**
+     * 为旧版本创建的表补充新增的列
+     */
+    private void upgradeTables() {
+        List<Cluster> clusterList = clusterDao.selectAllCluster();
+        for (Cluster cluster : clusterList) {
+            Integer clusterId = cluster.getClusterId();
+            String tableName = "node_info_" + clusterId;
+            if (nodeInfoDao.existNodeInfoTable(database, tableName) > 0
+                    && nodeInfoDao.existColumn(database, tableName, "response_time_p50") == 0) {
+                nodeInfoDao.addResponseTimeColumns(clusterId);
+            }
+        }
     }
 
     @Transactional
@@ -0,0 +1,46 @@
+package com.newegg.ec.redis.controller;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.Result;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyParam;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyReport;
+import com.newegg.ec.redis.plugin.analysis.service.IHotKeyAnalysis;
+import com.newegg.ec.redis.service.IClusterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import static com.newegg.ec.redis.util.RedisUtil.SENTINEL;
+
+/**
+ * @date 2026/10/19
+ */
+@RequestMapping("/analysis/*")
+@Controller
+public class AnalysisController {
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private IHotKeyAnalysis hotKeyAnalysis;
+
+    @RequestMapping(value = "/hotKey", method = RequestMethod.POST)
+    @ResponseBody
+    public Result hotKey(@RequestBody HotKeyParam hotKeyParam) {
+        Cluster cluster = clusterService.getClusterById(hotKeyParam.getClusterId());
+        if (cluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        if (SENTINEL.equalsIgnoreCase(cluster.getRedisMode())) {
+            return Result.failResult().setMessage("Sentinel mode not support.");
+        }
+        HotKeyReport hotKeyReport = hotKeyAnalysis.analyze(cluster, hotKeyParam);
+        return hotKeyReport != null ? Result.successResult(hotKeyReport)
+                : Result.failResult().setMessage("Hot key analysis failed or another analysis is running.");
+    }
+
+}
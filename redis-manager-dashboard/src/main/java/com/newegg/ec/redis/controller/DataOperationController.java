@@ -1,7 +1,12 @@
 package com.newegg.ec.redis.controller;
 
 import com.alibaba.fastjson.JSONObject;
+import com.google.common.base.Strings;
 import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.job.BulkKeyOperationJob;
+import com.newegg.ec.redis.job.AbstractJob;
+import com.newegg.ec.redis.job.JobManager;
+import com.newegg.ec.redis.job.MigrationJob;
 import com.newegg.ec.redis.service.IClusterService;
 import com.newegg.ec.redis.service.IRedisService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +15,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
 
+import static com.newegg.ec.redis.entity.BulkOperationParam.*;
+import static com.newegg.ec.redis.util.RedisUtil.CLUSTER;
+
 /**
  * @author Jay.H.Zou
  * @date 9/26/2019
@@ -24,6 +32,9 @@ public class DataOperationController {
     @Autowired
     private IRedisService redisService;
 
+    @Autowired
+    private JobManager jobManager;
+
     @RequestMapping(value = "/getDBList/{clusterId}", method = RequestMethod.GET)
     @ResponseBody
     public Result getDBList(@PathVariable("clusterId") Integer clusterId) {
@@ -79,4 +90,119 @@ public class DataOperationController {
         return Result.successResult(console);
     }
 
+    /**
+     * 批量执行 console 中粘贴的多行命令，同一节点上的命令一次往返
+     *
+     * @param dataCommandsParam
+     * @return
+     */
+    @RequestMapping(value = "/sendCommands", method = RequestMethod.POST)
+    @ResponseBody
+    public Result sendCommands(@RequestBody DataCommandsParam dataCommandsParam) {
+        if (Strings.isNullOrEmpty(dataCommandsParam.getCommand())) {
+            return Result.failResult().setMessage("Command is empty.");
+        }
+        Cluster cluster = clusterService.getClusterById(dataCommandsParam.getClusterId());
+        if (cluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        try {
+            List<CommandResult> commandResultList = redisService.consoleBatch(cluster, dataCommandsParam);
+            return commandResultList != null ? Result.successResult(commandResultList)
+                    : Result.failResult().setMessage("Too many commands or get master node list failed.");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Result.failResult().setMessage(e.getMessage());
+        }
+    }
+
+    /**
+     * 按 pattern 批量 UNLINK / EXPIRE / PERSIST，返回 jobId，通过 /job/getJob/{jobId} 查看进度
+     *
+     * @param bulkOperationParam
+     * @return
+     */
+    @RequestMapping(value = "/bulkOperation", method = RequestMethod.POST)
+    @ResponseBody
+    public Result bulkOperation(@RequestBody BulkOperationParam bulkOperationParam) {
+        String action = bulkOperationParam.getAction();
+        if (Strings.isNullOrEmpty(bulkOperationParam.getPattern())
+                || !Objects.equals(UNLINK, action) && !Objects.equals(EXPIRE, action) && !Objects.equals(PERSIST, action)) {
+            return Result.failResult().setMessage("Pattern is empty or action not support.");
+        }
+        if (Objects.equals(EXPIRE, action) && bulkOperationParam.getSeconds() <= 0) {
+            return Result.failResult().setMessage("Expire seconds must be positive.");
+        }
+        if (bulkOperationParam.getBatchSize() <= 0 || bulkOperationParam.getOpsPerSecond() <= 0) {
+            return Result.failResult().setMessage("Batch size and ops/sec must be positive.");
+        }
+        Cluster cluster = clusterService.getClusterById(bulkOperationParam.getClusterId());
+        if (cluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        if (jobManager.isRunning(cluster.getClusterId(), BulkKeyOperationJob.JOB_TYPE)) {
+            return Result.failResult().setMessage("Another bulk operation is running.");
+        }
+        List<RedisNode> masterNodeList = redisService.getRedisMasterNodeList(cluster);
+        if (masterNodeList == null || masterNodeList.isEmpty()) {
+            return Result.failResult().setMessage("Get master node list failed.");
+        }
+        String jobId = jobManager.submit(new BulkKeyOperationJob(cluster, masterNodeList, bulkOperationParam));
+        return Result.successResult(jobId);
+    }
+
+    /**
+     * 把源集群的数据迁移到目标集群，返回 jobId
+     * <p>
+     * 指定 resumeJobId 时从该任务各分片的检查点继续；检查点只在内存中，任务结束一小时后或服务重启后不能继续
+     *
+     * @param migrationParam
+     * @return
+     */
+    @RequestMapping(value = "/migrate", method = RequestMethod.POST)
+    @ResponseBody
+    public Result migrate(@RequestBody MigrationParam migrationParam) {
+        if (Objects.equals(migrationParam.getSourceClusterId(), migrationParam.getTargetClusterId())) {
+            return Result.failResult().setMessage("Source and target cluster can't be the same.");
+        }
+        if (migrationParam.getBatchSize() <= 0 || migrationParam.getOpsPerSecond() < 0) {
+            return Result.failResult().setMessage("Batch size must be positive.");
+        }
+        Cluster sourceCluster = clusterService.getClusterById(migrationParam.getSourceClusterId());
+        Cluster targetCluster = clusterService.getClusterById(migrationParam.getTargetClusterId());
+        if (sourceCluster == null || targetCluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        if (Objects.equals(CLUSTER, targetCluster.getRedisMode()) && migrationParam.getTargetDatabase() != 0) {
+            return Result.failResult().setMessage("Cluster mode only support database 0.");
+        }
+        if (jobManager.isRunning(sourceCluster.getClusterId(), MigrationJob.JOB_TYPE)) {
+            return Result.failResult().setMessage("Another migration is running.");
+        }
+        MigrationJob previousJob = null;
+        if (!Strings.isNullOrEmpty(migrationParam.getResumeJobId())) {
+            AbstractJob job = jobManager.getJob(migrationParam.getResumeJobId());
+            if (!(job instanceof MigrationJob) || !job.isFinished()
+                    || Objects.equals(AbstractJob.JobStatus.SUCCESS, job.getStatus())) {
+                return Result.failResult().setMessage("Resume job not exist, not finished or already succeeded.");
+            }
+            previousJob = (MigrationJob) job;
+            if (!Objects.equals(previousJob.getSourceClusterId(), sourceCluster.getClusterId())
+                    || !Objects.equals(previousJob.getTargetClusterId(), targetCluster.getClusterId())) {
+                return Result.failResult().setMessage("Resume job has different source or target cluster.");
+            }
+        }
+        List<RedisNode> sourceMasterList = redisService.getRedisMasterNodeList(sourceCluster);
+        List<RedisNode> targetMasterList = redisService.getRedisMasterNodeList(targetCluster);
+        if (sourceMasterList == null || sourceMasterList.isEmpty() || targetMasterList == null || targetMasterList.isEmpty()) {
+            return Result.failResult().setMessage("Get master node list failed.");
+        }
+        try {
+            MigrationJob migrationJob = new MigrationJob(sourceCluster, sourceMasterList, targetCluster, targetMasterList,
+                    migrationParam, previousJob);
+            return Result.successResult(jobManager.submit(migrationJob));
+        } catch (IllegalStateException e) {
+            return Result.failResult().setMessage(e.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,46 @@
+package com.newegg.ec.redis.controller;
+
+import com.newegg.ec.redis.entity.Result;
+import com.newegg.ec.redis.job.AbstractJob;
+import com.newegg.ec.redis.job.JobManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+
+/**
+ * @date 2026/10/19
+ */
+@RequestMapping("/job/*")
+@Controller
+public class JobController {
+
+    @Autowired
+    private JobManager jobManager;
+
+    @RequestMapping(value = "/getJob/{jobId}", method = RequestMethod.GET)
+    @ResponseBody
+    public Result getJob(@PathVariable("jobId") String jobId) {
+        AbstractJob job = jobManager.getJob(jobId);
+        return job != null ? Result.successResult(job) : Result.failResult().setMessage("Job not exist.");
+    }
+
+    @RequestMapping(value = "/getJobList/{clusterId}", method = RequestMethod.GET)
+    @ResponseBody
+    public Result getJobList(@PathVariable("clusterId") Integer clusterId) {
+        List<AbstractJob> jobList = jobManager.getJobList(clusterId);
+        return Result.successResult(jobList);
+    }
+
+    @RequestMapping(value = "/cancel/{jobId}", method = RequestMethod.POST)
+    @ResponseBody
+    public Result cancel(@PathVariable("jobId") String jobId) {
+        boolean result = jobManager.cancel(jobId);
+        return result ? Result.successResult() : Result.failResult().setMessage("Job not exist or finished.");
+    }
+
+}
@@ -10,7 +10,7 @@ import com.newegg.ec.redis.entity.OperationObjectType;
 import com.newegg.ec.redis.entity.OperationType;
 import com.newegg.ec.redis.entity.Result;
 import com.newegg.ec.redis.service.IMachineService;
-import com.newegg.ec.redis.util.SSH2Util;
+import com.newegg.ec.redis.util.LinuxInfoUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
@@ -107,7 +107,7 @@ public class MachineController {
     @ResponseBody
     public Result validateHost(@RequestBody Machine machine) {
         try {
-            SSH2Util.getConnection(machine);
+            LinuxInfoUtil.login(machine);
         } catch (Exception e) {
             return Result.failResult().setMessage("Connection refused");
         }
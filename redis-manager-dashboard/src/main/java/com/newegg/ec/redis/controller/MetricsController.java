@@ -0,0 +1,49 @@
+package com.newegg.ec.redis.controller;
+
+import com.google.common.base.Strings;
+import com.newegg.ec.redis.util.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 自身运行指标，Prometheus 抓取使用，不经过登录拦截，需要 Authorization: Bearer token；未配置 token 时不开放
+ *
+ * @date 2026/10/19
+ */
+@Controller
+public class MetricsController {
+
+    private static final String BEARER = "Bearer ";
+
+    @Value("${redis-manager.metrics.enabled:false}")
+    private boolean enabled;
+
+    @Value("${redis-manager.metrics.token:}")
+    private String token;
+
+    @RequestMapping(value = "/metrics", method = RequestMethod.GET)
+    public ResponseEntity<String> metrics(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!enabled || Strings.isNullOrEmpty(token)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        String actual = authorization.substring(BEARER.length()).trim();
+        if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), actual.getBytes(StandardCharsets.UTF_8))) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, Metrics.CONTENT_TYPE)
+                .body(Metrics.scrape());
+    }
+}
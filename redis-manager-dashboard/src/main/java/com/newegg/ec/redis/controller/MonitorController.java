@@ -6,8 +6,11 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 import com.newegg.ec.redis.entity.*;
 import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.ICommandStatsService;
+import com.newegg.ec.redis.service.IMachineInfoService;
 import com.newegg.ec.redis.service.INodeInfoService;
 import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.service.ISlowLogService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -36,6 +39,15 @@ public class MonitorController {
     @Autowired
     private IClusterService clusterService;
 
+    @Autowired
+    private ISlowLogService slowLogService;
+
+    @Autowired
+    private ICommandStatsService commandStatsService;
+
+    @Autowired
+    private IMachineInfoService machineInfoService;
+
     @RequestMapping(value = "/getInfoItemMonitorData", method = RequestMethod.POST)
     @ResponseBody
     public Result getInfoItemMonitorData(@RequestBody NodeInfoParam nodeInfoParam) {
@@ -88,4 +100,67 @@ public class MonitorController {
         return Result.successResult(redisSlowLog);
     }
 
+    /**
+     * 已采集的慢日志明细
+     */
+    @RequestMapping(value = "/getSlowLogHistory", method = RequestMethod.POST)
+    @ResponseBody
+    public Result getSlowLogHistory(@RequestBody SlowLogParam slowLogParam) {
+        if (slowLogParam.getClusterId() == null) {
+            return Result.failResult();
+        }
+        List<SlowLogRecord> slowLogRecordList = slowLogService.getSlowLogList(slowLogParam);
+        return slowLogRecordList != null ? Result.successResult(slowLogRecordList) : Result.failResult();
+    }
+
+    /**
+     * 按命令指纹汇总的 Top N 慢日志
+     */
+    @RequestMapping(value = "/getTopSlowLog", method = RequestMethod.POST)
+    @ResponseBody
+    public Result getTopSlowLog(@RequestBody SlowLogParam slowLogParam) {
+        if (slowLogParam.getClusterId() == null) {
+            return Result.failResult();
+        }
+        List<SlowLogStat> slowLogStatList = slowLogService.getTopSlowLogStat(slowLogParam);
+        return slowLogStatList != null ? Result.successResult(slowLogStatList) : Result.failResult();
+    }
+
+    /**
+     * 指定命令的每分钟调用次数与耗时，不指定节点时为集群汇总
+     */
+    @RequestMapping(value = "/getCommandStatsSeries", method = RequestMethod.POST)
+    @ResponseBody
+    public Result getCommandStatsSeries(@RequestBody CommandStatsParam commandStatsParam) {
+        if (commandStatsParam.getClusterId() == null || commandStatsParam.getStartTime() == null
+                || commandStatsParam.getEndTime() == null) {
+            return Result.failResult();
+        }
+        List<CommandStats> commandStatsList = commandStatsService.getCommandStatsSeries(commandStatsParam);
+        return commandStatsList != null ? Result.successResult(commandStatsList) : Result.failResult();
+    }
+
+    /**
+     * 按调用次数或耗时排序的 Top N 命令
+     */
+    @RequestMapping(value = "/getTopCommands", method = RequestMethod.POST)
+    @ResponseBody
+    public Result getTopCommands(@RequestBody CommandStatsParam commandStatsParam) {
+        if (commandStatsParam.getClusterId() == null) {
+            return Result.failResult();
+        }
+        List<CommandStats> commandStatsList = commandStatsService.getTopCommandStats(commandStatsParam);
+        return commandStatsList != null ? Result.successResult(commandStatsList) : Result.failResult();
+    }
+
+    /**
+     * 机器指标，指定 clusterId 时返回集群节点所在机器的数据，便于与节点指标对照
+     */
+    @RequestMapping(value = "/getMachineInfoList", method = RequestMethod.POST)
+    @ResponseBody
+    public Result getMachineInfoList(@RequestBody MachineInfoParam machineInfoParam) {
+        List<MachineInfo> machineInfoList = machineInfoService.getMachineInfoList(machineInfoParam);
+        return machineInfoList != null ? Result.successResult(machineInfoList) : Result.failResult();
+    }
+
 }
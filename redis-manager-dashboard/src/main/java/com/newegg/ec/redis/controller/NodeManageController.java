@@ -5,10 +5,16 @@ import com.google.common.base.Strings;
 import com.newegg.ec.redis.aop.annotation.OperationLog;
 import com.newegg.ec.redis.client.RedisClient;
 import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisNodeFanOut;
 import com.newegg.ec.redis.entity.*;
-import com.newegg.ec.redis.plugin.install.service.AbstractNodeOperation;
+import com.newegg.ec.redis.job.AbstractJob;
+import com.newegg.ec.redis.job.JobManager;
+import com.newegg.ec.redis.job.SlotMigrationJob;
 import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.IConfigSnapshotService;
 import com.newegg.ec.redis.service.IMachineService;
+import com.newegg.ec.redis.service.INodeOperationService;
+import com.newegg.ec.redis.service.IRebalanceService;
 import com.newegg.ec.redis.service.IRedisNodeService;
 import com.newegg.ec.redis.service.IRedisService;
 import com.newegg.ec.redis.util.*;
@@ -23,7 +29,7 @@ import java.util.*;
 
 import static com.newegg.ec.redis.util.RedisConfigUtil.*;
 import static com.newegg.ec.redis.util.RedisUtil.CLUSTER;
-import static com.newegg.ec.redis.util.TimeUtil.TEN_SECONDS;
+import static javax.management.timer.Timer.ONE_MINUTE;
 
 /**
  * @author Jay.H.Zou
@@ -47,6 +53,21 @@ public class NodeManageController {
     @Autowired
     private IMachineService machineService;
 
+    @Autowired
+    private JobManager jobManager;
+
+    @Autowired
+    private IRebalanceService rebalanceService;
+
+    @Autowired
+    private IConfigSnapshotService configSnapshotService;
+
+    @Autowired
+    private RedisNodeFanOut redisNodeFanOut;
+
+    @Autowired
+    private INodeOperationService nodeOperationService;
+
     /**
      * 在此处理 node 之间的关系
      * 设置 inCluster, runStatus
@@ -120,19 +141,38 @@ public class NodeManageController {
         Cluster cluster = jsonObject.getObject("cluster", Cluster.class);
         String configKey = jsonObject.getString("configKey");
         List<RedisNode> redisNodeList = redisService.getRedisNodeList(cluster);
+        Map<RedisNode, Map<String, String>> configMap = redisNodeFanOut.execute(redisNodeList, cluster.getRedisPassword(),
+                redisClient -> redisClient.getConfig(configKey));
         List<JSONObject> configList = new ArrayList<>();
         redisNodeList.forEach(redisNode -> {
-            Map<String, String> configMap = redisService.getConfig(redisNode, cluster.getRedisPassword(), configKey);
             JSONObject config = new JSONObject();
             config.put("redisNode", RedisUtil.getNodeString(redisNode));
-            if (configMap != null) {
-                config.put("configValue", configMap.get(configKey));
+            Map<String, String> nodeConfigMap = configMap.get(redisNode);
+            if (nodeConfigMap != null) {
+                config.put("configValue", nodeConfigMap.get(configKey));
             }
             configList.add(config);
         });
         return Result.successResult(configList);
     }
 
+    @RequestMapping(value = "/getConfigDrift/{clusterId}", method = RequestMethod.GET)
+    @ResponseBody
+    public Result getConfigDrift(@PathVariable("clusterId") Integer clusterId) {
+        ConfigDrift configDrift = configSnapshotService.getConfigDrift(clusterId);
+        return configDrift != null ? Result.successResult(configDrift) : Result.failResult();
+    }
+
+    @RequestMapping(value = "/setConfigBaseline", method = RequestMethod.POST)
+    @ResponseBody
+    @OperationLog(type = OperationType.UPDATE, objType = OperationObjectType.REDIS_CONFIG)
+    public Result setConfigBaseline(@RequestBody JSONObject jsonObject) {
+        Integer clusterId = jsonObject.getInteger("clusterId");
+        String node = jsonObject.getString("node");
+        boolean result = configSnapshotService.setConfigBaseline(clusterId, node);
+        return result ? Result.successResult() : Result.failResult().setMessage("No snapshot of " + node);
+    }
+
     @RequestMapping(value = "/getRedisConfigKeyList", method = RequestMethod.GET)
     @ResponseBody
     public Result getRedisConfigKeyList() {
@@ -152,9 +192,19 @@ public class NodeManageController {
     public Result updateRedisConfig(@RequestBody JSONObject jsonObject) {
         Integer clusterId = jsonObject.getInteger("clusterId");
         RedisConfigUtil.RedisConfig redisConfig = jsonObject.getObject("redisConfig", RedisConfigUtil.RedisConfig.class);
+        ConfigRolloutParam rolloutParam = jsonObject.getObject("rollout", ConfigRolloutParam.class);
         Cluster cluster = clusterService.getClusterById(clusterId);
-        boolean result = redisService.setConfigBatch(cluster, redisConfig);
-        return result ? Result.successResult() : Result.failResult();
+        ConfigRolloutResult result = redisService.rolloutConfig(cluster, redisConfig, rolloutParam == null ? new ConfigRolloutParam() : rolloutParam);
+        if (result.isSuccess()) {
+            // 基线跟随下发的值，避免所有节点被判定为漂移
+            String newValue = result.getNodeResultList().stream()
+                    .map(ConfigRolloutResult.NodeResult::getNewValue)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(result.getConfigValue());
+            configSnapshotService.updateConfigBaseline(cluster, result.getConfigKey(), newValue);
+        }
+        return result.isSuccess() ? Result.successResult(result) : Result.failResult(result).setMessage(result.getMessage());
     }
 
     /**
@@ -166,27 +216,15 @@ public class NodeManageController {
     @RequestMapping(value = "/purgeMemory", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.PURGE_MEMORY, objType = OperationObjectType.NODE)
-    public Result purgeMemory(@RequestBody List<RedisNode> redisNodeList) {
-        if (!verifyRedisNodeList(redisNodeList)) {
-            return Result.failResult();
-        }
-        return Result.successResult();
+    public Result purgeMemory(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.PURGE_MEMORY);
     }
 
     @RequestMapping(value = "/forget", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.FORGET, objType = OperationObjectType.NODE)
-    public Result forget(@RequestBody List<RedisNode> redisNodeList) {
-        Result result = clusterOperate(redisNodeList, (cluster, redisNode) -> {
-            String node = redisNode.getHost() + SignUtil.COLON + redisNode.getPort();
-            String nodes = cluster.getNodes();
-            if (nodes.contains(node)) {
-                logger.warn("I can't forget " + node + ", because it in the database");
-                return true;
-            }
-            return redisService.clusterForget(cluster, redisNode);
-        });
-        return result;
+    public Result forget(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.FORGET);
     }
 
     @RequestMapping(value = "/moveSlot", method = RequestMethod.POST)
@@ -200,6 +238,91 @@ public class NodeManageController {
         return result ? Result.successResult() : Result.failResult();
     }
 
+    /**
+     * 后台执行槽位迁移，返回 jobId；指定 resumeJobId 时跳过该任务已完成的槽位
+     *
+     * @param jsonObject
+     * @return
+     */
+    @RequestMapping(value = "/moveSlotJob", method = RequestMethod.POST)
+    @ResponseBody
+    @OperationLog(type = OperationType.MOVE_SLOT, objType = OperationObjectType.NODE)
+    public Result moveSlotJob(@RequestBody JSONObject jsonObject) {
+        RedisNode redisNode = jsonObject.getObject("redisNode", RedisNode.class);
+        SlotBalanceUtil.Shade slot = jsonObject.getObject("slotRange", SlotBalanceUtil.Shade.class);
+        String resumeJobId = jsonObject.getString("resumeJobId");
+        Cluster cluster = getCluster(redisNode.getClusterId());
+        if (cluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        if (jobManager.isRunning(cluster.getClusterId(), SlotMigrationJob.JOB_TYPE)) {
+            return Result.failResult().setMessage("Another slot migration is running.");
+        }
+        SlotMigrationJob previousJob = null;
+        if (!Strings.isNullOrEmpty(resumeJobId)) {
+            AbstractJob job = jobManager.getJob(resumeJobId);
+            if (!(job instanceof SlotMigrationJob) || !job.isFinished()
+                    || !Objects.equals(cluster.getClusterId(), job.getClusterId())) {
+                return Result.failResult().setMessage("Resume job not exist or not finished.");
+            }
+            previousJob = (SlotMigrationJob) job;
+        }
+        Map<Integer, RedisNode> slotTargetMap = new TreeMap<>();
+        for (int i = slot.getStartSlot(); i <= slot.getEndSlot(); i++) {
+            slotTargetMap.put(i, redisNode);
+        }
+        try {
+            SlotMigrationJob slotMigrationJob = redisService.buildSlotMigrationJob(cluster, slotTargetMap, previousJob);
+            return Result.successResult(jobManager.submit(slotMigrationJob));
+        } catch (IllegalStateException e) {
+            return Result.failResult().setMessage(e.getMessage());
+        }
+    }
+
+    /**
+     * 按负载计算槽位迁移计划，不做任何修改
+     *
+     * @param rebalanceParam
+     * @return
+     */
+    @RequestMapping(value = "/rebalance/preview", method = RequestMethod.POST)
+    @ResponseBody
+    public Result previewRebalance(@RequestBody RebalanceParam rebalanceParam) {
+        Cluster cluster = getCluster(rebalanceParam.getClusterId());
+        if (cluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        if (!CLUSTER.equalsIgnoreCase(cluster.getRedisMode())) {
+            return Result.failResult().setMessage("Only cluster mode support rebalance.");
+        }
+        try {
+            return Result.successResult(rebalanceService.preview(cluster, rebalanceParam));
+        } catch (IllegalStateException e) {
+            return Result.failResult().setMessage(e.getMessage());
+        }
+    }
+
+    /**
+     * 执行预览过的计划，返回 jobId
+     *
+     * @param rebalanceParam
+     * @return
+     */
+    @RequestMapping(value = "/rebalance/execute", method = RequestMethod.POST)
+    @ResponseBody
+    @OperationLog(type = OperationType.MOVE_SLOT, objType = OperationObjectType.CLUSTER)
+    public Result executeRebalance(@RequestBody RebalanceParam rebalanceParam) {
+        Cluster cluster = getCluster(rebalanceParam.getClusterId());
+        if (cluster == null) {
+            return Result.failResult().setMessage("Get cluster failed.");
+        }
+        try {
+            return Result.successResult(rebalanceService.execute(cluster, rebalanceParam.getPlanId()));
+        } catch (IllegalStateException e) {
+            return Result.failResult().setMessage(e.getMessage());
+        }
+    }
+
     @RequestMapping(value = "/replicateOf", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.REPLICATE_OF, objType = OperationObjectType.NODE)
@@ -233,67 +356,36 @@ public class NodeManageController {
     @RequestMapping(value = "/failOver", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.FAIL_OVER, objType = OperationObjectType.NODE)
-    public Result failOver(@RequestBody List<RedisNode> redisNodeList) {
-        Result result = clusterOperate(redisNodeList, (cluster, redisNode) -> redisService.clusterFailOver(cluster, redisNode));
-        return result;
+    public Result failOver(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.FAIL_OVER);
     }
 
     @RequestMapping(value = "/start", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.START, objType = OperationObjectType.NODE)
-    public Result start(@RequestBody List<RedisNode> redisNodeList) {
-        Result result = nodeOperate(redisNodeList, (cluster, redisNode, abstractNodeOperation) -> {
-            if (NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort())) {
-                return true;
-            } else {
-                return abstractNodeOperation.start(cluster, redisNode);
-            }
-        });
-        return result;
+    public Result start(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.START);
     }
 
     @RequestMapping(value = "/stop", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.STOP, objType = OperationObjectType.NODE)
-    public Result stop(@RequestBody List<RedisNode> redisNodeList) {
-        Result result = nodeOperate(redisNodeList, (cluster, redisNode, abstractNodeOperation) -> {
-            if (NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort())) {
-                return abstractNodeOperation.stop(cluster, redisNode);
-            } else {
-                return false;
-            }
-        });
-        return result;
+    public Result stop(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.STOP);
     }
 
     @RequestMapping(value = "/restart", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.RESTART, objType = OperationObjectType.NODE)
-    public Result restart(@RequestBody List<RedisNode> redisNodeList) {
-        Result result = nodeOperate(redisNodeList, (cluster, redisNode, abstractNodeOperation) -> {
-            if (NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort())) {
-                return abstractNodeOperation.restart(cluster, redisNode);
-            } else {
-                return abstractNodeOperation.start(cluster, redisNode);
-            }
-        });
-        return result;
+    public Result restart(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.RESTART);
     }
 
     @RequestMapping(value = "/delete", method = RequestMethod.POST)
     @ResponseBody
     @OperationLog(type = OperationType.DELETE, objType = OperationObjectType.NODE)
-    public Result delete(@RequestBody List<RedisNode> redisNodeList) {
-        Result result = nodeOperate(redisNodeList, (cluster, redisNode, abstractNodeOperation) -> {
-            if (NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort())) {
-                return false;
-            } else {
-                abstractNodeOperation.remove(cluster, redisNode);
-                redisNodeService.deleteRedisNodeById(redisNode.getRedisNodeId());
-                return true;
-            }
-        });
-        return result;
+    public Result delete(@RequestBody List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam) {
+        return submitNodeOperation(redisNodeList, nodeOperationParam, NodeOperationParam.DELETE);
     }
 
     @RequestMapping(value = "/editConfig", method = RequestMethod.POST)
@@ -334,9 +426,9 @@ public class NodeManageController {
                     if (Strings.isNullOrEmpty(oneResult)) {
                         boolean exist = redisNodeService.existRedisNode(redisNode);
                         if (!exist) {
-                            try {
-                                Thread.sleep(TEN_SECONDS);
-                            } catch (InterruptedException e) {
+                            if (!redisService.waitForNodesJoined(cluster, seed, Collections.singletonList(redisNode), ONE_MINUTE)) {
+                                message.append(RedisUtil.getNodeString(redisNode)).append(" not joined yet.");
+                                return;
                             }
                             List<RedisNode> redisNodes = redisService.getRedisNodeList(cluster);
                             redisNodes.forEach(node -> {
@@ -417,44 +509,24 @@ public class NodeManageController {
     }
 
     /**
-     * node operation
+     * 批量节点操作以后台任务执行，返回 jobId；策略、并发数等通过请求参数指定
      *
      * @param redisNodeList
-     * @param nodeHandler
+     * @param nodeOperationParam
+     * @param operation
      * @return
      */
-    private Result nodeOperate(List<RedisNode> redisNodeList, NodeHandler nodeHandler) {
+    private Result submitNodeOperation(List<RedisNode> redisNodeList, NodeOperationParam nodeOperationParam, String operation) {
         if (!verifyRedisNodeList(redisNodeList)) {
             return Result.failResult();
         }
-        Integer clusterId = redisNodeList.get(0).getClusterId();
-        Cluster cluster = getCluster(clusterId);
-        AbstractNodeOperation nodeOperation = clusterService.getNodeOperation(cluster.getInstallationEnvironment());
-        StringBuffer messageBuffer = new StringBuffer();
-        redisNodeList.forEach(redisNode -> {
-            try {
-                String[] nodeArr = SignUtil.splitByCommas(cluster.getNodes());
-                String node = redisNode.getHost() + SignUtil.COLON + redisNode.getPort();
-                if (nodeArr.length > 1) {
-                    StringBuilder newNodes = new StringBuilder();
-                    for (String nodeItem : nodeArr) {
-                        if (!Objects.equals(node, nodeItem) && !Strings.isNullOrEmpty(nodeItem)) {
-                            newNodes.append(nodeItem).append(SignUtil.COMMAS);
-                        }
-                    }
-                    cluster.setNodes(newNodes.toString());
-                    clusterService.updateNodes(cluster);
-                }
-                boolean handleResult = nodeHandler.handle(cluster, redisNode, nodeOperation);
-                if (!handleResult) {
-                    messageBuffer.append(redisNode.getHost() + ":" + redisNode.getPort() + " operation failed.\n");
-                }
-            } catch (Exception e) {
-                logger.error("Node operation failed.", e);
-            }
-        });
-        String message = messageBuffer.toString();
-        return Strings.isNullOrEmpty(message) ? Result.successResult() : Result.failResult().setMessage(message);
+        nodeOperationParam.setOperation(operation);
+        nodeOperationParam.setRedisNodeList(redisNodeList);
+        try {
+            return Result.successResult(nodeOperationService.submit(nodeOperationParam));
+        } catch (IllegalStateException e) {
+            return Result.failResult().setMessage(e.getMessage());
+        }
     }
 
     interface ClusterHandler {
@@ -463,10 +535,4 @@ public class NodeManageController {
 
     }
 
-    interface NodeHandler {
-
-        boolean handle(Cluster cluster, RedisNode redisNode, AbstractNodeOperation abstractNodeOperation);
-
-    }
-
 }
@@ -52,7 +52,8 @@ public class WebSecurityConfig implements WebMvcConfigurer {
                 .excludePathPatterns("/system/getInstallationEnvironment")
                 .excludePathPatterns("/static/**")
                 .excludePathPatterns("/data/**")
-                .excludePathPatterns("/logo.ico");
+                .excludePathPatterns("/logo.ico")
+                .excludePathPatterns("/metrics");
         // 拦截配置
         addInterceptor.addPathPatterns("/**");
     }
@@ -0,0 +1,105 @@
+package com.newegg.ec.redis.dao;
+
+import com.newegg.ec.redis.entity.CommandStats;
+import com.newegg.ec.redis.entity.CommandStatsParam;
+import org.apache.ibatis.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * command_stats: 每分钟每个节点每个命令的增量，只保存有调用的命令
+ * command_stats_hour: 每小时整个集群每个命令的累计，采集时增量更新
+ *
+ * @date 2026/10/19
+ */
+@Mapper
+public interface ICommandStatsDao {
+
+    @Insert("<script>" +
+            "INSERT INTO command_stats (cluster_id, node, command, calls, usec, update_time) " +
+            "VALUES " +
+            "<foreach item='stats' collection='statsList' separator=','>" +
+            "(#{stats.clusterId}, #{stats.node}, #{stats.command}, #{stats.calls}, #{stats.usec}, #{stats.updateTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertCommandStatsBatch(@Param("statsList") List<CommandStats> statsList);
+
+    @Insert("<script>" +
+            "INSERT INTO command_stats_hour (cluster_id, command, hour, calls, usec) " +
+            "VALUES " +
+            "<foreach item='stats' collection='statsList' separator=','>" +
+            "(#{stats.clusterId}, #{stats.command}, #{stats.updateTime}, #{stats.calls}, #{stats.usec})" +
+            "</foreach>" +
+            "ON DUPLICATE KEY UPDATE calls = calls + VALUES(calls), usec = usec + VALUES(usec)" +
+            "</script>")
+    int upsertCommandStatsHourBatch(@Param("statsList") List<CommandStats> statsList);
+
+    /**
+     * 指定命令的分钟序列，不指定节点时按分钟汇总整个集群
+     */
+    @Select("<script>" +
+            "SELECT cluster_id, " +
+            "<if test='node != null'> node, </if>" +
+            "command, SUM(calls) AS calls, SUM(usec) AS usec, update_time " +
+            "FROM command_stats WHERE cluster_id = #{clusterId} " +
+            "<if test='node != null'> AND node = #{node} </if>" +
+            "AND command IN " +
+            "<foreach item='command' collection='commandList' open='(' separator=',' close=')'>" +
+            "#{command}" +
+            "</foreach>" +
+            "AND update_time &gt;= #{startTime} AND update_time &lt;= #{endTime} " +
+            "GROUP BY cluster_id, <if test='node != null'> node, </if> command, update_time " +
+            "ORDER BY update_time" +
+            "</script>")
+    List<CommandStats> selectCommandStatsSeries(CommandStatsParam commandStatsParam);
+
+    /**
+     * orderBy 由 service 校验，只能是 calls/usec
+     */
+    @Select("<script>" +
+            "SELECT cluster_id, command, SUM(calls) AS calls, SUM(usec) AS usec " +
+            "FROM command_stats_hour WHERE cluster_id = #{clusterId} " +
+            "<if test='startTime != null'> AND hour &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND hour &lt;= #{endTime} </if>" +
+            "GROUP BY cluster_id, command " +
+            "ORDER BY ${orderBy} DESC LIMIT #{limit}" +
+            "</script>")
+    List<CommandStats> selectTopCommandStats(CommandStatsParam commandStatsParam);
+
+    @Delete("DELETE FROM command_stats WHERE update_time <= #{oldestTime}")
+    int deleteCommandStatsByTime(Timestamp oldestTime);
+
+    @Delete("DELETE FROM command_stats_hour WHERE hour <= #{oldestTime}")
+    int deleteCommandStatsHourByTime(Timestamp oldestTime);
+
+    @Delete("DELETE FROM command_stats WHERE cluster_id = #{clusterId}")
+    int deleteCommandStatsByClusterId(Integer clusterId);
+
+    @Delete("DELETE FROM command_stats_hour WHERE cluster_id = #{clusterId}")
+    int deleteCommandStatsHourByClusterId(Integer clusterId);
+
+    @Select("create TABLE IF NOT EXISTS `command_stats` (" +
+            "stats_id bigint NOT NULL AUTO_INCREMENT, " +
+            "cluster_id integer(4) NOT NULL, " +
+            "node varchar(50) NOT NULL, " +
+            "command varchar(64) NOT NULL, " +
+            "calls bigint NOT NULL, " +
+            "usec bigint NOT NULL, " +
+            "update_time datetime(0) NOT NULL, " +
+            "PRIMARY KEY (stats_id), " +
+            "INDEX `cluster_command_time` (`cluster_id`, `command`, `update_time`), " +
+            "INDEX `update_time` (`update_time`) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createCommandStatsTable();
+
+    @Select("create TABLE IF NOT EXISTS `command_stats_hour` (" +
+            "cluster_id integer(4) NOT NULL, " +
+            "command varchar(64) NOT NULL, " +
+            "hour datetime(0) NOT NULL, " +
+            "calls bigint NOT NULL, " +
+            "usec bigint NOT NULL, " +
+            "PRIMARY KEY (cluster_id, hour, command) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createCommandStatsHourTable();
+}
@@ -0,0 +1,89 @@
+package com.newegg.ec.redis.dao;
+
+import com.newegg.ec.redis.entity.ConfigSnapshot;
+import org.apache.ibatis.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * config_snapshot: 每个节点最近一次快照的哈希
+ * config_content: 按哈希去重的快照内容
+ * config_baseline: 每个集群的基线哈希
+ *
+ * @date 2026/10/19
+ */
+@Mapper
+public interface IConfigSnapshotDao {
+
+    @Insert("<script>" +
+            "INSERT INTO config_snapshot (cluster_id, node, config_hash, update_time) " +
+            "VALUES " +
+            "<foreach item='snapshot' collection='snapshotList' separator=','>" +
+            "(#{snapshot.clusterId}, #{snapshot.node}, #{snapshot.configHash}, #{snapshot.updateTime})" +
+            "</foreach>" +
+            "ON DUPLICATE KEY UPDATE config_hash = VALUES(config_hash), update_time = VALUES(update_time)" +
+            "</script>")
+    int upsertConfigSnapshotBatch(@Param("snapshotList") List<ConfigSnapshot> snapshotList);
+
+    @Select("SELECT cluster_id, node, config_hash, update_time FROM config_snapshot WHERE cluster_id = #{clusterId} ORDER BY node")
+    List<ConfigSnapshot> selectConfigSnapshotList(Integer clusterId);
+
+    @Insert("INSERT IGNORE INTO config_content (config_hash, content, create_time) VALUES (#{configHash}, #{content}, NOW())")
+    int insertConfigContent(@Param("configHash") String configHash, @Param("content") String content);
+
+    @Select("SELECT content FROM config_content WHERE config_hash = #{configHash}")
+    String selectConfigContent(String configHash);
+
+    @Insert("INSERT INTO config_baseline (cluster_id, config_hash, update_time) VALUES (#{clusterId}, #{configHash}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE config_hash = VALUES(config_hash), update_time = VALUES(update_time)")
+    int upsertConfigBaseline(@Param("clusterId") Integer clusterId, @Param("configHash") String configHash);
+
+    @Select("SELECT cluster_id, config_hash, update_time FROM config_baseline WHERE cluster_id = #{clusterId}")
+    ConfigSnapshot selectConfigBaseline(Integer clusterId);
+
+    /**
+     * 节点已不存在的快照
+     */
+    @Delete("DELETE FROM config_snapshot WHERE update_time <= #{oldestTime}")
+    int deleteConfigSnapshotByTime(Timestamp oldestTime);
+
+    /**
+     * 不再被快照和基线引用的内容
+     */
+    @Delete("DELETE FROM config_content WHERE create_time <= #{oldestTime} " +
+            "AND config_hash NOT IN (SELECT config_hash FROM config_snapshot) " +
+            "AND config_hash NOT IN (SELECT config_hash FROM config_baseline)")
+    int deleteUnusedConfigContent(Timestamp oldestTime);
+
+    @Delete("DELETE FROM config_snapshot WHERE cluster_id = #{clusterId}")
+    int deleteConfigSnapshotByClusterId(Integer clusterId);
+
+    @Delete("DELETE FROM config_baseline WHERE cluster_id = #{clusterId}")
+    int deleteConfigBaselineByClusterId(Integer clusterId);
+
+    @Select("create TABLE IF NOT EXISTS `config_snapshot` (" +
+            "cluster_id integer(4) NOT NULL, " +
+            "node varchar(50) NOT NULL, " +
+            "config_hash char(64) NOT NULL, " +
+            "update_time datetime(0) NOT NULL, " +
+            "PRIMARY KEY (cluster_id, node) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createConfigSnapshotTable();
+
+    @Select("create TABLE IF NOT EXISTS `config_content` (" +
+            "config_hash char(64) NOT NULL, " +
+            "content mediumtext NOT NULL, " +
+            "create_time datetime(0) NOT NULL, " +
+            "PRIMARY KEY (config_hash) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createConfigContentTable();
+
+    @Select("create TABLE IF NOT EXISTS `config_baseline` (" +
+            "cluster_id integer(4) NOT NULL, " +
+            "config_hash char(64) NOT NULL, " +
+            "update_time datetime(0) NOT NULL, " +
+            "PRIMARY KEY (cluster_id) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createConfigBaselineTable();
+}
@@ -14,6 +14,9 @@ import java.util.List;
 @Mapper
 public interface IMachineDao {
 
+    @Select("SELECT * FROM machine")
+    List<Machine> selectAllMachine();
+
     @Select("SELECT * FROM machine WHERE group_id = #{groupId}")
     List<Machine> selectMachineByGroupId(Integer groupId);
 
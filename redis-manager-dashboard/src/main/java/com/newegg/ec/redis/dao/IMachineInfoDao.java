@@ -0,0 +1,91 @@
+package com.newegg.ec.redis.dao;
+
+import com.newegg.ec.redis.entity.MachineInfo;
+import com.newegg.ec.redis.entity.MachineInfoParam;
+import org.apache.ibatis.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * machine_info: 每分钟每台机器的指标，小时数据由分钟数据聚合
+ *
+ * @date 2026/10/19
+ */
+@Mapper
+public interface IMachineInfoDao {
+
+    @Insert("<script>" +
+            "INSERT INTO machine_info (host, cpu_cores, cpu_user, cpu_system, cpu_iowait, cpu_steal, cpu_idle, " +
+            "load1, load5, load15, memory_total, memory_available, swap_used, " +
+            "disk_read_bytes, disk_write_bytes, disk_read_iops, disk_write_iops, disk_util, " +
+            "net_in_bytes, net_out_bytes, time_type, update_time) " +
+            "VALUES " +
+            "<foreach item='info' collection='machineInfoList' separator=','>" +
+            "(#{info.host}, #{info.cpuCores}, #{info.cpuUser}, #{info.cpuSystem}, #{info.cpuIowait}, #{info.cpuSteal}, #{info.cpuIdle}, " +
+            "#{info.load1}, #{info.load5}, #{info.load15}, #{info.memoryTotal}, #{info.memoryAvailable}, #{info.swapUsed}, " +
+            "#{info.diskReadBytes}, #{info.diskWriteBytes}, #{info.diskReadIops}, #{info.diskWriteIops}, #{info.diskUtil}, " +
+            "#{info.netInBytes}, #{info.netOutBytes}, #{info.timeType}, #{info.updateTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertMachineInfoBatch(@Param("machineInfoList") List<MachineInfo> machineInfoList);
+
+    /**
+     * 将 (startTime, endTime] 内的分钟数据按机器取平均值，写入 hour 时刻的小时数据
+     */
+    @Insert("INSERT INTO machine_info (host, cpu_cores, cpu_user, cpu_system, cpu_iowait, cpu_steal, cpu_idle, " +
+            "load1, load5, load15, memory_total, memory_available, swap_used, " +
+            "disk_read_bytes, disk_write_bytes, disk_read_iops, disk_write_iops, disk_util, " +
+            "net_in_bytes, net_out_bytes, time_type, update_time) " +
+            "SELECT host, MAX(cpu_cores), AVG(cpu_user), AVG(cpu_system), AVG(cpu_iowait), AVG(cpu_steal), AVG(cpu_idle), " +
+            "AVG(load1), AVG(load5), AVG(load15), MAX(memory_total), AVG(memory_available), AVG(swap_used), " +
+            "AVG(disk_read_bytes), AVG(disk_write_bytes), AVG(disk_read_iops), AVG(disk_write_iops), AVG(disk_util), " +
+            "AVG(net_in_bytes), AVG(net_out_bytes), 1, #{hour} " +
+            "FROM machine_info WHERE time_type = 0 AND update_time > #{startTime} AND update_time <= #{endTime} " +
+            "GROUP BY host")
+    int insertHourMachineInfo(@Param("startTime") Timestamp startTime, @Param("endTime") Timestamp endTime, @Param("hour") Timestamp hour);
+
+    @Select("<script>" +
+            "SELECT * FROM machine_info WHERE time_type = #{timeType} " +
+            "AND host IN " +
+            "<foreach item='host' collection='hostList' open='(' separator=',' close=')'>" +
+            "#{host}" +
+            "</foreach>" +
+            "AND update_time &gt;= #{startTime} AND update_time &lt;= #{endTime} " +
+            "ORDER BY update_time" +
+            "</script>")
+    List<MachineInfo> selectMachineInfoList(MachineInfoParam machineInfoParam);
+
+    @Delete("DELETE FROM machine_info WHERE update_time <= #{oldestTime}")
+    int deleteMachineInfoByTime(Timestamp oldestTime);
+
+    @Select("create TABLE IF NOT EXISTS `machine_info` (" +
+            "info_id bigint NOT NULL AUTO_INCREMENT, " +
+            "host varchar(50) NOT NULL, " +
+            "cpu_cores integer(4) NOT NULL, " +
+            "cpu_user double NOT NULL, " +
+            "cpu_system double NOT NULL, " +
+            "cpu_iowait double NOT NULL, " +
+            "cpu_steal double NOT NULL, " +
+            "cpu_idle double NOT NULL, " +
+            "load1 double NOT NULL, " +
+            "load5 double NOT NULL, " +
+            "load15 double NOT NULL, " +
+            "memory_total bigint NOT NULL, " +
+            "memory_available bigint NOT NULL, " +
+            "swap_used bigint NOT NULL, " +
+            "disk_read_bytes double NOT NULL, " +
+            "disk_write_bytes double NOT NULL, " +
+            "disk_read_iops double NOT NULL, " +
+            "disk_write_iops double NOT NULL, " +
+            "disk_util double NOT NULL, " +
+            "net_in_bytes double NOT NULL, " +
+            "net_out_bytes double NOT NULL, " +
+            "time_type tinyint(1) NOT NULL, " +
+            "update_time datetime(0) NOT NULL, " +
+            "PRIMARY KEY (info_id), " +
+            "INDEX `host_type_time` (`host`, `time_type`, `update_time`), " +
+            "INDEX `update_time` (`update_time`) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createMachineInfoTable();
+}
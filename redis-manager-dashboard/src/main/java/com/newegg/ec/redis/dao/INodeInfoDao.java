@@ -69,7 +69,8 @@ public interface INodeInfoDao {
 
     @Insert("<script>" +
             "INSERT INTO node_info_${clusterId} (`node`, `role`, `time_type`, `last_time`, " +
-            "`response_time`, `connected_clients`, `client_longest_output_list`, `client_biggest_input_buf`, `blocked_clients`, " +
+            "`response_time`, `response_time_p50`, `response_time_max`, " +
+            "`connected_clients`, `client_longest_output_list`, `client_biggest_input_buf`, `blocked_clients`, " +
             "`used_memory`, `used_memory_rss`, `used_memory_overhead`, `used_memory_dataset`, `used_memory_dataset_perc`, `mem_fragmentation_ratio`, " +
             "`total_connections_received`, `connections_received`, `rejected_connections`, `total_commands_processed`, `commands_processed`, " +
             "`instantaneous_ops_per_sec`, `total_net_input_bytes`, `net_input_bytes`, `total_net_output_bytes`, `net_output_bytes`, " +
@@ -79,7 +80,8 @@ public interface INodeInfoDao {
             "VALUES " +
             "<foreach item='nodeInfo' collection='nodeInfoList' index='index' separator=','>" +
             "(#{nodeInfo.node}, #{nodeInfo.role}, #{nodeInfo.timeType}, #{nodeInfo.lastTime}, " +
-            "#{nodeInfo.responseTime}, #{nodeInfo.connectedClients}, #{nodeInfo.clientLongestOutputList}, #{nodeInfo.clientBiggestInputBuf}, #{nodeInfo.blockedClients}, " +
+            "#{nodeInfo.responseTime}, #{nodeInfo.responseTimeP50}, #{nodeInfo.responseTimeMax}, " +
+            "#{nodeInfo.connectedClients}, #{nodeInfo.clientLongestOutputList}, #{nodeInfo.clientBiggestInputBuf}, #{nodeInfo.blockedClients}, " +
             "#{nodeInfo.usedMemory}, #{nodeInfo.usedMemoryRss}, #{nodeInfo.usedMemoryOverhead}, #{nodeInfo.usedMemoryDataset}, #{nodeInfo.usedMemoryDatasetPerc}, #{nodeInfo.memFragmentationRatio}, " +
             "#{nodeInfo.totalConnectionsReceived}, #{nodeInfo.connectionsReceived}, #{nodeInfo.rejectedConnections}, #{nodeInfo.totalCommandsProcessed}, #{nodeInfo.commandsProcessed}, " +
             "#{nodeInfo.instantaneousOpsPerSec}, #{nodeInfo.totalNetInputBytes}, #{nodeInfo.netInputBytes}, #{nodeInfo.totalNetOutputBytes}, #{nodeInfo.netOutputBytes}, " +
@@ -108,6 +110,17 @@ public interface INodeInfoDao {
     @Select("SELECT COUNT(*) FROM information_schema.TABLES WHERE table_schema = #{database} AND table_name = #{tableName}")
     int existNodeInfoTable(@Param("database") String database, @Param("tableName") String tableName);
 
+    @Select("SELECT COUNT(*) FROM information_schema.COLUMNS WHERE table_schema = #{database} AND table_name = #{tableName} AND column_name = #{columnName}")
+    int existColumn(@Param("database") String database, @Param("tableName") String tableName, @Param("columnName") String columnName);
+
+    /**
+     * 旧版本创建的表没有 p50/max 列
+     */
+    @Update("ALTER TABLE node_info_${clusterId} " +
+            "ADD COLUMN `response_time_p50` integer(4) NOT NULL DEFAULT 0 AFTER `response_time`, " +
+            "ADD COLUMN `response_time_max` integer(4) NOT NULL DEFAULT 0 AFTER `response_time_p50`")
+    void addResponseTimeColumns(@Param("clusterId") Integer clusterId);
+
     @Select("CREATE TABLE IF NOT EXISTS node_info_${clusterId} ( " +
             "`info_id` integer(4) NOT NULL AUTO_INCREMENT, " +
             "`node` varchar(50) NOT NULL, " +
@@ -115,6 +128,8 @@ public interface INodeInfoDao {
             "`time_type` integer(2) NOT NULL, " +
             "`last_time` tinyint(1) NOT NULL, " +
             "`response_time` integer(4) NOT NULL, " +
+            "`response_time_p50` integer(4) NOT NULL DEFAULT 0, " +
+            "`response_time_max` integer(4) NOT NULL DEFAULT 0, " +
             "`connected_clients` bigint(20) NOT NULL, " +
             "`client_longest_output_list` bigint(20) NOT NULL, " +
             "`client_biggest_input_buf` bigint(20) NOT NULL, " +
@@ -4,6 +4,7 @@ import com.newegg.ec.redis.entity.OperationLog;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
@@ -38,4 +39,13 @@ public interface IOperationLogDao {
     @Options(useGeneratedKeys = true, keyProperty = "logId", keyColumn = "log_id")
     int insertLog(OperationLog log);
 
+    @Insert("<script>" +
+            "INSERT INTO operation_log(group_id, user_id, user_ip, operation_group_id, operation_info, request_params, log_time) " +
+            "VALUES " +
+            "<foreach item='log' collection='logList' separator=','>" +
+            "(#{log.groupId}, #{log.userId}, #{log.userIp}, #{log.operationGroupId}, #{log.operationInfo}, #{log.requestParams}, #{log.logTime})" +
+            "</foreach>" +
+            "</script>")
+    int insertLogBatch(@Param("logList") List<OperationLog> logList);
+
 }
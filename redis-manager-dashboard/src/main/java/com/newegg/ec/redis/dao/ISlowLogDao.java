@@ -0,0 +1,113 @@
+package com.newegg.ec.redis.dao;
+
+import com.newegg.ec.redis.entity.SlowLogParam;
+import com.newegg.ec.redis.entity.SlowLogRecord;
+import com.newegg.ec.redis.entity.SlowLogStat;
+import org.apache.ibatis.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * @date 2026/10/19
+ */
+@Mapper
+public interface ISlowLogDao {
+
+    @Insert("<script>" +
+            "INSERT INTO slow_log (cluster_id, node, log_id, date_time, execution_time, type, command, fingerprint) " +
+            "VALUES " +
+            "<foreach item='slowLog' collection='slowLogList' separator=','>" +
+            "(#{slowLog.clusterId}, #{slowLog.node}, #{slowLog.logId}, #{slowLog.dateTime}, #{slowLog.executionTime}, " +
+            "#{slowLog.type}, #{slowLog.command}, #{slowLog.fingerprint})" +
+            "</foreach>" +
+            "</script>")
+    int insertSlowLogBatch(@Param("slowLogList") List<SlowLogRecord> slowLogList);
+
+    /**
+     * 每个节点最后一次写入的慢日志，用于增量采集
+     */
+    @Select("SELECT s.node, s.log_id, s.date_time FROM slow_log s " +
+            "INNER JOIN (SELECT MAX(slow_log_id) AS slow_log_id FROM slow_log WHERE cluster_id = #{clusterId} GROUP BY node) t " +
+            "ON s.slow_log_id = t.slow_log_id")
+    List<SlowLogRecord> selectLastSlowLog(Integer clusterId);
+
+    @Select("<script>" +
+            "SELECT * FROM slow_log WHERE cluster_id = #{clusterId} " +
+            "<if test='node != null'> AND node = #{node} </if>" +
+            "<if test='startTime != null'> AND date_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND date_time &lt;= #{endTime} </if>" +
+            "ORDER BY date_time DESC LIMIT #{limit}" +
+            "</script>")
+    List<SlowLogRecord> selectSlowLogList(SlowLogParam slowLogParam);
+
+    @Select("SELECT node, fingerprint, execution_time FROM slow_log " +
+            "WHERE cluster_id = #{clusterId} AND date_time >= #{startTime} AND date_time < #{endTime}")
+    List<SlowLogRecord> selectExecutionTime(@Param("clusterId") Integer clusterId,
+                                            @Param("startTime") Timestamp startTime,
+                                            @Param("endTime") Timestamp endTime);
+
+    @Delete("DELETE FROM slow_log_stat WHERE cluster_id = #{clusterId} AND hour = #{hour}")
+    int deleteSlowLogStat(@Param("clusterId") Integer clusterId, @Param("hour") Timestamp hour);
+
+    @Insert("<script>" +
+            "INSERT INTO slow_log_stat (cluster_id, node, fingerprint, hour, count, total_time, max_time, p99_time) " +
+            "VALUES " +
+            "<foreach item='stat' collection='statList' separator=','>" +
+            "(#{stat.clusterId}, #{stat.node}, #{stat.fingerprint}, #{stat.hour}, #{stat.count}, #{stat.totalTime}, #{stat.maxTime}, #{stat.p99Time})" +
+            "</foreach>" +
+            "</script>")
+    int insertSlowLogStatBatch(@Param("statList") List<SlowLogStat> statList);
+
+    /**
+     * orderBy 由 service 校验，只能是 count/total_time/p99_time
+     */
+    @Select("<script>" +
+            "SELECT cluster_id, " +
+            "<if test='node != null'> node, </if>" +
+            "fingerprint, SUM(count) AS count, SUM(total_time) AS total_time, MAX(max_time) AS max_time, MAX(p99_time) AS p99_time " +
+            "FROM slow_log_stat WHERE cluster_id = #{clusterId} " +
+            "<if test='node != null'> AND node = #{node} </if>" +
+            "<if test='startTime != null'> AND hour &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'> AND hour &lt;= #{endTime} </if>" +
+            "GROUP BY cluster_id, <if test='node != null'> node, </if> fingerprint " +
+            "ORDER BY ${orderBy} DESC LIMIT #{limit}" +
+            "</script>")
+    List<SlowLogStat> selectTopSlowLogStat(SlowLogParam slowLogParam);
+
+    @Delete("DELETE FROM slow_log WHERE date_time <= #{oldestTime}")
+    int deleteSlowLogByTime(Timestamp oldestTime);
+
+    @Delete("DELETE FROM slow_log_stat WHERE hour <= #{oldestTime}")
+    int deleteSlowLogStatByTime(Timestamp oldestTime);
+
+    @Select("create TABLE IF NOT EXISTS `slow_log` (" +
+            "slow_log_id bigint NOT NULL AUTO_INCREMENT, " +
+            "cluster_id integer(4) NOT NULL, " +
+            "node varchar(50) NOT NULL, " +
+            "log_id bigint NOT NULL, " +
+            "date_time datetime(0) NOT NULL, " +
+            "execution_time bigint NOT NULL, " +
+            "type varchar(50) NOT NULL, " +
+            "command varchar(1024) DEFAULT NULL, " +
+            "fingerprint varchar(255) NOT NULL, " +
+            "PRIMARY KEY (slow_log_id), " +
+            "INDEX `cluster_time` (`cluster_id`, `date_time`) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createSlowLogTable();
+
+    @Select("create TABLE IF NOT EXISTS `slow_log_stat` (" +
+            "stat_id bigint NOT NULL AUTO_INCREMENT, " +
+            "cluster_id integer(4) NOT NULL, " +
+            "node varchar(50) NOT NULL, " +
+            "fingerprint varchar(255) NOT NULL, " +
+            "hour datetime(0) NOT NULL, " +
+            "count bigint NOT NULL, " +
+            "total_time bigint NOT NULL, " +
+            "max_time bigint NOT NULL, " +
+            "p99_time bigint NOT NULL, " +
+            "PRIMARY KEY (stat_id), " +
+            "INDEX `cluster_hour` (`cluster_id`, `hour`) " +
+            ") ENGINE = InnoDB CHARACTER SET = utf8 COLLATE = utf8_general_ci ROW_FORMAT = Dynamic;")
+    void createSlowLogStatTable();
+}
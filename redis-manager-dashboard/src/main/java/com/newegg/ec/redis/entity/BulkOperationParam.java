@@ -0,0 +1,121 @@
+package com.newegg.ec.redis.entity;
+
+/**
+ * 按 pattern 批量操作 key
+ *
+ * @date 2026/10/19
+ */
+public class BulkOperationParam {
+
+    public static final String UNLINK = "UNLINK";
+
+    public static final String EXPIRE = "EXPIRE";
+
+    public static final String PERSIST = "PERSIST";
+
+    private Integer clusterId;
+
+    private int database;
+
+    private String pattern;
+
+    /**
+     * UNLINK, EXPIRE, PERSIST
+     */
+    private String action;
+
+    /**
+     * EXPIRE 的过期时间
+     */
+    private int seconds;
+
+    /**
+     * 只统计匹配的 key 数量，不做任何修改
+     */
+    private boolean dryRun;
+
+    /**
+     * 整个集群的目标 ops/sec
+     */
+    private int opsPerSecond = 5000;
+
+    private int batchSize = 500;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public int getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(int database) {
+        this.database = database;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public void setAction(String action) {
+        this.action = action;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public void setSeconds(int seconds) {
+        this.seconds = seconds;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public int getOpsPerSecond() {
+        return opsPerSecond;
+    }
+
+    public void setOpsPerSecond(int opsPerSecond) {
+        this.opsPerSecond = opsPerSecond;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationParam{" +
+                "clusterId=" + clusterId +
+                ", database=" + database +
+                ", pattern='" + pattern + '\'' +
+                ", action='" + action + '\'' +
+                ", seconds=" + seconds +
+                ", dryRun=" + dryRun +
+                ", opsPerSecond=" + opsPerSecond +
+                ", batchSize=" + batchSize +
+                '}';
+    }
+}
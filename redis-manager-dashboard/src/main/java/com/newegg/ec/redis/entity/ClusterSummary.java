@@ -0,0 +1,111 @@
+package com.newegg.ec.redis.entity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 集群所有 master 的 keyspace 和内存汇总
+ *
+ * @date 2026/10/19
+ */
+public class ClusterSummary {
+
+    /**
+     * db0 -> {keys: 31, expires: 1}，来自监控数据时为空
+     */
+    private Map<String, Map<String, Long>> keyspaceInfo = new LinkedHashMap<>();
+
+    private long totalKeys;
+
+    private long totalExpires;
+
+    /**
+     * MB
+     */
+    private long totalUsedMemory;
+
+    private int masterCount;
+
+    /**
+     * 在截止时间内返回结果的 master 数量
+     */
+    private int respondedCount;
+
+    /**
+     * 是否来自最近一次采集的 NodeInfo
+     */
+    private boolean collected;
+
+    public boolean isComplete() {
+        return respondedCount == masterCount;
+    }
+
+    public Map<String, Map<String, Long>> getKeyspaceInfo() {
+        return keyspaceInfo;
+    }
+
+    public void setKeyspaceInfo(Map<String, Map<String, Long>> keyspaceInfo) {
+        this.keyspaceInfo = keyspaceInfo;
+    }
+
+    public long getTotalKeys() {
+        return totalKeys;
+    }
+
+    public void setTotalKeys(long totalKeys) {
+        this.totalKeys = totalKeys;
+    }
+
+    public long getTotalExpires() {
+        return totalExpires;
+    }
+
+    public void setTotalExpires(long totalExpires) {
+        this.totalExpires = totalExpires;
+    }
+
+    public long getTotalUsedMemory() {
+        return totalUsedMemory;
+    }
+
+    public void setTotalUsedMemory(long totalUsedMemory) {
+        this.totalUsedMemory = totalUsedMemory;
+    }
+
+    public int getMasterCount() {
+        return masterCount;
+    }
+
+    public void setMasterCount(int masterCount) {
+        this.masterCount = masterCount;
+    }
+
+    public int getRespondedCount() {
+        return respondedCount;
+    }
+
+    public void setRespondedCount(int respondedCount) {
+        this.respondedCount = respondedCount;
+    }
+
+    public boolean isCollected() {
+        return collected;
+    }
+
+    public void setCollected(boolean collected) {
+        this.collected = collected;
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterSummary{" +
+                "keyspaceInfo=" + keyspaceInfo +
+                ", totalKeys=" + totalKeys +
+                ", totalExpires=" + totalExpires +
+                ", totalUsedMemory=" + totalUsedMemory +
+                ", masterCount=" + masterCount +
+                ", respondedCount=" + respondedCount +
+                ", collected=" + collected +
+                '}';
+    }
+}
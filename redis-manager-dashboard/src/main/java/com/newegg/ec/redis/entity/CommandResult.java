@@ -0,0 +1,69 @@
+package com.newegg.ec.redis.entity;
+
+/**
+ * 批量执行时单条命令的结果
+ *
+ * @date 2026/10/19
+ */
+public class CommandResult {
+
+    private String command;
+
+    private String node;
+
+    private Object result;
+
+    private boolean error;
+
+    /**
+     * 所在 pipeline 的总耗时(ms)，同一节点上的命令共享一次往返，不是单条命令的耗时
+     */
+    private long pipelineElapsed;
+
+    public CommandResult() {
+    }
+
+    public CommandResult(String command) {
+        this.command = command;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public void setResult(Object result) {
+        this.result = result;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public void setError(boolean error) {
+        this.error = error;
+    }
+
+    public long getPipelineElapsed() {
+        return pipelineElapsed;
+    }
+
+    public void setPipelineElapsed(long pipelineElapsed) {
+        this.pipelineElapsed = pipelineElapsed;
+    }
+}
@@ -0,0 +1,107 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+
+/**
+ * 每分钟每个节点(或整个集群)每个命令的调用次数与耗时增量
+ *
+ * @date 2026/10/19
+ */
+public class CommandStats {
+
+    private Long statsId;
+
+    private Integer clusterId;
+
+    /**
+     * 集群汇总时为空
+     */
+    private String node;
+
+    private String command;
+
+    private long calls;
+
+    /**
+     * 耗时(微秒)
+     */
+    private long usec;
+
+    /**
+     * 分钟或小时
+     */
+    private Timestamp updateTime;
+
+    public Long getStatsId() {
+        return statsId;
+    }
+
+    public void setStatsId(Long statsId) {
+        this.statsId = statsId;
+    }
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public void setCalls(long calls) {
+        this.calls = calls;
+    }
+
+    public long getUsec() {
+        return usec;
+    }
+
+    public void setUsec(long usec) {
+        this.usec = usec;
+    }
+
+    public Timestamp getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Timestamp updateTime) {
+        this.updateTime = updateTime;
+    }
+
+    public double getUsecPerCall() {
+        return calls == 0 ? 0 : Math.round(usec * 100.0 / calls) / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandStats{" +
+                "statsId=" + statsId +
+                ", clusterId=" + clusterId +
+                ", node='" + node + '\'' +
+                ", command='" + command + '\'' +
+                ", calls=" + calls +
+                ", usec=" + usec +
+                ", updateTime=" + updateTime +
+                '}';
+    }
+}
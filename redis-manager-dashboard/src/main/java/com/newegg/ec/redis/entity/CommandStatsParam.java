@@ -0,0 +1,99 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * @date 2026/10/19
+ */
+public class CommandStatsParam {
+
+    private Integer clusterId;
+
+    private String node;
+
+    /**
+     * 序列查询的命令
+     */
+    private List<String> commandList;
+
+    private Timestamp startTime;
+
+    private Timestamp endTime;
+
+    /**
+     * top 排序: calls, usec
+     */
+    private String orderBy;
+
+    private int limit = 20;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public List<String> getCommandList() {
+        return commandList;
+    }
+
+    public void setCommandList(List<String> commandList) {
+        this.commandList = commandList;
+    }
+
+    public Timestamp getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Timestamp startTime) {
+        this.startTime = startTime;
+    }
+
+    public Timestamp getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Timestamp endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public void setOrderBy(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandStatsParam{" +
+                "clusterId=" + clusterId +
+                ", node='" + node + '\'' +
+                ", commandList=" + commandList +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", orderBy='" + orderBy + '\'' +
+                ", limit=" + limit +
+                '}';
+    }
+}
@@ -0,0 +1,171 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 集群中配置与基线不一致的节点
+ *
+ * @date 2026/10/19
+ */
+public class ConfigDrift {
+
+    private Integer clusterId;
+
+    private String baselineHash;
+
+    /**
+     * 没有设置基线时，使用节点最多的配置作为基线
+     */
+    private boolean defaultBaseline;
+
+    private Timestamp baselineTime;
+
+    private int nodeCount;
+
+    private List<NodeDrift> nodeDriftList = new ArrayList<>();
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getBaselineHash() {
+        return baselineHash;
+    }
+
+    public void setBaselineHash(String baselineHash) {
+        this.baselineHash = baselineHash;
+    }
+
+    public boolean isDefaultBaseline() {
+        return defaultBaseline;
+    }
+
+    public void setDefaultBaseline(boolean defaultBaseline) {
+        this.defaultBaseline = defaultBaseline;
+    }
+
+    public Timestamp getBaselineTime() {
+        return baselineTime;
+    }
+
+    public void setBaselineTime(Timestamp baselineTime) {
+        this.baselineTime = baselineTime;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(int nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public List<NodeDrift> getNodeDriftList() {
+        return nodeDriftList;
+    }
+
+    public void setNodeDriftList(List<NodeDrift> nodeDriftList) {
+        this.nodeDriftList = nodeDriftList;
+    }
+
+    public static class NodeDrift {
+
+        private String node;
+
+        private String configHash;
+
+        private Timestamp updateTime;
+
+        private List<DiffItem> diffItemList;
+
+        public NodeDrift() {
+        }
+
+        public NodeDrift(String node, String configHash, Timestamp updateTime, List<DiffItem> diffItemList) {
+            this.node = node;
+            this.configHash = configHash;
+            this.updateTime = updateTime;
+            this.diffItemList = diffItemList;
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public void setNode(String node) {
+            this.node = node;
+        }
+
+        public String getConfigHash() {
+            return configHash;
+        }
+
+        public void setConfigHash(String configHash) {
+            this.configHash = configHash;
+        }
+
+        public Timestamp getUpdateTime() {
+            return updateTime;
+        }
+
+        public void setUpdateTime(Timestamp updateTime) {
+            this.updateTime = updateTime;
+        }
+
+        public List<DiffItem> getDiffItemList() {
+            return diffItemList;
+        }
+
+        public void setDiffItemList(List<DiffItem> diffItemList) {
+            this.diffItemList = diffItemList;
+        }
+    }
+
+    public static class DiffItem {
+
+        private String key;
+
+        private String baselineValue;
+
+        private String value;
+
+        public DiffItem() {
+        }
+
+        public DiffItem(String key, String baselineValue, String value) {
+            this.key = key;
+            this.baselineValue = baselineValue;
+            this.value = value;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public String getBaselineValue() {
+            return baselineValue;
+        }
+
+        public void setBaselineValue(String baselineValue) {
+            this.baselineValue = baselineValue;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.newegg.ec.redis.entity;
+
+/**
+ * 集群配置下发方式
+ *
+ * @date 2026/10/19
+ */
+public class ConfigRolloutParam {
+
+    /**
+     * 所有节点并行下发，每批最多 parallelism 个节点
+     */
+    public static final String PARALLEL = "PARALLEL";
+
+    /**
+     * 先下发一个节点，成功后再按 waveSize 分批下发
+     */
+    public static final String CANARY = "CANARY";
+
+    private String strategy = PARALLEL;
+
+    private int parallelism;
+
+    private int waveSize;
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getWaveSize() {
+        return waveSize;
+    }
+
+    public void setWaveSize(int waveSize) {
+        this.waveSize = waveSize;
+    }
+}
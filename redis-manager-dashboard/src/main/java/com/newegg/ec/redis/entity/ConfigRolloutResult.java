@@ -0,0 +1,158 @@
+package com.newegg.ec.redis.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 集群配置下发结果，每个节点一条
+ *
+ * @date 2026/10/19
+ */
+public class ConfigRolloutResult {
+
+    public static final String SUCCESS = "SUCCESS";
+
+    public static final String FAILED = "FAILED";
+
+    public static final String ROLLED_BACK = "ROLLED_BACK";
+
+    public static final String ROLLBACK_FAILED = "ROLLBACK_FAILED";
+
+    /**
+     * 前面的批次失败，未下发
+     */
+    public static final String SKIPPED = "SKIPPED";
+
+    private String configKey;
+
+    private String configValue;
+
+    private boolean success;
+
+    private boolean rolledBack;
+
+    private String message;
+
+    private List<NodeResult> nodeResultList = new ArrayList<>();
+
+    public ConfigRolloutResult() {
+    }
+
+    public ConfigRolloutResult(String configKey, String configValue) {
+        this.configKey = configKey;
+        this.configValue = configValue;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    public void setConfigKey(String configKey) {
+        this.configKey = configKey;
+    }
+
+    public String getConfigValue() {
+        return configValue;
+    }
+
+    public void setConfigValue(String configValue) {
+        this.configValue = configValue;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public boolean isRolledBack() {
+        return rolledBack;
+    }
+
+    public void setRolledBack(boolean rolledBack) {
+        this.rolledBack = rolledBack;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<NodeResult> getNodeResultList() {
+        return nodeResultList;
+    }
+
+    public void setNodeResultList(List<NodeResult> nodeResultList) {
+        this.nodeResultList = nodeResultList;
+    }
+
+    public static class NodeResult {
+
+        private String node;
+
+        private String oldValue;
+
+        /**
+         * CONFIG GET 读回的值，redis 可能会规范化，如 1gb -> 1073741824
+         */
+        private String newValue;
+
+        private String status;
+
+        private String message;
+
+        public NodeResult() {
+        }
+
+        public NodeResult(String node, String oldValue) {
+            this.node = node;
+            this.oldValue = oldValue;
+            this.status = SKIPPED;
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public void setNode(String node) {
+            this.node = node;
+        }
+
+        public String getOldValue() {
+            return oldValue;
+        }
+
+        public void setOldValue(String oldValue) {
+            this.oldValue = oldValue;
+        }
+
+        public String getNewValue() {
+            return newValue;
+        }
+
+        public void setNewValue(String newValue) {
+            this.newValue = newValue;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+
+/**
+ * 节点最近一次配置快照，内容按 configHash 去重保存
+ *
+ * @date 2026/10/19
+ */
+public class ConfigSnapshot {
+
+    private Integer clusterId;
+
+    private String node;
+
+    private String configHash;
+
+    private Timestamp updateTime;
+
+    public ConfigSnapshot() {
+    }
+
+    public ConfigSnapshot(Integer clusterId, String node, String configHash, Timestamp updateTime) {
+        this.clusterId = clusterId;
+        this.node = node;
+        this.configHash = configHash;
+        this.updateTime = updateTime;
+    }
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public String getConfigHash() {
+        return configHash;
+    }
+
+    public void setConfigHash(String configHash) {
+        this.configHash = configHash;
+    }
+
+    public Timestamp getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Timestamp updateTime) {
+        this.updateTime = updateTime;
+    }
+}
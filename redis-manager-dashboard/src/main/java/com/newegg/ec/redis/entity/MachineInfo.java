@@ -0,0 +1,262 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+
+/**
+ * 机器指标，按 host 与节点指标关联
+ *
+ * @date 2026/10/19
+ */
+public class MachineInfo {
+
+    private Long infoId;
+
+    private String host;
+
+    private int cpuCores;
+
+    /**
+     * CPU 使用率(%)，含 nice
+     */
+    private double cpuUser;
+
+    /**
+     * 含 irq、softirq
+     */
+    private double cpuSystem;
+
+    private double cpuIowait;
+
+    /**
+     * 被宿主机上其他虚拟机占用的 CPU 时间
+     */
+    private double cpuSteal;
+
+    private double cpuIdle;
+
+    private double load1;
+
+    private double load5;
+
+    private double load15;
+
+    /**
+     * 内存(byte)
+     */
+    private long memoryTotal;
+
+    private long memoryAvailable;
+
+    private long swapUsed;
+
+    /**
+     * 以下为每秒速率，磁盘不含分区和 dm/md 设备，网络不含 lo
+     */
+    private double diskReadBytes;
+
+    private double diskWriteBytes;
+
+    private double diskReadIops;
+
+    private double diskWriteIops;
+
+    /**
+     * 最繁忙磁盘的 IO 时间占比(%)
+     */
+    private double diskUtil;
+
+    private double netInBytes;
+
+    private double netOutBytes;
+
+    /**
+     * TimeType.MINUTE / TimeType.HOUR，小时数据为该小时内分钟数据的平均值
+     */
+    private Integer timeType;
+
+    private Timestamp updateTime;
+
+    public Long getInfoId() {
+        return infoId;
+    }
+
+    public void setInfoId(Long infoId) {
+        this.infoId = infoId;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getCpuCores() {
+        return cpuCores;
+    }
+
+    public void setCpuCores(int cpuCores) {
+        this.cpuCores = cpuCores;
+    }
+
+    public double getCpuUser() {
+        return cpuUser;
+    }
+
+    public void setCpuUser(double cpuUser) {
+        this.cpuUser = cpuUser;
+    }
+
+    public double getCpuSystem() {
+        return cpuSystem;
+    }
+
+    public void setCpuSystem(double cpuSystem) {
+        this.cpuSystem = cpuSystem;
+    }
+
+    public double getCpuIowait() {
+        return cpuIowait;
+    }
+
+    public void setCpuIowait(double cpuIowait) {
+        this.cpuIowait = cpuIowait;
+    }
+
+    public double getCpuSteal() {
+        return cpuSteal;
+    }
+
+    public void setCpuSteal(double cpuSteal) {
+        this.cpuSteal = cpuSteal;
+    }
+
+    public double getCpuIdle() {
+        return cpuIdle;
+    }
+
+    public void setCpuIdle(double cpuIdle) {
+        this.cpuIdle = cpuIdle;
+    }
+
+    public double getLoad1() {
+        return load1;
+    }
+
+    public void setLoad1(double load1) {
+        this.load1 = load1;
+    }
+
+    public double getLoad5() {
+        return load5;
+    }
+
+    public void setLoad5(double load5) {
+        this.load5 = load5;
+    }
+
+    public double getLoad15() {
+        return load15;
+    }
+
+    public void setLoad15(double load15) {
+        this.load15 = load15;
+    }
+
+    public long getMemoryTotal() {
+        return memoryTotal;
+    }
+
+    public void setMemoryTotal(long memoryTotal) {
+        this.memoryTotal = memoryTotal;
+    }
+
+    public long getMemoryAvailable() {
+        return memoryAvailable;
+    }
+
+    public void setMemoryAvailable(long memoryAvailable) {
+        this.memoryAvailable = memoryAvailable;
+    }
+
+    public long getSwapUsed() {
+        return swapUsed;
+    }
+
+    public void setSwapUsed(long swapUsed) {
+        this.swapUsed = swapUsed;
+    }
+
+    public double getDiskReadBytes() {
+        return diskReadBytes;
+    }
+
+    public void setDiskReadBytes(double diskReadBytes) {
+        this.diskReadBytes = diskReadBytes;
+    }
+
+    public double getDiskWriteBytes() {
+        return diskWriteBytes;
+    }
+
+    public void setDiskWriteBytes(double diskWriteBytes) {
+        this.diskWriteBytes = diskWriteBytes;
+    }
+
+    public double getDiskReadIops() {
+        return diskReadIops;
+    }
+
+    public void setDiskReadIops(double diskReadIops) {
+        this.diskReadIops = diskReadIops;
+    }
+
+    public double getDiskWriteIops() {
+        return diskWriteIops;
+    }
+
+    public void setDiskWriteIops(double diskWriteIops) {
+        this.diskWriteIops = diskWriteIops;
+    }
+
+    public double getDiskUtil() {
+        return diskUtil;
+    }
+
+    public void setDiskUtil(double diskUtil) {
+        this.diskUtil = diskUtil;
+    }
+
+    public double getNetInBytes() {
+        return netInBytes;
+    }
+
+    public void setNetInBytes(double netInBytes) {
+        this.netInBytes = netInBytes;
+    }
+
+    public double getNetOutBytes() {
+        return netOutBytes;
+    }
+
+    public void setNetOutBytes(double netOutBytes) {
+        this.netOutBytes = netOutBytes;
+    }
+
+    public Integer getTimeType() {
+        return timeType;
+    }
+
+    public void setTimeType(Integer timeType) {
+        this.timeType = timeType;
+    }
+
+    public Timestamp getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Timestamp updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,63 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * @date 2026/10/19
+ */
+public class MachineInfoParam {
+
+    /**
+     * 指定集群时查询集群中节点所在的机器
+     */
+    private Integer clusterId;
+
+    private List<String> hostList;
+
+    private Integer timeType;
+
+    private Timestamp startTime;
+
+    private Timestamp endTime;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public List<String> getHostList() {
+        return hostList;
+    }
+
+    public void setHostList(List<String> hostList) {
+        this.hostList = hostList;
+    }
+
+    public Integer getTimeType() {
+        return timeType;
+    }
+
+    public void setTimeType(Integer timeType) {
+        this.timeType = timeType;
+    }
+
+    public Timestamp getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Timestamp startTime) {
+        this.startTime = startTime;
+    }
+
+    public Timestamp getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Timestamp endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,154 @@
+package com.newegg.ec.redis.entity;
+
+/**
+ * 跨集群数据迁移参数
+ *
+ * @date 2026/10/19
+ */
+public class MigrationParam {
+
+    private Integer sourceClusterId;
+
+    private Integer targetClusterId;
+
+    private int sourceDatabase;
+
+    /**
+     * cluster 模式的目标集群只能是 0
+     */
+    private int targetDatabase;
+
+    private String pattern;
+
+    /**
+     * RESTORE 时是否带 REPLACE，否则目标已存在的 key 会跳过
+     */
+    private boolean replace = true;
+
+    /**
+     * 迁移完成后是否在目标集群校验 key 是否存在
+     */
+    private boolean verify = true;
+
+    private int batchSize = 200;
+
+    /**
+     * 每个源分片最多有多少个已读取但还未写入目标的批次
+     */
+    private int maxInFlightBatches = 4;
+
+    /**
+     * 0 表示不限速
+     */
+    private int opsPerSecond;
+
+    /**
+     * 从一个失败或取消的迁移任务的检查点继续
+     */
+    private String resumeJobId;
+
+    public Integer getSourceClusterId() {
+        return sourceClusterId;
+    }
+
+    public void setSourceClusterId(Integer sourceClusterId) {
+        this.sourceClusterId = sourceClusterId;
+    }
+
+    public Integer getTargetClusterId() {
+        return targetClusterId;
+    }
+
+    public void setTargetClusterId(Integer targetClusterId) {
+        this.targetClusterId = targetClusterId;
+    }
+
+    public int getSourceDatabase() {
+        return sourceDatabase;
+    }
+
+    public void setSourceDatabase(int sourceDatabase) {
+        this.sourceDatabase = sourceDatabase;
+    }
+
+    public int getTargetDatabase() {
+        return targetDatabase;
+    }
+
+    public void setTargetDatabase(int targetDatabase) {
+        this.targetDatabase = targetDatabase;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public boolean isReplace() {
+        return replace;
+    }
+
+    public void setReplace(boolean replace) {
+        this.replace = replace;
+    }
+
+    public boolean isVerify() {
+        return verify;
+    }
+
+    public void setVerify(boolean verify) {
+        this.verify = verify;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    public int getOpsPerSecond() {
+        return opsPerSecond;
+    }
+
+    public void setOpsPerSecond(int opsPerSecond) {
+        this.opsPerSecond = opsPerSecond;
+    }
+
+    public String getResumeJobId() {
+        return resumeJobId;
+    }
+
+    public void setResumeJobId(String resumeJobId) {
+        this.resumeJobId = resumeJobId;
+    }
+
+    @Override
+    public String toString() {
+        return "MigrationParam{" +
+                "sourceClusterId=" + sourceClusterId +
+                ", targetClusterId=" + targetClusterId +
+                ", sourceDatabase=" + sourceDatabase +
+                ", targetDatabase=" + targetDatabase +
+                ", pattern='" + pattern + '\'' +
+                ", replace=" + replace +
+                ", verify=" + verify +
+                ", batchSize=" + batchSize +
+                ", maxInFlightBatches=" + maxInFlightBatches +
+                ", opsPerSecond=" + opsPerSecond +
+                ", resumeJobId='" + resumeJobId + '\'' +
+                '}';
+    }
+}
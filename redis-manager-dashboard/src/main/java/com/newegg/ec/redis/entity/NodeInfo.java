@@ -11,7 +11,9 @@ import java.sql.Timestamp;
  * <p>
  * Monitor metrics:
  * <p>
- * response_time: √
+ * response_time: √ (p99, microseconds)
+ * response_time_p50: √
+ * response_time_max: √
  * <p>
  * connected_clients: √
  * blocked_clients: √
@@ -52,8 +54,15 @@ public class NodeInfo {
 
     private boolean lastTime;
 
+    /**
+     * PING 往返时间(微秒)，responseTime 为 p99
+     */
     private long responseTime;
 
+    private long responseTimeP50;
+
+    private long responseTimeMax;
+
     /**
      * Clients
      */
@@ -245,6 +254,22 @@ public class NodeInfo {
         this.responseTime = responseTime;
     }
 
+    public long getResponseTimeP50() {
+        return responseTimeP50;
+    }
+
+    public void setResponseTimeP50(long responseTimeP50) {
+        this.responseTimeP50 = responseTimeP50;
+    }
+
+    public long getResponseTimeMax() {
+        return responseTimeMax;
+    }
+
+    public void setResponseTimeMax(long responseTimeMax) {
+        this.responseTimeMax = responseTimeMax;
+    }
+
     public long getConnectedClients() {
         return connectedClients;
     }
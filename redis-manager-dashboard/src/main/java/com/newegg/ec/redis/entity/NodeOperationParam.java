@@ -0,0 +1,111 @@
+package com.newegg.ec.redis.entity;
+
+import java.util.List;
+
+/**
+ * 批量节点操作，后台任务执行
+ *
+ * @date 2026/10/19
+ */
+public class NodeOperationParam {
+
+    public static final String START = "START";
+
+    public static final String STOP = "STOP";
+
+    public static final String RESTART = "RESTART";
+
+    public static final String DELETE = "DELETE";
+
+    public static final String FAIL_OVER = "FAIL_OVER";
+
+    public static final String FORGET = "FORGET";
+
+    public static final String PURGE_MEMORY = "PURGE_MEMORY";
+
+    /**
+     * 只受 parallelism 限制
+     */
+    public static final String PARALLEL = "PARALLEL";
+
+    /**
+     * 每个分片(master 及其 slave)同一时间只操作一个节点，slave 先于 master
+     */
+    public static final String ONE_PER_SHARD = "ONE_PER_SHARD";
+
+    private Integer clusterId;
+
+    private String operation;
+
+    private List<RedisNode> redisNodeList;
+
+    private String policy = PARALLEL;
+
+    private int parallelism;
+
+    /**
+     * 节点操作完成后等待节点可用、slave 同步完成再继续，只对 START/RESTART/FAIL_OVER 有效
+     */
+    private boolean waitForSync;
+
+    /**
+     * 有节点失败后不再开始新的节点
+     */
+    private boolean stopOnFailure;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public List<RedisNode> getRedisNodeList() {
+        return redisNodeList;
+    }
+
+    public void setRedisNodeList(List<RedisNode> redisNodeList) {
+        this.redisNodeList = redisNodeList;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(String policy) {
+        this.policy = policy;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public boolean isWaitForSync() {
+        return waitForSync;
+    }
+
+    public void setWaitForSync(boolean waitForSync) {
+        this.waitForSync = waitForSync;
+    }
+
+    public boolean isStopOnFailure() {
+        return stopOnFailure;
+    }
+
+    public void setStopOnFailure(boolean stopOnFailure) {
+        this.stopOnFailure = stopOnFailure;
+    }
+}
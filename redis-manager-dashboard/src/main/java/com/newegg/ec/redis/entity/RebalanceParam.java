@@ -0,0 +1,119 @@
+package com.newegg.ec.redis.entity;
+
+import java.util.Map;
+
+/**
+ * 按负载重新分配槽位的参数
+ *
+ * @date 2026/10/19
+ */
+public class RebalanceParam {
+
+    public static final String SLOTS = "SLOTS";
+
+    public static final String KEYS = "KEYS";
+
+    public static final String MEMORY = "MEMORY";
+
+    public static final String OPS = "OPS";
+
+    public static final String BYTES = "BYTES";
+
+    private Integer clusterId;
+
+    /**
+     * 衡量负载的指标：SLOTS, KEYS, MEMORY, OPS
+     */
+    private String metric = MEMORY;
+
+    /**
+     * 最少移动 SLOTS 或 BYTES
+     */
+    private String minimize = SLOTS;
+
+    /**
+     * 可接受的不均衡度，max(|负载 - 目标负载|) / 平均负载
+     */
+    private double threshold = 0.05;
+
+    private int maxMoveSlots = 16384;
+
+    /**
+     * host:port -> weight，未指定的 master 权重为 1，0 表示清空该 master
+     */
+    private Map<String, Double> weights;
+
+    /**
+     * 执行时使用，预览返回的 planId
+     */
+    private String planId;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getMinimize() {
+        return minimize;
+    }
+
+    public void setMinimize(String minimize) {
+        this.minimize = minimize;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public int getMaxMoveSlots() {
+        return maxMoveSlots;
+    }
+
+    public void setMaxMoveSlots(int maxMoveSlots) {
+        this.maxMoveSlots = maxMoveSlots;
+    }
+
+    public Map<String, Double> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(Map<String, Double> weights) {
+        this.weights = weights;
+    }
+
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(String planId) {
+        this.planId = planId;
+    }
+
+    @Override
+    public String toString() {
+        return "RebalanceParam{" +
+                "clusterId=" + clusterId +
+                ", metric='" + metric + '\'' +
+                ", minimize='" + minimize + '\'' +
+                ", threshold=" + threshold +
+                ", maxMoveSlots=" + maxMoveSlots +
+                ", weights=" + weights +
+                ", planId='" + planId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,282 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 槽位重新分配的预览结果
+ *
+ * @date 2026/10/19
+ */
+public class RebalancePlan {
+
+    private String planId;
+
+    private Integer clusterId;
+
+    private String metric;
+
+    private String minimize;
+
+    private double threshold;
+
+    private double imbalanceBefore;
+
+    private double imbalanceAfter;
+
+    private int movedSlots;
+
+    private long movedBytes;
+
+    private List<NodeLoad> nodeLoadList = new ArrayList<>();
+
+    private List<SlotMove> slotMoveList = new ArrayList<>();
+
+    private Timestamp createTime;
+
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(String planId) {
+        this.planId = planId;
+    }
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getMinimize() {
+        return minimize;
+    }
+
+    public void setMinimize(String minimize) {
+        this.minimize = minimize;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public double getImbalanceBefore() {
+        return imbalanceBefore;
+    }
+
+    public void setImbalanceBefore(double imbalanceBefore) {
+        this.imbalanceBefore = imbalanceBefore;
+    }
+
+    public double getImbalanceAfter() {
+        return imbalanceAfter;
+    }
+
+    public void setImbalanceAfter(double imbalanceAfter) {
+        this.imbalanceAfter = imbalanceAfter;
+    }
+
+    public int getMovedSlots() {
+        return movedSlots;
+    }
+
+    public void setMovedSlots(int movedSlots) {
+        this.movedSlots = movedSlots;
+    }
+
+    public long getMovedBytes() {
+        return movedBytes;
+    }
+
+    public void setMovedBytes(long movedBytes) {
+        this.movedBytes = movedBytes;
+    }
+
+    public List<NodeLoad> getNodeLoadList() {
+        return nodeLoadList;
+    }
+
+    public void setNodeLoadList(List<NodeLoad> nodeLoadList) {
+        this.nodeLoadList = nodeLoadList;
+    }
+
+    public List<SlotMove> getSlotMoveList() {
+        return slotMoveList;
+    }
+
+    public void setSlotMoveList(List<SlotMove> slotMoveList) {
+        this.slotMoveList = slotMoveList;
+    }
+
+    public Timestamp getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Timestamp createTime) {
+        this.createTime = createTime;
+    }
+
+    public static class NodeLoad {
+
+        private String node;
+
+        private double weight;
+
+        private int slotsBefore;
+
+        private int slotsAfter;
+
+        private double loadBefore;
+
+        private double loadAfter;
+
+        private double target;
+
+        public String getNode() {
+            return node;
+        }
+
+        public void setNode(String node) {
+            this.node = node;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public void setWeight(double weight) {
+            this.weight = weight;
+        }
+
+        public int getSlotsBefore() {
+            return slotsBefore;
+        }
+
+        public void setSlotsBefore(int slotsBefore) {
+            this.slotsBefore = slotsBefore;
+        }
+
+        public int getSlotsAfter() {
+            return slotsAfter;
+        }
+
+        public void setSlotsAfter(int slotsAfter) {
+            this.slotsAfter = slotsAfter;
+        }
+
+        public double getLoadBefore() {
+            return loadBefore;
+        }
+
+        public void setLoadBefore(double loadBefore) {
+            this.loadBefore = loadBefore;
+        }
+
+        public double getLoadAfter() {
+            return loadAfter;
+        }
+
+        public void setLoadAfter(double loadAfter) {
+            this.loadAfter = loadAfter;
+        }
+
+        public double getTarget() {
+            return target;
+        }
+
+        public void setTarget(double target) {
+            this.target = target;
+        }
+    }
+
+    /**
+     * 连续的、源和目标都相同的槽位合并为一条
+     */
+    public static class SlotMove {
+
+        private String source;
+
+        private String target;
+
+        private int startSlot;
+
+        private int endSlot;
+
+        private int slotCount;
+
+        private double load;
+
+        private long bytes;
+
+        public String getSource() {
+            return source;
+        }
+
+        public void setSource(String source) {
+            this.source = source;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public void setTarget(String target) {
+            this.target = target;
+        }
+
+        public int getStartSlot() {
+            return startSlot;
+        }
+
+        public void setStartSlot(int startSlot) {
+            this.startSlot = startSlot;
+        }
+
+        public int getEndSlot() {
+            return endSlot;
+        }
+
+        public void setEndSlot(int endSlot) {
+            this.endSlot = endSlot;
+        }
+
+        public int getSlotCount() {
+            return slotCount;
+        }
+
+        public void setSlotCount(int slotCount) {
+            this.slotCount = slotCount;
+        }
+
+        public double getLoad() {
+            return load;
+        }
+
+        public void setLoad(double load) {
+            this.load = load;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
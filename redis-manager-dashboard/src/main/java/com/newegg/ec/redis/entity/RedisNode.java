@@ -63,6 +63,11 @@ public class RedisNode {
 
     private boolean runStatus;
 
+    /**
+     * 熔断状态: CLOSED, OPEN, HALF_OPEN
+     */
+    private String circuitState;
+
     private boolean inDatabase;
 
     private Timestamp insertTime;
@@ -235,6 +240,14 @@ public class RedisNode {
         this.runStatus = runStatus;
     }
 
+    public String getCircuitState() {
+        return circuitState;
+    }
+
+    public void setCircuitState(String circuitState) {
+        this.circuitState = circuitState;
+    }
+
     public boolean getInDatabase() {
         return inDatabase;
     }
@@ -0,0 +1,64 @@
+package com.newegg.ec.redis.entity;
+
+/**
+ * 批量执行时单条命令的结果
+ *
+ * @date 2026/10/19
+ */
+public class SSHCommandResult {
+
+    private String command;
+
+    private int exitCode;
+
+    /**
+     * stdout 与 stderr 合并后的输出
+     */
+    private String output;
+
+    public SSHCommandResult() {
+    }
+
+    public SSHCommandResult(String command, int exitCode, String output) {
+        this.command = command;
+        this.exitCode = exitCode;
+        this.output = output;
+    }
+
+    public boolean isSuccess() {
+        return exitCode == 0;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public void setExitCode(int exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public void setOutput(String output) {
+        this.output = output;
+    }
+
+    @Override
+    public String toString() {
+        return "SSHCommandResult{" +
+                "command='" + command + '\'' +
+                ", exitCode=" + exitCode +
+                ", output='" + output + '\'' +
+                '}';
+    }
+}
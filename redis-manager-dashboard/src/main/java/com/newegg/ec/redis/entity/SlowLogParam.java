@@ -1,5 +1,7 @@
 package com.newegg.ec.redis.entity;
 
+import java.sql.Timestamp;
+
 /**
  * @author Jay.H.Zou
  * @date 7/26/2019
@@ -10,6 +12,17 @@ public class SlowLogParam {
 
     private String node;
 
+    private Timestamp startTime;
+
+    private Timestamp endTime;
+
+    /**
+     * top 排序: count, total_time, p99_time
+     */
+    private String orderBy;
+
+    private int limit = 100;
+
     public Integer getClusterId() {
         return clusterId;
     }
@@ -26,4 +39,36 @@ public class SlowLogParam {
         this.node = node;
     }
 
-}
\ No newline at end of file
+    public Timestamp getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Timestamp startTime) {
+        this.startTime = startTime;
+    }
+
+    public Timestamp getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Timestamp endTime) {
+        this.endTime = endTime;
+    }
+
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    public void setOrderBy(String orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+}
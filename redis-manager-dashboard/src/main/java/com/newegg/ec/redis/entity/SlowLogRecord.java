@@ -0,0 +1,125 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+
+/**
+ * 采集并持久化的慢日志
+ *
+ * @date 2026/10/19
+ */
+public class SlowLogRecord {
+
+    private Long slowLogId;
+
+    private Integer clusterId;
+
+    private String node;
+
+    /**
+     * redis slowlog id，节点重启后从 0 开始
+     */
+    private long logId;
+
+    private Timestamp dateTime;
+
+    /**
+     * microseconds
+     */
+    private long executionTime;
+
+    private String type;
+
+    private String command;
+
+    /**
+     * 命令名 + key 模式
+     */
+    private String fingerprint;
+
+    public Long getSlowLogId() {
+        return slowLogId;
+    }
+
+    public void setSlowLogId(Long slowLogId) {
+        this.slowLogId = slowLogId;
+    }
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public long getLogId() {
+        return logId;
+    }
+
+    public void setLogId(long logId) {
+        this.logId = logId;
+    }
+
+    public Timestamp getDateTime() {
+        return dateTime;
+    }
+
+    public void setDateTime(Timestamp dateTime) {
+        this.dateTime = dateTime;
+    }
+
+    public long getExecutionTime() {
+        return executionTime;
+    }
+
+    public void setExecutionTime(long executionTime) {
+        this.executionTime = executionTime;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public void setCommand(String command) {
+        this.command = command;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowLogRecord{" +
+                "slowLogId=" + slowLogId +
+                ", clusterId=" + clusterId +
+                ", node='" + node + '\'' +
+                ", logId=" + logId +
+                ", dateTime=" + dateTime +
+                ", executionTime=" + executionTime +
+                ", type='" + type + '\'' +
+                ", command='" + command + '\'' +
+                ", fingerprint='" + fingerprint + '\'' +
+                '}';
+    }
+}
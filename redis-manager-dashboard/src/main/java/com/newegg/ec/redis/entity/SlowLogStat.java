@@ -0,0 +1,118 @@
+package com.newegg.ec.redis.entity;
+
+import java.sql.Timestamp;
+
+/**
+ * 每小时、每个节点、每个命令指纹的慢日志汇总
+ *
+ * @date 2026/10/19
+ */
+public class SlowLogStat {
+
+    private Integer clusterId;
+
+    private String node;
+
+    private String fingerprint;
+
+    /**
+     * 整点
+     */
+    private Timestamp hour;
+
+    private long count;
+
+    /**
+     * microseconds
+     */
+    private long totalTime;
+
+    private long maxTime;
+
+    /**
+     * 跨小时汇总时为各小时 p99 的最大值
+     */
+    private long p99Time;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Timestamp getHour() {
+        return hour;
+    }
+
+    public void setHour(Timestamp hour) {
+        this.hour = hour;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public void setTotalTime(long totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(long maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    public long getP99Time() {
+        return p99Time;
+    }
+
+    public void setP99Time(long p99Time) {
+        this.p99Time = p99Time;
+    }
+
+    public long getAvgTime() {
+        return count == 0 ? 0 : totalTime / count;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowLogStat{" +
+                "clusterId=" + clusterId +
+                ", node='" + node + '\'' +
+                ", fingerprint='" + fingerprint + '\'' +
+                ", hour=" + hour +
+                ", count=" + count +
+                ", totalTime=" + totalTime +
+                ", maxTime=" + maxTime +
+                ", p99Time=" + p99Time +
+                '}';
+    }
+}
@@ -0,0 +1,191 @@
+package com.newegg.ec.redis.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 长时间运行的后台任务，提交给 JobManager 执行
+ * <p>
+ * 子类在 execute 中定期检查 isCanceled()，并通过 total/processed/failed 汇报进度
+ *
+ * @date 2026/10/19
+ */
+public abstract class AbstractJob implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractJob.class);
+
+    public enum JobStatus {
+
+        WAITING,
+
+        RUNNING,
+
+        SUCCESS,
+
+        FAILED,
+
+        CANCELED
+    }
+
+    private final String jobId = UUID.randomUUID().toString().replace("-", "");
+
+    private final String jobType;
+
+    private final Integer clusterId;
+
+    private volatile JobStatus status = JobStatus.WAITING;
+
+    private volatile boolean canceled;
+
+    private volatile String message;
+
+    private volatile Timestamp startTime;
+
+    private volatile Timestamp endTime;
+
+    protected final AtomicLong total = new AtomicLong();
+
+    protected final AtomicLong processed = new AtomicLong();
+
+    protected final AtomicLong failed = new AtomicLong();
+
+    protected AbstractJob(String jobType, Integer clusterId) {
+        this.jobType = jobType;
+        this.clusterId = clusterId;
+    }
+
+    /**
+     * 任务主体
+     *
+     * @throws Exception
+     */
+    protected abstract void execute() throws Exception;
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            // 在队列中等待时已被取消
+            if (status != JobStatus.WAITING) {
+                return;
+            }
+            startTime = new Timestamp(System.currentTimeMillis());
+            status = JobStatus.RUNNING;
+        }
+        try {
+            if (!canceled) {
+                execute();
+            }
+            status = canceled ? JobStatus.CANCELED : JobStatus.SUCCESS;
+        } catch (Exception e) {
+            logger.error(jobType + " job failed, job id = " + jobId, e);
+            message = e.getMessage();
+            status = canceled ? JobStatus.CANCELED : JobStatus.FAILED;
+        } finally {
+            endTime = new Timestamp(System.currentTimeMillis());
+        }
+    }
+
+    public void cancel() {
+        canceled = true;
+    }
+
+    /**
+     * 还未开始执行的任务直接结束
+     *
+     * @return true if the job was waiting and is canceled now
+     */
+    synchronized boolean cancelWaiting() {
+        canceled = true;
+        if (status != JobStatus.WAITING) {
+            return false;
+        }
+        status = JobStatus.CANCELED;
+        endTime = new Timestamp(System.currentTimeMillis());
+        return true;
+    }
+
+    public boolean isCanceled() {
+        return canceled || Thread.currentThread().isInterrupted();
+    }
+
+    public boolean isFinished() {
+        return status != JobStatus.WAITING && status != JobStatus.RUNNING;
+    }
+
+    /**
+     * 任务相关的详细进度，如每个分片的进度
+     *
+     * @return
+     */
+    public Object getDetail() {
+        return null;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getJobType() {
+        return jobType;
+    }
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    protected void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Timestamp getStartTime() {
+        return startTime;
+    }
+
+    public Timestamp getEndTime() {
+        return endTime;
+    }
+
+    public long getElapsed() {
+        if (startTime == null) {
+            return 0;
+        }
+        long end = endTime == null ? System.currentTimeMillis() : endTime.getTime();
+        return end - startTime.getTime();
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public String toString() {
+        return jobType + "{" +
+                "jobId='" + jobId + '\'' +
+                ", clusterId=" + clusterId +
+                ", status=" + status +
+                ", total=" + total +
+                ", processed=" + processed +
+                ", failed=" + failed +
+                '}';
+    }
+}
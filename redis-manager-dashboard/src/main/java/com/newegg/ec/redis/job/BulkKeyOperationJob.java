@@ -0,0 +1,227 @@
+package com.newegg.ec.redis.job;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisPipeline;
+import com.newegg.ec.redis.entity.BulkOperationParam;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.util.RedisUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.newegg.ec.redis.entity.BulkOperationParam.*;
+import static com.newegg.ec.redis.util.RedisUtil.CLUSTER;
+
+/**
+ * 按 pattern 对整个集群做 UNLINK / EXPIRE / PERSIST
+ * <p>
+ * 每个 master 一个线程：SCAN 出一批 key 后 pipeline 执行，cluster 模式下 UNLINK 按 slot 分组为多 key 命令；
+ * 所有分片共享一个 RateLimiter，保证集群整体的 ops/sec 不超过目标值
+ *
+ * @date 2026/10/19
+ */
+public class BulkKeyOperationJob extends AbstractJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkKeyOperationJob.class);
+
+    public static final String JOB_TYPE = "BULK_KEY_OPERATION";
+
+    private static final int MAX_THREADS = 8;
+
+    private final Cluster cluster;
+
+    private final List<RedisNode> masterNodeList;
+
+    private final BulkOperationParam param;
+
+    private final RateLimiter rateLimiter;
+
+    private final Map<String, ShardProgress> shardProgressMap = new ConcurrentHashMap<>();
+
+    public BulkKeyOperationJob(Cluster cluster, List<RedisNode> masterNodeList, BulkOperationParam param) {
+        super(JOB_TYPE, cluster.getClusterId());
+        this.cluster = cluster;
+        this.masterNodeList = masterNodeList;
+        this.param = param;
+        this.rateLimiter = RateLimiter.create(Math.max(param.getOpsPerSecond(), 1));
+        masterNodeList.forEach(masterNode -> shardProgressMap.put(RedisUtil.getNodeString(masterNode), new ShardProgress()));
+    }
+
+    @Override
+    protected void execute() throws Exception {
+        int threads = Math.min(masterNodeList.size(), MAX_THREADS);
+        ExecutorService shardPool = Executors.newFixedThreadPool(Math.max(threads, 1),
+                new ThreadFactoryBuilder().setNameFormat("bulk-key-operation-" + getJobId() + "-%d").setDaemon(true).build());
+        try {
+            List<Future<?>> futureList = new ArrayList<>(masterNodeList.size());
+            masterNodeList.forEach(masterNode -> futureList.add(shardPool.submit(() -> processShard(masterNode))));
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } finally {
+            shardPool.shutdownNow();
+        }
+        long failedShards = shardProgressMap.values().stream().filter(progress -> progress.getMessage() != null).count();
+        if (failedShards > 0) {
+            throw new RuntimeException(failedShards + " of " + shardProgressMap.size() + " shard(s) failed, see detail.");
+        }
+    }
+
+    private void processShard(RedisNode masterNode) {
+        String node = RedisUtil.getNodeString(masterNode);
+        ShardProgress progress = shardProgressMap.get(node);
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(masterNode, cluster.getRedisPassword());
+            Jedis jedis = redisClient.getJedisClient();
+            jedis.select(param.getDatabase());
+            // SCAN MATCH 无法得知匹配总数，以 DBSIZE 作为上限估算
+            long dbSize = jedis.dbSize();
+            progress.setEstimatedKeys(dbSize);
+            total.addAndGet(dbSize);
+            ScanParams scanParams = new ScanParams().match(param.getPattern()).count(param.getBatchSize());
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                ScanResult<String> scanResult = jedis.scan(cursor, scanParams);
+                cursor = scanResult.getCursor();
+                List<String> keys = scanResult.getResult();
+                if (keys.isEmpty()) {
+                    continue;
+                }
+                progress.matched.addAndGet(keys.size());
+                processed.addAndGet(keys.size());
+                if (param.isDryRun()) {
+                    continue;
+                }
+                rateLimiter.acquire(keys.size());
+                long failedCount = pipeline(jedis, keys);
+                progress.failed.addAndGet(failedCount);
+                failed.addAndGet(failedCount);
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor) && !isCanceled());
+            progress.setFinished(true);
+        } catch (Exception e) {
+            logger.error("Bulk key operation failed, node = " + node + ", " + param, e);
+            progress.setMessage(e.getMessage());
+        } finally {
+            if (redisClient != null) {
+                redisClient.close();
+            }
+        }
+    }
+
+    /**
+     * @return failed key number
+     */
+    private long pipeline(Jedis jedis, List<String> keys) {
+        RedisPipeline pipeline = new RedisPipeline(jedis);
+        String action = param.getAction();
+        List<Integer> commandKeys = new ArrayList<>();
+        if (Objects.equals(UNLINK, action)) {
+            // cluster 模式下多 key 命令必须在同一个 slot
+            Collection<List<String>> groups = Objects.equals(CLUSTER, cluster.getRedisMode())
+                    ? groupBySlot(keys) : Collections.singletonList(keys);
+            for (List<String> group : groups) {
+                pipeline.append(UNLINK, group.toArray(new String[0]));
+                commandKeys.add(group.size());
+            }
+        } else if (Objects.equals(EXPIRE, action)) {
+            String seconds = String.valueOf(param.getSeconds());
+            keys.forEach(key -> {
+                pipeline.append(EXPIRE, key, seconds);
+                commandKeys.add(1);
+            });
+        } else {
+            keys.forEach(key -> {
+                pipeline.append(PERSIST, key);
+                commandKeys.add(1);
+            });
+        }
+        List<Object> replies = pipeline.sync();
+        long failedCount = 0;
+        for (int i = 0; i < replies.size(); i++) {
+            if (RedisPipeline.isError(replies.get(i))) {
+                failedCount += commandKeys.get(i);
+            }
+        }
+        return failedCount;
+    }
+
+    private Collection<List<String>> groupBySlot(List<String> keys) {
+        Map<Integer, List<String>> slotKeys = new HashMap<>();
+        keys.forEach(key -> slotKeys.computeIfAbsent(JedisClusterCRC16.getSlot(key), slot -> new ArrayList<>()).add(key));
+        return slotKeys.values();
+    }
+
+    public boolean isDryRun() {
+        return param.isDryRun();
+    }
+
+    public String getAction() {
+        return param.getAction();
+    }
+
+    public String getPattern() {
+        return param.getPattern();
+    }
+
+    @Override
+    public Object getDetail() {
+        return new TreeMap<>(shardProgressMap);
+    }
+
+    public static class ShardProgress {
+
+        private final AtomicLong matched = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private volatile long estimatedKeys;
+
+        private volatile boolean finished;
+
+        private volatile String message;
+
+        public long getMatched() {
+            return matched.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getEstimatedKeys() {
+            return estimatedKeys;
+        }
+
+        public void setEstimatedKeys(long estimatedKeys) {
+            this.estimatedKeys = estimatedKeys;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        public void setFinished(boolean finished) {
+            this.finished = finished;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.newegg.ec.redis.job;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+
+import static com.newegg.ec.redis.util.TimeUtil.ONE_HOUR;
+
+/**
+ * 后台任务的提交、查询与取消
+ * <p>
+ * 已结束的任务保留一小时以便查询结果
+ *
+ * @date 2026/10/19
+ */
+@Component
+public class JobManager implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobManager.class);
+
+    @Value("${redis-manager.job.threads:4}")
+    private int threads;
+
+    private ExecutorService threadPool;
+
+    private final Map<String, AbstractJob> jobMap = new ConcurrentHashMap<>();
+
+    private final Map<String, Future<?>> futureMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        if (threadPool != null) {
+            return;
+        }
+        threadPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("redis-job-pool-thread-%d").setDaemon(true).build());
+    }
+
+    public String submit(AbstractJob job) {
+        jobMap.put(job.getJobId(), job);
+        futureMap.put(job.getJobId(), threadPool.submit(job));
+        logger.info("Submit job: " + job);
+        return job.getJobId();
+    }
+
+    public AbstractJob getJob(String jobId) {
+        return jobMap.get(jobId);
+    }
+
+    public List<AbstractJob> getJobList(Integer clusterId) {
+        List<AbstractJob> jobList = new ArrayList<>();
+        jobMap.values().forEach(job -> {
+            if (clusterId == null || Objects.equals(clusterId, job.getClusterId())) {
+                jobList.add(job);
+            }
+        });
+        jobList.sort((a, b) -> Long.compare(b.getElapsed(), a.getElapsed()));
+        return jobList;
+    }
+
+    /**
+     * 同一集群下是否有同类型的任务在执行
+     *
+     * @param clusterId
+     * @param jobType
+     * @return
+     */
+    public boolean isRunning(Integer clusterId, String jobType) {
+        return jobMap.values().stream().anyMatch(job -> !job.isFinished()
+                && Objects.equals(clusterId, job.getClusterId())
+                && Objects.equals(jobType, job.getJobType()));
+    }
+
+    public boolean cancel(String jobId) {
+        AbstractJob job = jobMap.get(jobId);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        // 还未开始执行的任务标记为已取消并移出队列，否则由任务自己检查 isCanceled()
+        if (job.cancelWaiting()) {
+            Future<?> future = futureMap.get(jobId);
+            if (future != null) {
+                future.cancel(false);
+            }
+        } else {
+            job.cancel();
+        }
+        logger.info("Cancel job: " + job);
+        return true;
+    }
+
+    @Scheduled(cron = "0 0/10 * * * ?")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        jobMap.values().removeIf(job -> {
+            boolean expired = job.isFinished() && job.getEndTime() != null && now - job.getEndTime().getTime() > ONE_HOUR;
+            if (expired) {
+                futureMap.remove(job.getJobId());
+            }
+            return expired;
+        });
+    }
+}
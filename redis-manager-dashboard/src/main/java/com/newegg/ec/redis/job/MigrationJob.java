@@ -0,0 +1,576 @@
+package com.newegg.ec.redis.job;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisPipeline;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.MigrationParam;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.util.RedisUtil;
+import com.newegg.ec.redis.util.SlotMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.util.JedisClusterCRC16;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.newegg.ec.redis.util.RedisUtil.CLUSTER;
+
+/**
+ * 跨集群数据迁移：源集群 SCAN + pipelined DUMP/PTTL，目标集群按 slot 路由 pipelined RESTORE
+ * <p>
+ * 每个源分片一个读线程和一个写线程，中间是有界队列，限制已读取未写入的批次数；
+ * 写线程每写完一批才推进该分片的 SCAN cursor 检查点，失败或取消的任务可以从检查点继续
+ * <p>
+ * 检查点只保存在内存中的任务对象里，任务结束一小时后随任务一起被 JobManager 清理，服务重启后也会丢失，
+ * 此时只能重新迁移(不指定 replace 时已存在的 key 会被跳过)
+ *
+ * @date 2026/10/19
+ */
+public class MigrationJob extends AbstractJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationJob.class);
+
+    public static final String JOB_TYPE = "DATA_MIGRATION";
+
+    public static final String MIGRATE = "MIGRATE";
+
+    public static final String VERIFY = "VERIFY";
+
+    private static final int MAX_SHARD_THREADS = 8;
+
+    private static final byte[] REPLACE = SafeEncoder.encode("REPLACE");
+
+    private static final Batch END = new Batch(Collections.emptyList(), null);
+
+    private final Cluster sourceCluster;
+
+    private final Cluster targetCluster;
+
+    private final List<RedisNode> sourceMasterList;
+
+    /**
+     * cluster 模式下 slot -> 目标 master，否则为 null
+     */
+    private final SlotMap slotMap;
+
+    private final RedisNode targetNode;
+
+    private final MigrationParam param;
+
+    private final RateLimiter rateLimiter;
+
+    private final Map<String, ShardProgress> shardProgressMap = new ConcurrentHashMap<>();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong verified = new AtomicLong();
+
+    private final AtomicLong missing = new AtomicLong();
+
+    private volatile String phase = MIGRATE;
+
+    /**
+     * 从检查点继续时之前已处理的 key 数量，不计入本次速度
+     */
+    private final long resumedProcessed;
+
+    public MigrationJob(Cluster sourceCluster, List<RedisNode> sourceMasterList,
+                        Cluster targetCluster, List<RedisNode> targetMasterList,
+                        MigrationParam param, MigrationJob previousJob) {
+        super(JOB_TYPE, sourceCluster.getClusterId());
+        this.sourceCluster = sourceCluster;
+        this.targetCluster = targetCluster;
+        this.sourceMasterList = sourceMasterList;
+        this.param = param;
+        this.rateLimiter = param.getOpsPerSecond() > 0 ? RateLimiter.create(param.getOpsPerSecond()) : null;
+        if (Objects.equals(CLUSTER, targetCluster.getRedisMode())) {
+            this.slotMap = SlotMap.fromClusterNodes(targetMasterList);
+            if (!slotMap.isFullyAssigned()) {
+                throw new IllegalStateException("Target slots not assigned: " + SlotMap.toRangeString(slotMap.getUnassignedSlots()));
+            }
+            this.targetNode = null;
+        } else {
+            this.slotMap = null;
+            this.targetNode = targetMasterList.get(0);
+        }
+        sourceMasterList.forEach(masterNode -> {
+            String node = RedisUtil.getNodeString(masterNode);
+            ShardProgress previous = previousJob == null ? null : previousJob.shardProgressMap.get(node);
+            shardProgressMap.put(node, previous == null ? new ShardProgress() : previous.checkpoint());
+        });
+        // 继续时沿用之前的总数和进度，已完成的分片不再重复计算
+        shardProgressMap.values().forEach(progress -> {
+            total.addAndGet(progress.estimatedKeys);
+            processed.addAndGet(progress.scanned.get());
+        });
+        this.resumedProcessed = processed.get();
+    }
+
+    @Override
+    protected void execute() throws Exception {
+        int threads = Math.max(Math.min(sourceMasterList.size(), MAX_SHARD_THREADS), 1);
+        ExecutorService readerPool = Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setNameFormat("migration-reader-" + getJobId() + "-%d").setDaemon(true).build());
+        // 写线程与正在执行的读线程一一对应，数量不会超过读线程数
+        ExecutorService writerPool = Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("migration-writer-" + getJobId() + "-%d").setDaemon(true).build());
+        try {
+            List<Future<?>> futureList = new ArrayList<>();
+            sourceMasterList.forEach(masterNode -> futureList.add(readerPool.submit(() -> migrateShard(masterNode, writerPool))));
+            waitAll(futureList);
+            long failedShards = shardProgressMap.values().stream().filter(progress -> !progress.isFinished()).count();
+            if (isCanceled()) {
+                return;
+            }
+            if (failedShards > 0) {
+                throw new RuntimeException(failedShards + " shard(s) not finished, resume from checkpoint is available.");
+            }
+            if (param.isVerify()) {
+                phase = VERIFY;
+                futureList.clear();
+                sourceMasterList.forEach(masterNode -> futureList.add(readerPool.submit(() -> verifyShard(masterNode))));
+                waitAll(futureList);
+                long verifyFailedShards = shardProgressMap.values().stream().filter(progress -> progress.getMessage() != null).count();
+                if (verifyFailedShards > 0 && !isCanceled()) {
+                    throw new RuntimeException(verifyFailedShards + " shard(s) verify failed, resume to verify again.");
+                }
+                if (missing.get() > 0) {
+                    setMessage(missing.get() + " key(s) not found in target, they may be expired or written after scan.");
+                }
+            }
+        } finally {
+            readerPool.shutdownNow();
+            writerPool.shutdownNow();
+        }
+    }
+
+    private void waitAll(List<Future<?>> futureList) throws InterruptedException, ExecutionException {
+        for (Future<?> future : futureList) {
+            future.get();
+        }
+    }
+
+    private void migrateShard(RedisNode masterNode, ExecutorService writerPool) {
+        String node = RedisUtil.getNodeString(masterNode);
+        ShardProgress progress = shardProgressMap.get(node);
+        if (progress.isFinished()) {
+            return;
+        }
+        progress.setMessage(null);
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(Math.max(param.getMaxInFlightBatches(), 1));
+        ShardWriter writer = new ShardWriter(progress, queue);
+        Future<?> writerFuture = writerPool.submit(writer);
+        RedisClient sourceClient = null;
+        String cursor = progress.getCursor() == null ? ScanParams.SCAN_POINTER_START : progress.getCursor();
+        try {
+            sourceClient = RedisClientFactory.buildRedisClient(masterNode, sourceCluster.getRedisPassword());
+            Jedis jedis = sourceClient.getJedisClient();
+            jedis.select(param.getSourceDatabase());
+            // 从检查点继续的分片已经计入总数
+            if (progress.estimatedKeys == 0) {
+                long dbSize = jedis.dbSize();
+                progress.estimatedKeys = dbSize;
+                total.addAndGet(dbSize);
+            }
+            ScanParams scanParams = new ScanParams().count(param.getBatchSize());
+            if (!Strings.isNullOrEmpty(param.getPattern())) {
+                scanParams.match(param.getPattern());
+            }
+            do {
+                ScanResult<byte[]> scanResult = jedis.scan(SafeEncoder.encode(cursor), scanParams);
+                cursor = scanResult.getCursor();
+                List<byte[]> keys = scanResult.getResult();
+                if (rateLimiter != null && !keys.isEmpty()) {
+                    rateLimiter.acquire(keys.size());
+                }
+                Batch batch = dump(jedis, keys, cursor);
+                batch.scanned = keys.size();
+                processed.addAndGet(keys.size());
+                while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+                    if (writer.isFailed() || isCanceled()) {
+                        break;
+                    }
+                }
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor) && !writer.isFailed() && !isCanceled());
+        } catch (Exception e) {
+            logger.error("Migration read failed, node = " + node + ", " + param, e);
+            progress.setMessage(e.getMessage());
+        } finally {
+            if (sourceClient != null) {
+                sourceClient.close();
+            }
+        }
+        try {
+            // 写线程失败时队列可能已满，不再等待
+            boolean ended = false;
+            while (!ended && !writer.isFailed()) {
+                ended = queue.offer(END, 1, TimeUnit.SECONDS);
+            }
+            writerFuture.get();
+        } catch (Exception e) {
+            logger.error("Wait migration writer failed, node = " + node, e);
+        }
+        if (progress.getMessage() == null && !writer.isFailed()
+                && ScanParams.SCAN_POINTER_START.equals(progress.getCursor())) {
+            progress.setFinished(true);
+        }
+    }
+
+    /**
+     * DUMP + PTTL 每个 key 两条命令，已过期或已删除的 key 跳过
+     */
+    private Batch dump(Jedis jedis, List<byte[]> keys, String cursor) {
+        if (keys.isEmpty()) {
+            return new Batch(Collections.emptyList(), cursor);
+        }
+        RedisPipeline pipeline = new RedisPipeline(jedis);
+        keys.forEach(key -> {
+            pipeline.append("DUMP", key);
+            pipeline.append("PTTL", key);
+        });
+        List<Object> replies = pipeline.sync();
+        List<DumpEntry> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = replies.get(i * 2);
+            Object ttlReply = replies.get(i * 2 + 1);
+            if (RedisPipeline.isError(value) || RedisPipeline.isError(ttlReply)) {
+                failed.incrementAndGet();
+                continue;
+            }
+            long ttl = RedisPipeline.toLong(ttlReply);
+            if (value == null || ttl == -2) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            entries.add(new DumpEntry(keys.get(i), (byte[]) value, ttl < 0 ? 0 : ttl));
+        }
+        return new Batch(entries, cursor);
+    }
+
+    private void verifyShard(RedisNode masterNode) {
+        String node = RedisUtil.getNodeString(masterNode);
+        ShardProgress progress = shardProgressMap.get(node);
+        RedisClient sourceClient = null;
+        TargetConnections targetConnections = new TargetConnections();
+        try {
+            sourceClient = RedisClientFactory.buildRedisClient(masterNode, sourceCluster.getRedisPassword());
+            Jedis jedis = sourceClient.getJedisClient();
+            jedis.select(param.getSourceDatabase());
+            ScanParams scanParams = new ScanParams().count(param.getBatchSize());
+            if (!Strings.isNullOrEmpty(param.getPattern())) {
+                scanParams.match(param.getPattern());
+            }
+            String cursor = ScanParams.SCAN_POINTER_START;
+            do {
+                ScanResult<byte[]> scanResult = jedis.scan(SafeEncoder.encode(cursor), scanParams);
+                cursor = scanResult.getCursor();
+                Map<RedisNode, List<byte[]>> targetKeys = new HashMap<>();
+                scanResult.getResult().forEach(key -> targetKeys.computeIfAbsent(route(key), target -> new ArrayList<>()).add(key));
+                for (Map.Entry<RedisNode, List<byte[]>> entry : targetKeys.entrySet()) {
+                    RedisPipeline pipeline = new RedisPipeline(targetConnections.get(entry.getKey()));
+                    entry.getValue().forEach(key -> pipeline.append("EXISTS", key));
+                    for (Object reply : pipeline.sync()) {
+                        if (RedisPipeline.toLong(reply) > 0) {
+                            verified.incrementAndGet();
+                            progress.verified.incrementAndGet();
+                        } else {
+                            missing.incrementAndGet();
+                            progress.missing.incrementAndGet();
+                        }
+                    }
+                }
+            } while (!ScanParams.SCAN_POINTER_START.equals(cursor) && !isCanceled());
+        } catch (Exception e) {
+            logger.error("Migration verify failed, node = " + node + ", " + param, e);
+            progress.setMessage(e.getMessage());
+        } finally {
+            if (sourceClient != null) {
+                sourceClient.close();
+            }
+            targetConnections.close();
+        }
+    }
+
+    private RedisNode route(byte[] key) {
+        return slotMap == null ? targetNode : slotMap.getOwner(JedisClusterCRC16.getSlot(key));
+    }
+
+    public Integer getSourceClusterId() {
+        return sourceCluster.getClusterId();
+    }
+
+    public Integer getTargetClusterId() {
+        return targetCluster.getClusterId();
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public long getVerified() {
+        return verified.get();
+    }
+
+    public long getMissing() {
+        return missing.get();
+    }
+
+    public long getKeysPerSecond() {
+        long elapsed = getElapsed();
+        return elapsed <= 0 ? 0 : (processed.get() - resumedProcessed) * 1000 / elapsed;
+    }
+
+    public long getBytesPerSecond() {
+        long elapsed = getElapsed();
+        return elapsed <= 0 ? 0 : bytes.get() * 1000 / elapsed;
+    }
+
+    @Override
+    public Object getDetail() {
+        return new TreeMap<>(shardProgressMap);
+    }
+
+    /**
+     * 每个源分片的写线程，目标连接按节点懒加载，仅本线程使用
+     */
+    private class ShardWriter implements Runnable {
+
+        private final ShardProgress progress;
+
+        private final BlockingQueue<Batch> queue;
+
+        private volatile boolean failed;
+
+        ShardWriter(ShardProgress progress, BlockingQueue<Batch> queue) {
+            this.progress = progress;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            TargetConnections targetConnections = new TargetConnections();
+            try {
+                Batch batch;
+                while ((batch = queue.take()) != END) {
+                    restore(targetConnections, batch);
+                    progress.scanned.addAndGet(batch.scanned);
+                    progress.setCursor(batch.cursor);
+                }
+            } catch (InterruptedException e) {
+                failed = true;
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failed = true;
+                logger.error("Migration write failed, " + param, e);
+                progress.setMessage(e.getMessage());
+            } finally {
+                targetConnections.close();
+            }
+        }
+
+        private void restore(TargetConnections targetConnections, Batch batch) {
+            Map<RedisNode, List<DumpEntry>> targetEntries = new HashMap<>();
+            batch.entries.forEach(entry -> targetEntries.computeIfAbsent(route(entry.key), target -> new ArrayList<>()).add(entry));
+            for (Map.Entry<RedisNode, List<DumpEntry>> entry : targetEntries.entrySet()) {
+                RedisPipeline pipeline = new RedisPipeline(targetConnections.get(entry.getKey()));
+                long batchBytes = 0;
+                for (DumpEntry dumpEntry : entry.getValue()) {
+                    byte[] ttl = SafeEncoder.encode(String.valueOf(dumpEntry.ttl));
+                    if (param.isReplace()) {
+                        pipeline.append("RESTORE", dumpEntry.key, ttl, dumpEntry.value, REPLACE);
+                    } else {
+                        pipeline.append("RESTORE", dumpEntry.key, ttl, dumpEntry.value);
+                    }
+                    batchBytes += dumpEntry.key.length + dumpEntry.value.length;
+                }
+                List<Object> replies = pipeline.sync();
+                for (Object reply : replies) {
+                    if (!RedisPipeline.isError(reply)) {
+                        progress.migrated.incrementAndGet();
+                    } else if (String.valueOf(RedisPipeline.decode(reply)).startsWith("BUSYKEY")) {
+                        skipped.incrementAndGet();
+                    } else {
+                        MigrationJob.this.failed.incrementAndGet();
+                        progress.failed.incrementAndGet();
+                        progress.setLastError(String.valueOf(RedisPipeline.decode(reply)));
+                    }
+                }
+                bytes.addAndGet(batchBytes);
+            }
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+    }
+
+    private class TargetConnections {
+
+        private final Map<RedisNode, RedisClient> clientMap = new HashMap<>();
+
+        Jedis get(RedisNode redisNode) {
+            RedisClient redisClient = clientMap.get(redisNode);
+            if (redisClient == null) {
+                redisClient = RedisClientFactory.buildRedisClient(redisNode, targetCluster.getRedisPassword());
+                if (slotMap == null) {
+                    redisClient.getJedisClient().select(param.getTargetDatabase());
+                }
+                clientMap.put(redisNode, redisClient);
+            }
+            return redisClient.getJedisClient();
+        }
+
+        void close() {
+            clientMap.values().forEach(RedisClient::close);
+            clientMap.clear();
+        }
+    }
+
+    private static class Batch {
+
+        private final List<DumpEntry> entries;
+
+        /**
+         * 本批次写入后分片的 SCAN cursor
+         */
+        private final String cursor;
+
+        /**
+         * 本批次 SCAN 到的 key 数量
+         */
+        private int scanned;
+
+        Batch(List<DumpEntry> entries, String cursor) {
+            this.entries = entries;
+            this.cursor = cursor;
+        }
+    }
+
+    private static class DumpEntry {
+
+        private final byte[] key;
+
+        private final byte[] value;
+
+        private final long ttl;
+
+        DumpEntry(byte[] key, byte[] value, long ttl) {
+            this.key = key;
+            this.value = value;
+            this.ttl = ttl;
+        }
+    }
+
+    public static class ShardProgress {
+
+        private final AtomicLong migrated = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong verified = new AtomicLong();
+
+        private final AtomicLong missing = new AtomicLong();
+
+        /**
+         * 已写入目标的批次中 SCAN 到的 key 数量，与 cursor 一起推进
+         */
+        private final AtomicLong scanned = new AtomicLong();
+
+        private volatile long estimatedKeys;
+
+        private volatile String cursor;
+
+        private volatile boolean finished;
+
+        private volatile String message;
+
+        private volatile String lastError;
+
+        /**
+         * 复制检查点，用于继续迁移
+         */
+        ShardProgress checkpoint() {
+            ShardProgress checkpoint = new ShardProgress();
+            checkpoint.migrated.set(migrated.get());
+            checkpoint.failed.set(failed.get());
+            checkpoint.scanned.set(scanned.get());
+            checkpoint.estimatedKeys = estimatedKeys;
+            checkpoint.cursor = cursor;
+            // cursor 回到 0 说明所有批次都已写入目标
+            checkpoint.finished = finished || ScanParams.SCAN_POINTER_START.equals(cursor);
+            return checkpoint;
+        }
+
+        public long getMigrated() {
+            return migrated.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getVerified() {
+            return verified.get();
+        }
+
+        public long getMissing() {
+            return missing.get();
+        }
+
+        public long getEstimatedKeys() {
+            return estimatedKeys;
+        }
+
+        public String getCursor() {
+            return cursor;
+        }
+
+        public void setCursor(String cursor) {
+            this.cursor = cursor;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+
+        public void setFinished(boolean finished) {
+            this.finished = finished;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        public void setLastError(String lastError) {
+            this.lastError = lastError;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.newegg.ec.redis.job;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.NodeOperationParam;
+import com.newegg.ec.redis.entity.NodeRole;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.util.ReadinessWaiter;
+import com.newegg.ec.redis.util.RedisUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.newegg.ec.redis.entity.NodeOperationParam.ONE_PER_SHARD;
+
+/**
+ * 批量节点操作：最多 parallelism 个节点同时执行
+ * <p>
+ * ONE_PER_SHARD 策略下同一分片同时只操作一个节点，slave 先于 master；
+ * waitForSync 时节点操作完成后等待其可用、同步完成才算结束，同一分片的下一个节点才会开始。
+ * 取消或 stopOnFailure 生效后不再开始新的节点，执行中的节点会完成当前操作，剩余节点标记为 SKIPPED
+ *
+ * @date 2026/10/19
+ */
+public class NodeOperationJob extends AbstractJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeOperationJob.class);
+
+    public static final String JOB_TYPE = "NODE_OPERATION";
+
+    public enum NodeStatus {
+        PENDING, RUNNING, SUCCESS, FAILED, SKIPPED
+    }
+
+    private final NodeOperationParam param;
+
+    private final NodeHandler nodeHandler;
+
+    private final SyncChecker syncChecker;
+
+    private final long syncTimeout;
+
+    private final List<NodeProgress> nodeProgressList = new ArrayList<>();
+
+    /**
+     * @param clusterId
+     * @param param
+     * @param nodeHandler 单个节点的操作
+     * @param syncChecker 节点是否已可用、同步完成，为 null 时不等待
+     * @param syncTimeout 等待同步的截止时间(毫秒)
+     */
+    public NodeOperationJob(Integer clusterId, NodeOperationParam param, NodeHandler nodeHandler, SyncChecker syncChecker, long syncTimeout) {
+        super(JOB_TYPE, clusterId);
+        this.param = param;
+        this.nodeHandler = nodeHandler;
+        this.syncChecker = param.isWaitForSync() ? syncChecker : null;
+        this.syncTimeout = syncTimeout;
+        List<RedisNode> redisNodeList = new ArrayList<>(param.getRedisNodeList());
+        if (Objects.equals(ONE_PER_SHARD, param.getPolicy())) {
+            // 稳定排序，slave 排在 master 之前
+            redisNodeList.sort(Comparator.comparing(redisNode -> redisNode.getNodeRole() == NodeRole.SLAVE ? 0 : 1));
+        }
+        redisNodeList.forEach(redisNode -> nodeProgressList.add(new NodeProgress(redisNode)));
+        total.set(nodeProgressList.size());
+    }
+
+    @Override
+    protected void execute() throws Exception {
+        int parallelism = Math.max(Math.min(param.getParallelism(), nodeProgressList.size()), 1);
+        boolean onePerShard = Objects.equals(ONE_PER_SHARD, param.getPolicy());
+        ExecutorService nodePool = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setNameFormat("node-operation-" + getJobId() + "-%d").setDaemon(true).build());
+        CompletionService<NodeProgress> completionService = new ExecutorCompletionService<>(nodePool);
+        Set<String> busyShards = new HashSet<>();
+        int running = 0;
+        try {
+            while (true) {
+                boolean stopped = isCanceled() || (param.isStopOnFailure() && failed.get() > 0);
+                if (!stopped) {
+                    for (NodeProgress progress : nodeProgressList) {
+                        if (running >= parallelism) {
+                            break;
+                        }
+                        if (progress.status != NodeStatus.PENDING || (onePerShard && busyShards.contains(progress.shard))) {
+                            continue;
+                        }
+                        progress.status = NodeStatus.RUNNING;
+                        busyShards.add(progress.shard);
+                        completionService.submit(() -> process(progress));
+                        running++;
+                    }
+                }
+                if (running == 0) {
+                    break;
+                }
+                Future<NodeProgress> future = completionService.poll(1, TimeUnit.SECONDS);
+                while (future != null) {
+                    busyShards.remove(future.get().shard);
+                    running--;
+                    future = completionService.poll();
+                }
+            }
+        } finally {
+            nodePool.shutdownNow();
+        }
+        nodeProgressList.forEach(progress -> {
+            if (progress.status == NodeStatus.PENDING) {
+                progress.status = NodeStatus.SKIPPED;
+            }
+        });
+        long failedCount = failed.get();
+        if (failedCount > 0) {
+            setMessage(failedCount + " node(s) failed, see detail.");
+        }
+    }
+
+    private NodeProgress process(NodeProgress progress) {
+        RedisNode redisNode = progress.redisNode;
+        progress.startTime = new Timestamp(System.currentTimeMillis());
+        try {
+            boolean result = nodeHandler.handle(redisNode);
+            if (!result) {
+                progress.message = "Operation failed.";
+            } else if (syncChecker != null) {
+                progress.message = "Waiting for sync...";
+                result = ReadinessWaiter.await(() -> syncChecker.isSynced(redisNode), syncTimeout);
+                progress.message = result ? null : "Wait for sync timeout.";
+            }
+            progress.status = result ? NodeStatus.SUCCESS : NodeStatus.FAILED;
+        } catch (Exception e) {
+            logger.error(param.getOperation() + " " + progress.node + " failed.", e);
+            progress.status = NodeStatus.FAILED;
+            progress.message = e.getMessage();
+        } finally {
+            progress.endTime = new Timestamp(System.currentTimeMillis());
+        }
+        processed.incrementAndGet();
+        if (progress.status == NodeStatus.FAILED) {
+            failed.incrementAndGet();
+        }
+        return progress;
+    }
+
+    @Override
+    public Object getDetail() {
+        return nodeProgressList;
+    }
+
+    public String getOperation() {
+        return param.getOperation();
+    }
+
+    public String getPolicy() {
+        return param.getPolicy();
+    }
+
+    /**
+     * 分片：slave 归属其 master，master 以自身 node id 为分片，没有 node id 时每个节点单独一个分片
+     */
+    static String getShard(RedisNode redisNode) {
+        if (redisNode.getNodeRole() == NodeRole.SLAVE && !Strings.isNullOrEmpty(redisNode.getMasterId())) {
+            return redisNode.getMasterId();
+        }
+        if (!Strings.isNullOrEmpty(redisNode.getNodeId())) {
+            return redisNode.getNodeId();
+        }
+        return RedisUtil.getNodeString(redisNode);
+    }
+
+    public interface NodeHandler {
+
+        boolean handle(RedisNode redisNode) throws Exception;
+    }
+
+    public interface SyncChecker {
+
+        boolean isSynced(RedisNode redisNode) throws Exception;
+    }
+
+    public static class NodeProgress {
+
+        private final RedisNode redisNode;
+
+        private final String node;
+
+        private final String shard;
+
+        private volatile NodeStatus status = NodeStatus.PENDING;
+
+        private volatile String message;
+
+        private volatile Timestamp startTime;
+
+        private volatile Timestamp endTime;
+
+        private NodeProgress(RedisNode redisNode) {
+            this.redisNode = redisNode;
+            this.node = RedisUtil.getNodeString(redisNode);
+            this.shard = getShard(redisNode);
+        }
+
+        public String getNode() {
+            return node;
+        }
+
+        public NodeRole getNodeRole() {
+            return redisNode.getNodeRole();
+        }
+
+        public String getShard() {
+            return shard;
+        }
+
+        public NodeStatus getStatus() {
+            return status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Timestamp getStartTime() {
+            return startTime;
+        }
+
+        public Timestamp getEndTime() {
+            return endTime;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package com.newegg.ec.redis.job;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisPipeline;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.util.RedisUtil;
+import com.newegg.ec.redis.util.SlotMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.newegg.ec.redis.util.TimeUtil.ONE_MINUTE;
+
+/**
+ * 槽位迁移引擎
+ * <p>
+ * 按源 master 分组，不同源 master 的槽位并行迁移，同一源 master 内的槽位顺序迁移并复用连接；
+ * 每批 key 的数量根据 MIGRATE 耗时自适应调整，并按 MEMORY USAGE 抽样估算的大小限制每批的字节数，所有分组共享一个 keys/sec 限速；
+ * 槽位迁移完成后立即通知目标和源节点，其他 master 的 SETSLOT NODE 攒批后由单独的线程 pipeline 发送
+ * <p>
+ * 迁移失败的槽位保持 IMPORTING/MIGRATING 状态，key 仍可通过 ASK 访问，可以从上次的任务继续
+ *
+ * @date 2026/10/19
+ */
+public class SlotMigrationJob extends AbstractJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotMigrationJob.class);
+
+    public static final String JOB_TYPE = "SLOT_MIGRATION";
+
+    private static final int MIN_BATCH = 10;
+
+    private static final int INITIAL_BATCH = 100;
+
+    private static final int MAX_BATCH = 1000;
+
+    /**
+     * MIGRATE 耗时低于该值时加大批次，高于 SLOW_MILLIS 时减小批次
+     */
+    private static final long FAST_MILLIS = 50;
+
+    private static final long SLOW_MILLIS = 300;
+
+    private static final int BROADCAST_BATCH = 64;
+
+    /**
+     * 每批 MIGRATE 的数据量上限，按抽样的平均 key 大小估算
+     */
+    private static final long MAX_BATCH_BYTES = 8 * 1024 * 1024;
+
+    private static final int MEMORY_USAGE_SAMPLES = 16;
+
+    private final Cluster cluster;
+
+    private final List<RedisNode> masterNodeList;
+
+    /**
+     * slot -> target master，只包含需要迁移的槽位
+     */
+    private final Map<Integer, RedisNode> slotTargetMap = new TreeMap<>();
+
+    private final SlotMap slotMap;
+
+    private final int parallelism;
+
+    private final int migrateTimeout;
+
+    private final RateLimiter rateLimiter;
+
+    private final Set<Integer> completedSlots = ConcurrentHashMap.newKeySet();
+
+    private final Map<Integer, String> failedSlots = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong movedKeys = new AtomicLong();
+
+    private final Map<String, SourceProgress> sourceProgressMap = new ConcurrentHashMap<>();
+
+    private final SetSlotBroadcaster broadcaster = new SetSlotBroadcaster();
+
+    /**
+     * @param cluster
+     * @param masterNodeList 当前的 master 列表
+     * @param slotTargetMap  slot -> 目标 master
+     * @param parallelism    同时迁移的源 master 数量
+     * @param keysPerSecond  整个任务的 key 迁移速度上限，0 表示不限速
+     * @param migrateTimeout MIGRATE 超时时间(ms)
+     * @param previousJob    从该任务已完成的槽位之后继续，可以为 null
+     */
+    public SlotMigrationJob(Cluster cluster, List<RedisNode> masterNodeList, Map<Integer, RedisNode> slotTargetMap,
+                            int parallelism, int keysPerSecond, int migrateTimeout, SlotMigrationJob previousJob) {
+        super(JOB_TYPE, cluster.getClusterId());
+        this.cluster = cluster;
+        this.masterNodeList = masterNodeList;
+        this.slotMap = SlotMap.fromClusterNodes(masterNodeList);
+        this.parallelism = Math.max(parallelism, 1);
+        this.migrateTimeout = migrateTimeout;
+        this.rateLimiter = keysPerSecond > 0 ? RateLimiter.create(keysPerSecond) : null;
+        slotTargetMap.forEach((slot, target) -> {
+            int targetIndex = slotMap.indexOf(target);
+            if (targetIndex < 0) {
+                throw new IllegalStateException(RedisUtil.getNodeString(target) + " is not a master.");
+            }
+            boolean done = previousJob != null && previousJob.completedSlots.contains(slot);
+            // 已经在目标节点上的槽位无需迁移
+            if (!done && slotMap.getOwnerIndex(slot) != targetIndex) {
+                this.slotTargetMap.put(slot, slotMap.getNodeList().get(targetIndex));
+            }
+        });
+        total.set(this.slotTargetMap.size());
+    }
+
+    @Override
+    protected void execute() throws Exception {
+        Map<RedisNode, List<Integer>> sourceSlotMap = new LinkedHashMap<>();
+        Map<RedisNode, List<Integer>> unassignedSlotMap = new LinkedHashMap<>();
+        slotTargetMap.forEach((slot, target) -> {
+            RedisNode source = slotMap.getOwner(slot);
+            if (source == null) {
+                unassignedSlotMap.computeIfAbsent(target, key -> new ArrayList<>()).add(slot);
+            } else {
+                sourceSlotMap.computeIfAbsent(source, key -> new ArrayList<>()).add(slot);
+            }
+        });
+        unassignedSlotMap.forEach(this::addSlots);
+        ExecutorService sourcePool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(sourceSlotMap.size(), 1)),
+                new ThreadFactoryBuilder().setNameFormat("slot-migration-" + getJobId() + "-%d").setDaemon(true).build());
+        try {
+            List<Future<?>> futureList = new ArrayList<>();
+            sourceSlotMap.forEach((source, slots) -> {
+                sourceProgressMap.put(RedisUtil.getNodeString(source), new SourceProgress(slots.size()));
+                futureList.add(sourcePool.submit(() -> migrateSource(source, slots)));
+            });
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } finally {
+            sourcePool.shutdownNow();
+            broadcaster.flush();
+            broadcaster.close();
+        }
+        if (!failedSlots.isEmpty()) {
+            throw new RuntimeException(failedSlots.size() + " slot(s) failed, resume is available.");
+        }
+    }
+
+    /**
+     * 未分配的槽位直接分配给目标节点
+     */
+    private void addSlots(RedisNode target, List<Integer> slots) {
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(target, cluster.getRedisPassword());
+            redisClient.clusterAddSlots(slots.stream().mapToInt(Integer::intValue).toArray());
+            completedSlots.addAll(slots);
+            processed.addAndGet(slots.size());
+        } catch (Exception e) {
+            logger.error("Add slots failed, node = " + RedisUtil.getNodeString(target), e);
+            slots.forEach(slot -> failedSlots.put(slot, e.getMessage()));
+            failed.addAndGet(slots.size());
+        } finally {
+            if (redisClient != null) {
+                redisClient.close();
+            }
+        }
+    }
+
+    private void migrateSource(RedisNode source, List<Integer> slots) {
+        String node = RedisUtil.getNodeString(source);
+        SourceProgress progress = sourceProgressMap.get(node);
+        RedisClient sourceClient = null;
+        Map<RedisNode, RedisClient> targetClientMap = new HashMap<>();
+        try {
+            sourceClient = RedisClientFactory.buildRedisClient(source, cluster.getRedisPassword());
+            for (Integer slot : slots) {
+                // 取消时完成当前槽位后再停止，不留下迁移中的槽位
+                if (isCanceled()) {
+                    break;
+                }
+                RedisNode target = slotTargetMap.get(slot);
+                progress.setCurrentSlot(slot);
+                try {
+                    RedisClient targetClient = targetClientMap.get(target);
+                    if (targetClient == null) {
+                        targetClient = RedisClientFactory.buildRedisClient(target, cluster.getRedisPassword());
+                        targetClientMap.put(target, targetClient);
+                    }
+                    migrateSlot(slot, source, target, sourceClient.getJedisClient(), targetClient.getJedisClient(), progress);
+                    completedSlots.add(slot);
+                    processed.incrementAndGet();
+                    progress.completed.incrementAndGet();
+                } catch (Exception e) {
+                    logger.error(cluster.getClusterName() + " move slot " + slot + " failed, source = " + node, e);
+                    failedSlots.put(slot, e.getMessage());
+                    failed.incrementAndGet();
+                    progress.setMessage(e.getMessage());
+                    // 连接可能已不可用，丢弃后重建
+                    RedisClient targetClient = targetClientMap.remove(target);
+                    if (targetClient != null) {
+                        targetClient.close();
+                    }
+                    sourceClient.close();
+                    sourceClient = RedisClientFactory.buildRedisClient(source, cluster.getRedisPassword());
+                }
+            }
+        } catch (Exception e) {
+            logger.error(cluster.getClusterName() + " slot migration failed, source = " + node, e);
+            progress.setMessage(e.getMessage());
+        } finally {
+            progress.setCurrentSlot(null);
+            if (sourceClient != null) {
+                sourceClient.close();
+            }
+            targetClientMap.values().forEach(RedisClient::close);
+        }
+    }
+
+    private void migrateSlot(int slot, RedisNode source, RedisNode target, Jedis sourceJedis, Jedis targetJedis,
+                             SourceProgress progress) {
+        targetJedis.clusterSetSlotImporting(slot, source.getNodeId());
+        sourceJedis.clusterSetSlotMigrating(slot, target.getNodeId());
+        String host = target.getHost();
+        String port = String.valueOf(target.getPort());
+        String timeout = String.valueOf(migrateTimeout);
+        String password = cluster.getRedisPassword();
+        while (true) {
+            int batch = progress.getBatchSize();
+            List<String> keys = sourceJedis.clusterGetKeysInSlot(slot, batch);
+            if (keys.isEmpty()) {
+                break;
+            }
+            int byteLimitedBatch = limitBatchByBytes(sourceJedis, keys);
+            if (byteLimitedBatch < keys.size()) {
+                keys = keys.subList(0, byteLimitedBatch);
+                batch = Math.max(MIN_BATCH, byteLimitedBatch);
+                progress.setBatchSize(batch);
+            }
+            if (rateLimiter != null) {
+                rateLimiter.acquire(keys.size());
+            }
+            List<String> args = new ArrayList<>(keys.size() + 10);
+            Collections.addAll(args, host, port, "", "0", timeout, "REPLACE");
+            if (!Strings.isNullOrEmpty(password)) {
+                Collections.addAll(args, "AUTH", password);
+            }
+            args.add("KEYS");
+            args.addAll(keys);
+            long start = System.currentTimeMillis();
+            Object reply = new RedisPipeline(sourceJedis).append("MIGRATE", args.toArray(new String[0])).sync().get(0);
+            long elapsed = System.currentTimeMillis() - start;
+            if (RedisPipeline.isError(reply)) {
+                String error = String.valueOf(RedisPipeline.decode(reply));
+                // 大 key 导致超时时减小批次重试
+                if (batch > MIN_BATCH && (error.contains("IOERR") || error.toLowerCase().contains("timeout"))) {
+                    progress.setBatchSize(Math.max(MIN_BATCH, batch / 2));
+                    continue;
+                }
+                throw new RuntimeException("Migrate keys in slot " + slot + " failed, " + error);
+            }
+            movedKeys.addAndGet(keys.size());
+            progress.movedKeys.addAndGet(keys.size());
+            if (elapsed < FAST_MILLIS) {
+                progress.setBatchSize(Math.min(MAX_BATCH, batch * 2));
+            } else if (elapsed > SLOW_MILLIS) {
+                progress.setBatchSize(Math.max(MIN_BATCH, batch / 2));
+            }
+        }
+        // 先通知目标节点，再通知源节点，避免源节点提前重定向到还未接管的目标节点
+        targetJedis.clusterSetSlotNode(slot, target.getNodeId());
+        sourceJedis.clusterSetSlotNode(slot, target.getNodeId());
+        broadcaster.add(slot, target.getNodeId());
+    }
+
+    /**
+     * 对批次中的部分 key 执行 MEMORY USAGE，按平均大小估算整批的字节数
+     *
+     * @return 不超过 MAX_BATCH_BYTES 的 key 数量，至少为 1
+     */
+    private int limitBatchByBytes(Jedis sourceJedis, List<String> keys) {
+        int samples = Math.min(keys.size(), MEMORY_USAGE_SAMPLES);
+        RedisPipeline pipeline = new RedisPipeline(sourceJedis);
+        int step = keys.size() / samples;
+        for (int i = 0; i < samples; i++) {
+            pipeline.append("MEMORY", "USAGE", keys.get(i * step));
+        }
+        long sampledBytes = 0;
+        int sampledKeys = 0;
+        for (Object reply : pipeline.sync()) {
+            long usage = RedisPipeline.isError(reply) ? -1 : RedisPipeline.toLong(reply);
+            if (usage > 0) {
+                sampledBytes += usage;
+                sampledKeys++;
+            }
+        }
+        if (sampledKeys == 0) {
+            return keys.size();
+        }
+        long averageBytes = Math.max(sampledBytes / sampledKeys, 1);
+        return (int) Math.max(1, Math.min(keys.size(), MAX_BATCH_BYTES / averageBytes));
+    }
+
+    public long getMovedKeys() {
+        return movedKeys.get();
+    }
+
+    public Map<Integer, String> getFailedSlots() {
+        return failedSlots;
+    }
+
+    @Override
+    public Object getDetail() {
+        return new TreeMap<>(sourceProgressMap);
+    }
+
+    /**
+     * 向所有 master 批量发送 SETSLOT NODE，每个 master 一个 pipeline
+     * <p>
+     * 只在锁内交换待发送的批次，发送由单独的线程按顺序执行，迁移线程不等待最慢的 master；连接只在发送线程中使用
+     */
+    private class SetSlotBroadcaster {
+
+        private List<String[]> pending = new ArrayList<>();
+
+        private final Map<RedisNode, RedisClient> clientMap = new HashMap<>();
+
+        private final ExecutorService sender = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("slot-broadcast-" + getJobId() + "-%d").setDaemon(true).build());
+
+        void add(int slot, String nodeId) {
+            List<String[]> batch = null;
+            synchronized (this) {
+                pending.add(new String[]{"SETSLOT", String.valueOf(slot), "NODE", nodeId});
+                if (pending.size() >= BROADCAST_BATCH) {
+                    batch = pending;
+                    pending = new ArrayList<>();
+                }
+            }
+            if (batch != null) {
+                send(batch);
+            }
+        }
+
+        void flush() {
+            List<String[]> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        }
+
+        private void send(List<String[]> batch) {
+            try {
+                sender.execute(() -> broadcast(batch));
+            } catch (RejectedExecutionException e) {
+                // 任务已结束，其他节点最终会通过 gossip 得到新的配置
+                logger.warn("Broadcast setslot skipped, job finished, job id = " + getJobId());
+            }
+        }
+
+        private void broadcast(List<String[]> batch) {
+            for (RedisNode masterNode : masterNodeList) {
+                try {
+                    RedisClient redisClient = clientMap.get(masterNode);
+                    if (redisClient == null) {
+                        redisClient = RedisClientFactory.buildRedisClient(masterNode, cluster.getRedisPassword());
+                        clientMap.put(masterNode, redisClient);
+                    }
+                    RedisPipeline pipeline = new RedisPipeline(redisClient.getJedisClient());
+                    batch.forEach(args -> pipeline.append("CLUSTER", args));
+                    pipeline.sync();
+                } catch (Exception e) {
+                    // 其他节点最终会通过 gossip 得到新的配置
+                    logger.warn("Broadcast setslot failed, node = " + RedisUtil.getNodeString(masterNode), e);
+                    RedisClient redisClient = clientMap.remove(masterNode);
+                    if (redisClient != null) {
+                        redisClient.close();
+                    }
+                }
+            }
+        }
+
+        /**
+         * 等待已提交的批次发送完成后关闭连接
+         */
+        void close() {
+            sender.execute(() -> {
+                clientMap.values().forEach(RedisClient::close);
+                clientMap.clear();
+            });
+            sender.shutdown();
+            try {
+                if (!sender.awaitTermination(ONE_MINUTE, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Broadcast setslot not finished in time, job id = " + getJobId());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public static class SourceProgress {
+
+        private final int slots;
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private final AtomicLong movedKeys = new AtomicLong();
+
+        private volatile int batchSize = INITIAL_BATCH;
+
+        private volatile Integer currentSlot;
+
+        private volatile String message;
+
+        SourceProgress(int slots) {
+            this.slots = slots;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public long getCompleted() {
+            return completed.get();
+        }
+
+        public long getMovedKeys() {
+            return movedKeys.get();
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Integer getCurrentSlot() {
+            return currentSlot;
+        }
+
+        public void setCurrentSlot(Integer currentSlot) {
+            this.currentSlot = currentSlot;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.newegg.ec.redis.plugin.analysis.entity;
+
+/**
+ * @date 2026/10/19
+ */
+public class HotKey {
+
+    private String node;
+
+    private String key;
+
+    /**
+     * LFU or MONITOR, 两种计数的单位不同，不能放在一起比较
+     */
+    private String source;
+
+    /**
+     * LFU: OBJECT FREQ 对数计数器
+     * MONITOR: 采样时间内的访问次数(估算)
+     */
+    private long count;
+
+    public HotKey() {
+    }
+
+    public HotKey(String node, String key, String source, long count) {
+        this.node = node;
+        this.key = key;
+        this.source = source;
+        this.count = count;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "HotKey{" +
+                "node='" + node + '\'' +
+                ", key='" + key + '\'' +
+                ", source='" + source + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.newegg.ec.redis.plugin.analysis.entity;
+
+/**
+ * @date 2026/10/19
+ */
+public class HotKeyParam {
+
+    private Integer clusterId;
+
+    private int database;
+
+    private String pattern;
+
+    private int topK = 20;
+
+    /**
+     * MONITOR 采样时长(秒)
+     */
+    private int seconds = 10;
+
+    /**
+     * LFU 模式下每个节点最多扫描的 key 数量
+     */
+    private int sampleKeys = 10000;
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public int getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(int database) {
+        this.database = database;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public int getSeconds() {
+        return seconds;
+    }
+
+    public void setSeconds(int seconds) {
+        this.seconds = seconds;
+    }
+
+    public int getSampleKeys() {
+        return sampleKeys;
+    }
+
+    public void setSampleKeys(int sampleKeys) {
+        this.sampleKeys = sampleKeys;
+    }
+
+    @Override
+    public String toString() {
+        return "HotKeyParam{" +
+                "clusterId=" + clusterId +
+                ", database=" + database +
+                ", pattern='" + pattern + '\'' +
+                ", topK=" + topK +
+                ", seconds=" + seconds +
+                ", sampleKeys=" + sampleKeys +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package com.newegg.ec.redis.plugin.analysis.entity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 热点 key 分析结果，按分片和整个集群两个维度
+ *
+ * @date 2026/10/19
+ */
+public class HotKeyReport {
+
+    private Integer clusterId;
+
+    private long elapsed;
+
+    private List<ShardHotKeys> shardList = new ArrayList<>();
+
+    /**
+     * LFU/MONITOR -> top K, 不同来源的计数单位不同，分别排名
+     */
+    private Map<String, List<HotKey>> clusterHotKeys = new LinkedHashMap<>();
+
+    public Integer getClusterId() {
+        return clusterId;
+    }
+
+    public void setClusterId(Integer clusterId) {
+        this.clusterId = clusterId;
+    }
+
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    public void setElapsed(long elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public List<ShardHotKeys> getShardList() {
+        return shardList;
+    }
+
+    public void setShardList(List<ShardHotKeys> shardList) {
+        this.shardList = shardList;
+    }
+
+    public Map<String, List<HotKey>> getClusterHotKeys() {
+        return clusterHotKeys;
+    }
+
+    public void setClusterHotKeys(Map<String, List<HotKey>> clusterHotKeys) {
+        this.clusterHotKeys = clusterHotKeys;
+    }
+
+    public static class ShardHotKeys {
+
+        public static final String LFU = "LFU";
+
+        public static final String MONITOR = "MONITOR";
+
+        private String node;
+
+        /**
+         * LFU or MONITOR
+         */
+        private String mode;
+
+        /**
+         * LFU: 扫描的 key 数量
+         * MONITOR: 采样到的命令数量
+         */
+        private long sampled;
+
+        private long elapsed;
+
+        private String message;
+
+        private List<HotKey> hotKeys = new ArrayList<>();
+
+        public String getNode() {
+            return node;
+        }
+
+        public void setNode(String node) {
+            this.node = node;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public long getSampled() {
+            return sampled;
+        }
+
+        public void setSampled(long sampled) {
+            this.sampled = sampled;
+        }
+
+        public long getElapsed() {
+            return elapsed;
+        }
+
+        public void setElapsed(long elapsed) {
+            this.elapsed = elapsed;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public List<HotKey> getHotKeys() {
+            return hotKeys;
+        }
+
+        public void setHotKeys(List<HotKey> hotKeys) {
+            this.hotKeys = hotKeys;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.newegg.ec.redis.plugin.analysis.service;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyParam;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyReport;
+
+/**
+ * 热点 key 分析
+ *
+ * @date 2026/10/19
+ */
+public interface IHotKeyAnalysis extends IClusterAnalysis {
+
+    /**
+     * maxmemory-policy 为 LFU 的分片使用 SCAN + OBJECT FREQ 采样，
+     * 否则在限定时间内使用 MONITOR 采样，count-min sketch + top-K 统计
+     * <p>
+     * 同一个集群同一时刻只允许一个分析任务
+     *
+     * @param cluster
+     * @param hotKeyParam
+     * @return null if failed or another analysis is running
+     */
+    HotKeyReport analyze(Cluster cluster, HotKeyParam hotKeyParam);
+
+}
@@ -0,0 +1,383 @@
+package com.newegg.ec.redis.plugin.analysis.service.impl;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisPipeline;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKey;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyParam;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyReport;
+import com.newegg.ec.redis.plugin.analysis.entity.HotKeyReport.ShardHotKeys;
+import com.newegg.ec.redis.plugin.analysis.service.IHotKeyAnalysis;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.RedisUtil;
+import com.newegg.ec.redis.util.TopKCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Service;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisMonitor;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.newegg.ec.redis.client.RedisURI.TIMEOUT;
+import static com.newegg.ec.redis.plugin.analysis.entity.HotKeyReport.ShardHotKeys.LFU;
+import static com.newegg.ec.redis.plugin.analysis.entity.HotKeyReport.ShardHotKeys.MONITOR;
+import static javax.management.timer.Timer.ONE_SECOND;
+
+/**
+ * @date 2026/10/19
+ */
+@Service
+public class HotKeyAnalysis implements IHotKeyAnalysis, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyAnalysis.class);
+
+    private static final String MAXMEMORY_POLICY = "maxmemory-policy";
+
+    private static final String LFU_POLICY = "lfu";
+
+    private static final int SCAN_BATCH = 200;
+
+    private static final int MAX_TOP_K = 200;
+
+    private static final String NOT_SAMPLED = "Not sampled, no free analysis thread before deadline.";
+
+    /**
+     * 没有 key 或者不需要统计的命令
+     */
+    private static final Set<String> IGNORE_COMMANDS = Sets.newHashSet("ping", "info", "select", "auth", "client",
+            "config", "cluster", "monitor", "scan", "keys", "dbsize", "slowlog", "multi", "exec", "discard",
+            "eval", "evalsha", "script", "publish", "subscribe", "psubscribe", "readonly", "readwrite",
+            "command", "time", "echo", "role", "memory", "latency", "flushdb", "flushall", "replconf", "psync", "sync");
+
+    @Value("${redis-manager.analysis.hot-key.max-seconds:30}")
+    private int maxSeconds;
+
+    /**
+     * 整个分析的最长时间，分析在请求中同步执行，超过后未开始的分片不再采样
+     */
+    @Value("${redis-manager.analysis.hot-key.max-total-seconds:60}")
+    private int maxTotalSeconds;
+
+    @Value("${redis-manager.analysis.hot-key.max-sample-keys:100000}")
+    private int maxSampleKeys;
+
+    @Value("${redis-manager.analysis.hot-key.max-monitor-commands:1000000}")
+    private long maxMonitorCommands;
+
+    /**
+     * 同时采样的节点数上限，超出的分片排队，开始执行时才计算自己的采样时间
+     */
+    @Value("${redis-manager.analysis.hot-key.threads:16}")
+    private int threads;
+
+    @Autowired
+    private IRedisService redisService;
+
+    private ExecutorService threadPool;
+
+    private ScheduledExecutorService watchdog;
+
+    private final Set<Integer> runningClusters = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        if (threadPool != null) {
+            return;
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("hot-key-analysis-pool-thread-%d").setDaemon(true).build());
+        // 线程按需创建，空闲后回收
+        executor.allowCoreThreadTimeOut(true);
+        threadPool = executor;
+        watchdog = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("hot-key-watchdog-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public HotKeyReport analyze(Cluster cluster, HotKeyParam hotKeyParam) {
+        Integer clusterId = cluster.getClusterId();
+        if (!runningClusters.add(clusterId)) {
+            logger.warn("Hot key analysis is running, cluster name = " + cluster.getClusterName());
+            return null;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            correctParam(hotKeyParam);
+            long duration = hotKeyParam.getSeconds() * ONE_SECOND;
+            List<RedisNode> masterNodeList = redisService.getRedisMasterNodeList(cluster);
+            // 分片数超过线程数时分批采样，每个分片都有完整的采样时间，总时间不超过 max-total-seconds
+            int waves = (masterNodeList.size() + threads - 1) / Math.max(threads, 1);
+            long deadline = start + Math.min(Math.max(waves, 1) * duration, Math.max(maxTotalSeconds * ONE_SECOND, duration));
+            Map<RedisNode, Future<ShardHotKeys>> futureMap = new LinkedHashMap<>();
+            Set<RedisNode> startedNodes = ConcurrentHashMap.newKeySet();
+            for (RedisNode masterNode : masterNodeList) {
+                futureMap.put(masterNode, threadPool.submit(() -> {
+                    startedNodes.add(masterNode);
+                    return analyzeShard(cluster, masterNode, hotKeyParam, duration, deadline);
+                }));
+            }
+            HotKeyReport hotKeyReport = new HotKeyReport();
+            hotKeyReport.setClusterId(clusterId);
+            Map<String, List<HotKey>> sourceHotKeys = new LinkedHashMap<>();
+            for (Map.Entry<RedisNode, Future<ShardHotKeys>> entry : futureMap.entrySet()) {
+                ShardHotKeys shardHotKeys = waitShard(entry.getKey(), entry.getValue(), deadline, startedNodes);
+                hotKeyReport.getShardList().add(shardHotKeys);
+                shardHotKeys.getHotKeys().forEach(hotKey -> sourceHotKeys.computeIfAbsent(hotKey.getSource(), key -> new ArrayList<>()).add(hotKey));
+            }
+            // 分片之间 key 不重复，同一来源直接合并取 top K；LFU 对数计数与 MONITOR 访问次数分别排名
+            sourceHotKeys.forEach((source, hotKeys) -> {
+                hotKeys.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+                hotKeyReport.getClusterHotKeys().put(source, new ArrayList<>(hotKeys.subList(0, Math.min(hotKeyParam.getTopK(), hotKeys.size()))));
+            });
+            hotKeyReport.setElapsed(System.currentTimeMillis() - start);
+            return hotKeyReport;
+        } catch (Exception e) {
+            logger.error("Hot key analysis failed, cluster name = " + cluster.getClusterName(), e);
+            return null;
+        } finally {
+            runningClusters.remove(clusterId);
+        }
+    }
+
+    /**
+     * 服务端上限，防止误操作拖垮生产环境
+     */
+    private void correctParam(HotKeyParam hotKeyParam) {
+        int seconds = hotKeyParam.getSeconds();
+        hotKeyParam.setSeconds(seconds <= 0 ? 1 : Math.min(seconds, maxSeconds));
+        int sampleKeys = hotKeyParam.getSampleKeys();
+        hotKeyParam.setSampleKeys(sampleKeys <= 0 ? SCAN_BATCH : Math.min(sampleKeys, maxSampleKeys));
+        int topK = hotKeyParam.getTopK();
+        hotKeyParam.setTopK(topK <= 0 ? 10 : Math.min(topK, MAX_TOP_K));
+    }
+
+    private ShardHotKeys waitShard(RedisNode redisNode, Future<ShardHotKeys> future, long deadline, Set<RedisNode> startedNodes) {
+        String node = RedisUtil.getNodeString(redisNode);
+        try {
+            long timeout = Math.max(deadline - System.currentTimeMillis(), 0) + TIMEOUT;
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            future.cancel(true);
+            boolean notStarted = !startedNodes.contains(redisNode);
+            logger.warn("Hot key analysis timeout or failed, node = " + node, e);
+            ShardHotKeys shardHotKeys = new ShardHotKeys();
+            shardHotKeys.setNode(node);
+            shardHotKeys.setMessage(notStarted ? NOT_SAMPLED : e.getMessage());
+            return shardHotKeys;
+        }
+    }
+
+    /**
+     * @param duration    采样时间，从分片开始执行时计算
+     * @param maxDeadline 整个分析的截止时间，排队到此时仍未开始的分片不再采样
+     */
+    private ShardHotKeys analyzeShard(Cluster cluster, RedisNode masterNode, HotKeyParam hotKeyParam, long duration, long maxDeadline) {
+        String node = RedisUtil.getNodeString(masterNode);
+        ShardHotKeys shardHotKeys = new ShardHotKeys();
+        shardHotKeys.setNode(node);
+        long start = System.currentTimeMillis();
+        long deadline = Math.min(start + duration, maxDeadline);
+        if (deadline - start < ONE_SECOND) {
+            shardHotKeys.setMessage(NOT_SAMPLED);
+            return shardHotKeys;
+        }
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(masterNode, cluster.getRedisPassword());
+            Map<String, String> policy = redisClient.getConfig(MAXMEMORY_POLICY);
+            String maxmemoryPolicy = policy.get(MAXMEMORY_POLICY);
+            TopKCounter topKCounter = new TopKCounter(hotKeyParam.getTopK());
+            if (!Strings.isNullOrEmpty(maxmemoryPolicy) && maxmemoryPolicy.contains(LFU_POLICY)) {
+                shardHotKeys.setMode(LFU);
+                shardHotKeys.setSampled(lfuSample(redisClient.getJedisClient(), hotKeyParam, topKCounter, deadline));
+            } else {
+                shardHotKeys.setMode(MONITOR);
+                shardHotKeys.setSampled(monitorSample(redisClient.getJedisClient(), hotKeyParam, topKCounter, deadline));
+            }
+            topKCounter.top().forEach((key, count) -> shardHotKeys.getHotKeys().add(new HotKey(node, key, shardHotKeys.getMode(), count)));
+        } catch (Exception e) {
+            logger.error("Hot key analysis failed, node = " + node, e);
+            shardHotKeys.setMessage(e.getMessage());
+        } finally {
+            if (redisClient != null) {
+                redisClient.close();
+            }
+        }
+        shardHotKeys.setElapsed(System.currentTimeMillis() - start);
+        return shardHotKeys;
+    }
+
+    /**
+     * SCAN + pipelined OBJECT FREQ
+     * 每批次之后休眠与本批次耗时相同的时间，将对 Redis 和本机的占用控制在一半以内
+     *
+     * @return scanned key number
+     */
+    private long lfuSample(Jedis jedis, HotKeyParam hotKeyParam, TopKCounter topKCounter, long deadline) throws InterruptedException {
+        jedis.select(hotKeyParam.getDatabase());
+        ScanParams scanParams = new ScanParams().count(SCAN_BATCH);
+        if (!Strings.isNullOrEmpty(hotKeyParam.getPattern())) {
+            scanParams.match(hotKeyParam.getPattern());
+        }
+        String cursor = ScanParams.SCAN_POINTER_START;
+        long sampled = 0;
+        do {
+            long batchStart = System.currentTimeMillis();
+            ScanResult<String> scanResult = jedis.scan(cursor, scanParams);
+            cursor = scanResult.getCursor();
+            List<String> keys = scanResult.getResult();
+            if (!keys.isEmpty()) {
+                RedisPipeline pipeline = new RedisPipeline(jedis);
+                keys.forEach(key -> pipeline.append("OBJECT", "FREQ", key));
+                List<Object> replies = pipeline.sync();
+                for (int i = 0; i < keys.size(); i++) {
+                    Object reply = replies.get(i);
+                    if (!RedisPipeline.isError(reply)) {
+                        topKCounter.offer(keys.get(i), RedisPipeline.toLong(reply));
+                    }
+                }
+                sampled += keys.size();
+            }
+            Thread.sleep(System.currentTimeMillis() - batchStart);
+        } while (!ScanParams.SCAN_POINTER_START.equals(cursor)
+                && sampled < hotKeyParam.getSampleKeys()
+                && System.currentTimeMillis() < deadline
+                && !Thread.currentThread().isInterrupted());
+        return sampled;
+    }
+
+    /**
+     * MONITOR 会话，到达截止时间或命令数上限后断开连接
+     *
+     * @return sampled command number
+     */
+    private long monitorSample(Jedis jedis, HotKeyParam hotKeyParam, TopKCounter topKCounter, long deadline) {
+        HotKeyMonitor hotKeyMonitor = new HotKeyMonitor(topKCounter, String.valueOf(hotKeyParam.getDatabase()), deadline, maxMonitorCommands);
+        long delay = Math.max(deadline - System.currentTimeMillis(), 0);
+        ScheduledFuture<?> stopFuture = watchdog.schedule(hotKeyMonitor::stop, delay, TimeUnit.MILLISECONDS);
+        try {
+            jedis.monitor(hotKeyMonitor);
+        } catch (Exception e) {
+            // 主动断开连接导致的异常
+            if (!hotKeyMonitor.isStopped()) {
+                throw e;
+            }
+        } finally {
+            stopFuture.cancel(false);
+        }
+        return hotKeyMonitor.getSampled();
+    }
+
+    private static class HotKeyMonitor extends JedisMonitor {
+
+        private TopKCounter topKCounter;
+
+        private String database;
+
+        private long deadline;
+
+        private long maxCommands;
+
+        private volatile long sampled;
+
+        private volatile boolean stopped;
+
+        HotKeyMonitor(TopKCounter topKCounter, String database, long deadline, long maxCommands) {
+            this.topKCounter = topKCounter;
+            this.database = database;
+            this.deadline = deadline;
+            this.maxCommands = maxCommands;
+        }
+
+        /**
+         * 1339518083.107412 [0 127.0.0.1:60866] "get" "key"
+         *
+         * @param command
+         */
+        @Override
+        public void onCommand(String command) {
+            if (++sampled >= maxCommands || System.currentTimeMillis() >= deadline) {
+                stop();
+                return;
+            }
+            String[] dbCommandAndKey = parseMonitorLine(command);
+            if (dbCommandAndKey == null
+                    || !Objects.equals(database, dbCommandAndKey[0])
+                    || IGNORE_COMMANDS.contains(dbCommandAndKey[1].toLowerCase())) {
+                return;
+            }
+            topKCounter.add(dbCommandAndKey[2]);
+        }
+
+        synchronized void stop() {
+            if (stopped) {
+                return;
+            }
+            stopped = true;
+            if (client != null) {
+                client.disconnect();
+            }
+        }
+
+        boolean isStopped() {
+            return stopped;
+        }
+
+        long getSampled() {
+            return sampled;
+        }
+    }
+
+    /**
+     * @param line monitor output
+     * @return [db, command, key], null if no key
+     */
+    static String[] parseMonitorLine(String line) {
+        int open = line.indexOf('[');
+        int close = line.indexOf(']', open + 1);
+        if (open < 0 || close < 0) {
+            return null;
+        }
+        int space = line.indexOf(' ', open);
+        if (space < 0 || space > close) {
+            return null;
+        }
+        String database = line.substring(open + 1, space);
+        List<String> tokens = new ArrayList<>(2);
+        StringBuilder token = null;
+        for (int i = close + 1; i < line.length() && tokens.size() < 2; i++) {
+            char c = line.charAt(i);
+            if (token == null) {
+                if (c == '"') {
+                    token = new StringBuilder();
+                }
+            } else if (c == '\\' && i + 1 < line.length()) {
+                token.append(line.charAt(++i));
+            } else if (c == '"') {
+                tokens.add(token.toString());
+                token = null;
+            } else {
+                token.append(c);
+            }
+        }
+        if (tokens.size() < 2) {
+            return null;
+        }
+        return new String[]{database, tokens.get(0), tokens.get(1)};
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.newegg.ec.redis.plugin.install;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.controller.websocket.InstallationWebSocketHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 安装计划：按依赖关系并行执行安装步骤
+ * <p>
+ * 依赖全部成功后步骤才会开始；同时执行的步骤数受全局(parallelism)和单台机器(hostParallelism)两个上限限制。
+ * 返回 false 或抛出异常的步骤最多重试 retries 次；超时的步骤不重试，因为原来的执行可能仍未结束。
+ * 任一步骤最终失败后不再开始新的步骤，等待执行中的步骤结束后返回 false
+ *
+ * @date 2026/10/19
+ */
+public class InstallationPlan {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstallationPlan.class);
+
+    /**
+     * 并发由每个计划自己控制
+     */
+    private static final ExecutorService THREAD_POOL = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("installation-plan-pool-thread-%d").setDaemon(true).build());
+
+    private final String clusterName;
+
+    private final int parallelism;
+
+    private final int hostParallelism;
+
+    private final long timeout;
+
+    private final int retries;
+
+    private final List<Step> steps = new ArrayList<>();
+
+    private final BlockingQueue<Step> completedQueue = new LinkedBlockingQueue<>();
+
+    /**
+     * @param clusterName     用于输出安装日志
+     * @param parallelism     全局最多同时执行的步骤数
+     * @param hostParallelism 单台机器最多同时执行的步骤数
+     * @param timeout         单个步骤超时时间(毫秒)
+     * @param retries         失败重试次数
+     */
+    public InstallationPlan(String clusterName, int parallelism, int hostParallelism, long timeout, int retries) {
+        this.clusterName = clusterName;
+        this.parallelism = Math.max(parallelism, 1);
+        this.hostParallelism = Math.max(hostParallelism, 1);
+        this.timeout = timeout;
+        this.retries = Math.max(retries, 0);
+    }
+
+    public Step addStep(String name, String host, Action action, Step... dependencies) {
+        Step step = new Step(name, host, action, Arrays.asList(dependencies));
+        steps.add(step);
+        return step;
+    }
+
+    public int size() {
+        return steps.size();
+    }
+
+    public boolean execute() {
+        int total = steps.size();
+        int finished = 0;
+        int running = 0;
+        boolean failed = false;
+        Map<String, Integer> hostRunningMap = new HashMap<>();
+        try {
+            while (true) {
+                if (!failed) {
+                    for (Step step : steps) {
+                        if (running >= parallelism) {
+                            break;
+                        }
+                        int hostRunning = hostRunningMap.getOrDefault(step.host, 0);
+                        if (step.status != Status.PENDING || hostRunning >= hostParallelism || !step.isReady()) {
+                            continue;
+                        }
+                        submit(step);
+                        running++;
+                        hostRunningMap.put(step.host, hostRunning + 1);
+                    }
+                }
+                if (running == 0) {
+                    break;
+                }
+                Step completed = completedQueue.poll(1, TimeUnit.SECONDS);
+                List<Step> doneList = new ArrayList<>();
+                if (completed != null) {
+                    doneList.add(completed);
+                    completedQueue.drainTo(doneList);
+                }
+                for (Step step : doneList) {
+                    // 已超时的步骤之后返回的结果忽略
+                    if (step.status != Status.RUNNING || step.result == null) {
+                        continue;
+                    }
+                    running--;
+                    hostRunningMap.merge(step.host, -1, Integer::sum);
+                    if (step.result) {
+                        step.status = Status.SUCCESS;
+                        finished++;
+                        InstallationWebSocketHandler.appendLog(clusterName, "[" + finished + "/" + total + "] " + step.name + " done.");
+                    } else if (step.attempts <= retries && !failed) {
+                        step.status = Status.PENDING;
+                        InstallationWebSocketHandler.appendLog(clusterName, step.name + " failed, retry " + step.attempts + "/" + retries + "...");
+                    } else {
+                        step.status = Status.FAILED;
+                        failed = true;
+                        InstallationWebSocketHandler.appendLog(clusterName, step.name + " failed.");
+                    }
+                }
+                long now = System.currentTimeMillis();
+                for (Step step : steps) {
+                    if (step.status == Status.RUNNING && step.result == null && now - step.startTime > timeout) {
+                        step.future.cancel(true);
+                        step.status = Status.FAILED;
+                        failed = true;
+                        running--;
+                        hostRunningMap.merge(step.host, -1, Integer::sum);
+                        InstallationWebSocketHandler.appendLog(clusterName, step.name + " timeout.");
+                        logger.warn(clusterName + " " + step.name + " timeout.");
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            steps.forEach(step -> {
+                if (step.status == Status.RUNNING) {
+                    step.future.cancel(true);
+                }
+            });
+            return false;
+        }
+        if (!failed && finished < total) {
+            // 依赖了不在计划中的步骤
+            InstallationWebSocketHandler.appendLog(clusterName, (total - finished) + " steps can't be executed.");
+            return false;
+        }
+        return !failed;
+    }
+
+    private void submit(Step step) {
+        step.status = Status.RUNNING;
+        step.result = null;
+        step.attempts++;
+        step.startTime = System.currentTimeMillis();
+        step.future = THREAD_POOL.submit(() -> {
+            boolean result;
+            try {
+                result = step.action.execute();
+            } catch (Exception e) {
+                InstallationWebSocketHandler.appendLog(clusterName, step.name + " error: " + e.getMessage());
+                logger.error(clusterName + " " + step.name + " failed.", e);
+                result = false;
+            }
+            step.result = result;
+            completedQueue.add(step);
+        });
+    }
+
+    public interface Action {
+
+        boolean execute() throws Exception;
+    }
+
+    private enum Status {
+        PENDING, RUNNING, SUCCESS, FAILED
+    }
+
+    public static class Step {
+
+        private final String name;
+
+        private final String host;
+
+        private final Action action;
+
+        private final List<Step> dependencies;
+
+        /**
+         * 以下字段只由 execute 线程修改，result 由执行线程写入
+         */
+        private Status status = Status.PENDING;
+
+        private int attempts;
+
+        private long startTime;
+
+        private Future<?> future;
+
+        private volatile Boolean result;
+
+        private Step(String name, String host, Action action, List<Step> dependencies) {
+            this.name = name;
+            this.host = host;
+            this.action = action;
+            this.dependencies = dependencies;
+        }
+
+        private boolean isReady() {
+            for (Step dependency : dependencies) {
+                if (dependency == null) {
+                    continue;
+                }
+                if (dependency.status != Status.SUCCESS) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
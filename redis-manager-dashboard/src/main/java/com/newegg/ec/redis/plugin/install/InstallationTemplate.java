@@ -29,7 +29,7 @@ import static com.newegg.ec.redis.util.RedisUtil.CLUSTER;
 import static com.newegg.ec.redis.util.RedisUtil.STANDALONE;
 import static com.newegg.ec.redis.util.SignUtil.COLON;
 import static com.newegg.ec.redis.util.SignUtil.COMMAS;
-import static com.newegg.ec.redis.util.TimeUtil.*;
+import static com.newegg.ec.redis.util.TimeUtil.FIVE_SECONDS;
 import static javax.management.timer.Timer.ONE_MINUTE;
 import static javax.management.timer.Timer.ONE_SECOND;
 
@@ -65,6 +65,10 @@ public class InstallationTemplate {
 
     private static final int MAX_PORT = 65535;
 
+    private static final long REPLICATE_RETRY_INTERVAL = 200;
+
+    private static final long REPLICATE_TIMEOUT = 30 * ONE_SECOND;
+
     /**
      * 模板通用，调用方传入不同的策略
      *
@@ -87,27 +91,11 @@ public class InstallationTemplate {
         if (!prepareSuccess) {
             return false;
         }
-        InstallationWebSocketHandler.appendLog(clusterName, "Start pulling redis.conf...");
-        logger.info(clusterName + " start pulling redis.conf...");
-        // 分发配置文件
-        boolean pullConfigSuccess = pullConfig(installationOperation, installationParam);
-        if (!pullConfigSuccess) {
-            return false;
-        }
-
-        InstallationWebSocketHandler.appendLog(clusterName, "Start pulling image...");
-        logger.info(clusterName + " start pulling image...");
-        boolean pullImageSuccess = pullImage(installationOperation, installationParam);
-        // 拉取安装包
-        if (!pullImageSuccess) {
-            return false;
-        }
-
-        InstallationWebSocketHandler.appendLog(clusterName, "Start installing redis node...");
-        logger.info(clusterName + " start installing redis node...");
-        // 节点安装
-        boolean installSuccess = install(installationOperation, installationParam);
-        if (!installSuccess) {
+        InstallationWebSocketHandler.appendLog(clusterName, "Start deploying redis node...");
+        logger.info(clusterName + " start deploying redis node...");
+        // 分发配置文件、拉取安装包、启动节点，按依赖关系并行执行
+        boolean deploySuccess = deploy(installationOperation, installationParam);
+        if (!deploySuccess) {
             return false;
         }
         InstallationWebSocketHandler.appendLog(clusterName, "Start initializing...");
@@ -181,6 +169,10 @@ public class InstallationTemplate {
         return installationOperation.install(installationParam);
     }
 
+    public boolean deploy(AbstractNodeOperation installationOperation, InstallationParam installationParam) {
+        return installationOperation.deploy(installationParam);
+    }
+
     /**
      * 获取机器列表
      * 1. 选择机器
@@ -210,7 +202,8 @@ public class InstallationTemplate {
         List<Machine> machineList = installationParam.getMachineList();
         for (Machine machine : machineList) {
             try {
-                SSH2Util.getConnection(machine);
+                // 登录后连接留在池中，后续安装命令直接复用
+                SSH2Util.checkConnection(machine);
             } catch (Exception e) {
                 InstallationWebSocketHandler.appendLog(clusterName, machine.getHost() + " connection refused");
                 logger.info(clusterName + " " + machine.getHost() + " connection refused");
@@ -433,7 +426,7 @@ public class InstallationTemplate {
 
         List<RedisNode> redisNodeListWithInfo = waitNodesMeet(installationParam, seed, allRedisNodes);
         replicate(installationParam, topology, redisNodeListWithInfo);
-        waitAfterOperation(FIVE_SECONDS);
+        waitReplicated(installationParam, seed, topology);
         // Set password
         if (!Strings.isNullOrEmpty(redisPassword)) {
             String updateRedisPasswordResult = updateRedisPassword(redisPassword, cluster);
@@ -483,40 +476,31 @@ public class InstallationTemplate {
      * @return
      */
     private List<RedisNode> waitNodesMeet(InstallationParam installationParam, RedisNode seed, List<RedisNode> redisNodeList) {
-        String clusterName = installationParam.getCluster().getClusterName();
-        String redisMode = installationParam.getCluster().getRedisMode();
+        Cluster cluster = installationParam.getCluster();
+        String clusterName = cluster.getClusterName();
+        long start = System.currentTimeMillis();
+        boolean ready = redisService.waitForNodesJoined(cluster, seed, redisNodeList, ONE_MINUTE);
+        InstallationWebSocketHandler.appendLog(clusterName, "Wait meet: " + (System.currentTimeMillis() - start));
         // 获取集群节点
-        RedisClient redisClient = RedisClientFactory.buildRedisClient(seed);
         List<RedisNode> redisNodeListWithInfo = new ArrayList<>();
-        long timeout = 0;
-        long start = System.currentTimeMillis();
-        while (timeout < ONE_MINUTE) {
-            try {
-                if (Objects.equals(redisMode, CLUSTER)) {
-                    redisNodeListWithInfo = redisClient.clusterNodes();
-                } else {
-                    redisNodeListWithInfo = redisClient.nodes();
-                }
-                int realSize = redisNodeListWithInfo.size();
-                int needSize = redisNodeList.size();
-                waitAfterOperation(TEN_SECONDS);
-                if (realSize == needSize) {
-                    break;
-                } else {
-                    timeout += TEN_SECONDS;
-                }
-            } catch (Exception e) {
-                String message = "Wait for node meet error.";
-                InstallationWebSocketHandler.appendLog(clusterName, message);
-                logger.error(message, e);
-                timeout += TEN_SECONDS;
-                // installationParam.setAutoInit(false);
-            } finally {
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(seed);
+            if (Objects.equals(cluster.getRedisMode(), CLUSTER)) {
+                redisNodeListWithInfo = redisClient.clusterNodes();
+            } else {
+                redisNodeListWithInfo = redisClient.nodes();
+            }
+        } catch (Exception e) {
+            String message = "Wait for node meet error.";
+            InstallationWebSocketHandler.appendLog(clusterName, message);
+            logger.error(message, e);
+        } finally {
+            if (redisClient != null) {
                 redisClient.close();
             }
         }
-        InstallationWebSocketHandler.appendLog(clusterName, "Wait meet: " + (System.currentTimeMillis() - start));
-        if (redisNodeListWithInfo.size() != redisNodeList.size()) {
+        if (!ready || redisNodeListWithInfo.size() != redisNodeList.size()) {
             // installationParam.setAutoInit(false);
             StringBuilder message = new StringBuilder("Topology is incorrect, real nodes = ");
             redisNodeListWithInfo.forEach(redisNode -> message.append(RedisUtil.getNodeString(redisNode)).append(COMMAS));
@@ -528,6 +512,41 @@ public class InstallationTemplate {
         return redisNodeListWithInfo;
     }
 
+    /**
+     * Wait for slaves to be shown as slave in seed's cluster nodes
+     *
+     * @param installationParam
+     * @param seed
+     * @param topology
+     */
+    private void waitReplicated(InstallationParam installationParam, RedisNode seed, Multimap<RedisNode, RedisNode> topology) {
+        String clusterName = installationParam.getCluster().getClusterName();
+        long start = System.currentTimeMillis();
+        boolean ready = ReadinessWaiter.await(() -> {
+            List<RedisNode> redisNodeListWithInfo;
+            RedisClient redisClient = RedisClientFactory.buildRedisClient(seed);
+            try {
+                redisNodeListWithInfo = redisClient.clusterNodes();
+            } finally {
+                redisClient.close();
+            }
+            for (RedisNode slaveNode : topology.values()) {
+                boolean replicated = redisNodeListWithInfo.stream()
+                        .anyMatch(redisNode -> RedisUtil.equals(redisNode, slaveNode) && redisNode.getNodeRole() == SLAVE);
+                if (!replicated) {
+                    return false;
+                }
+            }
+            return true;
+        }, REPLICATE_TIMEOUT);
+        InstallationWebSocketHandler.appendLog(clusterName, "Wait replicate: " + (System.currentTimeMillis() - start));
+        if (!ready) {
+            String message = "Wait for replicate timeout, some slaves are not ready.";
+            InstallationWebSocketHandler.appendLog(clusterName, message);
+            logger.warn(clusterName + " " + message);
+        }
+    }
+
     private RedisNode getSeedNode(Cluster cluster, Multimap<RedisNode, RedisNode> topology) {
         Iterator<RedisNode> iterator = topology.keySet().iterator();
         RedisNode seed = null;
@@ -559,13 +578,10 @@ public class InstallationTemplate {
             }
         }
         realTopology.forEach((masterNodeWithInfo, slaveNode) -> {
-            boolean replicateResult = redisService.clusterReplicate(cluster, masterNodeWithInfo.getNodeId(), slaveNode);
-            int waitTimeout = 0;
-            while (!replicateResult && waitTimeout < ONE_MINUTE) {
-                waitAfterOperation(TEN_SECONDS);
-                waitTimeout += TEN_SECONDS;
-                replicateResult = redisService.clusterReplicate(cluster, masterNodeWithInfo.getNodeId(), slaveNode);
-            }
+            // master 尚未被 slave 认识时 replicate 会失败，退避重试
+            boolean replicateResult = ReadinessWaiter.await(
+                    () -> redisService.clusterReplicate(cluster, masterNodeWithInfo.getNodeId(), slaveNode),
+                    REPLICATE_RETRY_INTERVAL, FIVE_SECONDS, ONE_MINUTE);
             if (!replicateResult) {
                 // installationParam.setAutoInit(false);
                 InstallationWebSocketHandler.appendLog(cluster.getClusterName(),
@@ -642,7 +658,6 @@ public class InstallationTemplate {
         String nodes = generateConnectionNodes(cluster);
         cluster.setNodes(nodes);
         cluster.setInstallationType(0);
-        waitAfterOperation(ONE_SECOND);
         clusterService.addCluster(cluster);
         List<RedisNode> redisNodeList = installationParam.getRedisNodeList();
         List<RedisNode> realRedisNodeList = redisService.getRedisNodeList(cluster);
@@ -683,11 +698,4 @@ public class InstallationTemplate {
             this.ports = ports;
         }
     }
-
-    private static void waitAfterOperation(long duration) {
-        try {
-            Thread.sleep(duration);
-        } catch (InterruptedException e) {
-        }
-    }
 }
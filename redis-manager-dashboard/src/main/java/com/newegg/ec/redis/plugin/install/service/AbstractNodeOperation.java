@@ -2,11 +2,12 @@ package com.newegg.ec.redis.plugin.install.service;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Multimap;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.newegg.ec.redis.config.SystemConfig;
 import com.newegg.ec.redis.controller.websocket.InstallationWebSocketHandler;
 import com.newegg.ec.redis.entity.Machine;
 import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.plugin.install.InstallationPlan;
+import com.newegg.ec.redis.plugin.install.InstallationPlan.Step;
 import com.newegg.ec.redis.plugin.install.entity.InstallationParam;
 import com.newegg.ec.redis.util.LinuxInfoUtil;
 import com.newegg.ec.redis.util.NetworkUtil;
@@ -15,19 +16,19 @@ import com.newegg.ec.redis.util.SSH2Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 
 import java.net.SocketException;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.*;
+import java.util.*;
 
 import static com.newegg.ec.redis.config.SystemConfig.CONFIG_ORIGINAL_PATH;
 import static com.newegg.ec.redis.util.LinuxInfoUtil.MEMORY_FREE;
 import static com.newegg.ec.redis.util.RedisConfigUtil.REDIS_CONF;
 import static com.newegg.ec.redis.util.SignUtil.COLON;
 import static com.newegg.ec.redis.util.SignUtil.SLASH;
+import static javax.management.timer.Timer.ONE_MINUTE;
 
 /**
  * @author Jay.H.Zou
@@ -37,12 +38,30 @@ public abstract class AbstractNodeOperation implements InstallationOperation, IN
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractNodeOperation.class);
 
-    protected static ExecutorService threadPool = new ThreadPoolExecutor(4, 10, 60L, TimeUnit.SECONDS,
-            new SynchronousQueue<>(),
-            new ThreadFactoryBuilder().setNameFormat("pull-image-pool-thread-%d").build(),
-            new ThreadPoolExecutor.AbortPolicy());
+    private enum Phase {
+        CONFIG, IMAGE, START
+    }
+
+    /**
+     * 全局最多同时执行的安装步骤数
+     */
+    @Value("${redis-manager.installation.parallelism:16}")
+    private int parallelism;
 
-    protected static final int TIMEOUT = 5;
+    /**
+     * 单台机器最多同时执行的安装步骤数
+     */
+    @Value("${redis-manager.installation.host-parallelism:4}")
+    private int hostParallelism;
+
+    /**
+     * 单个步骤超时时间(分钟)
+     */
+    @Value("${redis-manager.installation.step-timeout:5}")
+    private int stepTimeout;
+
+    @Value("${redis-manager.installation.retries:1}")
+    private int retries;
 
     /**
      * redis-manager 数据存放目录
@@ -115,11 +134,81 @@ public abstract class AbstractNodeOperation implements InstallationOperation, IN
 
     @Override
     public boolean pullConfig(InstallationParam installationParam) {
+        return executePlan(installationParam, EnumSet.of(Phase.CONFIG));
+    }
+
+    @Override
+    public boolean pullImage(InstallationParam installationParam) {
+        return executePlan(installationParam, EnumSet.of(Phase.IMAGE));
+    }
+
+    @Override
+    public boolean install(InstallationParam installationParam) {
+        return executePlan(installationParam, EnumSet.of(Phase.START));
+    }
+
+    /**
+     * 分发配置、拉取安装包、启动节点作为一个计划执行，每个节点只等待自己机器上的前置步骤
+     *
+     * @param installationParam
+     * @return
+     */
+    public boolean deploy(InstallationParam installationParam) {
+        return executePlan(installationParam, EnumSet.allOf(Phase.class));
+    }
+
+    /**
+     * 依赖关系：
+     * 机器 pullConfig -> 节点 pullConfig -> 节点 pullImage -> 节点 start
+     * 机器 pullImage  -> 节点 pullImage
+     * 来源机器 pullImage -> 机器 pullImage (安装包按 getImageSources 树形分发时)
+     * 节点 pullConfig 会清空节点目录，所以节点 pullImage 必须在其之后
+     */
+    private boolean executePlan(InstallationParam installationParam, Set<Phase> phases) {
+        String clusterName = installationParam.getCluster().getClusterName();
+        InstallationPlan plan = new InstallationPlan(clusterName, parallelism, hostParallelism, stepTimeout * ONE_MINUTE, retries);
+        Multimap<Machine, RedisNode> machineAndRedisNode = installationParam.getMachineAndRedisNode();
+        Map<Machine, Machine> imageSources = phases.contains(Phase.IMAGE) ? getImageSources(installationParam) : Collections.emptyMap();
+        Map<Machine, Step> machineImageSteps = new HashMap<>();
+        for (Machine machine : installationParam.getMachineList()) {
+            String host = machine.getHost();
+            Step machineConfig = phases.contains(Phase.CONFIG)
+                    ? plan.addStep("Pull redis.conf to " + host, host, () -> pullConfig(installationParam, machine)) : null;
+            Step machineImage = null;
+            if (phases.contains(Phase.IMAGE)) {
+                Machine source = imageSources.get(machine);
+                Step sourceImage = source == null ? null : machineImageSteps.get(source);
+                if (sourceImage == null) {
+                    machineImage = plan.addStep("Pull image to " + host, host, () -> pullImage(installationParam, machine));
+                } else {
+                    machineImage = plan.addStep("Copy image from " + source.getHost() + " to " + host, host,
+                            () -> copyImage(installationParam, source, machine), sourceImage);
+                }
+                machineImageSteps.put(machine, machineImage);
+            }
+            for (RedisNode redisNode : machineAndRedisNode.get(machine)) {
+                String node = host + ":" + redisNode.getPort();
+                Step nodeConfig = phases.contains(Phase.CONFIG)
+                        ? plan.addStep("Config " + node, host, () -> pullConfig(installationParam, machine, redisNode), machineConfig) : null;
+                Step nodeImage = phases.contains(Phase.IMAGE)
+                        ? plan.addStep("Install " + node, host, () -> pullImage(installationParam, machine, redisNode), machineImage, nodeConfig) : null;
+                if (phases.contains(Phase.START)) {
+                    plan.addStep("Start " + node, host, () -> start(installationParam.getCluster(), redisNode), nodeImage, nodeConfig);
+                }
+            }
+        }
+        logger.info(clusterName + " execute installation plan " + phases + ", steps: " + plan.size());
+        return plan.execute();
+    }
+
+    /**
+     * 将 redis.conf 下载到目标机器的临时目录
+     */
+    protected boolean pullConfig(InstallationParam installationParam, Machine machine) {
         boolean sudo = installationParam.isSudo();
         String clusterName = installationParam.getCluster().getClusterName();
-        String url;
-        // 模式
         String redisMode = installationParam.getCluster().getRedisMode();
+        String url;
         try {
             // eg: ip:port/redis-manager/config/cluster/redis.conf
             url = LinuxInfoUtil.getIpAddress() + COLON + systemConfig.getServerPort() + CONFIG_ORIGINAL_PATH + redisMode + SLASH + REDIS_CONF;
@@ -127,58 +216,83 @@ public abstract class AbstractNodeOperation implements InstallationOperation, IN
             logger.error("Get conf from original machine.", e);
             return false;
         }
-        List<Machine> machineList = installationParam.getMachineList();
         String tempPath = INSTALL_BASE_PATH + redisMode;
-
-        for (Machine machine : machineList) {
-            try {
-                // 将 redis.conf 分发到目标机器的临时目录
-                String result = SSH2Util.copyFileToRemote(machine, tempPath, url, sudo);
-                logger.info(result);
-                if (!result.contains("OK")) {
-                    InstallationWebSocketHandler.appendLog(clusterName, result);
-                    String message = "Copy redis.conf to target machine failed, host: " + machine.getHost();
-                    logger.error(message);
-                    InstallationWebSocketHandler.appendLog(clusterName, message);
-                    return false;
-                }
-            } catch (Exception e) {
-                String message = "Download redis.conf to target machine failed, host: " + machine.getHost();
+        try {
+            // 将 redis.conf 分发到目标机器的临时目录
+            String result = SSH2Util.copyFileToRemote(machine, tempPath, url, sudo);
+            logger.info(result);
+            if (!result.contains("OK")) {
+                InstallationWebSocketHandler.appendLog(clusterName, result);
+                String message = "Copy redis.conf to target machine failed, host: " + machine.getHost();
+                logger.error(message);
                 InstallationWebSocketHandler.appendLog(clusterName, message);
-                InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
-                logger.error(message, e);
                 return false;
             }
+            return true;
+        } catch (Exception e) {
+            String message = "Download redis.conf to target machine failed, host: " + machine.getHost();
+            InstallationWebSocketHandler.appendLog(clusterName, message);
+            InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
+            logger.error(message, e);
+            return false;
         }
-        // copy 配置文件，并修改参数
-        String tempRedisConf = tempPath + SLASH + REDIS_CONF;
-        Multimap<Machine, RedisNode> machineAndRedisNode = installationParam.getMachineAndRedisNode();
-        for (Map.Entry<Machine, RedisNode> entry : machineAndRedisNode.entries()) {
-            Machine machine = entry.getKey();
-            RedisNode redisNode = entry.getValue();
-            String targetPath = INSTALL_BASE_PATH + redisNode.getPort();
-            try {
-                // 清理、复制
-                String copyResult = SSH2Util.copy2(machine, tempRedisConf, targetPath, sudo);
-                if (!Strings.isNullOrEmpty(copyResult)) {
-                    InstallationWebSocketHandler.appendLog(clusterName, copyResult);
-                    return false;
-                }
-                // 修改配置文件
-                Map<String, String> configs = getBaseConfigs(redisNode.getHost(), redisNode.getPort(), targetPath);
-                String changeResult = RedisConfigUtil.variableAssignment(machine, targetPath, configs, sudo);
-                if (!Strings.isNullOrEmpty(changeResult)) {
-                    InstallationWebSocketHandler.appendLog(clusterName, changeResult);
-                    return false;
-                }
-            } catch (Exception e) {
-                String message = "Copy or change redis.conf to target machine failed, host: " + machine.getHost();
-                InstallationWebSocketHandler.appendLog(clusterName, message);
-                InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
-                logger.error(message, e);
+    }
+
+    /**
+     * copy 配置文件到节点目录，并修改参数
+     */
+    protected boolean pullConfig(InstallationParam installationParam, Machine machine, RedisNode redisNode) {
+        boolean sudo = installationParam.isSudo();
+        String clusterName = installationParam.getCluster().getClusterName();
+        String tempRedisConf = INSTALL_BASE_PATH + installationParam.getCluster().getRedisMode() + SLASH + REDIS_CONF;
+        String targetPath = INSTALL_BASE_PATH + redisNode.getPort();
+        try {
+            // 清理、复制
+            String copyResult = SSH2Util.copy2(machine, tempRedisConf, targetPath, sudo);
+            if (!Strings.isNullOrEmpty(copyResult)) {
+                InstallationWebSocketHandler.appendLog(clusterName, copyResult);
+                return false;
+            }
+            // 修改配置文件
+            Map<String, String> configs = getBaseConfigs(redisNode.getHost(), redisNode.getPort(), targetPath);
+            String changeResult = RedisConfigUtil.variableAssignment(machine, targetPath, configs, sudo);
+            if (!Strings.isNullOrEmpty(changeResult)) {
+                InstallationWebSocketHandler.appendLog(clusterName, changeResult);
                 return false;
             }
+            return true;
+        } catch (Exception e) {
+            String message = "Copy or change redis.conf to target machine failed, host: " + machine.getHost();
+            InstallationWebSocketHandler.appendLog(clusterName, message);
+            InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
+            logger.error(message, e);
+            return false;
         }
+    }
+
+    /**
+     * 拉取安装包或镜像到目标机器
+     */
+    protected abstract boolean pullImage(InstallationParam installationParam, Machine machine);
+
+    /**
+     * 安装包分发来源：机器 -> 从哪台机器复制，来源机器必须在 machineList 中排在前面；不在其中的机器从 dashboard 拉取
+     */
+    protected Map<Machine, Machine> getImageSources(InstallationParam installationParam) {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * 从已拉取安装包的机器复制到目标机器
+     */
+    protected boolean copyImage(InstallationParam installationParam, Machine source, Machine machine) {
+        return pullImage(installationParam, machine);
+    }
+
+    /**
+     * 节点级别的安装，如解压安装包
+     */
+    protected boolean pullImage(InstallationParam installationParam, Machine machine, RedisNode redisNode) {
         return true;
     }
 
@@ -25,8 +25,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
 import static com.newegg.ec.redis.plugin.install.DockerClientOperation.REDIS_DEFAULT_WORK_DIR;
 import static com.newegg.ec.redis.util.RedisConfigUtil.REDIS_CONF;
@@ -116,54 +114,20 @@ public class HumpbackNodeOperation extends DockerNodeOperation {
     }
 
     @Override
-    public boolean pullImage(InstallationParam installationParam) {
-        List<Machine> machineList = installationParam.getMachineList();
+    protected boolean pullImage(InstallationParam installationParam, Machine machine) {
         Cluster cluster = installationParam.getCluster();
         String clusterName = cluster.getClusterName();
-        String image = cluster.getImage();
-
-        List<Future<Boolean>> resultFutureList = new ArrayList<>(machineList.size());
-        for (Machine machine : machineList) {
-            resultFutureList.add(threadPool.submit(() -> {
-                String host = machine.getHost();
-                try {
-                    humpbackAPI.pullImage(host, image);
-                    return true;
-                } catch (Exception e) {
-                    String message = "Pull docker image failed, host: " + host;
-                    InstallationWebSocketHandler.appendLog(clusterName, message);
-                    InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
-                    logger.error(message, e);
-                    return false;
-                }
-            }));
-        }
-        for (Future<Boolean> resultFuture : resultFutureList) {
-            try {
-                if (!resultFuture.get(TIMEOUT, TimeUnit.MINUTES)) {
-                    return false;
-                }
-            } catch (Exception e) {
-                InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
-                logger.error("", e);
-                return false;
-            }
-        }
-        return true;
-    }
-
-
-    @Override
-    public boolean install(InstallationParam installationParam) {
-        List<RedisNode> allRedisNodes = installationParam.getRedisNodeList();
-        Cluster cluster = installationParam.getCluster();
-        for (RedisNode redisNode : allRedisNodes) {
-            boolean start = start(cluster, redisNode);
-            if (!start) {
-                return false;
-            }
+        String host = machine.getHost();
+        try {
+            humpbackAPI.pullImage(host, cluster.getImage());
+            return true;
+        } catch (Exception e) {
+            String message = "Pull docker image failed, host: " + host;
+            InstallationWebSocketHandler.appendLog(clusterName, message);
+            InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
+            logger.error(message, e);
+            return false;
         }
-        return true;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.newegg.ec.redis.plugin.install.service.impl;
 
 import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.Machine;
 import com.newegg.ec.redis.entity.RedisNode;
 import com.newegg.ec.redis.plugin.install.entity.InstallationParam;
 import com.newegg.ec.redis.plugin.install.service.AbstractNodeOperation;
@@ -35,6 +36,11 @@ public class KubernetesOperation extends AbstractNodeOperation {
         return false;
     }
 
+    @Override
+    protected boolean pullImage(InstallationParam installationParam, Machine machine) {
+        return false;
+    }
+
     @Override
     public boolean install(InstallationParam installationParam) {
         return false;
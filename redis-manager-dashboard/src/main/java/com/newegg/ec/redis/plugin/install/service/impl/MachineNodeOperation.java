@@ -1,17 +1,18 @@
 package com.newegg.ec.redis.plugin.install.service.impl;
 
 import com.google.common.base.Strings;
-import com.google.common.collect.Multimap;
 import com.newegg.ec.redis.client.RedisClient;
 import com.newegg.ec.redis.client.RedisClientFactory;
 import com.newegg.ec.redis.controller.websocket.InstallationWebSocketHandler;
 import com.newegg.ec.redis.entity.Cluster;
 import com.newegg.ec.redis.entity.Machine;
 import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.entity.SSHCommandResult;
 import com.newegg.ec.redis.plugin.install.entity.InstallationParam;
 import com.newegg.ec.redis.plugin.install.service.AbstractNodeOperation;
 import com.newegg.ec.redis.service.IMachineService;
 import com.newegg.ec.redis.util.LinuxInfoUtil;
+import com.newegg.ec.redis.util.PackageDistributionUtil;
 import com.newegg.ec.redis.util.SSH2Util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,18 +22,13 @@ import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.SocketException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
 
 import static com.newegg.ec.redis.config.SystemConfig.MACHINE_PACKAGE_ORIGINAL_PATH;
 import static com.newegg.ec.redis.util.RedisConfigUtil.*;
 import static com.newegg.ec.redis.util.SignUtil.COLON;
-import static com.newegg.ec.redis.util.SignUtil.SLASH;
 
 /**
  * @author Jay.H.Zou
@@ -48,6 +44,18 @@ public class MachineNodeOperation extends AbstractNodeOperation {
     @Value("${redis-manager.installation.machine.package-path}")
     private String packagePath;
 
+    /**
+     * 安装包按树形分发：dashboard 只向 seeds 台机器提供安装包，其余机器从上一层机器 scp
+     */
+    @Value("${redis-manager.installation.machine.distribution.enabled:false}")
+    private boolean distributionEnabled;
+
+    @Value("${redis-manager.installation.machine.distribution.seeds:2}")
+    private int distributionSeeds;
+
+    @Value("${redis-manager.installation.machine.distribution.fanout:3}")
+    private int distributionFanout;
+
     @Autowired
     private IMachineService machineService;
 
@@ -78,17 +86,22 @@ public class MachineNodeOperation extends AbstractNodeOperation {
         return true;
     }
 
+    @Override
+    protected Map<Machine, Machine> getImageSources(InstallationParam installationParam) {
+        if (!distributionEnabled) {
+            return Collections.emptyMap();
+        }
+        return PackageDistributionUtil.buildTree(installationParam.getMachineList(), distributionSeeds, distributionFanout);
+    }
+
     /**
      * 从本机copy到目标机器上
      *
      * @return
      */
     @Override
-    public boolean pullImage(InstallationParam installationParam) {
-        boolean sudo = installationParam.isSudo();
-        Cluster cluster = installationParam.getCluster();
-        String clusterName = cluster.getClusterName();
-        String image = cluster.getImage();
+    protected boolean pullImage(InstallationParam installationParam, Machine machine) {
+        String image = installationParam.getCluster().getImage();
         String url;
         try {
             // eg: ip:port/redis/machine/xxx.tar.gz
@@ -96,71 +109,110 @@ public class MachineNodeOperation extends AbstractNodeOperation {
         } catch (SocketException e) {
             return false;
         }
-        List<Machine> machineList = installationParam.getMachineList();
-        String tempPath = INSTALL_BASE_PATH + "data/";
-        List<Future<Boolean>> resultFutureList = new ArrayList<>(machineList.size());
-        for (Machine machine : machineList) {
-            resultFutureList.add(threadPool.submit(() -> {
-                try {
-                    SSH2Util.copyFileToRemote(machine, tempPath, url, sudo);
-                    return true;
-                } catch (Exception e) {
-                    String message = "Pull machine image failed, host: " + machine.getHost();
-                    InstallationWebSocketHandler.appendLog(clusterName, message);
-                    InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
-                    logger.error(message, e);
-                    return false;
-                }
-            }));
+        return fetchImage(installationParam, machine, PackageDistributionUtil.buildWgetTemplate(url));
+    }
+
+    /**
+     * 从上一层机器 scp，失败时回退到从本机下载
+     */
+    @Override
+    protected boolean copyImage(InstallationParam installationParam, Machine source, Machine machine) {
+        String clusterName = installationParam.getCluster().getClusterName();
+        String checksum = getPackageChecksum(installationParam);
+        if (checksum == null) {
+            return false;
         }
-        for (Future<Boolean> resultFuture : resultFutureList) {
-            try {
-                if (!resultFuture.get(TIMEOUT, TimeUnit.MINUTES)) {
-                    return false;
-                }
-            } catch (Exception e) {
-                InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
-                logger.error("", e);
-                return false;
-            }
+        String sourcePath = PackageDistributionUtil.getCachePath(INSTALL_BASE_PATH, checksum, installationParam.getCluster().getImage());
+        String scpTemplate = PackageDistributionUtil.buildScpTemplate(source.getUserName(), source.getHost(), source.getSshPort(), sourcePath);
+        if (fetchImage(installationParam, machine, scpTemplate)) {
+            return true;
         }
-        String tempPackagePath = tempPath + SLASH + image;
-        Multimap<Machine, RedisNode> machineAndRedisNode = installationParam.getMachineAndRedisNode();
-        for (Map.Entry<Machine, RedisNode> entry : machineAndRedisNode.entries()) {
-            Machine machine = entry.getKey();
-            RedisNode redisNode = entry.getValue();
-            String targetPath = INSTALL_BASE_PATH + redisNode.getPort();
-            try {
-                // 解压到目标目录
-                String result = SSH2Util.unzipToTargetPath(machine, tempPackagePath, targetPath, sudo);
-                if (!Strings.isNullOrEmpty(result)) {
-                    InstallationWebSocketHandler.appendLog(clusterName, "Unzip failed, host: " + machine.getHost());
-                    InstallationWebSocketHandler.appendLog(clusterName, result);
+        InstallationWebSocketHandler.appendLog(clusterName, "Copy image from " + source.getHost() + " to " + machine.getHost()
+                + " failed, fall back to download.");
+        return pullImage(installationParam, machine);
+    }
+
+    /**
+     * 机器缓存目录中已有相同 sha256 的安装包时跳过，否则获取到临时文件，校验后放入缓存目录
+     */
+    private boolean fetchImage(InstallationParam installationParam, Machine machine, String fetchTemplate) {
+        Cluster cluster = installationParam.getCluster();
+        String clusterName = cluster.getClusterName();
+        String host = machine.getHost();
+        String checksum = getPackageChecksum(installationParam);
+        if (checksum == null) {
+            return false;
+        }
+        String cachePath = PackageDistributionUtil.getCachePath(INSTALL_BASE_PATH, checksum, cluster.getImage());
+        try {
+            String verifyCommand = PackageDistributionUtil.buildVerifyCommand(cachePath, checksum);
+            List<SSHCommandResult> verifyResult = SSH2Util.executeBatch(machine, Collections.singletonList(verifyCommand), true);
+            if (!verifyResult.isEmpty() && verifyResult.get(0).isSuccess()) {
+                InstallationWebSocketHandler.appendLog(clusterName, host + " already has " + cluster.getImage() + ", skip.");
+                return true;
+            }
+            List<String> commands = PackageDistributionUtil.buildFetchCommands(cachePath, checksum, fetchTemplate, installationParam.isSudo());
+            List<SSHCommandResult> resultList = SSH2Util.executeBatch(machine, commands, true);
+            for (SSHCommandResult result : resultList) {
+                if (!result.isSuccess()) {
+                    String message = "Pull machine image failed, host: " + host + ", command: " + result.getCommand();
+                    InstallationWebSocketHandler.appendLog(clusterName, message);
+                    InstallationWebSocketHandler.appendLog(clusterName, result.getOutput());
+                    logger.warn(message + ", " + result.getOutput());
                     return false;
                 }
-            } catch (Exception e) {
-                InstallationWebSocketHandler.appendLog(clusterName, "Unzip failed, host: " + machine.getHost());
-                InstallationWebSocketHandler.appendLog(clusterName, "Unzip failed, host: " + machine.getHost());
-                logger.error("", e);
-                return false;
             }
+            return resultList.size() == commands.size();
+        } catch (Exception e) {
+            String message = "Pull machine image failed, host: " + host;
+            InstallationWebSocketHandler.appendLog(clusterName, message);
+            InstallationWebSocketHandler.appendLog(clusterName, e.getMessage());
+            logger.error(message, e);
+            return false;
         }
-        return true;
     }
 
+    private String getPackageChecksum(InstallationParam installationParam) {
+        Cluster cluster = installationParam.getCluster();
+        File packageFile = new File(packagePath, cluster.getImage());
+        try {
+            return PackageDistributionUtil.sha256(packageFile);
+        } catch (IOException e) {
+            String message = "Compute package checksum failed, " + packageFile.getAbsolutePath();
+            InstallationWebSocketHandler.appendLog(cluster.getClusterName(), message);
+            logger.error(message, e);
+            return null;
+        }
+    }
 
+    /**
+     * 解压到节点目录
+     */
     @Override
-    public boolean install(InstallationParam installationParam) {
-        Multimap<Machine, RedisNode> machineAndRedisNode = installationParam.getMachineAndRedisNode();
+    protected boolean pullImage(InstallationParam installationParam, Machine machine, RedisNode redisNode) {
+        boolean sudo = installationParam.isSudo();
         Cluster cluster = installationParam.getCluster();
-        for (Map.Entry<Machine, RedisNode> entry : machineAndRedisNode.entries()) {
-            RedisNode redisNode = entry.getValue();
-            boolean start = start(cluster, redisNode);
-            if (!start) {
+        String clusterName = cluster.getClusterName();
+        String checksum = getPackageChecksum(installationParam);
+        if (checksum == null) {
+            return false;
+        }
+        String tempPackagePath = PackageDistributionUtil.getCachePath(INSTALL_BASE_PATH, checksum, cluster.getImage());
+        String targetPath = INSTALL_BASE_PATH + redisNode.getPort();
+        try {
+            // 解压到目标目录
+            String result = SSH2Util.unzipToTargetPath(machine, tempPackagePath, targetPath, sudo);
+            if (!Strings.isNullOrEmpty(result)) {
+                InstallationWebSocketHandler.appendLog(clusterName, "Unzip failed, host: " + machine.getHost());
+                InstallationWebSocketHandler.appendLog(clusterName, result);
                 return false;
             }
+            return true;
+        } catch (Exception e) {
+            InstallationWebSocketHandler.appendLog(clusterName, "Unzip failed, host: " + machine.getHost());
+            logger.error("", e);
+            return false;
         }
-        return true;
     }
 
     @Override
@@ -18,8 +18,10 @@ import com.newegg.ec.redis.plugin.alert.service.IAlertRecordService;
 import com.newegg.ec.redis.plugin.alert.service.IAlertRuleService;
 import com.newegg.ec.redis.plugin.alert.service.IAlertService;
 import com.newegg.ec.redis.service.*;
+import com.newegg.ec.redis.util.Metrics;
 import com.newegg.ec.redis.util.RedisUtil;
 import com.newegg.ec.redis.util.SignUtil;
+import com.newegg.ec.redis.util.SlotMap;
 import com.newegg.ec.redis.util.TimeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,6 +102,9 @@ public class AlertMessageSchedule implements IDataCollection, IDataCleanup, Appl
     @Autowired
     private INodeInfoService nodeInfoService;
 
+    @Autowired
+    private IConfigSnapshotService configSnapshotService;
+
     @Autowired
     private IAlertService emailAlert;
 
@@ -120,9 +125,11 @@ public class AlertMessageSchedule implements IDataCollection, IDataCleanup, Appl
     @Override
     public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
         int coreSize = Runtime.getRuntime().availableProcessors();
-        threadPool = new ThreadPoolExecutor(coreSize, coreSize, 60L, TimeUnit.SECONDS,
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(coreSize, coreSize, 60L, TimeUnit.SECONDS,
                 new LinkedBlockingQueue<>(),
                 new ThreadFactoryBuilder().setNameFormat("redis-notify-pool-thread-%d").build());
+        Metrics.monitorThreadPool("redis-notify", executor);
+        threadPool = executor;
     }
 
     /**
@@ -196,9 +203,12 @@ public class AlertMessageSchedule implements IDataCollection, IDataCleanup, Appl
                     if (alertRuleList.isEmpty()) {
                         return;
                     }
+                    long start = System.nanoTime();
                     List<AlertRecord> alertRecordList = getNodeInfoAlertRecord(group, cluster, alertRuleList);
                     // 获取集群级别的告警
                     List<AlertRecord> clusterAlertRecordList = getClusterAlertRecord(group, cluster, alertRuleList);
+                    Metrics.timer("alert_evaluation", "Alert rule evaluation time per cluster",
+                            "cluster", cluster.getClusterName()).record(System.nanoTime() - start);
                     logger.info("Start to send alert message...");
                     // save to database
                     saveRecordToDB(cluster.getClusterName(), alertRecordList);
@@ -268,7 +278,12 @@ public class AlertMessageSchedule implements IDataCollection, IDataCleanup, Appl
                     Cluster currentCluster = parseClusterInfoToObject(clusterInfo);
                     Cluster.ClusterState clusterState = currentCluster.getClusterState();
                     if (!Objects.equals(Cluster.ClusterState.HEALTH, currentCluster.getClusterState())) {
-                        alertRecordList.add(buildClusterAlertRecord(group, cluster, alertRule, seedNodes, "Cluster state not ok"));
+                        String reason = "Cluster state not ok" + describeSlotState(redisClient.clusterNodes());
+                        // actual_data varchar(255)
+                        if (reason.length() > 255) {
+                            reason = reason.substring(0, 252) + "...";
+                        }
+                        alertRecordList.add(buildClusterAlertRecord(group, cluster, alertRule, seedNodes, reason));
                         cluster.setClusterState(clusterState);
                     }
                 }
@@ -297,6 +312,7 @@ public class AlertMessageSchedule implements IDataCollection, IDataCleanup, Appl
                     cluster.setClusterState(Cluster.ClusterState.WARN);
                 }
             });
+            alertRecordList.addAll(getConfigDriftRecord(group, cluster, alertRule));
             if (Objects.equals(SENTINEL, cluster.getRedisMode())) {
                 List<AlertRecord> sentinelMasterRecord = getSentinelMasterRecord(group, cluster, alertRule);
                 alertRecordList.addAll(sentinelMasterRecord);
@@ -306,6 +322,55 @@ public class AlertMessageSchedule implements IDataCollection, IDataCleanup, Appl
         return alertRecordList;
     }
 
+    /**
+     * 未分配的槽位和处于 fail 状态的 master 上的槽位
+     *
+     * @param redisNodeList cluster nodes
+     * @return
+     */
+    private String describeSlotState(List<RedisNode> redisNodeList) {
+        SlotMap slotMap = SlotMap.fromClusterNodes(redisNodeList);
+        StringBuilder description = new StringBuilder();
+        BitSet unassignedSlots = slotMap.getUnassignedSlots();
+        if (!unassignedSlots.isEmpty()) {
+            description.append(", unassigned slots: ").append(SlotMap.toRangeString(unassignedSlots));
+        }
+        List<RedisNode> masterNodeList = slotMap.getNodeList();
+        for (int i = 0; i < masterNodeList.size(); i++) {
+            RedisNode masterNode = masterNodeList.get(i);
+            String flags = masterNode.getFlags();
+            if (flags != null && flags.contains("fail") && slotMap.getSlotCount(i) > 0) {
+                description.append(", ").append(getNodeString(masterNode)).append(" ").append(flags)
+                        .append(" slots: ").append(SlotMap.toRangeString(slotMap.getSlots(i)));
+            }
+        }
+        return description.toString();
+    }
+
+    /**
+     * 配置与基线不一致的节点，读取已保存的快照，不访问 redis；只有手动设置过基线的集群才告警
+     *
+     * @param group
+     * @param cluster
+     * @param alertRule
+     * @return
+     */
+    private List<AlertRecord> getConfigDriftRecord(Group group, Cluster cluster, AlertRule alertRule) {
+        List<AlertRecord> alertRecordList = new ArrayList<>();
+        ConfigDrift configDrift = configSnapshotService.getConfigDrift(cluster.getClusterId());
+        if (configDrift == null || configDrift.isDefaultBaseline()) {
+            return alertRecordList;
+        }
+        configDrift.getNodeDriftList().forEach(nodeDrift -> {
+            StringBuilder reason = new StringBuilder("Config drift:");
+            nodeDrift.getDiffItemList().forEach(diffItem -> reason.append(" ").append(diffItem.getKey()));
+            // actual_data varchar(255)
+            String actualData = reason.length() > 255 ? reason.substring(0, 252) + "..." : reason.toString();
+            alertRecordList.add(buildClusterAlertRecord(group, cluster, alertRule, nodeDrift.getNode(), actualData));
+        });
+        return alertRecordList;
+    }
+
     /**
      * 1. not monitor
      * 2. master changed
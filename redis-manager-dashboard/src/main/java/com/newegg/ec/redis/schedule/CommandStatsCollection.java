@@ -0,0 +1,81 @@
+package com.newegg.ec.redis.schedule;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.ICommandStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class CommandStatsCollection implements IDataCollection, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandStatsCollection.class);
+
+    @Value("${redis-manager.command-stats.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private ICommandStatsService commandStatsService;
+
+    private ExecutorService threadPool;
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        int coreSize = Runtime.getRuntime().availableProcessors();
+        threadPool = new ThreadPoolExecutor(coreSize, coreSize * 4, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("collect-command-stats-pool-thread-%d").build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 一分钟采集一次 INFO commandstats 的增量
+     */
+    @Async
+    @Scheduled(cron = "0 0/1 * * * ? ")
+    @Override
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Cluster> allClusterList = clusterService.getAllClusterList();
+            if (allClusterList == null || allClusterList.isEmpty()) {
+                return;
+            }
+            for (Cluster cluster : allClusterList) {
+                threadPool.submit(() -> collect(cluster));
+            }
+        } catch (Exception e) {
+            logger.error("Collect command stats failed.", e);
+        }
+    }
+
+    private void collect(Cluster cluster) {
+        try {
+            commandStatsService.collect(cluster);
+        } catch (Exception e) {
+            logger.error("Collect command stats for " + cluster.getClusterName() + " failed.", e);
+        }
+    }
+}
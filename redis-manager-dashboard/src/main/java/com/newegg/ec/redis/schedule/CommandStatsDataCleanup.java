@@ -0,0 +1,27 @@
+package com.newegg.ec.redis.schedule;
+
+import com.newegg.ec.redis.service.ICommandStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class CommandStatsDataCleanup implements IDataCleanup {
+
+    @Autowired
+    private ICommandStatsService commandStatsService;
+
+    /**
+     * 每天凌晨0点实行一次，清理过期的命令统计
+     */
+    @Async
+    @Scheduled(cron = "0 0 0 * * ?")
+    @Override
+    public void cleanup() {
+        commandStatsService.cleanup();
+    }
+}
@@ -0,0 +1,91 @@
+package com.newegg.ec.redis.schedule;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.IConfigSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class ConfigSnapshotCollection implements IDataCollection, IDataCleanup, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotCollection.class);
+
+    @Value("${redis-manager.config-snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private IConfigSnapshotService configSnapshotService;
+
+    private ExecutorService threadPool;
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        int coreSize = Runtime.getRuntime().availableProcessors();
+        threadPool = new ThreadPoolExecutor(coreSize, coreSize * 2, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("collect-config-snapshot-pool-thread-%d").build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 每 10 分钟保存一次所有节点的配置快照
+     */
+    @Async
+    @Scheduled(cron = "0 0/10 * * * ? ")
+    @Override
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Cluster> allClusterList = clusterService.getAllClusterList();
+            if (allClusterList == null || allClusterList.isEmpty()) {
+                return;
+            }
+            for (Cluster cluster : allClusterList) {
+                threadPool.submit(() -> snapshot(cluster));
+            }
+        } catch (Exception e) {
+            logger.error("Collect config snapshot failed.", e);
+        }
+    }
+
+    /**
+     * 每天凌晨0点清理已移除节点的快照和不再被引用的内容
+     */
+    @Async
+    @Scheduled(cron = "0 0 0 * * ?")
+    @Override
+    public void cleanup() {
+        configSnapshotService.cleanup();
+    }
+
+    private void snapshot(Cluster cluster) {
+        try {
+            configSnapshotService.snapshot(cluster);
+        } catch (Exception e) {
+            logger.error("Collect config snapshot for " + cluster.getClusterName() + " failed.", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.newegg.ec.redis.schedule;
+
+import com.newegg.ec.redis.service.IMachineInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class MachineInfoCollection implements IDataCollection {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineInfoCollection.class);
+
+    @Value("${redis-manager.machine-monitor.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private IMachineInfoService machineInfoService;
+
+    /**
+     * 一分钟采集一次所有机器的 CPU、内存、磁盘、网络指标
+     */
+    @Async
+    @Scheduled(cron = "0 0/1 * * * ? ")
+    @Override
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            machineInfoService.collect();
+        } catch (Exception e) {
+            logger.error("Collect machine info failed.", e);
+        }
+    }
+
+    /**
+     * 每小时第 1 分 30 秒，等整点的分钟数据写入后聚合上一个小时
+     */
+    @Async
+    @Scheduled(cron = "30 1 0/1 * * ? ")
+    public void aggregateHour() {
+        if (!enabled) {
+            return;
+        }
+        machineInfoService.aggregateHour();
+    }
+}
@@ -0,0 +1,27 @@
+package com.newegg.ec.redis.schedule;
+
+import com.newegg.ec.redis.service.IMachineInfoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class MachineInfoDataCleanup implements IDataCleanup {
+
+    @Autowired
+    private IMachineInfoService machineInfoService;
+
+    /**
+     * 每天凌晨0点实行一次，清理过期的机器指标
+     */
+    @Async
+    @Scheduled(cron = "0 0 0 * * ?")
+    @Override
+    public void cleanup() {
+        machineInfoService.cleanup();
+    }
+}
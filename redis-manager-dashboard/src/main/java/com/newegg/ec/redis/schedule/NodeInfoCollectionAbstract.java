@@ -5,17 +5,23 @@ import com.newegg.ec.redis.service.IClusterService;
 import com.newegg.ec.redis.service.INodeInfoService;
 import com.newegg.ec.redis.service.IRedisService;
 import com.newegg.ec.redis.service.ISentinelMastersService;
+import com.newegg.ec.redis.util.InfoProfile;
+import com.newegg.ec.redis.util.Metrics;
 import com.newegg.ec.redis.util.RedisNodeInfoUtil;
+import com.newegg.ec.redis.util.RedisUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import redis.clients.jedis.HostAndPort;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.newegg.ec.redis.client.RedisClient.SENTINEL;
+import static javax.management.timer.Timer.ONE_MINUTE;
 
 /**
  * @author Jay.H.Zou
@@ -37,6 +43,24 @@ public abstract class NodeInfoCollectionAbstract implements IDataCollection, App
     @Autowired
     private ISentinelMastersService sentinelMastersService;
 
+    @Autowired
+    private RedisLatencyProbe redisLatencyProbe;
+
+    @Value("${redis-manager.monitor.info-profile:clients,memory,stats,replication,cpu,keyspace}")
+    private String defaultInfoProfile;
+
+    @Value("${redis-manager.monitor.cluster-info-profiles:}")
+    private String clusterInfoProfiles;
+
+    private volatile InfoProfile defaultProfile;
+
+    private volatile Map<String, InfoProfile> clusterProfileMap;
+
+    /**
+     * clusterId:node -> section -> fields, 本次未到采集间隔的 section 使用上一次的值
+     */
+    private final Map<String, Map<String, Map<String, String>>> sectionCache = new ConcurrentHashMap<>();
+
     protected int coreSize;
 
     protected class CollectNodeInfoTask implements Runnable {
@@ -52,6 +76,8 @@ public abstract class NodeInfoCollectionAbstract implements IDataCollection, App
 
         @Override
         public void run() {
+            long start = System.nanoTime();
+            String timeTypeName = TimeType.MINUTE.equals(timeType) ? "minute" : "hour";
             try {
                 Integer clusterId = cluster.getClusterId();
                 logger.debug("Start collecting cluster: " + cluster.getClusterName());
@@ -66,7 +92,12 @@ public abstract class NodeInfoCollectionAbstract implements IDataCollection, App
                     }
                 }
             } catch (Exception e) {
+                Metrics.counter("node_info_collect_failures", "Failed node info collections",
+                        "cluster", cluster.getClusterName(), "time_type", timeTypeName).increment();
                 logger.error("Collect " + timeType + " data for " + cluster.getClusterName() + " failed.", e);
+            } finally {
+                Metrics.timer("node_info_collect", "Node info collection time per cluster",
+                        "cluster", cluster.getClusterName(), "time_type", timeTypeName).record(System.nanoTime() - start);
             }
         }
     }
@@ -95,8 +126,17 @@ public abstract class NodeInfoCollectionAbstract implements IDataCollection, App
         Set<HostAndPort> hostAndPortSet = getHostAndPortSet(cluster);
         List<NodeInfo> nodeInfoList = new ArrayList<>(hostAndPortSet.size());
         int clusterId = cluster.getClusterId();
+        InfoProfile infoProfile = getInfoProfile(cluster);
+        // 小时数据不使用缓存，获取全部 section
+        Collection<String> dueSections = TimeType.HOUR.equals(timeType) ? infoProfile.getSections()
+                : infoProfile.getDueSections(System.currentTimeMillis() / ONE_MINUTE);
+        boolean multiSection = RedisUtil.isVersionAtLeast(cluster.getRedisVersion(), 7);
         for (HostAndPort hostAndPort : hostAndPortSet) {
-            NodeInfo nodeInfo = getNodeInfo(clusterId, hostAndPort, redisPassword, timeType);
+            Map<String, String> infoMap = getInfoMap(clusterId, hostAndPort, redisPassword, infoProfile, dueSections, multiSection);
+            if (infoMap == null) {
+                continue;
+            }
+            NodeInfo nodeInfo = getNodeInfo(clusterId, hostAndPort, infoMap, timeType);
             if (nodeInfo == null) {
                 continue;
             }
@@ -104,8 +144,13 @@ public abstract class NodeInfoCollectionAbstract implements IDataCollection, App
                 nodeInfo.setRole(NodeRole.MASTER);
             }
             nodeInfo.setNode(hostAndPort.toString());
+            redisLatencyProbe.fillResponseTime(clusterId, nodeInfo, timeType);
             nodeInfoList.add(nodeInfo);
         }
+        // 清理已不在集群中的节点缓存
+        Set<String> cacheKeys = new HashSet<>();
+        hostAndPortSet.forEach(hostAndPort -> cacheKeys.add(clusterId + ":" + hostAndPort));
+        sectionCache.keySet().removeIf(key -> key.startsWith(clusterId + ":") && !cacheKeys.contains(key));
         return nodeInfoList;
     }
 
@@ -118,17 +163,57 @@ public abstract class NodeInfoCollectionAbstract implements IDataCollection, App
         return hostAndPortSet;
     }
 
-    private NodeInfo getNodeInfo(Integer clusterId, HostAndPort hostAndPort, String redisPassword, Integer timeType) {
+    /**
+     * 只请求到期的 section 以及缓存中还没有的 section，其余使用缓存
+     *
+     * @return 合并后的 info, null if failed
+     */
+    private Map<String, String> getInfoMap(Integer clusterId, HostAndPort hostAndPort, String redisPassword,
+                                           InfoProfile infoProfile, Collection<String> dueSections, boolean multiSection) {
+        Map<String, Map<String, String>> cachedSections = sectionCache.computeIfAbsent(clusterId + ":" + hostAndPort, key -> new ConcurrentHashMap<>());
+        List<String> sections = new ArrayList<>();
+        for (String section : infoProfile.getSections()) {
+            if (dueSections.contains(section) || !cachedSections.containsKey(section)) {
+                sections.add(section);
+            }
+        }
+        if (!sections.isEmpty()) {
+            long start = System.nanoTime();
+            Map<String, Map<String, String>> sectionMap = redisService.getNodeInfoSections(hostAndPort, redisPassword, sections, multiSection);
+            Metrics.timer("redis_info", "INFO command latency per node", "node", hostAndPort.toString())
+                    .record(System.nanoTime() - start);
+            if (sectionMap == null) {
+                Metrics.counter("redis_info_failures", "Failed INFO commands", "node", hostAndPort.toString()).increment();
+                return null;
+            }
+            cachedSections.putAll(sectionMap);
+        }
+        Map<String, String> infoMap = new HashMap<>();
+        infoProfile.getSections().forEach(section -> {
+            Map<String, String> fields = cachedSections.get(section);
+            if (fields != null) {
+                infoMap.putAll(fields);
+            }
+        });
+        return infoMap;
+    }
+
+    private InfoProfile getInfoProfile(Cluster cluster) {
+        if (defaultProfile == null) {
+            clusterProfileMap = InfoProfile.parseClusterProfiles(clusterInfoProfiles);
+            defaultProfile = InfoProfile.parse(defaultInfoProfile);
+        }
+        InfoProfile infoProfile = clusterProfileMap.get(cluster.getClusterName());
+        return infoProfile == null ? defaultProfile : infoProfile;
+    }
+
+    private NodeInfo getNodeInfo(Integer clusterId, HostAndPort hostAndPort, Map<String, String> infoMap, Integer timeType) {
         NodeInfo nodeInfo = null;
         String node = hostAndPort.toString();
         try {
             // 获取上一次的 NodeInfo 来计算某些字段的差值
             NodeInfoParam nodeInfoParam = new NodeInfoParam(clusterId, timeType, node);
             NodeInfo lastTimeNodeInfo = nodeInfoService.getLastTimeNodeInfo(nodeInfoParam);
-            Map<String, String> infoMap = redisService.getNodeInfo(hostAndPort, redisPassword);
-            if (infoMap == null) {
-                return null;
-            }
             // 指标计算处理
             nodeInfo = RedisNodeInfoUtil.parseInfoToObject(infoMap, lastTimeNodeInfo);
             nodeInfo.setLastTime(true);
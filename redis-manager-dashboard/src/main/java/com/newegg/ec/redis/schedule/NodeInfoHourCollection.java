@@ -3,6 +3,7 @@ package com.newegg.ec.redis.schedule;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.newegg.ec.redis.entity.Cluster;
 import com.newegg.ec.redis.entity.TimeType;
+import com.newegg.ec.redis.util.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -30,10 +31,12 @@ public class NodeInfoHourCollection extends NodeInfoCollectionAbstract {
     @Override
     public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
         coreSize = Runtime.getRuntime().availableProcessors();
-        threadPool = new ThreadPoolExecutor(coreSize, coreSize, 60L, TimeUnit.SECONDS,
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(coreSize, coreSize, 60L, TimeUnit.SECONDS,
                 new LinkedBlockingQueue<>(),
                 new ThreadFactoryBuilder().setNameFormat("collect-node-info-pool-thread-%d").build(),
                 new ThreadPoolExecutor.AbortPolicy());
+        Metrics.monitorThreadPool("collect-node-info-hour", executor);
+        threadPool = executor;
     }
 
     /**
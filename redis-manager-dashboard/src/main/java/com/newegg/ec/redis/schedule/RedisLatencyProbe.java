@@ -0,0 +1,224 @@
+package com.newegg.ec.redis.schedule;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.NodeInfo;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.entity.TimeType;
+import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.newegg.ec.redis.util.RedisUtil.getNodeString;
+
+/**
+ * 节点延迟探测：每个节点保持一个长连接，每 5 秒 PING 一次，往返时间(微秒)记录到直方图
+ * <p>
+ * 分钟/小时采集时取出对应直方图的 p50、p99、max 写入 NodeInfo，其中 response_time 为 p99
+ *
+ * @date 2026/10/19
+ */
+@Component
+public class RedisLatencyProbe implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisLatencyProbe.class);
+
+    @Value("${redis-manager.latency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${redis-manager.latency.threads:8}")
+    private int threads;
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private IRedisService redisService;
+
+    private ExecutorService threadPool;
+
+    /**
+     * clusterId -> node -> probe
+     */
+    private final Map<Integer, Map<String, NodeProbe>> probeMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        if (threadPool != null) {
+            return;
+        }
+        threadPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("redis-latency-pool-thread-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 每分钟同步一次探测的节点列表，关闭已移除节点的连接
+     */
+    @Async
+    @Scheduled(cron = "15 0/1 * * * ?")
+    public void refreshTargets() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Cluster> allClusterList = clusterService.getAllClusterList();
+            Set<Integer> clusterIdSet = new HashSet<>();
+            if (allClusterList != null) {
+                for (Cluster cluster : allClusterList) {
+                    clusterIdSet.add(cluster.getClusterId());
+                    refreshTargets(cluster);
+                }
+            }
+            probeMap.keySet().removeIf(clusterId -> {
+                if (clusterIdSet.contains(clusterId)) {
+                    return false;
+                }
+                probeMap.get(clusterId).values().forEach(NodeProbe::close);
+                return true;
+            });
+        } catch (Exception e) {
+            logger.error("Refresh latency probe targets failed.", e);
+        }
+    }
+
+    private void refreshTargets(Cluster cluster) {
+        List<RedisNode> redisNodeList = redisService.getRedisNodeList(cluster);
+        if (redisNodeList == null || redisNodeList.isEmpty()) {
+            return;
+        }
+        Map<String, NodeProbe> nodeProbeMap = probeMap.computeIfAbsent(cluster.getClusterId(), key -> new ConcurrentHashMap<>());
+        Set<String> nodeSet = new HashSet<>();
+        for (RedisNode redisNode : redisNodeList) {
+            String node = getNodeString(redisNode);
+            nodeSet.add(node);
+            NodeProbe nodeProbe = nodeProbeMap.get(node);
+            if (nodeProbe == null || !Objects.equals(nodeProbe.redisPassword, cluster.getRedisPassword())) {
+                if (nodeProbe != null) {
+                    nodeProbe.close();
+                }
+                nodeProbeMap.put(node, new NodeProbe(redisNode, cluster.getRedisPassword()));
+            }
+        }
+        nodeProbeMap.entrySet().removeIf(entry -> {
+            if (nodeSet.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().close();
+            return true;
+        });
+    }
+
+    @Scheduled(cron = "0/5 * * * * ?")
+    public void probe() {
+        if (!enabled || threadPool == null) {
+            return;
+        }
+        probeMap.values().forEach(nodeProbeMap -> nodeProbeMap.values().forEach(nodeProbe -> {
+            // 上一次 PING 还未返回则跳过，避免慢节点堆积任务
+            if (nodeProbe.running.compareAndSet(false, true)) {
+                threadPool.execute(nodeProbe::ping);
+            }
+        }));
+    }
+
+    /**
+     * 取出周期内的延迟数据写入 nodeInfo，并开始新的周期
+     *
+     * @param clusterId
+     * @param nodeInfo
+     * @param timeType  MINUTE or HOUR
+     */
+    public void fillResponseTime(Integer clusterId, NodeInfo nodeInfo, Integer timeType) {
+        Map<String, NodeProbe> nodeProbeMap = probeMap.get(clusterId);
+        NodeProbe nodeProbe = nodeProbeMap == null ? null : nodeProbeMap.get(nodeInfo.getNode());
+        if (nodeProbe == null) {
+            return;
+        }
+        LatencyHistogram histogram = (TimeType.HOUR.equals(timeType) ? nodeProbe.hourHistogram : nodeProbe.minuteHistogram).copyAndReset();
+        if (histogram.getCount() == 0) {
+            return;
+        }
+        nodeInfo.setResponseTime(histogram.getValueAtPercentile(99));
+        nodeInfo.setResponseTimeP50(histogram.getValueAtPercentile(50));
+        nodeInfo.setResponseTimeMax(histogram.getMax());
+    }
+
+    private static class NodeProbe {
+
+        private final RedisNode redisNode;
+
+        private final String redisPassword;
+
+        private final LatencyHistogram minuteHistogram = new LatencyHistogram();
+
+        private final LatencyHistogram hourHistogram = new LatencyHistogram();
+
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        private RedisClient redisClient;
+
+        NodeProbe(RedisNode redisNode, String redisPassword) {
+            this.redisNode = redisNode;
+            this.redisPassword = redisPassword;
+        }
+
+        void ping() {
+            try {
+                if (closed) {
+                    return;
+                }
+                if (redisClient == null) {
+                    redisClient = RedisClientFactory.buildRedisClient(redisNode, redisPassword);
+                }
+                long start = System.nanoTime();
+                redisClient.ping();
+                long micros = (System.nanoTime() - start) / 1000;
+                minuteHistogram.record(micros);
+                hourHistogram.record(micros);
+            } catch (Exception e) {
+                logger.debug("Ping " + getNodeString(redisNode) + " failed.", e);
+                closeClient();
+            } finally {
+                if (closed) {
+                    closeClient();
+                }
+                running.set(false);
+            }
+        }
+
+        /**
+         * 正在 PING 时由探测线程自己关闭连接
+         */
+        void close() {
+            closed = true;
+            if (running.compareAndSet(false, true)) {
+                closeClient();
+            }
+        }
+
+        private void closeClient() {
+            if (redisClient != null) {
+                redisClient.close();
+                redisClient = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.newegg.ec.redis.schedule;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.ISlowLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class SlowLogCollection implements IDataCollection, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowLogCollection.class);
+
+    @Value("${redis-manager.slow-log.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private ISlowLogService slowLogService;
+
+    private ExecutorService threadPool;
+
+    /**
+     * 上一轮还没采集完的集群跳过本轮，避免同一集群并发采集导致汇总重复累加
+     */
+    private final Set<Integer> harvestingClusters = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        int coreSize = Runtime.getRuntime().availableProcessors();
+        threadPool = new ThreadPoolExecutor(coreSize, coreSize * 4, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("collect-slow-log-pool-thread-%d").build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 一分钟采集一次新增的慢日志，并更新涉及到的小时的汇总
+     */
+    @Async
+    @Scheduled(cron = "30 0/1 * * * ? ")
+    @Override
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<Cluster> allClusterList = clusterService.getAllClusterList();
+            if (allClusterList == null || allClusterList.isEmpty()) {
+                return;
+            }
+            for (Cluster cluster : allClusterList) {
+                if (harvestingClusters.add(cluster.getClusterId())) {
+                    threadPool.submit(() -> harvest(cluster));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Collect slow log failed.", e);
+        }
+    }
+
+    private void harvest(Cluster cluster) {
+        try {
+            Set<Timestamp> hours = slowLogService.harvest(cluster);
+            for (Timestamp hour : hours) {
+                slowLogService.refreshSlowLogStat(cluster.getClusterId(), hour);
+            }
+        } catch (Exception e) {
+            logger.error("Collect slow log for " + cluster.getClusterName() + " failed.", e);
+        } finally {
+            harvestingClusters.remove(cluster.getClusterId());
+        }
+    }
+}
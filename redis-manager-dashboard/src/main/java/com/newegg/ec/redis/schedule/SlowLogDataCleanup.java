@@ -0,0 +1,27 @@
+package com.newegg.ec.redis.schedule;
+
+import com.newegg.ec.redis.service.ISlowLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * @date 2026/10/19
+ */
+@Component
+public class SlowLogDataCleanup implements IDataCleanup {
+
+    @Autowired
+    private ISlowLogService slowLogService;
+
+    /**
+     * 每天凌晨0点实行一次，清理过期的慢日志
+     */
+    @Async
+    @Scheduled(cron = "0 0 0 * * ?")
+    @Override
+    public void cleanup() {
+        slowLogService.cleanup();
+    }
+}
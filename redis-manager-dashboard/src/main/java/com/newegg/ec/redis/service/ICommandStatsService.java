@@ -0,0 +1,34 @@
+package com.newegg.ec.redis.service;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.CommandStats;
+import com.newegg.ec.redis.entity.CommandStatsParam;
+
+import java.util.List;
+
+/**
+ * @date 2026/10/19
+ */
+public interface ICommandStatsService {
+
+    /**
+     * 并行采集所有节点的 INFO commandstats，保存与上一次采集的差值
+     *
+     * @param cluster
+     */
+    void collect(Cluster cluster);
+
+    /**
+     * 指定命令的每分钟调用次数与耗时
+     *
+     * @param commandStatsParam
+     * @return
+     */
+    List<CommandStats> getCommandStatsSeries(CommandStatsParam commandStatsParam);
+
+    List<CommandStats> getTopCommandStats(CommandStatsParam commandStatsParam);
+
+    void removeCluster(Integer clusterId);
+
+    boolean cleanup();
+}
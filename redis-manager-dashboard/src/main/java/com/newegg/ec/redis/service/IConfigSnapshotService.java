@@ -0,0 +1,47 @@
+package com.newegg.ec.redis.service;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.ConfigDrift;
+
+/**
+ * @date 2026/10/19
+ */
+public interface IConfigSnapshotService {
+
+    /**
+     * 并行获取所有节点的 CONFIG GET *，保存快照哈希，内容按哈希去重
+     *
+     * @param cluster
+     */
+    void snapshot(Cluster cluster);
+
+    /**
+     * 根据已保存的快照计算与基线的差异，不访问 redis
+     *
+     * @param clusterId
+     * @return
+     */
+    ConfigDrift getConfigDrift(Integer clusterId);
+
+    /**
+     * 以节点最近一次快照作为集群基线
+     *
+     * @param clusterId
+     * @param node      host:port
+     * @return
+     */
+    boolean setConfigBaseline(Integer clusterId, String node);
+
+    /**
+     * 配置下发成功后同步修改基线中的该项并重新快照，没有设置基线时只重新快照
+     *
+     * @param cluster
+     * @param configKey
+     * @param configValue redis 读回的值
+     */
+    void updateConfigBaseline(Cluster cluster, String configKey, String configValue);
+
+    void removeCluster(Integer clusterId);
+
+    boolean cleanup();
+}
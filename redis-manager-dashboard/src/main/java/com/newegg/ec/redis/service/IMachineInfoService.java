@@ -0,0 +1,32 @@
+package com.newegg.ec.redis.service;
+
+import com.newegg.ec.redis.entity.MachineInfo;
+import com.newegg.ec.redis.entity.MachineInfoParam;
+
+import java.util.List;
+
+/**
+ * @date 2026/10/19
+ */
+public interface IMachineInfoService {
+
+    /**
+     * 并行采集所有机器的 /proc 计数器，保存与上一次采集的差值
+     */
+    void collect();
+
+    /**
+     * 将上一个小时的分钟数据聚合为小时数据
+     */
+    void aggregateHour();
+
+    /**
+     * 指定 clusterId 时查询集群中节点所在的机器
+     *
+     * @param machineInfoParam
+     * @return
+     */
+    List<MachineInfo> getMachineInfoList(MachineInfoParam machineInfoParam);
+
+    boolean cleanup();
+}
@@ -21,6 +21,8 @@ public interface IMachineService {
      */
     Map<String, List<Machine>> getMachineWithGroup(Integer groupId);
 
+    List<Machine> getAllMachineList();
+
     List<Machine> getMachineByGroupId(Integer groupId);
 
     /**
@@ -0,0 +1,21 @@
+package com.newegg.ec.redis.service;
+
+import com.newegg.ec.redis.entity.NodeOperationParam;
+
+/**
+ * 批量节点操作(启停、重启、删除、failover、forget、purge memory)，以后台任务执行
+ *
+ * @date 2026/10/19
+ */
+public interface INodeOperationService {
+
+    /**
+     * 提交批量节点操作任务，通过 JobManager 查询进度或取消
+     *
+     * @param nodeOperationParam
+     * @return job id
+     * @throws IllegalStateException if param invalid or another node operation is running
+     */
+    String submit(NodeOperationParam nodeOperationParam);
+
+}
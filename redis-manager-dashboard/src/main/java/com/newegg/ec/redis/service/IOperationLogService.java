@@ -2,6 +2,7 @@ package com.newegg.ec.redis.service;
 
 import com.newegg.ec.redis.entity.OperationLog;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -13,4 +14,6 @@ public interface IOperationLogService {
     Map<String, Object> getLogsByGroupId(Integer groupId, Integer pageNo, Integer pageSize);
 
     int insertLog(OperationLog operationLog);
+
+    int insertLogBatch(List<OperationLog> operationLogList);
 }
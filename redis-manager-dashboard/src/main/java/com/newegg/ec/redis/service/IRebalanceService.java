@@ -0,0 +1,34 @@
+package com.newegg.ec.redis.service;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.RebalanceParam;
+import com.newegg.ec.redis.entity.RebalancePlan;
+
+/**
+ * 按负载重新分配 cluster 模式的槽位
+ *
+ * @date 2026/10/19
+ */
+public interface IRebalanceService {
+
+    /**
+     * 根据最近一次的监控数据和每个槽位的 key 数量计算迁移计划，计划缓存一段时间以便执行
+     *
+     * @param cluster
+     * @param rebalanceParam
+     * @return
+     * @throws IllegalStateException if data not enough to plan
+     */
+    RebalancePlan preview(Cluster cluster, RebalanceParam rebalanceParam);
+
+    /**
+     * 通过槽位迁移引擎执行预览过的计划，拓扑已变化时需要重新预览
+     *
+     * @param cluster
+     * @param planId
+     * @return job id
+     * @throws IllegalStateException if plan expired or topology changed
+     */
+    String execute(Cluster cluster, String planId);
+
+}
@@ -1,6 +1,8 @@
 package com.newegg.ec.redis.service;
 
+import com.newegg.ec.redis.client.RedisTopologyCache;
 import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.job.SlotMigrationJob;
 import com.newegg.ec.redis.util.RedisConfigUtil;
 import com.newegg.ec.redis.util.SentinelConfigUtil;
 import com.newegg.ec.redis.util.SlotBalanceUtil;
@@ -18,6 +20,13 @@ public interface IRedisService {
 
     Map<String, String> getNodeInfo(HostAndPort hostAndPort, String redisPassword);
 
+    /**
+     * 只获取指定 section 的 INFO
+     *
+     * @return section -> fields, null if failed
+     */
+    Map<String, Map<String, String>> getNodeInfoSections(HostAndPort hostAndPort, String redisPassword, List<String> sections, boolean multiSection);
+
     /**
      * Get keyspace info
      * <p>
@@ -30,6 +39,15 @@ public interface IRedisService {
 
     Map<String, Long> getTotalMemoryInfo(Cluster cluster);
 
+    /**
+     * 并行获取所有 master 的 keyspace 和内存，一次调用代替 getKeyspaceInfo + getTotalMemoryInfo
+     *
+     * @param cluster
+     * @param useCollected 允许使用最近一次采集的监控数据
+     * @return
+     */
+    ClusterSummary getClusterSummary(Cluster cluster, boolean useCollected);
+
     /**
      * Get database
      * <p>
@@ -56,6 +74,14 @@ public interface IRedisService {
      */
     List<RedisNode> getRedisMasterNodeList(Cluster cluster);
 
+    /**
+     * 缓存的拓扑快照，节点对象只读
+     *
+     * @param cluster
+     * @return null if get nodes failed
+     */
+    RedisTopologyCache.TopologySnapshot getTopologySnapshot(Cluster cluster);
+
     Map<String, String> getClusterInfo(Cluster cluster);
 
     List<RedisSlowLog> getRedisSlowLog(Cluster cluster, SlowLogParam slowLogParam);
@@ -66,6 +92,15 @@ public interface IRedisService {
 
     Object console(Cluster cluster, DataCommandsParam dataCommandsParam);
 
+    /**
+     * 每行一条命令，同一节点上的命令通过一个 pipeline 执行
+     *
+     * @param cluster
+     * @param dataCommandsParam command 为多行脚本
+     * @return per-command result in order, null if failed
+     */
+    List<CommandResult> consoleBatch(Cluster cluster, DataCommandsParam dataCommandsParam);
+
     boolean clusterForget(Cluster cluster, RedisNode forgetNode);
 
     /**
@@ -96,6 +131,19 @@ public interface IRedisService {
 
     String clusterMeet(Cluster cluster, RedisNode seed, RedisNode redisNode);
 
+    /**
+     * 等待节点加入 seed 的拓扑
+     * cluster: 节点出现在 CLUSTER NODES 中且握手完成，并且每个节点的 cluster_known_nodes 与 seed 一致
+     * standalone: 节点出现在 seed 的复制列表中
+     *
+     * @param cluster
+     * @param seed
+     * @param redisNodeList
+     * @param timeout
+     * @return 是否在 timeout 内就绪
+     */
+    boolean waitForNodesJoined(Cluster cluster, RedisNode seed, List<RedisNode> redisNodeList, long timeout);
+
     String clusterAddSlots(Cluster cluster, RedisNode masterNode, SlotBalanceUtil.Shade shade);
 
     String clusterAddSlotsBatch(Cluster cluster, Map<RedisNode, SlotBalanceUtil.Shade> masterNodeAndShade);
@@ -111,6 +159,16 @@ public interface IRedisService {
      */
     boolean clusterMoveSlots(Cluster cluster, RedisNode targetNode, SlotBalanceUtil.Shade shade);
 
+    /**
+     * 构建槽位迁移任务，由调用方同步执行或提交给 JobManager
+     *
+     * @param cluster
+     * @param slotTargetMap slot -> target master
+     * @param previousJob   resume from, nullable
+     * @return
+     */
+    SlotMigrationJob buildSlotMigrationJob(Cluster cluster, Map<Integer, RedisNode> slotTargetMap, SlotMigrationJob previousJob);
+
     /**
      * slave of
      *
@@ -142,6 +200,16 @@ public interface IRedisService {
      */
     boolean setConfigBatch(Cluster cluster, RedisConfigUtil.RedisConfig redisConfig);
 
+    /**
+     * 按批次下发配置，校验失败时回滚已下发的节点
+     *
+     * @param cluster
+     * @param redisConfig
+     * @param rolloutParam
+     * @return 每个节点的结果
+     */
+    ConfigRolloutResult rolloutConfig(Cluster cluster, RedisConfigUtil.RedisConfig redisConfig, ConfigRolloutParam rolloutParam);
+
     /**
      * 修改Redis配置
      *
@@ -0,0 +1,40 @@
+package com.newegg.ec.redis.service;
+
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.SlowLogParam;
+import com.newegg.ec.redis.entity.SlowLogRecord;
+import com.newegg.ec.redis.entity.SlowLogStat;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @date 2026/10/19
+ */
+public interface ISlowLogService {
+
+    /**
+     * 并行拉取所有节点上一次之后的新慢日志并保存
+     *
+     * @param cluster
+     * @return 新慢日志所在的小时，需要更新汇总
+     */
+    Set<Timestamp> harvest(Cluster cluster);
+
+    /**
+     * 写回某个小时的汇总，该小时第一次汇总时从明细加载
+     *
+     * @param clusterId
+     * @param hour
+     */
+    void refreshSlowLogStat(Integer clusterId, Timestamp hour);
+
+    List<SlowLogRecord> getSlowLogList(SlowLogParam slowLogParam);
+
+    List<SlowLogStat> getTopSlowLogStat(SlowLogParam slowLogParam);
+
+    void removeCursor(Integer clusterId);
+
+    boolean cleanup();
+}
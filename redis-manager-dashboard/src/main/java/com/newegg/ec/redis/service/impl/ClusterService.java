@@ -3,8 +3,11 @@ package com.newegg.ec.redis.service.impl;
 import com.google.common.base.Strings;
 import com.newegg.ec.redis.client.RedisClient;
 import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisClusterClientManager;
+import com.newegg.ec.redis.client.RedisTopologyCache;
 import com.newegg.ec.redis.dao.IClusterDao;
 import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.ClusterSummary;
 import com.newegg.ec.redis.entity.RedisNode;
 import com.newegg.ec.redis.entity.SentinelMaster;
 import com.newegg.ec.redis.plugin.install.service.AbstractNodeOperation;
@@ -64,6 +67,21 @@ public class ClusterService implements IClusterService {
     @Autowired
     private ISentinelMastersService sentinelMastersService;
 
+    @Autowired
+    private RedisClusterClientManager redisClusterClientManager;
+
+    @Autowired
+    private RedisTopologyCache topologyCache;
+
+    @Autowired
+    private ISlowLogService slowLogService;
+
+    @Autowired
+    private ICommandStatsService commandStatsService;
+
+    @Autowired
+    private IConfigSnapshotService configSnapshotService;
+
     @Override
     public List<Cluster> getAllClusterList() {
         try {
@@ -174,6 +192,7 @@ public class ClusterService implements IClusterService {
         Integer clusterId = cluster.getClusterId();
         try {
             clusterDao.updateNodes(clusterId, cluster.getNodes());
+            redisClusterClientManager.invalidate(clusterId);
             return true;
         } catch (Exception e) {
             logger.error("Update cluster nodes failed, " + cluster, e);
@@ -224,6 +243,11 @@ public class ClusterService implements IClusterService {
         clusterDao.deleteClusterById(clusterId);
         nodeInfoService.deleteNodeInfoTable(clusterId);
         redisNodeService.deleteRedisNodeListByClusterId(clusterId);
+        redisClusterClientManager.invalidate(clusterId);
+        topologyCache.invalidate(clusterId);
+        slowLogService.removeCursor(clusterId);
+        commandStatsService.removeCluster(clusterId);
+        configSnapshotService.removeCluster(clusterId);
         return true;
     }
 
@@ -352,18 +376,11 @@ public class ClusterService implements IClusterService {
     }
 
     private void fillTotalData(Cluster cluster) {
-        Map<String, Map<String, Long>> keyspaceInfoMap = redisService.getKeyspaceInfo(cluster);
-        cluster.setDbSize(keyspaceInfoMap.size());
-        long totalKeys = 0;
-        long totalExpires = 0;
-        for (Map<String, Long> value : keyspaceInfoMap.values()) {
-            totalKeys += value.get(KEYS);
-            totalExpires += value.get(EXPIRES);
-        }
-        cluster.setTotalKeys(totalKeys);
-        cluster.setTotalExpires(totalExpires);
-        Map<String, Long> totalMemoryInfo = redisService.getTotalMemoryInfo(cluster);
-        cluster.setTotalUsedMemory(totalMemoryInfo.get(USED_MEMORY));
+        ClusterSummary clusterSummary = redisService.getClusterSummary(cluster, true);
+        cluster.setDbSize(clusterSummary.getKeyspaceInfo().size());
+        cluster.setTotalKeys(clusterSummary.getTotalKeys());
+        cluster.setTotalExpires(clusterSummary.getTotalExpires());
+        cluster.setTotalUsedMemory(clusterSummary.getTotalUsedMemory());
     }
 
     @Override
@@ -0,0 +1,194 @@
+package com.newegg.ec.redis.service.impl;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.newegg.ec.redis.client.RedisNodeFanOut;
+import com.newegg.ec.redis.dao.ICommandStatsDao;
+import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.service.ICommandStatsService;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.CommandStatsUtil;
+import com.newegg.ec.redis.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.newegg.ec.redis.client.RedisClient.SENTINEL;
+import static com.newegg.ec.redis.util.CommandStatsUtil.COMMANDSTATS;
+import static com.newegg.ec.redis.util.RedisUtil.getNodeString;
+
+/**
+ * 命令统计采集
+ * <p>
+ * 内存中保存每个节点上一次的累计值，每分钟只保存有调用的命令的差值；
+ * 计数变小说明节点重启或执行过 CONFIG RESETSTAT，本次只更新基线。
+ * 小时汇总在采集时累加，查询 top 命令不需要扫描分钟数据
+ *
+ * @date 2026/10/19
+ */
+@Service
+public class CommandStatsService implements ICommandStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandStatsService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MAX_COMMAND_SIZE = 20;
+
+    private static final Set<String> ORDER_BY = new HashSet<>(Arrays.asList("calls", "usec"));
+
+    @Value("${redis-manager.command-stats.data-keep-days:15}")
+    private int dataKeepDays;
+
+    @Autowired
+    private ICommandStatsDao commandStatsDao;
+
+    @Autowired
+    private IRedisService redisService;
+
+    @Autowired
+    private RedisNodeFanOut redisNodeFanOut;
+
+    /**
+     * clusterId -> node -> command -> [calls, usec]
+     */
+    private final Map<Integer, Map<String, Map<String, long[]>>> lastStatsMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void collect(Cluster cluster) {
+        Integer clusterId = cluster.getClusterId();
+        if (Objects.equals(SENTINEL, cluster.getRedisMode())) {
+            return;
+        }
+        List<RedisNode> redisNodeList = redisService.getRedisNodeList(cluster);
+        if (redisNodeList.isEmpty()) {
+            return;
+        }
+        Map<RedisNode, Map<String, Map<String, String>>> infoMap = redisNodeFanOut.execute(redisNodeList, cluster.getRedisPassword(),
+                redisClient -> redisClient.getInfoSections(Collections.singletonList(COMMANDSTATS), false));
+        Map<String, Map<String, long[]>> lastStats = lastStatsMap.computeIfAbsent(clusterId, key -> new ConcurrentHashMap<>());
+        Timestamp updateTime = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        List<CommandStats> commandStatsList = new ArrayList<>();
+        Map<String, CommandStats> hourStatsMap = new HashMap<>();
+        Timestamp hour = Timestamp.valueOf(updateTime.toLocalDateTime().truncatedTo(ChronoUnit.HOURS));
+        infoMap.forEach((redisNode, sections) -> {
+            String node = getNodeString(redisNode);
+            Map<String, long[]> current = CommandStatsUtil.parse(sections.get(COMMANDSTATS));
+            Map<String, long[]> last = lastStats.put(node, current);
+            if (last == null) {
+                return;
+            }
+            Map<String, long[]> delta = CommandStatsUtil.delta(last, current);
+            if (delta == null) {
+                logger.info("Command stats reset, node = " + node);
+                return;
+            }
+            delta.forEach((command, stats) -> {
+                commandStatsList.add(buildCommandStats(clusterId, node, command, stats[0], stats[1], updateTime));
+                CommandStats hourStats = hourStatsMap.computeIfAbsent(command,
+                        key -> buildCommandStats(clusterId, null, command, 0, 0, hour));
+                hourStats.setCalls(hourStats.getCalls() + stats[0]);
+                hourStats.setUsec(hourStats.getUsec() + stats[1]);
+            });
+        });
+        // 采集失败的节点保留基线，已移除的节点清理掉
+        Set<String> nodeSet = new HashSet<>();
+        redisNodeList.forEach(redisNode -> nodeSet.add(getNodeString(redisNode)));
+        lastStats.keySet().retainAll(nodeSet);
+        for (List<CommandStats> batch : Lists.partition(commandStatsList, BATCH_SIZE)) {
+            commandStatsDao.insertCommandStatsBatch(batch);
+        }
+        for (List<CommandStats> batch : Lists.partition(new ArrayList<>(hourStatsMap.values()), BATCH_SIZE)) {
+            commandStatsDao.upsertCommandStatsHourBatch(batch);
+        }
+    }
+
+    @Override
+    public List<CommandStats> getCommandStatsSeries(CommandStatsParam commandStatsParam) {
+        try {
+            normalize(commandStatsParam);
+            List<String> commandList = commandStatsParam.getCommandList();
+            if (commandList == null || commandList.isEmpty()) {
+                return new ArrayList<>();
+            }
+            if (commandList.size() > MAX_COMMAND_SIZE) {
+                commandStatsParam.setCommandList(commandList.subList(0, MAX_COMMAND_SIZE));
+            }
+            return commandStatsDao.selectCommandStatsSeries(commandStatsParam);
+        } catch (Exception e) {
+            logger.error("Get command stats series failed, " + commandStatsParam.getClusterId(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<CommandStats> getTopCommandStats(CommandStatsParam commandStatsParam) {
+        try {
+            normalize(commandStatsParam);
+            if (!ORDER_BY.contains(commandStatsParam.getOrderBy())) {
+                commandStatsParam.setOrderBy("calls");
+            }
+            // 小时汇总以整点为键，起始时间向下取整
+            Timestamp startTime = commandStatsParam.getStartTime();
+            if (startTime != null) {
+                commandStatsParam.setStartTime(Timestamp.valueOf(startTime.toLocalDateTime().truncatedTo(ChronoUnit.HOURS)));
+            }
+            return commandStatsDao.selectTopCommandStats(commandStatsParam);
+        } catch (Exception e) {
+            logger.error("Get top command stats failed, " + commandStatsParam.getClusterId(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void removeCluster(Integer clusterId) {
+        lastStatsMap.remove(clusterId);
+        try {
+            commandStatsDao.deleteCommandStatsByClusterId(clusterId);
+            commandStatsDao.deleteCommandStatsHourByClusterId(clusterId);
+        } catch (Exception e) {
+            logger.error("Delete command stats failed, " + clusterId, e);
+        }
+    }
+
+    @Override
+    public boolean cleanup() {
+        Timestamp oldestTime = TimeUtil.getTime(dataKeepDays * TimeUtil.ONE_DAY);
+        try {
+            commandStatsDao.deleteCommandStatsByTime(oldestTime);
+            commandStatsDao.deleteCommandStatsHourByTime(oldestTime);
+            return true;
+        } catch (Exception e) {
+            logger.error("Clean up command stats failed.", e);
+            return false;
+        }
+    }
+
+    private static CommandStats buildCommandStats(Integer clusterId, String node, String command, long calls, long usec, Timestamp updateTime) {
+        CommandStats commandStats = new CommandStats();
+        commandStats.setClusterId(clusterId);
+        commandStats.setNode(node);
+        commandStats.setCommand(command);
+        commandStats.setCalls(calls);
+        commandStats.setUsec(usec);
+        commandStats.setUpdateTime(updateTime);
+        return commandStats;
+    }
+
+    private static void normalize(CommandStatsParam commandStatsParam) {
+        if (Strings.isNullOrEmpty(commandStatsParam.getNode())) {
+            commandStatsParam.setNode(null);
+        }
+        if (commandStatsParam.getLimit() <= 0 || commandStatsParam.getLimit() > 200) {
+            commandStatsParam.setLimit(20);
+        }
+    }
+}
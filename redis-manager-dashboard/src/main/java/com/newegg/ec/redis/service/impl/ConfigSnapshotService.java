@@ -0,0 +1,209 @@
+package com.newegg.ec.redis.service.impl;
+
+import com.google.common.collect.Lists;
+import com.newegg.ec.redis.client.RedisNodeFanOut;
+import com.newegg.ec.redis.dao.IConfigSnapshotDao;
+import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.service.IConfigSnapshotService;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.ConfigDiffUtil;
+import com.newegg.ec.redis.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.newegg.ec.redis.client.RedisClient.SENTINEL;
+import static com.newegg.ec.redis.util.RedisUtil.getNodeString;
+
+/**
+ * 配置快照与漂移检测
+ * <p>
+ * 快照只保存哈希，内容相同的节点共用一份内容；页面查询和告警只读数据库。
+ * 没有设置基线时，以节点最多的配置作为基线，只用于页面展示，不产生告警
+ *
+ * @date 2026/10/19
+ */
+@Service
+public class ConfigSnapshotService implements IConfigSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    @Value("${redis-manager.config-snapshot.data-keep-days:7}")
+    private int dataKeepDays;
+
+    @Autowired
+    private IConfigSnapshotDao configSnapshotDao;
+
+    @Autowired
+    private IRedisService redisService;
+
+    @Autowired
+    private RedisNodeFanOut redisNodeFanOut;
+
+    /**
+     * 已保存的内容哈希，避免重复写入
+     */
+    private final Set<String> savedHashSet = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void snapshot(Cluster cluster) {
+        if (Objects.equals(SENTINEL, cluster.getRedisMode())) {
+            return;
+        }
+        List<RedisNode> redisNodeList = redisService.getRedisNodeList(cluster);
+        if (redisNodeList.isEmpty()) {
+            return;
+        }
+        Map<RedisNode, Map<String, String>> configMap = redisNodeFanOut.execute(redisNodeList, cluster.getRedisPassword(),
+                redisClient -> redisClient.getConfig());
+        Timestamp updateTime = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        List<ConfigSnapshot> snapshotList = new ArrayList<>(configMap.size());
+        configMap.forEach((redisNode, config) -> {
+            String content = ConfigDiffUtil.toContent(ConfigDiffUtil.normalize(config));
+            String configHash = ConfigDiffUtil.hash(content);
+            if (!savedHashSet.contains(configHash)) {
+                configSnapshotDao.insertConfigContent(configHash, content);
+                savedHashSet.add(configHash);
+            }
+            snapshotList.add(new ConfigSnapshot(cluster.getClusterId(), getNodeString(redisNode), configHash, updateTime));
+        });
+        for (List<ConfigSnapshot> batch : Lists.partition(snapshotList, BATCH_SIZE)) {
+            configSnapshotDao.upsertConfigSnapshotBatch(batch);
+        }
+    }
+
+    @Override
+    public ConfigDrift getConfigDrift(Integer clusterId) {
+        try {
+            ConfigDrift configDrift = new ConfigDrift();
+            configDrift.setClusterId(clusterId);
+            List<ConfigSnapshot> snapshotList = configSnapshotDao.selectConfigSnapshotList(clusterId);
+            configDrift.setNodeCount(snapshotList.size());
+            if (snapshotList.isEmpty()) {
+                return configDrift;
+            }
+            Map<String, SortedMap<String, String>> contentMap = new HashMap<>();
+            ConfigSnapshot baseline = configSnapshotDao.selectConfigBaseline(clusterId);
+            SortedMap<String, String> baselineConfig = baseline == null ? null : getContent(baseline.getConfigHash(), contentMap);
+            if (baselineConfig == null) {
+                baseline = getMostCommonSnapshot(snapshotList);
+                baselineConfig = getContent(baseline.getConfigHash(), contentMap);
+                configDrift.setDefaultBaseline(true);
+            }
+            configDrift.setBaselineHash(baseline.getConfigHash());
+            configDrift.setBaselineTime(baseline.getUpdateTime());
+            for (ConfigSnapshot snapshot : snapshotList) {
+                String configHash = snapshot.getConfigHash();
+                if (Objects.equals(configHash, baseline.getConfigHash())) {
+                    continue;
+                }
+                SortedMap<String, String> config = getContent(configHash, contentMap);
+                if (config == null || baselineConfig == null) {
+                    continue;
+                }
+                configDrift.getNodeDriftList().add(new ConfigDrift.NodeDrift(snapshot.getNode(), configHash, snapshot.getUpdateTime(),
+                        ConfigDiffUtil.diff(baselineConfig, config)));
+            }
+            return configDrift;
+        } catch (Exception e) {
+            logger.error("Get config drift failed, cluster id = " + clusterId, e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean setConfigBaseline(Integer clusterId, String node) {
+        try {
+            List<ConfigSnapshot> snapshotList = configSnapshotDao.selectConfigSnapshotList(clusterId);
+            for (ConfigSnapshot snapshot : snapshotList) {
+                if (Objects.equals(node, snapshot.getNode())) {
+                    configSnapshotDao.upsertConfigBaseline(clusterId, snapshot.getConfigHash());
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            logger.error("Set config baseline failed, cluster id = " + clusterId + ", node = " + node, e);
+            return false;
+        }
+    }
+
+    @Override
+    public void updateConfigBaseline(Cluster cluster, String configKey, String configValue) {
+        Integer clusterId = cluster.getClusterId();
+        try {
+            ConfigSnapshot baseline = configSnapshotDao.selectConfigBaseline(clusterId);
+            String content = baseline == null ? null : configSnapshotDao.selectConfigContent(baseline.getConfigHash());
+            if (content != null) {
+                SortedMap<String, String> baselineConfig = ConfigDiffUtil.fromContent(content);
+                baselineConfig.putAll(ConfigDiffUtil.normalize(Collections.singletonMap(configKey, configValue)));
+                String newContent = ConfigDiffUtil.toContent(baselineConfig);
+                String configHash = ConfigDiffUtil.hash(newContent);
+                configSnapshotDao.insertConfigContent(configHash, newContent);
+                savedHashSet.add(configHash);
+                configSnapshotDao.upsertConfigBaseline(clusterId, configHash);
+            }
+            // 快照立即更新为下发后的配置，不等下一次定时快照
+            snapshot(cluster);
+        } catch (Exception e) {
+            logger.error("Update config baseline failed, cluster id = " + clusterId + ", config key = " + configKey, e);
+        }
+    }
+
+    @Override
+    public void removeCluster(Integer clusterId) {
+        try {
+            configSnapshotDao.deleteConfigSnapshotByClusterId(clusterId);
+            configSnapshotDao.deleteConfigBaselineByClusterId(clusterId);
+        } catch (Exception e) {
+            logger.error("Delete config snapshot failed, cluster id = " + clusterId, e);
+        }
+    }
+
+    @Override
+    public boolean cleanup() {
+        try {
+            configSnapshotDao.deleteConfigSnapshotByTime(TimeUtil.getTime(dataKeepDays * TimeUtil.ONE_DAY));
+            // 只删除一天前写入的内容，避免删掉采集中刚写入、快照还未更新的内容
+            configSnapshotDao.deleteUnusedConfigContent(TimeUtil.getTime(TimeUtil.ONE_DAY));
+            savedHashSet.clear();
+            return true;
+        } catch (Exception e) {
+            logger.error("Cleanup config snapshot failed.", e);
+            return false;
+        }
+    }
+
+    private SortedMap<String, String> getContent(String configHash, Map<String, SortedMap<String, String>> contentMap) {
+        if (!contentMap.containsKey(configHash)) {
+            String content = configSnapshotDao.selectConfigContent(configHash);
+            contentMap.put(configHash, content == null ? null : ConfigDiffUtil.fromContent(content));
+        }
+        return contentMap.get(configHash);
+    }
+
+    /**
+     * 节点数最多的哈希，数量相同时取排在前面的节点
+     */
+    private ConfigSnapshot getMostCommonSnapshot(List<ConfigSnapshot> snapshotList) {
+        Map<String, Integer> countMap = new HashMap<>();
+        snapshotList.forEach(snapshot -> countMap.merge(snapshot.getConfigHash(), 1, Integer::sum));
+        ConfigSnapshot mostCommon = snapshotList.get(0);
+        for (ConfigSnapshot snapshot : snapshotList) {
+            if (countMap.get(snapshot.getConfigHash()) > countMap.get(mostCommon.getConfigHash())) {
+                mostCommon = snapshot;
+            }
+        }
+        return mostCommon;
+    }
+}
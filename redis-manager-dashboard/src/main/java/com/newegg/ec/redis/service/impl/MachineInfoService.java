@@ -0,0 +1,211 @@
+package com.newegg.ec.redis.service.impl;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.dao.IMachineInfoDao;
+import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.IMachineInfoService;
+import com.newegg.ec.redis.service.IMachineService;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.HostStatUtil;
+import com.newegg.ec.redis.util.HostStatUtil.HostSample;
+import com.newegg.ec.redis.util.SSH2Util;
+import com.newegg.ec.redis.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 机器指标采集
+ * <p>
+ * 通过 SSH 连接池每分钟在每台机器上执行一条命令读取 /proc，内存中保存每台机器上一次的样本用于计算差值；
+ * 同一 host 在多个 group 中重复录入时只采集一次。保留天数与节点监控数据一致。
+ * 远端命令用 timeout 限制执行时间；连接卡住的机器上一次采集没有结束前不再提交，避免线程池队列堆积
+ *
+ * @date 2026/10/19
+ */
+@Service
+public class MachineInfoService implements IMachineInfoService, ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineInfoService.class);
+
+    @Value("${redis-manager.monitor.data-keep-days:15}")
+    private int dataKeepDays;
+
+    @Value("${redis-manager.machine-monitor.threads:16}")
+    private int threads;
+
+    /**
+     * 一轮采集的截止时间(ms)，超时的机器本轮跳过
+     */
+    @Value("${redis-manager.machine-monitor.timeout-millis:30000}")
+    private long timeout;
+
+    @Autowired
+    private IMachineInfoDao machineInfoDao;
+
+    @Autowired
+    private IMachineService machineService;
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private IRedisService redisService;
+
+    private ExecutorService threadPool;
+
+    /**
+     * host -> 上一次的样本
+     */
+    private final Map<String, HostSample> lastSampleMap = new ConcurrentHashMap<>();
+
+    /**
+     * 正在采集的 host，cancel 无法中断阻塞在 SSH 读取上的线程，只能等它自己结束
+     */
+    private final Set<String> collectingHosts = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent contextRefreshedEvent) {
+        if (threadPool != null) {
+            return;
+        }
+        threadPool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("collect-machine-info-pool-thread-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public void collect() {
+        List<Machine> machineList = machineService.getAllMachineList();
+        if (machineList == null || machineList.isEmpty()) {
+            return;
+        }
+        Map<String, Machine> hostMachineMap = new LinkedHashMap<>();
+        machineList.forEach(machine -> hostMachineMap.putIfAbsent(machine.getHost(), machine));
+        lastSampleMap.keySet().retainAll(hostMachineMap.keySet());
+        Timestamp updateTime = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+        Map<String, Future<MachineInfo>> futureMap = new LinkedHashMap<>();
+        hostMachineMap.forEach((host, machine) -> {
+            if (!collectingHosts.add(host)) {
+                logger.warn("Last collection of machine info is still running, skip host = " + host);
+                return;
+            }
+            futureMap.put(host, threadPool.submit(() -> {
+                try {
+                    return collect(machine);
+                } finally {
+                    collectingHosts.remove(host);
+                }
+            }));
+        });
+        long deadline = System.currentTimeMillis() + timeout;
+        List<MachineInfo> machineInfoList = new ArrayList<>(futureMap.size());
+        futureMap.forEach((host, future) -> {
+            try {
+                MachineInfo machineInfo = future.get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+                if (machineInfo != null) {
+                    machineInfo.setTimeType(TimeType.MINUTE);
+                    machineInfo.setUpdateTime(updateTime);
+                    machineInfoList.add(machineInfo);
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("Collect machine info timeout, host = " + host);
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Collect machine info failed, host = " + host + ", " + e.getCause().getMessage());
+            }
+        });
+        if (machineInfoList.isEmpty()) {
+            return;
+        }
+        try {
+            machineInfoDao.insertMachineInfoBatch(machineInfoList);
+        } catch (Exception e) {
+            logger.error("Save machine info failed.", e);
+        }
+    }
+
+    /**
+     * 第一次采集或机器重启后只记录样本
+     */
+    private MachineInfo collect(Machine machine) throws Exception {
+        String host = machine.getHost();
+        String command = "timeout " + Math.max(timeout / TimeUtil.ONE_SECOND, 1) + " sh -c '" + HostStatUtil.PROC_COMMAND + "'";
+        HostSample current = HostStatUtil.parse(SSH2Util.execute(machine, command));
+        if (current == null) {
+            throw new IllegalStateException("Read /proc failed.");
+        }
+        HostSample last = lastSampleMap.put(host, current);
+        return last == null ? null : HostStatUtil.delta(host, last, current);
+    }
+
+    @Override
+    public void aggregateHour() {
+        Timestamp hour = Timestamp.valueOf(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+        try {
+            machineInfoDao.insertHourMachineInfo(new Timestamp(hour.getTime() - TimeUtil.ONE_HOUR), hour, hour);
+        } catch (Exception e) {
+            logger.error("Aggregate machine info failed, hour = " + hour, e);
+        }
+    }
+
+    @Override
+    public List<MachineInfo> getMachineInfoList(MachineInfoParam machineInfoParam) {
+        List<String> hostList = machineInfoParam.getHostList();
+        Integer clusterId = machineInfoParam.getClusterId();
+        if ((hostList == null || hostList.isEmpty()) && clusterId != null) {
+            Cluster cluster = clusterService.getClusterById(clusterId);
+            if (cluster == null) {
+                return null;
+            }
+            Set<String> hostSet = new LinkedHashSet<>();
+            redisService.getRedisNodeList(cluster).forEach(redisNode -> hostSet.add(redisNode.getHost()));
+            hostList = new ArrayList<>(hostSet);
+            machineInfoParam.setHostList(hostList);
+        }
+        if (hostList == null || hostList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (machineInfoParam.getTimeType() == null) {
+            machineInfoParam.setTimeType(TimeType.MINUTE);
+        }
+        if (machineInfoParam.getEndTime() == null) {
+            machineInfoParam.setEndTime(TimeUtil.getCurrentTimestamp());
+        }
+        if (machineInfoParam.getStartTime() == null) {
+            machineInfoParam.setStartTime(TimeUtil.getDefaultLastTimestamp());
+        }
+        try {
+            return machineInfoDao.selectMachineInfoList(machineInfoParam);
+        } catch (Exception e) {
+            logger.error("Get machine info failed, hosts = " + hostList, e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean cleanup() {
+        Timestamp oldestTime = TimeUtil.getTime(dataKeepDays * TimeUtil.ONE_DAY);
+        try {
+            machineInfoDao.deleteMachineInfoByTime(oldestTime);
+            return true;
+        } catch (Exception e) {
+            logger.error("Clean up machine info failed.", e);
+            return false;
+        }
+    }
+}
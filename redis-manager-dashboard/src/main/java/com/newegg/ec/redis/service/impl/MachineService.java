@@ -53,6 +53,16 @@ public class MachineService implements IMachineService {
         }
     }
 
+    @Override
+    public List<Machine> getAllMachineList() {
+        try {
+            return machineDao.selectAllMachine();
+        } catch (Exception e) {
+            logger.error("Get all machine failed.", e);
+            return null;
+        }
+    }
+
     @Override
     public List<Machine> getMachineByGroupId(Integer groupId) {
         try {
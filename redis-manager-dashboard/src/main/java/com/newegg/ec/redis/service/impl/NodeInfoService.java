@@ -7,6 +7,7 @@ import com.newegg.ec.redis.entity.NodeInfoParam;
 import com.newegg.ec.redis.exception.ConfigurationException;
 import com.newegg.ec.redis.exception.ParameterException;
 import com.newegg.ec.redis.service.INodeInfoService;
+import com.newegg.ec.redis.util.Metrics;
 import com.newegg.ec.redis.util.TimeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -141,7 +142,10 @@ public class NodeInfoService implements INodeInfoService, ApplicationListener<Co
         try {
             // 移除掉上一次集群记录
             nodeInfoDao.updateLastTimeStatus(clusterId, nodeInfoParam.getTimeType());
+            long start = System.nanoTime();
             int row = nodeInfoDao.insertNodeInfo(clusterId, nodeInfoList);
+            Metrics.timer("node_info_insert", "Node info batch insert time").record(System.nanoTime() - start);
+            Metrics.summary("node_info_insert_batch_size", "Rows per node info batch insert").record(nodeInfoList.size());
             if (row == nodeInfoList.size()) {
                 return true;
             }
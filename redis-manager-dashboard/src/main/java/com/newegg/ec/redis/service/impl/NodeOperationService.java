@@ -0,0 +1,184 @@
+package com.newegg.ec.redis.service.impl;
+
+import com.google.common.base.Strings;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.entity.Cluster;
+import com.newegg.ec.redis.entity.NodeOperationParam;
+import com.newegg.ec.redis.entity.NodeRole;
+import com.newegg.ec.redis.entity.RedisNode;
+import com.newegg.ec.redis.job.JobManager;
+import com.newegg.ec.redis.job.NodeOperationJob;
+import com.newegg.ec.redis.plugin.install.service.AbstractNodeOperation;
+import com.newegg.ec.redis.service.IClusterService;
+import com.newegg.ec.redis.service.INodeOperationService;
+import com.newegg.ec.redis.service.IRedisNodeService;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.NetworkUtil;
+import com.newegg.ec.redis.util.RedisUtil;
+import com.newegg.ec.redis.util.SignUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+import static com.newegg.ec.redis.client.RedisClient.REPLICATION;
+import static com.newegg.ec.redis.entity.NodeOperationParam.*;
+import static com.newegg.ec.redis.util.RedisUtil.ROLE;
+
+/**
+ * @date 2026/10/19
+ */
+@Service
+public class NodeOperationService implements INodeOperationService {
+
+    private static final String MASTER_LINK_STATUS = "master_link_status";
+
+    private static final String MASTER_SYNC_IN_PROGRESS = "master_sync_in_progress";
+
+    private static final Set<String> OPERATIONS = new HashSet<>(Arrays.asList(START, STOP, RESTART, DELETE, FAIL_OVER, FORGET, PURGE_MEMORY));
+
+    /**
+     * 操作后节点会重新加入复制，等待同步有意义的操作
+     */
+    private static final Set<String> SYNC_OPERATIONS = new HashSet<>(Arrays.asList(START, RESTART, FAIL_OVER));
+
+    /**
+     * 操作后节点不可用或离开集群，需要从连接入口中移除的操作
+     */
+    private static final Set<String> SEED_REMOVAL_OPERATIONS = new HashSet<>(Arrays.asList(STOP, DELETE, FORGET));
+
+    @Value("${redis-manager.node-operation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${redis-manager.node-operation.sync-timeout-millis:300000}")
+    private long syncTimeout;
+
+    @Autowired
+    private IClusterService clusterService;
+
+    @Autowired
+    private IRedisService redisService;
+
+    @Autowired
+    private IRedisNodeService redisNodeService;
+
+    @Autowired
+    private JobManager jobManager;
+
+    @Override
+    public String submit(NodeOperationParam nodeOperationParam) {
+        List<RedisNode> redisNodeList = nodeOperationParam.getRedisNodeList();
+        if (redisNodeList == null || redisNodeList.isEmpty()) {
+            throw new IllegalStateException("Redis node list is empty.");
+        }
+        String operation = nodeOperationParam.getOperation();
+        if (!OPERATIONS.contains(operation)) {
+            throw new IllegalStateException("Unsupported operation: " + operation);
+        }
+        Integer clusterId = nodeOperationParam.getClusterId();
+        if (clusterId == null) {
+            clusterId = redisNodeList.get(0).getClusterId();
+            nodeOperationParam.setClusterId(clusterId);
+        }
+        Cluster cluster = clusterService.getClusterById(clusterId);
+        if (cluster == null) {
+            throw new IllegalStateException("Cluster not exist.");
+        }
+        if (jobManager.isRunning(clusterId, NodeOperationJob.JOB_TYPE)) {
+            throw new IllegalStateException("Another node operation is running on this cluster.");
+        }
+        if (nodeOperationParam.getParallelism() <= 0) {
+            nodeOperationParam.setParallelism(parallelism);
+        }
+        if (Strings.isNullOrEmpty(nodeOperationParam.getPolicy())) {
+            nodeOperationParam.setPolicy(PARALLEL);
+        }
+        if (SEED_REMOVAL_OPERATIONS.contains(operation)) {
+            removeFromSeedNodes(cluster, redisNodeList);
+        }
+        NodeOperationJob.NodeHandler nodeHandler = buildNodeHandler(cluster, operation);
+        NodeOperationJob.SyncChecker syncChecker = SYNC_OPERATIONS.contains(operation) ? buildSyncChecker(cluster, operation) : null;
+        return jobManager.submit(new NodeOperationJob(clusterId, nodeOperationParam, nodeHandler, syncChecker, syncTimeout));
+    }
+
+    /**
+     * 被操作的节点不再作为集群的连接入口，至少保留一个
+     */
+    private void removeFromSeedNodes(Cluster cluster, List<RedisNode> redisNodeList) {
+        Set<String> operatedNodes = new HashSet<>();
+        redisNodeList.forEach(redisNode -> operatedNodes.add(RedisUtil.getNodeString(redisNode)));
+        String[] nodeArr = SignUtil.splitByCommas(cluster.getNodes());
+        StringBuilder newNodes = new StringBuilder();
+        for (String nodeItem : nodeArr) {
+            if (!operatedNodes.contains(nodeItem) && !Strings.isNullOrEmpty(nodeItem)) {
+                newNodes.append(nodeItem).append(SignUtil.COMMAS);
+            }
+        }
+        if (newNodes.length() > 0 && nodeArr.length > 1) {
+            cluster.setNodes(newNodes.toString());
+            clusterService.updateNodes(cluster);
+        }
+    }
+
+    private NodeOperationJob.NodeHandler buildNodeHandler(Cluster cluster, String operation) {
+        AbstractNodeOperation nodeOperation = clusterService.getNodeOperation(cluster.getInstallationEnvironment());
+        switch (operation) {
+            case START:
+                return redisNode -> NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort()) || nodeOperation.start(cluster, redisNode);
+            case STOP:
+                return redisNode -> NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort()) && nodeOperation.stop(cluster, redisNode);
+            case RESTART:
+                return redisNode -> NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort())
+                        ? nodeOperation.restart(cluster, redisNode) : nodeOperation.start(cluster, redisNode);
+            case DELETE:
+                return redisNode -> {
+                    if (NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort())) {
+                        throw new IllegalStateException("Node is running, stop it first.");
+                    }
+                    nodeOperation.remove(cluster, redisNode);
+                    redisNodeService.deleteRedisNodeById(redisNode.getRedisNodeId());
+                    return true;
+                };
+            case FAIL_OVER:
+                return redisNode -> redisService.clusterFailOver(cluster, redisNode);
+            case FORGET:
+                return redisNode -> redisService.clusterForget(cluster, redisNode);
+            case PURGE_MEMORY:
+                return redisNode -> {
+                    RedisClient redisClient = RedisClientFactory.buildRedisClient(redisNode, cluster.getRedisPassword());
+                    try {
+                        return Objects.equals("OK", redisClient.memoryPurge());
+                    } finally {
+                        redisClient.close();
+                    }
+                };
+            default:
+                throw new IllegalStateException("Unsupported operation: " + operation);
+        }
+    }
+
+    /**
+     * slave 需要 master_link_status:up 且全量同步已结束；failover 的节点需要已成为 master；其他 master 可连接即可
+     */
+    private NodeOperationJob.SyncChecker buildSyncChecker(Cluster cluster, String operation) {
+        return redisNode -> {
+            RedisClient redisClient = RedisClientFactory.buildRedisClient(redisNode, cluster.getRedisPassword());
+            try {
+                Map<String, String> infoMap = redisClient.getInfo(REPLICATION);
+                String role = infoMap.get(ROLE);
+                if (Objects.equals(FAIL_OVER, operation)) {
+                    return Objects.equals(NodeRole.MASTER.getValue(), role);
+                }
+                if (Objects.equals(NodeRole.SLAVE.getValue(), role)) {
+                    return Objects.equals("up", infoMap.get(MASTER_LINK_STATUS))
+                            && Objects.equals("0", infoMap.get(MASTER_SYNC_IN_PROGRESS));
+                }
+                return true;
+            } finally {
+                redisClient.close();
+            }
+        };
+    }
+}
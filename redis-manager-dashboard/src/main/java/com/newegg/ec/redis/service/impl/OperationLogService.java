@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -45,4 +46,9 @@ public class OperationLogService implements IOperationLogService {
     public int insertLog(OperationLog operationLog) {
         return operationLogDao.insertLog(operationLog);
     }
+
+    @Override
+    public int insertLogBatch(List<OperationLog> operationLogList) {
+        return operationLogDao.insertLogBatch(operationLogList);
+    }
 }
@@ -0,0 +1,268 @@
+package com.newegg.ec.redis.service.impl;
+
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.newegg.ec.redis.client.RedisClient;
+import com.newegg.ec.redis.client.RedisClientFactory;
+import com.newegg.ec.redis.client.RedisPipeline;
+import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.job.JobManager;
+import com.newegg.ec.redis.job.SlotMigrationJob;
+import com.newegg.ec.redis.service.INodeInfoService;
+import com.newegg.ec.redis.service.IRebalanceService;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.util.RedisUtil;
+import com.newegg.ec.redis.util.SlotMap;
+import com.newegg.ec.redis.util.SlotRebalancePlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.newegg.ec.redis.entity.RebalanceParam.*;
+import static com.newegg.ec.redis.util.SlotMap.SLOT_COUNT;
+
+/**
+ * @date 2026/10/19
+ */
+@Service
+public class RebalanceService implements IRebalanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RebalanceService.class);
+
+    @Autowired
+    private IRedisService redisService;
+
+    @Autowired
+    private INodeInfoService nodeInfoService;
+
+    @Autowired
+    private JobManager jobManager;
+
+    private final Cache<String, PlannedMoves> planCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .maximumSize(100)
+            .build();
+
+    @Override
+    public RebalancePlan preview(Cluster cluster, RebalanceParam rebalanceParam) {
+        String metric = rebalanceParam.getMetric();
+        if (!Arrays.asList(SLOTS, KEYS, MEMORY, OPS).contains(metric)) {
+            throw new IllegalStateException("Metric not support: " + metric);
+        }
+        List<RedisNode> redisMasterNodeList = redisService.getRedisMasterNodeList(cluster);
+        if (redisMasterNodeList == null || redisMasterNodeList.isEmpty()) {
+            throw new IllegalStateException("Get master node list failed.");
+        }
+        SlotMap slotMap = SlotMap.fromClusterNodes(redisMasterNodeList);
+        List<RedisNode> masterNodeList = slotMap.getNodeList();
+        int nodeCount = masterNodeList.size();
+        int[] slotOwners = slotMap.toOwnerIndexArray();
+        long[] slotKeys = countKeysInSlots(cluster, slotMap);
+        Map<String, NodeInfo> nodeInfoMap = getLastNodeInfo(cluster);
+
+        double[] slotLoads = new double[SLOT_COUNT];
+        long[] slotBytes = new long[SLOT_COUNT];
+        long[] nodeKeys = new long[nodeCount];
+        int[] nodeSlots = new int[nodeCount];
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (slotOwners[slot] >= 0) {
+                nodeKeys[slotOwners[slot]] += slotKeys[slot];
+                nodeSlots[slotOwners[slot]]++;
+            }
+        }
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int owner = slotOwners[slot];
+            if (owner < 0) {
+                continue;
+            }
+            String node = RedisUtil.getNodeString(masterNodeList.get(owner));
+            NodeInfo nodeInfo = nodeInfoMap.get(node);
+            if (nodeInfo == null && (Objects.equals(MEMORY, metric) || Objects.equals(OPS, metric))) {
+                throw new IllegalStateException("No monitor data for " + node + ", please wait for the next collection.");
+            }
+            // 节点的内存和 ops 按 key 数量分摊到槽位
+            double share = nodeKeys[owner] > 0 ? (double) slotKeys[slot] / nodeKeys[owner] : 1.0 / nodeSlots[owner];
+            slotBytes[slot] = nodeInfo == null ? 0 : SlotRebalancePlanner.spreadMegabytes(nodeInfo.getUsedMemoryDataset(), share);
+            switch (metric) {
+                case KEYS:
+                    slotLoads[slot] = slotKeys[slot];
+                    break;
+                case MEMORY:
+                    slotLoads[slot] = slotBytes[slot];
+                    break;
+                case OPS:
+                    slotLoads[slot] = nodeInfo.getInstantaneousOpsPerSec() * share;
+                    break;
+                default:
+                    slotLoads[slot] = 1;
+                    break;
+            }
+        }
+        double[] weights = new double[nodeCount];
+        Map<String, Double> weightMap = rebalanceParam.getWeights();
+        for (int i = 0; i < nodeCount; i++) {
+            Double weight = weightMap == null ? null : weightMap.get(RedisUtil.getNodeString(masterNodeList.get(i)));
+            weights[i] = weight == null ? 1 : Math.max(weight, 0);
+        }
+        SlotRebalancePlanner.Minimize minimize = Objects.equals(BYTES, rebalanceParam.getMinimize())
+                ? SlotRebalancePlanner.Minimize.BYTES : SlotRebalancePlanner.Minimize.SLOTS;
+        SlotRebalancePlanner.Plan plan;
+        try {
+            plan = SlotRebalancePlanner.plan(slotOwners, slotLoads, slotBytes, weights,
+                    rebalanceParam.getThreshold(), rebalanceParam.getMaxMoveSlots(), minimize);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+        RebalancePlan rebalancePlan = buildRebalancePlan(cluster, rebalanceParam, masterNodeList, slotOwners,
+                slotLoads, slotBytes, weights, plan);
+        Map<Integer, RedisNode> slotTargetMap = new TreeMap<>();
+        plan.getMoves().forEach(move -> slotTargetMap.put(move[0], masterNodeList.get(move[2])));
+        planCache.put(rebalancePlan.getPlanId(), new PlannedMoves(cluster.getClusterId(), topologyFingerprint(masterNodeList), slotTargetMap));
+        return rebalancePlan;
+    }
+
+    @Override
+    public String execute(Cluster cluster, String planId) {
+        PlannedMoves plannedMoves = Strings.isNullOrEmpty(planId) ? null : planCache.getIfPresent(planId);
+        if (plannedMoves == null || !Objects.equals(plannedMoves.clusterId, cluster.getClusterId())) {
+            throw new IllegalStateException("Plan not exist or expired, please preview again.");
+        }
+        List<RedisNode> masterNodeList = redisService.getRedisMasterNodeList(cluster);
+        if (masterNodeList == null || !Objects.equals(plannedMoves.topologyFingerprint, topologyFingerprint(masterNodeList))) {
+            throw new IllegalStateException("Cluster topology changed since preview, please preview again.");
+        }
+        if (jobManager.isRunning(cluster.getClusterId(), SlotMigrationJob.JOB_TYPE)) {
+            throw new IllegalStateException("Another slot migration is running.");
+        }
+        SlotMigrationJob slotMigrationJob = redisService.buildSlotMigrationJob(cluster, plannedMoves.slotTargetMap, null);
+        planCache.invalidate(planId);
+        logger.info("Execute rebalance plan " + planId + ", cluster name = " + cluster.getClusterName()
+                + ", slots = " + plannedMoves.slotTargetMap.size());
+        return jobManager.submit(slotMigrationJob);
+    }
+
+    /**
+     * 每个 master 一个 pipeline 统计其所有槽位的 key 数量
+     */
+    private long[] countKeysInSlots(Cluster cluster, SlotMap slotMap) {
+        long[] slotKeys = new long[SLOT_COUNT];
+        for (int i = 0; i < slotMap.getNodeList().size(); i++) {
+            RedisNode masterNode = slotMap.getNodeList().get(i);
+            List<Integer> slots = new ArrayList<>();
+            slotMap.getSlots(i).stream().forEach(slots::add);
+            if (slots.isEmpty()) {
+                continue;
+            }
+            RedisClient redisClient = null;
+            try {
+                redisClient = RedisClientFactory.buildRedisClient(masterNode, cluster.getRedisPassword());
+                RedisPipeline pipeline = new RedisPipeline(redisClient.getJedisClient());
+                slots.forEach(slot -> pipeline.append("CLUSTER", "COUNTKEYSINSLOT", String.valueOf(slot)));
+                List<Object> replies = pipeline.sync();
+                for (int j = 0; j < slots.size(); j++) {
+                    slotKeys[slots.get(j)] = Math.max(RedisPipeline.toLong(replies.get(j)), 0);
+                }
+            } catch (Exception e) {
+                logger.error("Count keys in slots failed, node = " + RedisUtil.getNodeString(masterNode), e);
+                throw new IllegalStateException("Count keys in slots failed, node = " + RedisUtil.getNodeString(masterNode));
+            } finally {
+                if (redisClient != null) {
+                    redisClient.close();
+                }
+            }
+        }
+        return slotKeys;
+    }
+
+    private Map<String, NodeInfo> getLastNodeInfo(Cluster cluster) {
+        Map<String, NodeInfo> nodeInfoMap = new HashMap<>();
+        List<NodeInfo> nodeInfoList = nodeInfoService.getLastTimeNodeInfoList(new NodeInfoParam(cluster.getClusterId(), TimeType.MINUTE, null));
+        if (nodeInfoList != null) {
+            nodeInfoList.forEach(nodeInfo -> nodeInfoMap.put(nodeInfo.getNode(), nodeInfo));
+        }
+        return nodeInfoMap;
+    }
+
+    private RebalancePlan buildRebalancePlan(Cluster cluster, RebalanceParam rebalanceParam, List<RedisNode> masterNodeList,
+                                             int[] slotOwners, double[] slotLoads, long[] slotBytes, double[] weights,
+                                             SlotRebalancePlanner.Plan plan) {
+        RebalancePlan rebalancePlan = new RebalancePlan();
+        rebalancePlan.setPlanId(UUID.randomUUID().toString().replace("-", ""));
+        rebalancePlan.setClusterId(cluster.getClusterId());
+        rebalancePlan.setMetric(rebalanceParam.getMetric());
+        rebalancePlan.setMinimize(rebalanceParam.getMinimize());
+        rebalancePlan.setThreshold(rebalanceParam.getThreshold());
+        rebalancePlan.setImbalanceBefore(plan.getImbalanceBefore());
+        rebalancePlan.setImbalanceAfter(plan.getImbalanceAfter());
+        rebalancePlan.setMovedSlots(plan.getMoves().size());
+        rebalancePlan.setMovedBytes(plan.getMovedBytes());
+        rebalancePlan.setCreateTime(new Timestamp(System.currentTimeMillis()));
+        int[] slotsBefore = new int[weights.length];
+        int[] slotsAfter = new int[weights.length];
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (slotOwners[slot] >= 0) {
+                slotsBefore[slotOwners[slot]]++;
+                slotsAfter[plan.getSlotOwners()[slot]]++;
+            }
+        }
+        for (int i = 0; i < weights.length; i++) {
+            RebalancePlan.NodeLoad nodeLoad = new RebalancePlan.NodeLoad();
+            nodeLoad.setNode(RedisUtil.getNodeString(masterNodeList.get(i)));
+            nodeLoad.setWeight(weights[i]);
+            nodeLoad.setSlotsBefore(slotsBefore[i]);
+            nodeLoad.setSlotsAfter(slotsAfter[i]);
+            nodeLoad.setLoadBefore(plan.getLoadBefore()[i]);
+            nodeLoad.setLoadAfter(plan.getLoadAfter()[i]);
+            nodeLoad.setTarget(plan.getTarget()[i]);
+            rebalancePlan.getNodeLoadList().add(nodeLoad);
+        }
+        // 按 源/目标/槽位 排序后合并连续槽位
+        List<int[]> moves = new ArrayList<>(plan.getMoves());
+        moves.sort(Comparator.<int[]>comparingInt(move -> move[1]).thenComparingInt(move -> move[2]).thenComparingInt(move -> move[0]));
+        RebalancePlan.SlotMove current = null;
+        int[] last = null;
+        for (int[] move : moves) {
+            if (current == null || last[1] != move[1] || last[2] != move[2] || last[0] + 1 != move[0]) {
+                current = new RebalancePlan.SlotMove();
+                current.setSource(RedisUtil.getNodeString(masterNodeList.get(move[1])));
+                current.setTarget(RedisUtil.getNodeString(masterNodeList.get(move[2])));
+                current.setStartSlot(move[0]);
+                rebalancePlan.getSlotMoveList().add(current);
+            }
+            current.setEndSlot(move[0]);
+            current.setSlotCount(current.getSlotCount() + 1);
+            current.setLoad(current.getLoad() + slotLoads[move[0]]);
+            current.setBytes(current.getBytes() + slotBytes[move[0]]);
+            last = move;
+        }
+        return rebalancePlan;
+    }
+
+    private static String topologyFingerprint(List<RedisNode> masterNodeList) {
+        List<String> items = new ArrayList<>(masterNodeList.size());
+        masterNodeList.forEach(masterNode -> items.add(masterNode.getNodeId() + "=" + masterNode.getSlotRange()));
+        Collections.sort(items);
+        return String.join(";", items);
+    }
+
+    private static class PlannedMoves {
+
+        private final Integer clusterId;
+
+        private final String topologyFingerprint;
+
+        private final Map<Integer, RedisNode> slotTargetMap;
+
+        PlannedMoves(Integer clusterId, String topologyFingerprint, Map<Integer, RedisNode> slotTargetMap) {
+            this.clusterId = clusterId;
+            this.topologyFingerprint = topologyFingerprint;
+            this.slotTargetMap = slotTargetMap;
+        }
+    }
+}
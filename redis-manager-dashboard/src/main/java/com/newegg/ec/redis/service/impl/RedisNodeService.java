@@ -1,6 +1,7 @@
 package com.newegg.ec.redis.service.impl;
 
 import com.google.common.base.Strings;
+import com.newegg.ec.redis.client.NodeCircuitBreaker;
 import com.newegg.ec.redis.dao.IRedisNodeDao;
 import com.newegg.ec.redis.entity.Cluster;
 import com.newegg.ec.redis.entity.NodeRole;
@@ -116,7 +117,9 @@ public class RedisNodeService implements IRedisNodeService {
         }
         dbRedisNodeList.forEach(redisNode -> {
             redisNode.setInCluster(false);
-            boolean run = NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort());
+            NodeCircuitBreaker.State state = NodeCircuitBreaker.getState(redisNode.getHost(), redisNode.getPort());
+            redisNode.setCircuitState(state.name());
+            boolean run = state != NodeCircuitBreaker.State.OPEN && NetworkUtil.telnet(redisNode.getHost(), redisNode.getPort());
             redisNode.setRunStatus(run);
             redisNode.setLinkState("unconnected");
             redisNodeList.add(redisNode);
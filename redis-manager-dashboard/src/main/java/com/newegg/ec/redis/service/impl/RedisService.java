@@ -6,6 +6,8 @@ import com.google.common.base.Strings;
 import com.newegg.ec.redis.client.*;
 import com.newegg.ec.redis.controller.websocket.InstallationWebSocketHandler;
 import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.job.AbstractJob;
+import com.newegg.ec.redis.job.SlotMigrationJob;
 import com.newegg.ec.redis.service.IClusterService;
 import com.newegg.ec.redis.service.INodeInfoService;
 import com.newegg.ec.redis.service.IRedisService;
@@ -17,12 +19,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import redis.clients.jedis.ClusterReset;
 import redis.clients.jedis.HostAndPort;
-import redis.clients.jedis.params.MigrateParams;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.JedisClusterCRC16;
 import redis.clients.jedis.util.Slowlog;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.newegg.ec.redis.client.IDatabaseCommand.*;
 import static com.newegg.ec.redis.util.RedisClusterInfoUtil.OK;
@@ -47,9 +49,48 @@ public class RedisService implements IRedisService {
     @Autowired
     private IClusterService clusterService;
 
+    @Autowired
+    private RedisClusterClientManager redisClusterClientManager;
+
+    @Autowired
+    private RedisTopologyCache topologyCache;
+
+    @Autowired
+    private RedisNodeFanOut redisNodeFanOut;
+
     @Value("${redis-manager.monitor.slow-log-limit:100}")
     private int slowLogLimit;
 
+    @Value("${redis-manager.cluster-summary.max-data-age-seconds:90}")
+    private int summaryMaxDataAge;
+
+    @Value("${redis-manager.console.max-batch-commands:10000}")
+    private int maxBatchCommands;
+
+    @Value("${redis-manager.console.batch-timeout-millis:30000}")
+    private long batchTimeout;
+
+    @Value("${redis-manager.slot-migration.parallelism:4}")
+    private int slotMigrationParallelism;
+
+    @Value("${redis-manager.slot-migration.keys-per-second:20000}")
+    private int slotMigrationKeysPerSecond;
+
+    @Value("${redis-manager.slot-migration.migrate-timeout:10000}")
+    private int slotMigrationTimeout;
+
+    @Value("${redis-manager.config-rollout.parallelism:50}")
+    private int configRolloutParallelism;
+
+    @Value("${redis-manager.config-rollout.wave-size:10}")
+    private int configRolloutWaveSize;
+
+    /**
+     * 每批节点 CONFIG SET + CONFIG REWRITE 的截止时间
+     */
+    @Value("${redis-manager.config-rollout.wave-timeout-millis:30000}")
+    private long configRolloutWaveTimeout;
+
     @Override
     public Map<String, String> getNodeInfo(HostAndPort hostAndPort, String redisPassword) {
         RedisClient redisClient = null;
@@ -64,89 +105,127 @@ public class RedisService implements IRedisService {
         }
     }
 
+    @Override
+    public Map<String, Map<String, String>> getNodeInfoSections(HostAndPort hostAndPort, String redisPassword, List<String> sections, boolean multiSection) {
+        RedisClient redisClient = null;
+        try {
+            redisClient = RedisClientFactory.buildRedisClient(hostAndPort, redisPassword);
+            return redisClient.getInfoSections(sections, multiSection);
+        } catch (Exception e) {
+            logger.error("Get redis node info failed, " + hostAndPort + ", sections = " + sections, e);
+            return null;
+        } finally {
+            close(redisClient);
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, Long>> getKeyspaceInfo(Cluster cluster) {
+        return getClusterSummary(cluster, false).getKeyspaceInfo();
+    }
+
+    @Override
+    public Map<String, Long> getTotalMemoryInfo(Cluster cluster) {
+        Map<String, Long> totalMemoryInfo = new HashMap<>();
+        totalMemoryInfo.put(USED_MEMORY, getClusterSummary(cluster, false).getTotalUsedMemory());
+        return totalMemoryInfo;
+    }
+
     /**
-     * db0:keys=31,expires=1,avg_ttl=1
+     * 所有 master 并行执行一次 pipeline(INFO keyspace, INFO memory)，在截止时间内返回的节点参与汇总
      *
      * @param cluster
+     * @param useCollected cluster 模式下最近一次采集的 NodeInfo 足够新时直接使用
      * @return
      */
     @Override
-    public Map<String, Map<String, Long>> getKeyspaceInfo(Cluster cluster) {
+    public ClusterSummary getClusterSummary(Cluster cluster, boolean useCollected) {
         List<RedisNode> redisMasterNodeList = getRedisMasterNodeList(cluster);
-        Map<String, Map<String, Long>> keyspaceInfoMap = new LinkedHashMap<>();
-        redisMasterNodeList.forEach(redisNode -> {
-            RedisClient redisClient = null;
+        if (useCollected && Objects.equals(CLUSTER, cluster.getRedisMode())) {
+            ClusterSummary clusterSummary = getCollectedSummary(cluster, redisMasterNodeList);
+            if (clusterSummary != null) {
+                return clusterSummary;
+            }
+        }
+        ClusterSummary clusterSummary = new ClusterSummary();
+        clusterSummary.setMasterCount(redisMasterNodeList.size());
+        Map<RedisNode, List<Object>> replyMap = redisNodeFanOut.execute(redisMasterNodeList, cluster.getRedisPassword(), redisClient -> {
+            RedisPipeline pipeline = new RedisPipeline(redisClient.getJedisClient());
+            pipeline.append("INFO", RedisClient.KEYSPACE).append("INFO", RedisClient.MEMORY);
+            return pipeline.sync();
+        });
+        Map<String, Map<String, Long>> keyspaceInfoMap = clusterSummary.getKeyspaceInfo();
+        replyMap.forEach((redisNode, replies) -> {
+            if (RedisPipeline.isError(replies.get(0)) || RedisPipeline.isError(replies.get(1))) {
+                logger.warn("Get keyspace info failed, redis node = " + getNodeString(redisNode) + ", " + RedisPipeline.decode(replies.get(0)));
+                return;
+            }
             try {
-                redisClient = RedisClientFactory.buildRedisClient(redisNode, cluster.getRedisPassword());
-                Map<String, String> keyspaceInfo = redisClient.getInfo(RedisClient.KEYSPACE);
-                if (keyspaceInfo.isEmpty()) {
-                    return;
-                }
                 // key: db0, val: keys=31,expires=1,avg_ttl=1
-                keyspaceInfo.forEach((key, val) -> {
-                    Map<String, Long> nodeKeyspaceInfoMap = keyspaceInfoMap.get(key);
-                    if (nodeKeyspaceInfoMap == null) {
-                        nodeKeyspaceInfoMap = new LinkedHashMap<>();
-                    }
-                    String[] subContents = SignUtil.splitByCommas(val);
-                    for (String subContent : subContents) {
+                parseInfoToMap((String) RedisPipeline.decode(replies.get(0))).forEach((key, val) -> {
+                    Map<String, Long> nodeKeyspaceInfoMap = keyspaceInfoMap.computeIfAbsent(key, db -> new LinkedHashMap<>());
+                    for (String subContent : SignUtil.splitByCommas(val)) {
                         String[] split = SignUtil.splitByEqualSign(subContent);
-                        if (split.length != 2) {
-                            continue;
-                        }
-                        String subContentKey = split[0];
-                        String subContentVal = split[1];
-                        if (Strings.isNullOrEmpty(subContentVal)) {
+                        if (split.length != 2 || Strings.isNullOrEmpty(split[1])) {
                             continue;
                         }
-                        long nodeCount = Long.parseLong(subContentVal);
-                        if (Objects.equals(subContentKey, KEYS)) {
-                            Long keys = nodeKeyspaceInfoMap.get(KEYS);
-                            keys = keys == null ? nodeCount : keys + nodeCount;
-                            nodeKeyspaceInfoMap.put(KEYS, keys);
-                        } else if (Objects.equals(subContentKey, EXPIRES)) {
-                            Long expires = nodeKeyspaceInfoMap.get(EXPIRES);
-                            expires = expires == null ? nodeCount : expires + nodeCount;
-                            nodeKeyspaceInfoMap.put(EXPIRES, expires);
+                        if (Objects.equals(split[0], KEYS) || Objects.equals(split[0], EXPIRES)) {
+                            nodeKeyspaceInfoMap.merge(split[0], Long.parseLong(split[1]), Long::sum);
                         }
                     }
-                    keyspaceInfoMap.put(key, nodeKeyspaceInfoMap);
                 });
+                Map<String, String> memoryInfo = parseInfoToMap((String) RedisPipeline.decode(replies.get(1)));
+                clusterSummary.setTotalUsedMemory(clusterSummary.getTotalUsedMemory() + byteToMB(memoryInfo.get(USED_MEMORY)));
+                clusterSummary.setRespondedCount(clusterSummary.getRespondedCount() + 1);
             } catch (Exception e) {
-                logger.error("Get keyspace info failed, redis node = " + redisNode.getHost() + ":" + redisNode.getPort(), e);
-            } finally {
-                close(redisClient);
+                logger.error("Parse keyspace info failed, redis node = " + getNodeString(redisNode), e);
             }
         });
-        return keyspaceInfoMap;
+        keyspaceInfoMap.values().forEach(nodeKeyspaceInfoMap -> {
+            nodeKeyspaceInfoMap.putIfAbsent(KEYS, 0L);
+            nodeKeyspaceInfoMap.putIfAbsent(EXPIRES, 0L);
+            clusterSummary.setTotalKeys(clusterSummary.getTotalKeys() + nodeKeyspaceInfoMap.get(KEYS));
+            clusterSummary.setTotalExpires(clusterSummary.getTotalExpires() + nodeKeyspaceInfoMap.get(EXPIRES));
+        });
+        return clusterSummary;
     }
 
-    @Override
-    public Map<String, Long> getTotalMemoryInfo(Cluster cluster) {
-        List<RedisNode> redisMasterNodeList = getRedisMasterNodeList(cluster);
-        Map<String, Long> totalMemoryInfo = new HashMap<>();
-        AtomicLong totalUsedMemory = new AtomicLong(0);
-        redisMasterNodeList.forEach(redisNode -> {
-            RedisClient redisClient = null;
-            try {
-                redisClient = RedisClientFactory.buildRedisClient(redisNode, cluster.getRedisPassword());
-                Map<String, String> memoryInfo = redisClient.getInfo(RedisClient.MEMORY);
-                if (memoryInfo.isEmpty()) {
-                    return;
-                }
-                memoryInfo.forEach((key, val) -> {
-                    if (Objects.equals(USED_MEMORY, key)) {
-                        totalUsedMemory.addAndGet(byteToMB(val));
-                    }
-                });
-            } catch (Exception e) {
-                logger.error("Get keyspace info failed, redis node = " + redisNode.getHost() + ":" + redisNode.getPort(), e);
-            } finally {
-                close(redisClient);
+    /**
+     * cluster 模式只有 db0，NodeInfo 中的 keys/expires/used_memory 足以汇总
+     *
+     * @return null if any master has no fresh data
+     */
+    private ClusterSummary getCollectedSummary(Cluster cluster, List<RedisNode> redisMasterNodeList) {
+        if (redisMasterNodeList.isEmpty()) {
+            return null;
+        }
+        List<NodeInfo> nodeInfoList = nodeInfoService.getLastTimeNodeInfoList(new NodeInfoParam(cluster.getClusterId(), TimeType.MINUTE, null));
+        if (nodeInfoList == null) {
+            return null;
+        }
+        Map<String, NodeInfo> nodeInfoMap = new HashMap<>();
+        nodeInfoList.forEach(nodeInfo -> nodeInfoMap.put(nodeInfo.getNode(), nodeInfo));
+        long oldest = System.currentTimeMillis() - summaryMaxDataAge * ONE_SECOND;
+        ClusterSummary clusterSummary = new ClusterSummary();
+        for (RedisNode redisNode : redisMasterNodeList) {
+            NodeInfo nodeInfo = nodeInfoMap.get(getNodeString(redisNode));
+            if (nodeInfo == null || nodeInfo.getUpdateTime() == null || nodeInfo.getUpdateTime().getTime() < oldest) {
+                return null;
             }
-        });
-        totalMemoryInfo.put(USED_MEMORY, totalUsedMemory.get());
-        return totalMemoryInfo;
+            clusterSummary.setTotalKeys(clusterSummary.getTotalKeys() + nodeInfo.getKeys());
+            clusterSummary.setTotalExpires(clusterSummary.getTotalExpires() + nodeInfo.getExpires());
+            clusterSummary.setTotalUsedMemory(clusterSummary.getTotalUsedMemory() + nodeInfo.getUsedMemory());
+        }
+        if (clusterSummary.getTotalKeys() > 0) {
+            Map<String, Long> db0 = new LinkedHashMap<>();
+            db0.put(KEYS, clusterSummary.getTotalKeys());
+            db0.put(EXPIRES, clusterSummary.getTotalExpires());
+            clusterSummary.getKeyspaceInfo().put(DB_PREFIX + 0, db0);
+        }
+        clusterSummary.setMasterCount(redisMasterNodeList.size());
+        clusterSummary.setRespondedCount(redisMasterNodeList.size());
+        clusterSummary.setCollected(true);
+        return clusterSummary;
     }
 
     @Override
@@ -159,41 +238,42 @@ public class RedisService implements IRedisService {
 
     @Override
     public List<RedisNode> getRedisNodeList(Cluster cluster) {
-        RedisURI redisURI = new RedisURI(cluster.getNodes(), cluster.getRedisPassword());
-        String redisMode = cluster.getRedisMode();
-        List<RedisNode> nodeList = new ArrayList<>();
-        RedisClient redisClient = null;
-        try {
-            redisClient = RedisClientFactory.buildRedisClient(redisURI);
-            if (STANDALONE.equalsIgnoreCase(redisMode)) {
-                nodeList = redisClient.nodes();
-            } else if (CLUSTER.equalsIgnoreCase(redisMode)) {
-                nodeList = redisClient.clusterNodes();
-            } else if (SENTINEL.equalsIgnoreCase(redisMode)) {
-                nodeList = redisClient.sentinelNodes(nodesToHostAndPortSet(cluster.getNodes()));
-            }
-        } catch (Exception e) {
-            logger.error("Get redis node list failed, " + cluster.getClusterName(), e);
-        } finally {
-            close(redisClient);
-        }
-        nodeList.forEach(redisNode -> redisNode.setClusterId(cluster.getClusterId()));
-        return nodeList;
+        RedisTopologyCache.TopologySnapshot snapshot = getTopologySnapshot(cluster);
+        return snapshot == null ? new ArrayList<>() : copyNodeList(snapshot.getNodeList());
     }
 
     @Override
     public List<RedisNode> getRedisMasterNodeList(Cluster cluster) {
-        List<RedisNode> masterNodeList = new ArrayList<>();
-        List<RedisNode> redisNodeList = getRedisNodeList(cluster);
-        if (redisNodeList == null) {
-            return masterNodeList;
+        RedisTopologyCache.TopologySnapshot snapshot = getTopologySnapshot(cluster);
+        return snapshot == null ? new ArrayList<>() : copyNodeList(snapshot.getMasterNodeList());
+    }
+
+    @Override
+    public RedisTopologyCache.TopologySnapshot getTopologySnapshot(Cluster cluster) {
+        // 尚未保存的集群(如导入时的检查)不缓存
+        if (cluster.getClusterId() == null) {
+            return topologyCache.load(cluster);
         }
-        redisNodeList.forEach(redisNode -> {
-            if (Objects.equals(NodeRole.MASTER, redisNode.getNodeRole())) {
-                masterNodeList.add(redisNode);
-            }
+        return topologyCache.getSnapshot(cluster);
+    }
+
+    /**
+     * 快照中的节点是共享的，返回给调用方的是副本
+     */
+    private static List<RedisNode> copyNodeList(List<RedisNode> nodeList) {
+        List<RedisNode> copyList = new ArrayList<>(nodeList.size());
+        nodeList.forEach(redisNode -> {
+            RedisNode copy = new RedisNode(redisNode.getNodeId(), redisNode.getHost(), redisNode.getPort(), redisNode.getNodeRole());
+            copy.setClusterId(redisNode.getClusterId());
+            copy.setMasterId(redisNode.getMasterId());
+            copy.setFlags(redisNode.getFlags());
+            copy.setLinkState(redisNode.getLinkState());
+            copy.setSlotRange(redisNode.getSlotRange());
+            copy.setSlotNumber(redisNode.getSlotNumber());
+            copy.setCircuitState(NodeCircuitBreaker.getState(redisNode.getHost(), redisNode.getPort()).name());
+            copyList.add(copy);
         });
-        return masterNodeList;
+        return copyList;
     }
 
     @Override
@@ -226,22 +306,14 @@ public class RedisService implements IRedisService {
             nodeList.add(redisNode);
         }
         List<RedisSlowLog> redisSlowLogList = new ArrayList<>();
-        for (RedisNode redisNode : nodeList) {
+        Map<RedisNode, List<Slowlog>> slowLogMap = redisNodeFanOut.execute(nodeList, cluster.getRedisPassword(),
+                redisClient -> redisClient.getSlowLog(slowLogLimit));
+        slowLogMap.forEach((redisNode, slowLogs) -> {
             HostAndPort hostAndPort = new HostAndPort(redisNode.getHost(), redisNode.getPort());
-            RedisClient redisClient = null;
-            try {
-                redisClient = RedisClientFactory.buildRedisClient(redisNode, cluster.getRedisPassword());
-                List<Slowlog> slowLogs = redisClient.getSlowLog(slowLogLimit);
-                for (Slowlog slowLog : slowLogs) {
-                    RedisSlowLog redisSlowLog = new RedisSlowLog(hostAndPort, slowLog);
-                    redisSlowLogList.add(redisSlowLog);
-                }
-            } catch (Exception e) {
-                logger.error("Get " + hostAndPort + " slow log failed, cluster name: " + cluster.getClusterName(), e);
-            } finally {
-                close(redisClient);
+            for (Slowlog slowLog : slowLogs) {
+                redisSlowLogList.add(new RedisSlowLog(hostAndPort, slowLog));
             }
-        }
+        });
         return redisSlowLogList;
     }
 
@@ -285,17 +357,10 @@ public class RedisService implements IRedisService {
             return client.query(autoCommandParam);
         } catch (Exception e) {
             logger.error("Auto query failed, cluster name = " + cluster.getClusterName(), e);
+            redisClusterClientManager.handleException(cluster.getClusterId(), e);
             return null;
         } finally {
-            String redisMode = cluster.getRedisMode();
-            if (Objects.equals(redisMode, CLUSTER)) {
-                IRedisClusterClient redisClusterClient = (IRedisClusterClient) client;
-                if (redisClusterClient != null) {
-                    redisClusterClient.close();
-                }
-            } else {
-                close((IRedisClient) client);
-            }
+            closeDatabaseCommandClient(cluster, client);
         }
     }
 
@@ -330,18 +395,155 @@ public class RedisService implements IRedisService {
             }
         } catch (Exception e) {
             logger.error("Redis operation failed, cluster name: " + cluster.getClusterName() + ", command: " + dataCommandsParam.getCommand(), e);
+            redisClusterClientManager.handleException(cluster.getClusterId(), e);
         } finally {
-            String redisMode = cluster.getRedisMode();
-            if (Objects.equals(redisMode, CLUSTER)) {
-                IRedisClusterClient redisClusterClient = (IRedisClusterClient) client;
-                if (redisClusterClient != null) {
-                    redisClusterClient.close();
+            closeDatabaseCommandClient(cluster, client);
+        }
+        return result;
+    }
+
+    @Override
+    public List<CommandResult> consoleBatch(Cluster cluster, DataCommandsParam dataCommandsParam) {
+        String redisMode = cluster.getRedisMode();
+        List<CommandResult> commandResultList = new ArrayList<>();
+        List<List<String>> commandList = new ArrayList<>();
+        for (String line : dataCommandsParam.getCommand().split("\\r?\\n")) {
+            List<String> tokens = parseCommandLine(line);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            CommandResult commandResult = new CommandResult(line.trim());
+            // 与 console 相同的命令白名单
+            if (!CONSOLE_COMMANDS.contains(tokens.get(0).toUpperCase())) {
+                commandResult.setError(true);
+                commandResult.setResult("Command not allowed in batch.");
+            } else if (tokens.size() < 2) {
+                commandResult.setError(true);
+                commandResult.setResult("Wrong number of arguments.");
+            }
+            commandResultList.add(commandResult);
+            commandList.add(tokens);
+        }
+        if (commandList.size() > maxBatchCommands) {
+            logger.warn("Too many commands in batch, cluster name = " + cluster.getClusterName() + ", size = " + commandList.size());
+            return null;
+        }
+        List<RedisNode> masterNodeList = getRedisMasterNodeList(cluster);
+        if (masterNodeList == null || masterNodeList.isEmpty()) {
+            return null;
+        }
+        boolean clusterMode = Objects.equals(redisMode, CLUSTER);
+        SlotMap slotMap = clusterMode ? SlotMap.fromClusterNodes(masterNodeList) : null;
+        RedisNode masterNode = null;
+        if (SENTINEL.equalsIgnoreCase(redisMode)) {
+            masterNode = selectMasterNode(masterNodeList, dataCommandsParam.getNode());
+        } else if (!clusterMode) {
+            masterNode = masterNodeList.get(0);
+        }
+        // 按节点分组，保持每个节点内命令的原始顺序
+        Map<RedisNode, List<Integer>> nodeCommandIndexes = new LinkedHashMap<>();
+        for (int i = 0; i < commandList.size(); i++) {
+            CommandResult commandResult = commandResultList.get(i);
+            if (commandResult.isError()) {
+                continue;
+            }
+            RedisNode redisNode = masterNode;
+            if (clusterMode) {
+                Integer slot = getCommandSlot(commandList.get(i));
+                if (slot == null) {
+                    commandResult.setError(true);
+                    commandResult.setResult("Keys in request don't hash to the same slot.");
+                    continue;
+                }
+                redisNode = slotMap.getOwner(slot);
+                if (redisNode == null) {
+                    commandResult.setError(true);
+                    commandResult.setResult("Slot " + slot + " not assigned.");
+                    continue;
                 }
-            } else {
-                close((IRedisClient) client);
+            } else if (redisNode == null) {
+                commandResult.setError(true);
+                commandResult.setResult("Please specify the master node, such as 127.0.0.1:6379.");
+                continue;
             }
+            nodeCommandIndexes.computeIfAbsent(redisNode, key -> new ArrayList<>()).add(i);
         }
-        return result;
+        // 每个节点一个 pipeline，节点之间并行
+        Map<String, List<Integer>> nodeIndexes = new HashMap<>();
+        nodeCommandIndexes.forEach((redisNode, indexes) -> nodeIndexes.put(getNodeString(redisNode), indexes));
+        Map<String, Long> elapsedMap = new ConcurrentHashMap<>();
+        Map<RedisNode, List<Object>> replyMap = redisNodeFanOut.execute(new ArrayList<>(nodeCommandIndexes.keySet()), cluster.getRedisPassword(), redisClient -> {
+            long start = System.currentTimeMillis();
+            Jedis jedis = redisClient.getJedisClient();
+            String node = jedis.getClient().getHost() + ":" + jedis.getClient().getPort();
+            if (!clusterMode) {
+                jedis.select(dataCommandsParam.getDatabase());
+            }
+            RedisPipeline pipeline = new RedisPipeline(jedis);
+            nodeIndexes.get(node).forEach(index -> {
+                List<String> tokens = commandList.get(index);
+                pipeline.append(tokens.get(0), tokens.subList(1, tokens.size()).toArray(new String[0]));
+            });
+            List<Object> replies = pipeline.sync();
+            elapsedMap.put(node, System.currentTimeMillis() - start);
+            return replies;
+        }, batchTimeout);
+        nodeCommandIndexes.forEach((redisNode, indexes) -> {
+            String node = getNodeString(redisNode);
+            List<Object> replies = replyMap.get(redisNode);
+            for (int i = 0; i < indexes.size(); i++) {
+                CommandResult commandResult = commandResultList.get(indexes.get(i));
+                commandResult.setNode(node);
+                if (replies == null) {
+                    commandResult.setError(true);
+                    commandResult.setResult("Execute failed or timeout on " + node + ".");
+                    continue;
+                }
+                Object reply = replies.get(i);
+                commandResult.setError(RedisPipeline.isError(reply));
+                commandResult.setResult(RedisPipeline.decode(reply));
+                commandResult.setPipelineElapsed(elapsedMap.getOrDefault(node, 0L));
+            }
+        });
+        return commandResultList;
+    }
+
+    /**
+     * sentinel 监控多个 master 时必须指定节点
+     *
+     * @param masterNodeList
+     * @param node           host:port, 可为空
+     * @return null if not found
+     */
+    private static RedisNode selectMasterNode(List<RedisNode> masterNodeList, String node) {
+        if (Strings.isNullOrEmpty(node)) {
+            return masterNodeList.size() == 1 ? masterNodeList.get(0) : null;
+        }
+        for (RedisNode redisNode : masterNodeList) {
+            if (Objects.equals(getNodeString(redisNode), node.trim())) {
+                return redisNode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 命令中 key 所在的槽位，命令都在 CONSOLE_COMMANDS 中且至少有一个 key
+     *
+     * @param tokens
+     * @return null if keys in different slots
+     */
+    private static Integer getCommandSlot(List<String> tokens) {
+        List<String> keys = MULTI_KEY_COMMANDS.contains(tokens.get(0).toUpperCase()) ? tokens.subList(1, tokens.size()) : tokens.subList(1, 2);
+        Integer slot = null;
+        for (String key : keys) {
+            int keySlot = JedisClusterCRC16.getSlot(key);
+            if (slot != null && slot != keySlot) {
+                return null;
+            }
+            slot = keySlot;
+        }
+        return slot;
     }
 
     @Override
@@ -379,6 +581,7 @@ public class RedisService implements IRedisService {
             return false;
         } finally {
             close(redisClient);
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
@@ -397,6 +600,7 @@ public class RedisService implements IRedisService {
             return false;
         } finally {
             close(redisClient);
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
@@ -414,40 +618,84 @@ public class RedisService implements IRedisService {
             return false;
         } finally {
             close(redisClient);
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
+    /**
+     * MEET 只是通知 seed 发起握手，结果由 gossip 异步传播，调用方通过 waitForNodesJoined 等待收敛
+     */
     @Override
     public String clusterMeet(Cluster cluster, RedisNode seed, List<RedisNode> redisNodeList) {
         StringBuilder result = new StringBuilder();
+        RedisClient redisClient = null;
         try {
+            redisClient = RedisClientFactory.buildRedisClient(seed, cluster.getRedisPassword());
             for (RedisNode redisNode : redisNodeList) {
                 if (RedisUtil.equals(seed, redisNode)) {
                     continue;
                 }
-                RedisClient redisClient = null;
                 String host = redisNode.getHost();
                 int port = redisNode.getPort();
                 try {
-                    redisClient = RedisClientFactory.buildRedisClient(seed, cluster.getRedisPassword());
                     redisClient.clusterMeet(host, port);
-                    Thread.sleep(ONE_SECOND);
                 } catch (Exception e) {
                     String message = "Cluster meet " + host + ":" + port + " failed.";
                     logger.error(message, e);
                     result.append(message).append(e.getMessage()).append(SignUtil.COMMAS);
-                } finally {
-                    close(redisClient);
                 }
             }
         } catch (Exception e) {
             String message = "Create redis client failed.";
             logger.error(message, e);
             result.append(message).append(e.getMessage());
+        } finally {
+            close(redisClient);
         }
+        topologyCache.invalidate(cluster.getClusterId());
         return result.toString();
     }
 
+    @Override
+    public boolean waitForNodesJoined(Cluster cluster, RedisNode seed, List<RedisNode> redisNodeList, long timeout) {
+        boolean clusterMode = Objects.equals(CLUSTER, cluster.getRedisMode());
+        boolean ready = ReadinessWaiter.await(() -> {
+            List<RedisNode> knownNodeList;
+            RedisClient redisClient = RedisClientFactory.buildRedisClient(seed, cluster.getRedisPassword());
+            try {
+                knownNodeList = clusterMode ? redisClient.clusterNodes() : redisClient.nodes();
+            } finally {
+                redisClient.close();
+            }
+            for (RedisNode redisNode : redisNodeList) {
+                RedisNode knownNode = knownNodeList.stream().filter(node -> RedisUtil.equals(node, redisNode)).findFirst().orElse(null);
+                // 握手未完成的节点 flags 为 handshake，地址未知为 noaddr
+                if (knownNode == null || (clusterMode && !Strings.isNullOrEmpty(knownNode.getFlags())
+                        && (knownNode.getFlags().contains(HANDSHAKE) || knownNode.getFlags().contains(NOADDR)))) {
+                    return false;
+                }
+            }
+            if (!clusterMode) {
+                return true;
+            }
+            // gossip 收敛：每个节点都已知道 seed 所知道的全部节点
+            String knownNodes = String.valueOf(knownNodeList.size());
+            Map<RedisNode, Map<String, String>> clusterInfoMap = redisNodeFanOut.execute(redisNodeList, cluster.getRedisPassword(),
+                    IRedisClient::getClusterInfo);
+            if (clusterInfoMap.size() < redisNodeList.size()) {
+                return false;
+            }
+            for (Map<String, String> clusterInfo : clusterInfoMap.values()) {
+                if (!Objects.equals(knownNodes, clusterInfo.get(RedisClusterInfoUtil.CLUSTER_KNOWN_NODES))) {
+                    return false;
+                }
+            }
+            return true;
+        }, timeout);
+        topologyCache.invalidate(cluster.getClusterId());
+        return ready;
+    }
+
     @Override
     public String clusterMeet(Cluster cluster, RedisNode seed, RedisNode redisNode) {
         List<RedisNode> redisNodeList = new ArrayList<>();
@@ -473,6 +721,7 @@ public class RedisService implements IRedisService {
             return e.getMessage();
         } finally {
             close(redisClient);
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
@@ -503,147 +752,29 @@ public class RedisService implements IRedisService {
 
     @Override
     public boolean clusterMoveSlots(Cluster cluster, RedisNode targetNode, SlotBalanceUtil.Shade shade) {
-        boolean result = true;
-        String clusterName = cluster.getClusterName();
-        String redisPassword = cluster.getRedisPassword();
-        Map<RedisNode, List<SlotBalanceUtil.Shade>> masterNodeAndShadeMap = getSlotSpread(cluster);
-        String targetNodeId = targetNode.getNodeId();
-        // 目标节点
-        RedisURI targetRedisURI = new RedisURI(targetNode, cluster.getRedisPassword());
+        Map<Integer, RedisNode> slotTargetMap = new TreeMap<>();
         for (int slot = shade.getStartSlot(); slot <= shade.getEndSlot(); slot++) {
-            RedisClient targetRedisClient = RedisClientFactory.buildRedisClient(targetRedisURI);
-
-            RedisNode sourceNode = getMasterNodeAssigned(masterNodeAndShadeMap, slot);
-            // 槽位没有被分配
-            if (sourceNode == null) {
-                // 直接分配此 slot
-                try {
-                    targetRedisClient.clusterAddSlots(slot);
-                } catch (Exception e) {
-                    logger.error("Assigned slot failed.", e);
-                } finally {
-                    close(targetRedisClient);
-                }
-                continue;
-            }
-            // 如果此 slot 就在它自己本身，则直接跳过
-            if (RedisUtil.equals(sourceNode, targetNode)) {
-                continue;
-            }
-            // 迁移槽
-            RedisClient sourceRedisClient = RedisClientFactory.buildRedisClient(sourceNode, redisPassword);
-            try {
-                // 目标节点导入槽道
-                targetRedisClient.clusterSetSlotImporting(slot, sourceNode.getNodeId());
-                // 源节点导出槽道
-                sourceRedisClient.clusterSetSlotMigrating(slot, targetNodeId);
-                // 数据迁移
-                List<String> keyList;
-                do {
-                    keyList = sourceRedisClient.clusterGetKeysInSlot(slot, 50);
-                    String[] keys = keyList.toArray(new String[0]);
-                    sourceRedisClient.migrate(sourceNode.getHost(), sourceNode.getPort(),
-                            0, 100000, MigrateParams.migrateParams().replace(), keys);
-                } while (!keyList.isEmpty());
-            } catch (Exception e) {
-                logger.error(clusterName + " move slot " + slot + "error.", e);
-                result = false;
-                // 出现异常则恢复 slot
-                targetRedisClient.clusterSetSlotStable(slot);
-                sourceRedisClient.clusterSetSlotStable(slot);
-            } finally {
-                // 所有主节点通知更新数据(槽道迁移)
-                disseminate(masterNodeAndShadeMap.keySet(), redisPassword, slot, targetNodeId);
-                close(sourceRedisClient);
-                close(targetRedisClient);
-            }
+            slotTargetMap.put(slot, targetNode);
         }
-        return result;
-    }
-
-    /**
-     * 所有主节点通知更新数据(槽道迁移)
-     *
-     * @param masterNodeList
-     * @param requirePass
-     * @param slot
-     */
-    private void disseminate(Set<RedisNode> masterNodeList, String requirePass, int slot, String targetNodeId) {
-        for (RedisNode redisNode : masterNodeList) {
-            RedisClient redisClient = null;
-            try {
-                redisClient = RedisClientFactory.buildRedisClient(redisNode, requirePass);
-                redisClient.clusterSetSlotNode(slot, targetNodeId);
-            } catch (Exception e) {
-                logger.error("Redis disseminate failed, node = " + RedisUtil.getNodeString(redisNode), e);
-            } finally {
-                close(redisClient);
-            }
+        try {
+            SlotMigrationJob slotMigrationJob = buildSlotMigrationJob(cluster, slotTargetMap, null);
+            slotMigrationJob.run();
+            return Objects.equals(AbstractJob.JobStatus.SUCCESS, slotMigrationJob.getStatus());
+        } catch (Exception e) {
+            logger.error(cluster.getClusterName() + " move slots failed, " + shade, e);
+            return false;
+        } finally {
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
-    /**
-     * 获取所有节点的shade分布情况
-     *
-     * @param cluster
-     * @return
-     */
-    private Map<RedisNode, List<SlotBalanceUtil.Shade>> getSlotSpread(Cluster cluster) {
-        List<RedisNode> redisMasterNodeList = getRedisMasterNodeList(cluster);
-        Map<RedisNode, List<SlotBalanceUtil.Shade>> nodeIdAndShadeMap = new HashMap<>(redisMasterNodeList.size() - 1);
-        redisMasterNodeList.forEach(masterNode -> {
-            String slotRanges = masterNode.getSlotRange();
-            if (Strings.isNullOrEmpty(slotRanges)) {
-                nodeIdAndShadeMap.put(masterNode, null);
-            } else {
-                String[] slotRangeArr = SignUtil.splitByCommas(slotRanges);
-                int length = slotRangeArr.length;
-                List<SlotBalanceUtil.Shade> shadeList = new ArrayList<>(length);
-                if (length == 1) {
-                    shadeList.add(new SlotBalanceUtil.Shade(slotRanges));
-                    nodeIdAndShadeMap.put(masterNode, shadeList);
-                } else if (length > 1) {
-                    for (String slotRange : slotRangeArr) {
-                        shadeList.add(new SlotBalanceUtil.Shade(slotRange));
-                    }
-                    nodeIdAndShadeMap.put(masterNode, shadeList);
-                } else {
-                    nodeIdAndShadeMap.put(masterNode, null);
-                }
-            }
-        });
-        return nodeIdAndShadeMap;
-    }
-
-    /**
-     * 获取所要迁移的 slot 在哪个 master 上
-     *
-     * @param nodeIdAndShadeMap
-     * @param slot
-     * @return
-     */
-    private RedisNode getMasterNodeAssigned(Map<RedisNode, List<SlotBalanceUtil.Shade>> nodeIdAndShadeMap, int slot) {
-        for (Map.Entry<RedisNode, List<SlotBalanceUtil.Shade>> nodeIdAndShade : nodeIdAndShadeMap.entrySet()) {
-            RedisNode redisNode = nodeIdAndShade.getKey();
-            List<SlotBalanceUtil.Shade> shadeList = nodeIdAndShade.getValue();
-            // master no slot
-            if (shadeList == null || shadeList.isEmpty()) {
-                return null;
-            }
-            // 判断 i 是否在在此master上
-            for (SlotBalanceUtil.Shade startEnd : shadeList) {
-                if (startEnd == null) {
-                    continue;
-                }
-                int slotCount = startEnd.getSlotCount();
-                int start = startEnd.getStartSlot();
-                int end = startEnd.getEndSlot();
-                if (slotCount > 0 && (slot >= start && slot <= end)) {
-                    return redisNode;
-                }
-            }
-        }
-        return null;
+    @Override
+    public SlotMigrationJob buildSlotMigrationJob(Cluster cluster, Map<Integer, RedisNode> slotTargetMap, SlotMigrationJob previousJob) {
+        // 迁移前使用最新的拓扑
+        topologyCache.invalidate(cluster.getClusterId());
+        List<RedisNode> masterNodeList = getRedisMasterNodeList(cluster);
+        return new SlotMigrationJob(cluster, masterNodeList, slotTargetMap,
+                slotMigrationParallelism, slotMigrationKeysPerSecond, slotMigrationTimeout, previousJob);
     }
 
     @Override
@@ -666,6 +797,7 @@ public class RedisService implements IRedisService {
             return result.toString();
         } finally {
             close(redisClient);
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
@@ -682,6 +814,7 @@ public class RedisService implements IRedisService {
             return false;
         } finally {
             close(redisClient);
+            topologyCache.invalidate(cluster.getClusterId());
         }
     }
 
@@ -704,12 +837,133 @@ public class RedisService implements IRedisService {
 
     @Override
     public boolean setConfigBatch(Cluster cluster, RedisConfigUtil.RedisConfig redisConfig) {
+        return rolloutConfig(cluster, redisConfig, new ConfigRolloutParam()).isSuccess();
+    }
+
+    /**
+     * 先读取所有节点的旧值，任一节点不可达则不做任何修改；
+     * 按批次并行 CONFIG SET、CONFIG GET 校验、CONFIG REWRITE，某批有节点失败则停止，并将已下发的节点恢复为旧值。
+     * redis 会规范化部分配置值(如 1gb -> 1073741824)，所以读回的值与输入不同时，要求与第一个成功节点读回的值一致
+     */
+    @Override
+    public ConfigRolloutResult rolloutConfig(Cluster cluster, RedisConfigUtil.RedisConfig redisConfig, ConfigRolloutParam rolloutParam) {
+        String configKey = redisConfig.getConfigKey();
+        // for special config, like `save`
+        String configValue = Strings.isNullOrEmpty(redisConfig.getConfigValue()) ? "" : redisConfig.getConfigValue();
+        ConfigRolloutResult rolloutResult = new ConfigRolloutResult(configKey, configValue);
+        // 不允许更新以下配置
+        if (Strings.isNullOrEmpty(configKey)
+                || Objects.equals(configKey, REQUIRE_PASS)
+                || Objects.equals(configKey, MASTER_AUTH)
+                || Objects.equals(configKey, BIND)
+                || Objects.equals(configKey, PORT)
+                || Objects.equals(configKey, DIR)
+                || Objects.equals(configKey, DAEMONIZE)) {
+            rolloutResult.setMessage(configKey + " is not allowed to change.");
+            return rolloutResult;
+        }
+        String redisPassword = cluster.getRedisPassword();
+        boolean clusterMode = Objects.equals(cluster.getRedisMode(), CLUSTER);
         List<RedisNode> redisNodeList = getRedisNodeList(cluster);
-        AtomicBoolean result = new AtomicBoolean(true);
-        for (RedisNode redisNode : redisNodeList) {
-            result.set(setConfig(cluster, redisNode, redisConfig));
+        Map<RedisNode, String> oldValueMap = redisNodeFanOut.execute(redisNodeList, redisPassword,
+                redisClient -> redisClient.getConfig(configKey).get(configKey));
+        Map<RedisNode, ConfigRolloutResult.NodeResult> nodeResultMap = new LinkedHashMap<>();
+        redisNodeList.forEach(redisNode -> nodeResultMap.put(redisNode,
+                new ConfigRolloutResult.NodeResult(getNodeString(redisNode), oldValueMap.get(redisNode))));
+        rolloutResult.setNodeResultList(new ArrayList<>(nodeResultMap.values()));
+        if (redisNodeList.isEmpty() || oldValueMap.size() < redisNodeList.size()) {
+            nodeResultMap.forEach((redisNode, nodeResult) -> {
+                if (!oldValueMap.containsKey(redisNode)) {
+                    nodeResult.setStatus(ConfigRolloutResult.FAILED);
+                    nodeResult.setMessage("Get " + configKey + " failed.");
+                }
+            });
+            rolloutResult.setMessage("Some nodes are unreachable or don't support " + configKey + ", nothing changed.");
+            return rolloutResult;
         }
-        return result.get();
+        boolean canary = Objects.equals(ConfigRolloutParam.CANARY, rolloutParam.getStrategy());
+        int parallelism = rolloutParam.getParallelism() > 0 ? rolloutParam.getParallelism() : configRolloutParallelism;
+        int waveSize = rolloutParam.getWaveSize() > 0 ? rolloutParam.getWaveSize() : configRolloutWaveSize;
+        List<List<RedisNode>> waves = RedisConfigUtil.buildRolloutWaves(redisNodeList, canary, parallelism, waveSize);
+        List<RedisNode> appliedNodeList = new ArrayList<>();
+        String referenceValue = null;
+        boolean failed = false;
+        for (List<RedisNode> wave : waves) {
+            Map<RedisNode, String> newValueMap = redisNodeFanOut.execute(wave, redisPassword, redisClient -> {
+                redisClient.setConfig(configKey, configValue);
+                String newValue = redisClient.getConfig(configKey).get(configKey);
+                if (clusterMode) {
+                    redisClient.clusterSaveConfig();
+                }
+                redisClient.rewriteConfig();
+                return newValue;
+            }, configRolloutWaveTimeout);
+            appliedNodeList.addAll(wave);
+            for (RedisNode redisNode : wave) {
+                ConfigRolloutResult.NodeResult nodeResult = nodeResultMap.get(redisNode);
+                String newValue = newValueMap.get(redisNode);
+                nodeResult.setNewValue(newValue);
+                if (newValue == null) {
+                    nodeResult.setStatus(ConfigRolloutResult.FAILED);
+                    nodeResult.setMessage("Set config failed or timeout.");
+                    failed = true;
+                    continue;
+                }
+                if (referenceValue == null) {
+                    referenceValue = newValue;
+                }
+                if (!newValue.equalsIgnoreCase(configValue) && !Objects.equals(newValue, referenceValue)) {
+                    nodeResult.setStatus(ConfigRolloutResult.FAILED);
+                    nodeResult.setMessage("Verify failed, expect " + referenceValue + ".");
+                    failed = true;
+                    continue;
+                }
+                nodeResult.setStatus(ConfigRolloutResult.SUCCESS);
+            }
+            if (failed) {
+                break;
+            }
+        }
+        if (failed) {
+            rollbackConfig(cluster, configKey, appliedNodeList, nodeResultMap);
+            rolloutResult.setRolledBack(true);
+            rolloutResult.setMessage("Rollout " + configKey + " failed, " + appliedNodeList.size() + " nodes rolled back.");
+            logger.warn(cluster.getClusterName() + " " + rolloutResult.getMessage());
+        } else {
+            rolloutResult.setSuccess(true);
+        }
+        return rolloutResult;
+    }
+
+    /**
+     * 恢复为旧值，失败的节点也恢复，因为不能确定 CONFIG SET 是否已执行。
+     * 旧值通常各节点相同，按旧值分组后每组并行执行
+     */
+    private void rollbackConfig(Cluster cluster, String configKey, List<RedisNode> appliedNodeList,
+                                Map<RedisNode, ConfigRolloutResult.NodeResult> nodeResultMap) {
+        boolean clusterMode = Objects.equals(cluster.getRedisMode(), CLUSTER);
+        Map<String, List<RedisNode>> oldValueGroup = new LinkedHashMap<>();
+        appliedNodeList.forEach(redisNode -> oldValueGroup.computeIfAbsent(nodeResultMap.get(redisNode).getOldValue(),
+                key -> new ArrayList<>()).add(redisNode));
+        oldValueGroup.forEach((oldValue, redisNodeList) -> {
+            Map<RedisNode, Boolean> rollbackMap = redisNodeFanOut.execute(redisNodeList, cluster.getRedisPassword(), redisClient -> {
+                redisClient.setConfig(configKey, oldValue);
+                if (clusterMode) {
+                    redisClient.clusterSaveConfig();
+                }
+                redisClient.rewriteConfig();
+                return true;
+            }, configRolloutWaveTimeout);
+            redisNodeList.forEach(redisNode -> {
+                ConfigRolloutResult.NodeResult nodeResult = nodeResultMap.get(redisNode);
+                if (rollbackMap.containsKey(redisNode)) {
+                    nodeResult.setStatus(ConfigRolloutResult.ROLLED_BACK);
+                } else {
+                    nodeResult.setStatus(ConfigRolloutResult.ROLLBACK_FAILED);
+                    logger.error(nodeResult.getNode() + " rollback " + configKey + " to " + oldValue + " failed.");
+                }
+            });
+        });
     }
 
     @Override
@@ -941,11 +1195,22 @@ public class RedisService implements IRedisService {
             RedisURI redisURI = new RedisURI(redisNode, redisPassword);
             client = RedisClientFactory.buildRedisClient(redisURI);
         } else if (CLUSTER.equalsIgnoreCase(redisMode)) {
-            client = RedisClientFactory.buildRedisClusterClient(redisNode, redisPassword);
+            client = redisClusterClientManager.getClusterClient(cluster, redisNode);
         }
         return client;
     }
 
+    /**
+     * cluster 模式的客户端由 RedisClusterClientManager 缓存，只归还不关闭
+     */
+    private void closeDatabaseCommandClient(Cluster cluster, IDatabaseCommand client) {
+        if (CLUSTER.equalsIgnoreCase(cluster.getRedisMode())) {
+            redisClusterClientManager.releaseClusterClient((IRedisClusterClient) client);
+        } else {
+            close((IRedisClient) client);
+        }
+    }
+
     private void close(IRedisClient redisClient) {
         if (redisClient != null) {
             redisClient.close();
@@ -0,0 +1,289 @@
+package com.newegg.ec.redis.service.impl;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.newegg.ec.redis.client.RedisNodeFanOut;
+import com.newegg.ec.redis.dao.ISlowLogDao;
+import com.newegg.ec.redis.entity.*;
+import com.newegg.ec.redis.service.IRedisService;
+import com.newegg.ec.redis.service.ISlowLogService;
+import com.newegg.ec.redis.util.LatencyHistogram;
+import com.newegg.ec.redis.util.SlowLogUtil;
+import com.newegg.ec.redis.util.TimeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import redis.clients.jedis.util.Slowlog;
+
+import java.sql.Timestamp;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.newegg.ec.redis.client.RedisClient.SENTINEL;
+import static com.newegg.ec.redis.util.RedisUtil.getNodeString;
+import static com.newegg.ec.redis.util.TimeUtil.ONE_HOUR;
+
+/**
+ * 慢日志增量采集
+ * <p>
+ * 每个节点记录上一次采集到的 slowlog id，只保存更新的条目；id 变小说明节点重启过，改为按时间判断。
+ * 最近两个小时的汇总保存在内存中，新条目直接累加，每次只把涉及到的小时的汇总写回；
+ * 某个小时第一次被汇总时(包括重启后)从明细加载一次，之后不再扫描明细。
+ * 每个 node + fingerprint 一个直方图(约 5KB)，p99 为直方图估算值，相对误差不超过 1/16
+ *
+ * @date 2026/10/19
+ */
+@Service
+public class SlowLogService implements ISlowLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowLogService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MAX_COMMAND_LENGTH = 1024;
+
+    private static final Set<String> ORDER_BY = new HashSet<>(Arrays.asList("count", "total_time", "p99_time"));
+
+    @Value("${redis-manager.slow-log.harvest-size:128}")
+    private int harvestSize;
+
+    @Value("${redis-manager.slow-log.data-keep-days:15}")
+    private int dataKeepDays;
+
+    @Autowired
+    private ISlowLogDao slowLogDao;
+
+    @Autowired
+    private IRedisService redisService;
+
+    @Autowired
+    private RedisNodeFanOut redisNodeFanOut;
+
+    /**
+     * clusterId -> node -> 最后一条慢日志
+     */
+    private final Map<Integer, Map<String, SlowLogRecord>> cursorMap = new ConcurrentHashMap<>();
+
+    /**
+     * clusterId -> 小时 -> node|fingerprint -> 汇总
+     */
+    private final Map<Integer, Map<Timestamp, Map<String, StatAccumulator>>> statMap = new ConcurrentHashMap<>();
+
+    @Override
+    public Set<Timestamp> harvest(Cluster cluster) {
+        Integer clusterId = cluster.getClusterId();
+        Set<Timestamp> hours = new TreeSet<>();
+        if (Objects.equals(SENTINEL, cluster.getRedisMode())) {
+            return hours;
+        }
+        List<RedisNode> redisNodeList = redisService.getRedisNodeList(cluster);
+        if (redisNodeList.isEmpty()) {
+            return hours;
+        }
+        Map<String, SlowLogRecord> cursors = cursorMap.computeIfAbsent(clusterId, key -> loadCursors(clusterId));
+        Map<RedisNode, List<Slowlog>> slowLogMap = redisNodeFanOut.execute(redisNodeList, cluster.getRedisPassword(),
+                redisClient -> redisClient.getSlowLog(harvestSize));
+        List<SlowLogRecord> slowLogRecordList = new ArrayList<>();
+        Map<String, SlowLogRecord> newCursors = new HashMap<>();
+        slowLogMap.forEach((redisNode, slowLogs) -> {
+            if (slowLogs.isEmpty()) {
+                return;
+            }
+            String node = getNodeString(redisNode);
+            SlowLogRecord cursor = cursors.get(node);
+            // SLOWLOG GET 按 id 倒序返回
+            Slowlog newest = slowLogs.get(0);
+            Slowlog oldest = slowLogs.get(slowLogs.size() - 1);
+            boolean restarted = cursor != null && newest.getId() < cursor.getLogId();
+            if (cursor != null && !restarted && slowLogs.size() >= harvestSize && oldest.getId() > cursor.getLogId() + 1) {
+                logger.warn("Slow log lost " + (oldest.getId() - cursor.getLogId() - 1) + " entries, node = " + node
+                        + ", please increase slowlog-max-len or harvest-size.");
+            }
+            for (Slowlog slowLog : slowLogs) {
+                boolean isNew = cursor == null
+                        || (restarted ? slowLog.getTimeStamp() * 1000 > cursor.getDateTime().getTime() : slowLog.getId() > cursor.getLogId());
+                if (isNew) {
+                    SlowLogRecord slowLogRecord = buildSlowLogRecord(clusterId, node, slowLog);
+                    slowLogRecordList.add(slowLogRecord);
+                    hours.add(truncateToHour(slowLogRecord.getDateTime()));
+                }
+            }
+            newCursors.put(node, buildSlowLogRecord(clusterId, node, newest));
+        });
+        for (List<SlowLogRecord> batch : Lists.partition(slowLogRecordList, BATCH_SIZE)) {
+            slowLogDao.insertSlowLogBatch(batch);
+        }
+        cursors.putAll(newCursors);
+        // 还没有汇总的小时在 refreshSlowLogStat 中从明细加载，这里只累加已有的小时，避免重复统计
+        Map<Timestamp, Map<String, StatAccumulator>> hourMap = getHourMap(clusterId);
+        for (SlowLogRecord slowLogRecord : slowLogRecordList) {
+            Map<String, StatAccumulator> groupMap = hourMap.get(truncateToHour(slowLogRecord.getDateTime()));
+            if (groupMap != null) {
+                accumulate(groupMap, slowLogRecord);
+            }
+        }
+        return hours;
+    }
+
+    @Override
+    @Transactional
+    public void refreshSlowLogStat(Integer clusterId, Timestamp hour) {
+        Map<Timestamp, Map<String, StatAccumulator>> hourMap = getHourMap(clusterId);
+        Map<String, StatAccumulator> groupMap = hourMap.get(hour);
+        if (groupMap == null) {
+            // 同一集群的采集不会并发，不在 computeIfAbsent 中查库
+            groupMap = loadStat(clusterId, hour);
+            hourMap.put(hour, groupMap);
+        }
+        List<SlowLogStat> slowLogStatList = new ArrayList<>(groupMap.size());
+        groupMap.forEach((group, accumulator) -> slowLogStatList.add(accumulator.toSlowLogStat(clusterId, hour)));
+        slowLogDao.deleteSlowLogStat(clusterId, hour);
+        for (List<SlowLogStat> batch : Lists.partition(slowLogStatList, BATCH_SIZE)) {
+            slowLogDao.insertSlowLogStatBatch(batch);
+        }
+    }
+
+    @Override
+    public List<SlowLogRecord> getSlowLogList(SlowLogParam slowLogParam) {
+        try {
+            normalize(slowLogParam);
+            return slowLogDao.selectSlowLogList(slowLogParam);
+        } catch (Exception e) {
+            logger.error("Get slow log list failed, " + slowLogParam.getClusterId(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public List<SlowLogStat> getTopSlowLogStat(SlowLogParam slowLogParam) {
+        try {
+            normalize(slowLogParam);
+            if (!ORDER_BY.contains(slowLogParam.getOrderBy())) {
+                slowLogParam.setOrderBy("total_time");
+            }
+            return slowLogDao.selectTopSlowLogStat(slowLogParam);
+        } catch (Exception e) {
+            logger.error("Get top slow log failed, " + slowLogParam.getClusterId(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void removeCursor(Integer clusterId) {
+        cursorMap.remove(clusterId);
+        statMap.remove(clusterId);
+    }
+
+    @Override
+    public boolean cleanup() {
+        Timestamp oldestTime = TimeUtil.getTime(dataKeepDays * TimeUtil.ONE_DAY);
+        try {
+            slowLogDao.deleteSlowLogByTime(oldestTime);
+            slowLogDao.deleteSlowLogStatByTime(oldestTime);
+            return true;
+        } catch (Exception e) {
+            logger.error("Clean up slow log failed.", e);
+            return false;
+        }
+    }
+
+    private Map<String, SlowLogRecord> loadCursors(Integer clusterId) {
+        Map<String, SlowLogRecord> cursors = new ConcurrentHashMap<>();
+        slowLogDao.selectLastSlowLog(clusterId).forEach(slowLogRecord -> cursors.put(slowLogRecord.getNode(), slowLogRecord));
+        return cursors;
+    }
+
+    /**
+     * 只保留当前和上一个小时，更早的小时如果又有新条目会重新从明细加载
+     */
+    private Map<Timestamp, Map<String, StatAccumulator>> getHourMap(Integer clusterId) {
+        Map<Timestamp, Map<String, StatAccumulator>> hourMap = statMap.computeIfAbsent(clusterId, key -> new ConcurrentHashMap<>());
+        long oldestHour = truncateToHour(new Timestamp(System.currentTimeMillis())).getTime() - ONE_HOUR;
+        hourMap.keySet().removeIf(hour -> hour.getTime() < oldestHour);
+        return hourMap;
+    }
+
+    private Map<String, StatAccumulator> loadStat(Integer clusterId, Timestamp hour) {
+        Map<String, StatAccumulator> groupMap = new ConcurrentHashMap<>();
+        slowLogDao.selectExecutionTime(clusterId, hour, new Timestamp(hour.getTime() + ONE_HOUR))
+                .forEach(slowLogRecord -> accumulate(groupMap, slowLogRecord));
+        return groupMap;
+    }
+
+    private static void accumulate(Map<String, StatAccumulator> groupMap, SlowLogRecord slowLogRecord) {
+        groupMap.computeIfAbsent(slowLogRecord.getNode() + "|" + slowLogRecord.getFingerprint(),
+                key -> new StatAccumulator(slowLogRecord.getNode(), slowLogRecord.getFingerprint()))
+                .record(slowLogRecord.getExecutionTime());
+    }
+
+    private static SlowLogRecord buildSlowLogRecord(Integer clusterId, String node, Slowlog slowLog) {
+        List<String> args = slowLog.getArgs();
+        String command = args.size() > 1 ? Joiner.on(" ").skipNulls().join(args.subList(1, args.size())) : "";
+        if (command.length() > MAX_COMMAND_LENGTH) {
+            command = command.substring(0, MAX_COMMAND_LENGTH);
+        }
+        String fingerprint = SlowLogUtil.fingerprint(args);
+        SlowLogRecord slowLogRecord = new SlowLogRecord();
+        slowLogRecord.setClusterId(clusterId);
+        slowLogRecord.setNode(node);
+        slowLogRecord.setLogId(slowLog.getId());
+        slowLogRecord.setDateTime(new Timestamp(slowLog.getTimeStamp() * 1000));
+        slowLogRecord.setExecutionTime(slowLog.getExecutionTime());
+        slowLogRecord.setType(args.isEmpty() ? "" : args.get(0));
+        slowLogRecord.setCommand(command);
+        slowLogRecord.setFingerprint(fingerprint.length() > 255 ? fingerprint.substring(0, 255) : fingerprint);
+        return slowLogRecord;
+    }
+
+    private static Timestamp truncateToHour(Timestamp timestamp) {
+        return Timestamp.valueOf(timestamp.toLocalDateTime().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    private static void normalize(SlowLogParam slowLogParam) {
+        if (Strings.isNullOrEmpty(slowLogParam.getNode())) {
+            slowLogParam.setNode(null);
+        }
+        if (slowLogParam.getLimit() <= 0 || slowLogParam.getLimit() > 1000) {
+            slowLogParam.setLimit(100);
+        }
+    }
+
+    private static class StatAccumulator {
+
+        private final String node;
+
+        private final String fingerprint;
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private long totalTime;
+
+        StatAccumulator(String node, String fingerprint) {
+            this.node = node;
+            this.fingerprint = fingerprint;
+        }
+
+        synchronized void record(long executionTime) {
+            histogram.record(executionTime);
+            totalTime += executionTime;
+        }
+
+        synchronized SlowLogStat toSlowLogStat(Integer clusterId, Timestamp hour) {
+            SlowLogStat slowLogStat = new SlowLogStat();
+            slowLogStat.setClusterId(clusterId);
+            slowLogStat.setNode(node);
+            slowLogStat.setFingerprint(fingerprint);
+            slowLogStat.setHour(hour);
+            slowLogStat.setCount(histogram.getCount());
+            slowLogStat.setTotalTime(totalTime);
+            slowLogStat.setMaxTime(histogram.getMax());
+            slowLogStat.setP99Time(histogram.getValueAtPercentile(99));
+            return slowLogStat;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.newegg.ec.redis.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步批量写：写线程阻塞等待第一条数据，之后最多再等 flushInterval 凑满 batchSize 条，一次交给 flusher
+ * <p>
+ * 队列有界，满了之后丢弃新数据并计数，不阻塞调用方；close 时写完队列中剩余的数据
+ *
+ * @date 2026/10/19
+ */
+public class BatchWriter<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchWriter.class);
+
+    /**
+     * 每丢弃这么多条输出一次日志
+     */
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    /**
+     * 每次阻塞等待的最长时间(毫秒)，到期检查是否已 close；不中断写线程，避免打断正在进行的写入
+     */
+    private static final long POLL_WAIT = 100;
+
+    private final String name;
+
+    private final BlockingQueue<T> queue;
+
+    private final int batchSize;
+
+    private final long flushInterval;
+
+    private final Flusher<T> flusher;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    /**
+     * 已从队列取出、还未写完的条数
+     */
+    private volatile int inFlight;
+
+    /**
+     * @param name          写线程名称
+     * @param capacity      队列容量
+     * @param batchSize     每批最多条数
+     * @param flushInterval 第一条数据最多等待多久(毫秒)写出
+     * @param flusher
+     */
+    public BatchWriter(String name, int capacity, int batchSize, long flushInterval, Flusher<T> flusher) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushInterval = Math.max(flushInterval, 1);
+        this.flusher = flusher;
+        this.writerThread = new Thread(this::run, name);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * @param item
+     * @return false if queue full or writer closed, item dropped
+     */
+    public boolean offer(T item) {
+        if (running && queue.offer(item)) {
+            return true;
+        }
+        long count = dropped.incrementAndGet();
+        if (count % DROP_LOG_INTERVAL == 1) {
+            logger.warn(name + " queue full or closed, dropped " + count + " item(s) in total.");
+        }
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * 停止接收新数据，等待队列中的数据写完
+     *
+     * @param timeout 毫秒
+     */
+    public void close(long timeout) {
+        running = false;
+        try {
+            writerThread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int unwritten = queue.size() + (writerThread.isAlive() ? inFlight : 0);
+        if (unwritten > 0) {
+            logger.warn(name + " closed with " + unwritten + " item(s) unwritten.");
+        }
+    }
+
+    private void run() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running) {
+                    T first = queue.poll(POLL_WAIT, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fill(batch);
+                } else {
+                    queue.drainTo(batch, batchSize);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                inFlight = batch.size();
+                flush(batch);
+                batch.clear();
+                inFlight = 0;
+            }
+        }
+    }
+
+    /**
+     * 凑满 batchSize、等到 flushInterval 或 close 时返回
+     */
+    private void fill(List<T> batch) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + flushInterval;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            inFlight = batch.size();
+            long remaining = deadline - System.currentTimeMillis();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            T next = queue.poll(Math.min(remaining, POLL_WAIT), TimeUnit.MILLISECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<T> batch) {
+        try {
+            flusher.flush(new ArrayList<>(batch));
+        } catch (Exception e) {
+            logger.error(name + " flush " + batch.size() + " item(s) failed.", e);
+        }
+    }
+
+    public interface Flusher<T> {
+
+        void flush(List<T> batch) throws Exception;
+    }
+}
@@ -0,0 +1,87 @@
+package com.newegg.ec.redis.util;
+
+import com.google.common.base.Strings;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * INFO commandstats 解析与差值计算
+ * <p>
+ * cmdstat_get:calls=21,usec=175,usec_per_call=8.33,rejected_calls=0,failed_calls=0
+ *
+ * @date 2026/10/19
+ */
+public class CommandStatsUtil {
+
+    public static final String COMMANDSTATS = "commandstats";
+
+    private static final String CMDSTAT_PREFIX = "cmdstat_";
+
+    private static final String CALLS = "calls";
+
+    private static final String USEC = "usec";
+
+    private CommandStatsUtil() {
+    }
+
+    /**
+     * @param commandStats commandstats section
+     * @return command -> [calls, usec]
+     */
+    public static Map<String, long[]> parse(Map<String, String> commandStats) {
+        Map<String, long[]> statsMap = new HashMap<>();
+        if (commandStats == null) {
+            return statsMap;
+        }
+        commandStats.forEach((key, value) -> {
+            if (!key.startsWith(CMDSTAT_PREFIX) || Strings.isNullOrEmpty(value)) {
+                return;
+            }
+            long[] stats = new long[2];
+            for (String item : SignUtil.splitByCommas(value)) {
+                String[] keyValue = SignUtil.splitByEqualSign(item);
+                if (keyValue.length != 2) {
+                    continue;
+                }
+                if (CALLS.equals(keyValue[0])) {
+                    stats[0] = Long.parseLong(keyValue[1]);
+                } else if (USEC.equals(keyValue[0])) {
+                    stats[1] = Long.parseLong(keyValue[1]);
+                }
+            }
+            statsMap.put(key.substring(CMDSTAT_PREFIX.length()), stats);
+        });
+        return statsMap;
+    }
+
+    /**
+     * 两次采集之间每个命令的增量，只返回有调用的命令
+     *
+     * @param last
+     * @param current
+     * @return null 如果计数变小(节点重启或 CONFIG RESETSTAT)
+     */
+    public static Map<String, long[]> delta(Map<String, long[]> last, Map<String, long[]> current) {
+        Map<String, long[]> deltaMap = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : current.entrySet()) {
+            long[] now = entry.getValue();
+            long[] before = last.get(entry.getKey());
+            long calls = before == null ? now[0] : now[0] - before[0];
+            long usec = before == null ? now[1] : now[1] - before[1];
+            if (calls < 0 || usec < 0) {
+                return null;
+            }
+            if (calls > 0) {
+                deltaMap.put(entry.getKey(), new long[]{calls, usec});
+            }
+        }
+        // 命令消失同样说明计数被重置
+        for (String command : last.keySet()) {
+            if (!current.containsKey(command)) {
+                return null;
+            }
+        }
+        return deltaMap;
+    }
+}
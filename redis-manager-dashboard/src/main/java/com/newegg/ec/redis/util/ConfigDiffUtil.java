@@ -0,0 +1,75 @@
+package com.newegg.ec.redis.util;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.google.common.hash.Hashing;
+import com.newegg.ec.redis.entity.ConfigDrift;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * CONFIG GET * 快照的规范化、哈希与比较
+ * <p>
+ * 每个节点必然不同的配置(端口、目录、地址等)和密码不参与比较，也不保存，
+ * 所以同一集群中配置一致的节点得到相同的哈希，只需保存一份内容
+ *
+ * @date 2026/10/19
+ */
+public class ConfigDiffUtil {
+
+    private static final Set<String> EXCLUDED_KEYS = new HashSet<>(Arrays.asList(
+            "bind", "port", "dir", "pidfile", "logfile", "dbfilename", "appendfilename", "cluster-config-file",
+            "unixsocket", "requirepass", "masterauth", "slaveof", "replicaof",
+            "cluster-announce-ip", "cluster-announce-port", "cluster-announce-bus-port",
+            "slave-announce-ip", "slave-announce-port", "replica-announce-ip", "replica-announce-port"));
+
+    private ConfigDiffUtil() {
+    }
+
+    public static SortedMap<String, String> normalize(Map<String, String> configMap) {
+        SortedMap<String, String> normalizedMap = new TreeMap<>();
+        configMap.forEach((key, value) -> {
+            String configKey = key.toLowerCase();
+            if (!EXCLUDED_KEYS.contains(configKey)) {
+                normalizedMap.put(configKey, value == null ? "" : value);
+            }
+        });
+        return normalizedMap;
+    }
+
+    /**
+     * key 有序，相同配置得到相同的内容和哈希
+     */
+    public static String toContent(SortedMap<String, String> normalizedMap) {
+        return JSON.toJSONString(normalizedMap);
+    }
+
+    public static SortedMap<String, String> fromContent(String content) {
+        return JSON.parseObject(content, new TypeReference<TreeMap<String, String>>() {
+        });
+    }
+
+    public static String hash(String content) {
+        return Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * @param baselineMap
+     * @param configMap
+     * @return 按 key 排序；只在一边存在的 key，另一边的值为 null
+     */
+    public static List<ConfigDrift.DiffItem> diff(Map<String, String> baselineMap, Map<String, String> configMap) {
+        SortedSet<String> keySet = new TreeSet<>(baselineMap.keySet());
+        keySet.addAll(configMap.keySet());
+        List<ConfigDrift.DiffItem> diffItemList = new ArrayList<>();
+        for (String key : keySet) {
+            String baselineValue = baselineMap.get(key);
+            String value = configMap.get(key);
+            if (!Objects.equals(baselineValue, value)) {
+                diffItemList.add(new ConfigDrift.DiffItem(key, baselineValue, value));
+            }
+        }
+        return diffItemList;
+    }
+}
@@ -0,0 +1,88 @@
+package com.newegg.ec.redis.util;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Count-min sketch，固定内存下估算元素出现次数
+ * <p>
+ * 估算值只会偏大不会偏小，误差约为 total / width，置信度 1 - (1/2)^depth
+ * 使用 conservative update，减小热点之外的元素对估算值的放大
+ *
+ * @date 2026/10/19
+ */
+public class CountMinSketch {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final int depth;
+
+    private final int width;
+
+    private final long[][] table;
+
+    private long total;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("depth and width must be positive.");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth][width];
+    }
+
+    /**
+     * @param item
+     * @param count
+     * @return estimated count after add
+     */
+    public long add(String item, long count) {
+        int[] indexes = indexes(item);
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, table[i][indexes[i]]);
+        }
+        long newValue = estimate + count;
+        for (int i = 0; i < depth; i++) {
+            if (table[i][indexes[i]] < newValue) {
+                table[i][indexes[i]] = newValue;
+            }
+        }
+        total += count;
+        return newValue;
+    }
+
+    public long estimate(String item) {
+        int[] indexes = indexes(item);
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            estimate = Math.min(estimate, table[i][indexes[i]]);
+        }
+        return estimate;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Kirsch-Mitzenmacher: 用一次 128 位哈希模拟 depth 个哈希函数
+     */
+    private int[] indexes(String item) {
+        long hash64 = HASH_FUNCTION.hashString(item, StandardCharsets.UTF_8).asLong();
+        int hash1 = (int) hash64;
+        int hash2 = (int) (hash64 >>> 32);
+        int[] indexes = new int[depth];
+        for (int i = 0; i < depth; i++) {
+            int combinedHash = hash1 + (i + 1) * hash2;
+            if (combinedHash < 0) {
+                combinedHash = ~combinedHash;
+            }
+            indexes[i] = combinedHash % width;
+        }
+        return indexes;
+    }
+}
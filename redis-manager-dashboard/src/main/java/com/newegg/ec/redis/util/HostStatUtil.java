@@ -0,0 +1,306 @@
+package com.newegg.ec.redis.util;
+
+import com.google.common.base.Strings;
+import com.newegg.ec.redis.entity.MachineInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * 机器指标：一条命令读取 /proc 下的计数器，与上一次的样本做差得到 CPU、磁盘、网络的使用率和速率
+ * <p>
+ * 以 /proc/uptime 计算两次采样的间隔，不受 dashboard 与机器之间的时钟差和 SSH 延迟影响；
+ * uptime 或计数器变小说明机器重启，本次只作为新的基线
+ *
+ * @date 2026/10/19
+ */
+public class HostStatUtil {
+
+    private static final String SECTION_PREFIX = "==> /proc/";
+
+    public static final String PROC_COMMAND = "for f in uptime stat loadavg meminfo net/dev diskstats; do echo \""
+            + SECTION_PREFIX + "$f\"; cat /proc/$f; done";
+
+    private static final String UPTIME = "uptime";
+
+    private static final String STAT = "stat";
+
+    private static final String LOADAVG = "loadavg";
+
+    private static final String MEMINFO = "meminfo";
+
+    private static final String NET_DEV = "net/dev";
+
+    private static final String DISKSTATS = "diskstats";
+
+    private static final int SECTOR_SIZE = 512;
+
+    private static final int KB = 1024;
+
+    /**
+     * 只统计物理磁盘：排除分区、loop、ram、光驱以及 dm/md 这类叠加在磁盘之上的设备，避免重复计算
+     */
+    private static final Pattern EXCLUDED_DISK = Pattern.compile(
+            "^(loop\\d+|ram\\d+|sr\\d+|fd\\d+|dm-\\d+|md\\d+|(sd|vd|xvd|hd)[a-z]+\\d+|(nvme\\d+n\\d+|mmcblk\\d+)p\\d+)$");
+
+    private HostStatUtil() {
+    }
+
+    /**
+     * 解析 PROC_COMMAND 的输出
+     *
+     * @param output
+     * @return null if output incomplete
+     */
+    public static HostSample parse(String output) {
+        Map<String, StringBuilder> sectionMap = new HashMap<>();
+        StringBuilder current = null;
+        for (String line : output.split("\n")) {
+            if (line.startsWith(SECTION_PREFIX)) {
+                current = new StringBuilder();
+                sectionMap.put(line.substring(SECTION_PREFIX.length()).trim(), current);
+            } else if (current != null) {
+                current.append(line).append("\n");
+            }
+        }
+        if (!sectionMap.containsKey(UPTIME) || !sectionMap.containsKey(STAT)) {
+            return null;
+        }
+        HostSample sample = new HostSample();
+        String[] uptime = sectionMap.get(UPTIME).toString().trim().split("\\s+");
+        if (Strings.isNullOrEmpty(uptime[0])) {
+            return null;
+        }
+        sample.uptime = Double.parseDouble(uptime[0]);
+        parseStat(sample, sectionMap.get(STAT));
+        parseLoadAvg(sample, sectionMap.get(LOADAVG));
+        parseMemInfo(sample, sectionMap.get(MEMINFO));
+        parseNetDev(sample, sectionMap.get(NET_DEV));
+        parseDiskStats(sample, sectionMap.get(DISKSTATS));
+        return sample.cpu == null ? null : sample;
+    }
+
+    /**
+     * cpu  user nice system idle iowait irq softirq steal guest guest_nice
+     */
+    private static void parseStat(HostSample sample, StringBuilder section) {
+        for (String line : section.toString().split("\n")) {
+            String[] fields = line.trim().split("\\s+");
+            if (Objects.equals("cpu", fields[0])) {
+                sample.cpu = new long[8];
+                for (int i = 0; i < sample.cpu.length && i + 1 < fields.length; i++) {
+                    sample.cpu[i] = Long.parseLong(fields[i + 1]);
+                }
+            } else if (fields[0].startsWith("cpu")) {
+                sample.cpuCores++;
+            }
+        }
+    }
+
+    private static void parseLoadAvg(HostSample sample, StringBuilder section) {
+        if (section == null) {
+            return;
+        }
+        String[] fields = section.toString().trim().split("\\s+");
+        if (fields.length >= 3) {
+            sample.load1 = Double.parseDouble(fields[0]);
+            sample.load5 = Double.parseDouble(fields[1]);
+            sample.load15 = Double.parseDouble(fields[2]);
+        }
+    }
+
+    private static void parseMemInfo(HostSample sample, StringBuilder section) {
+        if (section == null) {
+            return;
+        }
+        Map<String, Long> memInfo = new HashMap<>();
+        for (String line : section.toString().split("\n")) {
+            int index = line.indexOf(':');
+            if (index < 0) {
+                continue;
+            }
+            String[] value = line.substring(index + 1).trim().split("\\s+");
+            memInfo.put(line.substring(0, index).trim(), Long.parseLong(value[0]) * KB);
+        }
+        sample.memoryTotal = memInfo.getOrDefault("MemTotal", 0L);
+        Long available = memInfo.get("MemAvailable");
+        // 3.14 之前的内核没有 MemAvailable
+        sample.memoryAvailable = available != null ? available
+                : memInfo.getOrDefault("MemFree", 0L) + memInfo.getOrDefault("Buffers", 0L) + memInfo.getOrDefault("Cached", 0L);
+        sample.swapUsed = memInfo.getOrDefault("SwapTotal", 0L) - memInfo.getOrDefault("SwapFree", 0L);
+    }
+
+    /**
+     * face |bytes packets errs drop fifo frame compressed multicast|bytes packets ...
+     */
+    private static void parseNetDev(HostSample sample, StringBuilder section) {
+        if (section == null) {
+            return;
+        }
+        for (String line : section.toString().split("\n")) {
+            int index = line.indexOf(':');
+            if (index < 0) {
+                continue;
+            }
+            String face = line.substring(0, index).trim();
+            String[] fields = line.substring(index + 1).trim().split("\\s+");
+            if (Objects.equals("lo", face) || fields.length < 9) {
+                continue;
+            }
+            sample.netInBytes += Long.parseLong(fields[0]);
+            sample.netOutBytes += Long.parseLong(fields[8]);
+        }
+    }
+
+    /**
+     * major minor name reads merged sectors_read ms_reading writes merged sectors_written ms_writing in_progress ms_io ...
+     */
+    private static void parseDiskStats(HostSample sample, StringBuilder section) {
+        if (section == null) {
+            return;
+        }
+        for (String line : section.toString().split("\n")) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 13 || EXCLUDED_DISK.matcher(fields[2]).matches()) {
+                continue;
+            }
+            sample.diskReads += Long.parseLong(fields[3]);
+            sample.diskReadBytes += Long.parseLong(fields[5]) * SECTOR_SIZE;
+            sample.diskWrites += Long.parseLong(fields[7]);
+            sample.diskWriteBytes += Long.parseLong(fields[9]) * SECTOR_SIZE;
+            sample.diskIoTicks.put(fields[2], Long.parseLong(fields[12]));
+        }
+    }
+
+    /**
+     * @param host
+     * @param last
+     * @param current
+     * @return null if no valid interval between samples
+     */
+    public static MachineInfo delta(String host, HostSample last, HostSample current) {
+        double seconds = current.uptime - last.uptime;
+        if (seconds <= 0 || current.cpu[3] < last.cpu[3]) {
+            return null;
+        }
+        MachineInfo machineInfo = new MachineInfo();
+        machineInfo.setHost(host);
+        machineInfo.setCpuCores(current.cpuCores);
+        long[] cpu = new long[current.cpu.length];
+        long cpuTotal = 0;
+        for (int i = 0; i < cpu.length; i++) {
+            cpu[i] = Math.max(current.cpu[i] - last.cpu[i], 0);
+            cpuTotal += cpu[i];
+        }
+        if (cpuTotal > 0) {
+            machineInfo.setCpuUser(percent(cpu[0] + cpu[1], cpuTotal));
+            machineInfo.setCpuSystem(percent(cpu[2] + cpu[5] + cpu[6], cpuTotal));
+            machineInfo.setCpuIdle(percent(cpu[3], cpuTotal));
+            machineInfo.setCpuIowait(percent(cpu[4], cpuTotal));
+            machineInfo.setCpuSteal(percent(cpu[7], cpuTotal));
+        }
+        machineInfo.setLoad1(current.load1);
+        machineInfo.setLoad5(current.load5);
+        machineInfo.setLoad15(current.load15);
+        machineInfo.setMemoryTotal(current.memoryTotal);
+        machineInfo.setMemoryAvailable(current.memoryAvailable);
+        machineInfo.setSwapUsed(current.swapUsed);
+        machineInfo.setNetInBytes(rate(last.netInBytes, current.netInBytes, seconds));
+        machineInfo.setNetOutBytes(rate(last.netOutBytes, current.netOutBytes, seconds));
+        machineInfo.setDiskReadBytes(rate(last.diskReadBytes, current.diskReadBytes, seconds));
+        machineInfo.setDiskWriteBytes(rate(last.diskWriteBytes, current.diskWriteBytes, seconds));
+        machineInfo.setDiskReadIops(rate(last.diskReads, current.diskReads, seconds));
+        machineInfo.setDiskWriteIops(rate(last.diskWrites, current.diskWrites, seconds));
+        // 最繁忙磁盘的 io 时间占比
+        double diskUtil = 0;
+        for (Map.Entry<String, Long> entry : current.diskIoTicks.entrySet()) {
+            Long lastTicks = last.diskIoTicks.get(entry.getKey());
+            if (lastTicks != null && entry.getValue() >= lastTicks) {
+                diskUtil = Math.max(diskUtil, Math.min((entry.getValue() - lastTicks) / (seconds * 10), 100));
+            }
+        }
+        machineInfo.setDiskUtil(round(diskUtil));
+        return machineInfo;
+    }
+
+    private static double percent(long value, long total) {
+        return round(value * 100.0 / total);
+    }
+
+    /**
+     * 计数器回绕或网卡/磁盘被移除时差值为负，记为 0
+     */
+    private static double rate(long last, long current, double seconds) {
+        return current < last ? 0 : round((current - last) / seconds);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    /**
+     * 一次采集的原始计数器
+     */
+    public static class HostSample {
+
+        private double uptime;
+
+        /**
+         * user nice system idle iowait irq softirq steal (jiffies)
+         */
+        private long[] cpu;
+
+        private int cpuCores;
+
+        private double load1;
+
+        private double load5;
+
+        private double load15;
+
+        private long memoryTotal;
+
+        private long memoryAvailable;
+
+        private long swapUsed;
+
+        private long netInBytes;
+
+        private long netOutBytes;
+
+        private long diskReads;
+
+        private long diskWrites;
+
+        private long diskReadBytes;
+
+        private long diskWriteBytes;
+
+        /**
+         * 磁盘 -> 花在 IO 上的时间(ms)
+         */
+        private final Map<String, Long> diskIoTicks = new HashMap<>();
+
+        public double getUptime() {
+            return uptime;
+        }
+
+        public int getCpuCores() {
+            return cpuCores;
+        }
+
+        public long getMemoryTotal() {
+            return memoryTotal;
+        }
+
+        public long getNetInBytes() {
+            return netInBytes;
+        }
+
+        public long getDiskWriteBytes() {
+            return diskWriteBytes;
+        }
+    }
+}
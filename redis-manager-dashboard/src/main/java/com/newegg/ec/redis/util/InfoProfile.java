@@ -0,0 +1,87 @@
+package com.newegg.ec.redis.util;
+
+import com.google.common.base.Strings;
+
+import java.util.*;
+
+/**
+ * 监控采集的 INFO section 及其采集间隔
+ * <p>
+ * 格式: clients,memory,stats,replication,cpu,keyspace/5
+ * section 后的 /N 表示每 N 分钟采集一次，默认每分钟；未列出的 section 不采集
+ *
+ * @date 2026/10/19
+ */
+public class InfoProfile {
+
+    private final Map<String, Integer> sectionIntervalMap;
+
+    private InfoProfile(Map<String, Integer> sectionIntervalMap) {
+        this.sectionIntervalMap = Collections.unmodifiableMap(sectionIntervalMap);
+    }
+
+    public static InfoProfile parse(String profile) {
+        if (Strings.isNullOrEmpty(profile) || profile.trim().isEmpty()) {
+            throw new IllegalArgumentException("Info profile can't be empty.");
+        }
+        Map<String, Integer> sectionIntervalMap = new LinkedHashMap<>();
+        for (String item : SignUtil.splitByCommas(profile)) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int index = item.indexOf(SignUtil.SLASH);
+            String section = (index < 0 ? item : item.substring(0, index)).trim().toLowerCase();
+            int interval = index < 0 ? 1 : Integer.parseInt(item.substring(index + 1).trim());
+            if (section.isEmpty() || interval < 1) {
+                throw new IllegalArgumentException("Info profile item is invalid: " + item);
+            }
+            sectionIntervalMap.put(section, interval);
+        }
+        return new InfoProfile(sectionIntervalMap);
+    }
+
+    /**
+     * 集群单独的配置，格式: clusterName=profile;clusterName=profile
+     *
+     * @param clusterProfiles
+     * @return clusterName -> profile
+     */
+    public static Map<String, InfoProfile> parseClusterProfiles(String clusterProfiles) {
+        Map<String, InfoProfile> profileMap = new HashMap<>();
+        if (Strings.isNullOrEmpty(clusterProfiles)) {
+            return profileMap;
+        }
+        for (String item : SignUtil.splitBySemicolon(clusterProfiles)) {
+            int index = item.indexOf(SignUtil.EQUAL_SIGN);
+            if (index <= 0) {
+                continue;
+            }
+            profileMap.put(item.substring(0, index).trim(), parse(item.substring(index + 1)));
+        }
+        return profileMap;
+    }
+
+    public Set<String> getSections() {
+        return sectionIntervalMap.keySet();
+    }
+
+    /**
+     * @param minute 从 epoch 开始的分钟数
+     * @return 这一分钟需要采集的 section
+     */
+    public List<String> getDueSections(long minute) {
+        List<String> sections = new ArrayList<>();
+        sectionIntervalMap.forEach((section, interval) -> {
+            if (minute % interval == 0) {
+                sections.add(section);
+            }
+        });
+        return sections;
+    }
+
+    @Override
+    public String toString() {
+        return sectionIntervalMap.toString();
+    }
+}
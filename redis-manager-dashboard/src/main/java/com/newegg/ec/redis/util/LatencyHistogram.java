@@ -0,0 +1,102 @@
+package com.newegg.ec.redis.util;
+
+import java.util.Arrays;
+
+/**
+ * 对数-线性分桶的延迟直方图
+ * <p>
+ * 小于 32 的值每个值一个桶，之后每个 2 的幂区间分为 16 个桶，相对误差不超过 1/16。
+ * 桶数组在创建时分配，record 不产生任何对象
+ *
+ * @date 2026/10/19
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 超过该值按该值记录，单位与 record 一致(微秒时约 12 天)
+     */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+
+    private long count;
+
+    private long max;
+
+    public synchronized void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+        buckets[bucketIndex(clamped)]++;
+        count++;
+        if (clamped > max) {
+            max = clamped;
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile 0-100
+     * @return 所在桶的上界，不超过 max；没有数据时返回 0
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        max = 0;
+    }
+
+    /**
+     * 复制当前数据并清零，用于按周期汇总
+     */
+    public synchronized LatencyHistogram copyAndReset() {
+        LatencyHistogram copy = new LatencyHistogram();
+        System.arraycopy(buckets, 0, copy.buckets, 0, BUCKET_COUNT);
+        copy.count = count;
+        copy.max = max;
+        reset();
+        return copy;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT * 2) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT * 2) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
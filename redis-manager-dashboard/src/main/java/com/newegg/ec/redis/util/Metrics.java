@@ -0,0 +1,291 @@
+package com.newegg.ec.redis.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.newegg.ec.redis.util.TimeUtil.ONE_MINUTE;
+import static com.newegg.ec.redis.util.TimeUtil.TWO_HOURS;
+
+/**
+ * 自身运行指标，按 Prometheus 文本格式输出
+ * <p>
+ * 命名与 Micrometer 的 Prometheus 输出一致：counter 为 xxx_total，timer 为 xxx_seconds_count/_sum/_max，
+ * max 为最近一分钟的最大值。labels 以 key, value 成对传入；带 label 的 counter/timer 两小时没有更新则移除，
+ * 避免节点、集群删除后残留
+ *
+ * @date 2026/10/19
+ */
+public class Metrics {
+
+    public static final String PREFIX = "redis_manager_";
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final long EXPIRE = TWO_HOURS;
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final Map<String, Family> FAMILY_MAP = new ConcurrentSkipListMap<>();
+
+    private enum Type {
+        COUNTER, GAUGE, TIMER, SUMMARY
+    }
+
+    private Metrics() {
+    }
+
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) getFamily(name, help, Type.COUNTER).getMeter(labels, Counter::new);
+    }
+
+    /**
+     * 记录耗时(纳秒)，输出为秒
+     */
+    public static Distribution timer(String name, String help, String... labels) {
+        return (Distribution) getFamily(name, help, Type.TIMER).getMeter(labels, () -> new Distribution(1 / NANOS_PER_SECOND));
+    }
+
+    /**
+     * 记录数量等任意值，如批量写入的条数
+     */
+    public static Distribution summary(String name, String help, String... labels) {
+        return (Distribution) getFamily(name, help, Type.SUMMARY).getMeter(labels, () -> new Distribution(1));
+    }
+
+    /**
+     * 同一 name 和 labels 只注册一次，之后的注册替换之前的 supplier
+     */
+    public static void gauge(String name, String help, Supplier<Number> supplier, String... labels) {
+        Family family = getFamily(name, help, Type.GAUGE);
+        family.meterMap.put(labelString(labels), new Gauge(supplier));
+    }
+
+    public static void monitorThreadPool(String pool, ThreadPoolExecutor executor) {
+        gauge("thread_pool_queue_size", "Tasks waiting in the queue", () -> executor.getQueue().size(), "pool", pool);
+        gauge("thread_pool_active_threads", "Threads executing tasks", executor::getActiveCount, "pool", pool);
+        gauge("thread_pool_threads", "Current number of threads", executor::getPoolSize, "pool", pool);
+        gauge("thread_pool_completed_tasks", "Completed tasks", executor::getCompletedTaskCount, "pool", pool);
+    }
+
+    private static Family getFamily(String name, String help, Type type) {
+        Family family = FAMILY_MAP.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " already registered as " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * @return Prometheus text exposition format
+     */
+    public static String scrape() {
+        StringBuilder builder = new StringBuilder();
+        long now = System.currentTimeMillis();
+        FAMILY_MAP.values().forEach(family -> family.write(builder, now));
+        return builder.toString();
+    }
+
+    private static String labelString(String[] labels) {
+        if (labels == null || labels.length == 0) {
+            return "";
+        }
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key, value pairs.");
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (value == (long) value) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static class Family {
+
+        private final String name;
+
+        private final String help;
+
+        private final Type type;
+
+        private final Map<String, Meter> meterMap = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = PREFIX + name;
+            this.help = help;
+            this.type = type;
+        }
+
+        Meter getMeter(String[] labels, Supplier<Meter> meterSupplier) {
+            Meter meter = meterMap.computeIfAbsent(labelString(labels), key -> meterSupplier.get());
+            meter.touch();
+            return meter;
+        }
+
+        void write(StringBuilder builder, long now) {
+            meterMap.entrySet().removeIf(entry -> !entry.getKey().isEmpty() && entry.getValue().isExpired(now));
+            if (meterMap.isEmpty()) {
+                return;
+            }
+            Map<String, Meter> sortedMap = new ConcurrentSkipListMap<>(meterMap);
+            switch (type) {
+                case COUNTER:
+                    header(builder, name + "_total", "counter");
+                    sortedMap.forEach((labels, meter) -> line(builder, name + "_total", labels, ((Counter) meter).get()));
+                    break;
+                case GAUGE:
+                    header(builder, name, "gauge");
+                    sortedMap.forEach((labels, meter) -> line(builder, name, labels, ((Gauge) meter).get()));
+                    break;
+                default:
+                    String baseName = type == Type.TIMER ? name + "_seconds" : name;
+                    header(builder, baseName, "summary");
+                    sortedMap.forEach((labels, meter) -> {
+                        Distribution distribution = (Distribution) meter;
+                        line(builder, baseName + "_count", labels, distribution.getCount());
+                        line(builder, baseName + "_sum", labels, distribution.getSum());
+                    });
+                    header(builder, baseName + "_max", "gauge");
+                    sortedMap.forEach((labels, meter) -> line(builder, baseName + "_max", labels, ((Distribution) meter).getMax(now)));
+                    break;
+            }
+        }
+
+        private void header(StringBuilder builder, String metricName, String metricType) {
+            builder.append("# HELP ").append(metricName).append(' ').append(help).append('\n');
+            builder.append("# TYPE ").append(metricName).append(' ').append(metricType).append('\n');
+        }
+
+        private void line(StringBuilder builder, String metricName, String labels, double value) {
+            builder.append(metricName).append(labels).append(' ').append(format(value)).append('\n');
+        }
+    }
+
+    private abstract static class Meter {
+
+        private volatile long lastUpdated = System.currentTimeMillis();
+
+        void touch() {
+            lastUpdated = System.currentTimeMillis();
+        }
+
+        boolean isExpired(long now) {
+            return now - lastUpdated > EXPIRE;
+        }
+    }
+
+    public static class Counter extends Meter {
+
+        private final AtomicLong count = new AtomicLong();
+
+        public void increment() {
+            count.incrementAndGet();
+        }
+
+        public void increment(long amount) {
+            count.addAndGet(amount);
+        }
+
+        public long get() {
+            return count.get();
+        }
+    }
+
+    private static class Gauge extends Meter {
+
+        private final Supplier<Number> supplier;
+
+        Gauge(Supplier<Number> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        boolean isExpired(long now) {
+            return false;
+        }
+
+        double get() {
+            try {
+                Number value = supplier.get();
+                return value == null ? Double.NaN : value.doubleValue();
+            } catch (Exception e) {
+                return Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * count, sum 累计；max 为上一个完整分钟与当前分钟中的较大值
+     */
+    public static class Distribution extends Meter {
+
+        private final double scale;
+
+        private long count;
+
+        private long sum;
+
+        private long window;
+
+        private long currentMax;
+
+        private long lastMax;
+
+        Distribution(double scale) {
+            this.scale = scale;
+        }
+
+        public synchronized void record(long value) {
+            rotate(System.currentTimeMillis());
+            count++;
+            sum += value;
+            currentMax = Math.max(currentMax, value);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized double getSum() {
+            return sum * scale;
+        }
+
+        synchronized double getMax(long now) {
+            rotate(now);
+            return Math.max(currentMax, lastMax) * scale;
+        }
+
+        private void rotate(long now) {
+            long currentWindow = now / ONE_MINUTE;
+            if (currentWindow == window) {
+                return;
+            }
+            lastMax = currentWindow == window + 1 ? currentMax : 0;
+            currentMax = 0;
+            window = currentWindow;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.newegg.ec.redis.util;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.newegg.ec.redis.util.SignUtil.SLASH;
+
+/**
+ * 安装包分发：dashboard 只向少数种子机器提供安装包，其他机器按树形结构从上一层机器复制
+ * <p>
+ * 机器上的安装包按 sha256 存放在缓存目录 cache/{sha256}/{fileName}，已存在且校验通过的机器直接跳过
+ *
+ * @date 2026/10/19
+ */
+public class PackageDistributionUtil {
+
+    private static final String CACHE_DIR = "cache";
+
+    /**
+     * 本地安装包的 sha256，key: path + lastModified + length
+     */
+    private static final Map<String, String> CHECKSUM_MAP = new ConcurrentHashMap<>();
+
+    private PackageDistributionUtil() {
+    }
+
+    /**
+     * 构建分发树：前 seeds 个节点从 dashboard 拉取，之后的节点按顺序挂到上层节点下，每个节点最多 fanout 个子节点
+     *
+     * @param nodes
+     * @param seeds
+     * @param fanout
+     * @return 子节点 -> 父节点，种子节点不在其中；父节点在 nodes 中总是排在子节点之前
+     */
+    public static <T> Map<T, T> buildTree(List<T> nodes, int seeds, int fanout) {
+        seeds = Math.max(seeds, 1);
+        fanout = Math.max(fanout, 1);
+        Map<T, T> parentMap = new LinkedHashMap<>();
+        for (int i = seeds; i < nodes.size(); i++) {
+            parentMap.put(nodes.get(i), nodes.get((i - seeds) / fanout));
+        }
+        return parentMap;
+    }
+
+    public static String sha256(File file) throws IOException {
+        String key = file.getAbsolutePath() + "@" + file.lastModified() + "@" + file.length();
+        String checksum = CHECKSUM_MAP.get(key);
+        if (checksum == null) {
+            checksum = Files.asByteSource(file).hash(Hashing.sha256()).toString();
+            CHECKSUM_MAP.put(key, checksum);
+        }
+        return checksum;
+    }
+
+    public static String getCachePath(String basePath, String checksum, String fileName) {
+        return basePath + CACHE_DIR + SLASH + checksum + SLASH + fileName;
+    }
+
+    /**
+     * 文件存在且 sha256 一致时退出码为 0
+     */
+    public static String buildVerifyCommand(String filePath, String checksum) {
+        return "echo '" + checksum + "  " + filePath + "' | sha256sum -c --status";
+    }
+
+    /**
+     * 下载或复制到临时文件，校验后移动到缓存目录，保证缓存目录中只有完整的文件
+     * <p>
+     * 临时文件名带随机后缀，同一机器上同时拉取同一个包时互不覆盖；
+     * 所有命令在同一个 shell 中执行，第一条命令注册 EXIT trap，下载或校验失败退出时删除临时文件
+     *
+     * @param cachePath     缓存文件路径
+     * @param checksum
+     * @param fetchTemplate 获取文件的命令，%s 为临时文件路径
+     * @param sudo
+     * @return
+     */
+    public static List<String> buildFetchCommands(String cachePath, String checksum, String fetchTemplate, boolean sudo) {
+        String sudoPrefix = sudo ? "sudo " : "";
+        String tempPath = "/tmp/redis-manager-" + checksum + "." + UUID.randomUUID().toString().replace("-", "");
+        String cacheDir = cachePath.substring(0, cachePath.lastIndexOf(SLASH));
+        return Arrays.asList(
+                "trap 'rm -f " + tempPath + "' EXIT",
+                String.format(fetchTemplate, tempPath),
+                buildVerifyCommand(tempPath, checksum),
+                sudoPrefix + "mkdir -p " + cacheDir,
+                sudoPrefix + "mv -f " + tempPath + " " + cachePath);
+    }
+
+    public static String buildWgetTemplate(String url) {
+        return "/usr/bin/wget -q -O %s " + url;
+    }
+
+    /**
+     * 需要机器之间配置 SSH 免密登录，BatchMode 保证不会卡在密码输入
+     */
+    public static String buildScpTemplate(String userName, String host, Integer sshPort, String sourcePath) {
+        return "scp -q -o BatchMode=yes -o StrictHostKeyChecking=no -o ConnectTimeout=10 -P " + (sshPort == null ? 22 : sshPort)
+                + " " + userName + "@" + host + ":" + sourcePath + " %s";
+    }
+}
@@ -0,0 +1,74 @@
+package com.newegg.ec.redis.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static javax.management.timer.Timer.ONE_SECOND;
+
+/**
+ * 等待条件成立：从毫秒级间隔开始指数退避轮询，条件成立立即返回，超过期限返回 false
+ * <p>
+ * 检查时抛出的异常视为条件未成立(节点可能还未就绪)
+ *
+ * @date 2026/10/19
+ */
+public class ReadinessWaiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadinessWaiter.class);
+
+    private static final long INITIAL_INTERVAL = 20;
+
+    private static final long MAX_INTERVAL = 2 * ONE_SECOND;
+
+    private ReadinessWaiter() {
+    }
+
+    public interface Condition {
+
+        boolean isReady() throws Exception;
+    }
+
+    public static boolean await(Condition condition, long timeout) {
+        return await(condition, INITIAL_INTERVAL, MAX_INTERVAL, timeout);
+    }
+
+    /**
+     * @param condition
+     * @param initialInterval 第一次重试前的等待时间(毫秒)
+     * @param maxInterval     最长等待间隔(毫秒)
+     * @param timeout         总期限(毫秒)
+     * @return 条件是否在期限内成立
+     */
+    public static boolean await(Condition condition, long initialInterval, long maxInterval, long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        long interval = Math.max(initialInterval, 1);
+        Exception lastException = null;
+        while (true) {
+            try {
+                if (condition.isReady()) {
+                    return true;
+                }
+            } catch (Exception e) {
+                lastException = e;
+            }
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                if (lastException != null) {
+                    logger.warn("Wait for readiness timeout, last error: " + lastException.getMessage());
+                }
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(interval, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            interval = nextInterval(interval, maxInterval);
+        }
+    }
+
+    static long nextInterval(long interval, long maxInterval) {
+        return Math.min(interval * 2, maxInterval);
+    }
+}
@@ -2,12 +2,12 @@ package com.newegg.ec.redis.util;
 
 import com.google.common.base.Strings;
 import com.newegg.ec.redis.entity.Machine;
+import com.newegg.ec.redis.entity.SSHCommandResult;
 
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static com.newegg.ec.redis.util.SignUtil.SEMICOLON;
 import static com.newegg.ec.redis.util.SignUtil.SPACE;
 
 /**
@@ -58,23 +58,35 @@ public class RedisConfigUtil {
      * @return
      */
     public static String variableAssignment(Machine machine, String path, Map<String, String> configs, boolean sudo) throws Exception {
-        StringBuffer commands = new StringBuffer();
-        // 进入配置文件所在目录
-        commands.append("cd " + path).append(SEMICOLON);
-        String cd = SSH2Util.execute(machine, commands.toString());
-        if (!Strings.isNullOrEmpty(cd)) {
-            throw new RuntimeException(cd);
-        }
+        List<String> commands = new ArrayList<>(configs.size() + 1);
+        // 进入配置文件所在目录，同一个 session 中后续命令都在该目录执行
+        commands.add("cd " + path);
         for (Map.Entry<String, String> entry : configs.entrySet()) {
             String key = entry.getKey();
             String value = entry.getValue();
+            StringBuilder command = new StringBuilder();
             if (sudo) {
-                commands.append("sudo ");
+                command.append("sudo ");
+            }
+            command.append("sed -i 's#{").append(key).append("}#").append(value).append("#g' ").append(REDIS_CONF);
+            commands.add(command.toString());
+        }
+        List<SSHCommandResult> resultList = SSH2Util.executeBatch(machine, commands, true);
+        if (resultList.isEmpty() || !resultList.get(0).isSuccess()) {
+            throw new RuntimeException(resultList.isEmpty() ? "cd " + path + " failed." : resultList.get(0).getOutput());
+        }
+        StringBuilder result = new StringBuilder();
+        for (SSHCommandResult commandResult : resultList.subList(1, resultList.size())) {
+            result.append(commandResult.getOutput());
+            if (!commandResult.isSuccess() && Strings.isNullOrEmpty(commandResult.getOutput())) {
+                result.append(commandResult.getCommand()).append(" exit with ").append(commandResult.getExitCode());
             }
-            commands.append("sed -i 's#{").append(key).append("}#").append(value).append("#g' ").append(REDIS_CONF).append(";");
         }
-        String result = SSH2Util.execute(machine, commands.toString());
-        return result;
+        SSHCommandResult last = resultList.get(resultList.size() - 1);
+        if (resultList.size() < commands.size() && last.isSuccess()) {
+            result.append("Assign variables interrupted, ").append(commands.size() - resultList.size()).append(" commands not executed.");
+        }
+        return result.toString();
     }
 
     /**
@@ -342,6 +354,31 @@ public class RedisConfigUtil {
         REDIS_CONFIG_LIST.add(new RedisConfig(true, "port", "{port}", NORMAL_TYPE, "端口"));
     }
 
+    /**
+     * 配置下发批次
+     * PARALLEL: 每批 parallelism 个节点
+     * CANARY: 第一批只有一个节点，之后每批 waveSize 个节点
+     *
+     * @param nodeList
+     * @param canary
+     * @param parallelism 每批最多同时下发的节点数
+     * @param waveSize
+     * @return
+     */
+    public static <T> List<List<T>> buildRolloutWaves(List<T> nodeList, boolean canary, int parallelism, int waveSize) {
+        List<List<T>> waves = new ArrayList<>();
+        int batchSize = Math.max(canary ? Math.min(waveSize, parallelism) : parallelism, 1);
+        int start = 0;
+        if (canary && !nodeList.isEmpty()) {
+            waves.add(new ArrayList<>(nodeList.subList(0, 1)));
+            start = 1;
+        }
+        for (int i = start; i < nodeList.size(); i += batchSize) {
+            waves.add(new ArrayList<>(nodeList.subList(i, Math.min(i + batchSize, nodeList.size()))));
+        }
+        return waves;
+    }
+
     public static String getConfigItemDesc(String infoKey) {
         return CONFIG_DESC_MAP.get(infoKey);
     }
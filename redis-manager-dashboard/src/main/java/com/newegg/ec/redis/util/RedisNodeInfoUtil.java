@@ -26,6 +26,8 @@ public class RedisNodeInfoUtil {
     private static final Map<String, String> INFO_DESC_MAP = new ConcurrentHashMap<>();
 
     public static final String RESPONSE_TIME = "response_time";
+    public static final String RESPONSE_TIME_P50 = "response_time_p50";
+    public static final String RESPONSE_TIME_MAX = "response_time_max";
     /**
      * Server
      */
@@ -315,6 +317,9 @@ public class RedisNodeInfoUtil {
     }
 
     static {
+        INFO_DESC_MAP.put(RESPONSE_TIME, "p99 of PING round-trip time measured by redis manager (in microseconds).");
+        INFO_DESC_MAP.put(RESPONSE_TIME_P50, "p50 of PING round-trip time measured by redis manager (in microseconds).");
+        INFO_DESC_MAP.put(RESPONSE_TIME_MAX, "Max PING round-trip time measured by redis manager (in microseconds).");
         INFO_DESC_MAP.put(REDIS_VERSION, "Version of the Redis server.");
         INFO_DESC_MAP.put("redis_git_sha1", "Git SHA1.");
         INFO_DESC_MAP.put("redis_git_dirty", "Git dirty flag.");
@@ -94,6 +94,55 @@ public class RedisUtil {
         return infoMap;
     }
 
+    /**
+     * 按 section 解析 INFO 的返回，"# Memory" 之后的字段归入 memory
+     *
+     * @param info
+     * @return section(小写) -> fields
+     * @throws IOException
+     */
+    public static Map<String, Map<String, String>> parseInfoSections(String info) throws IOException {
+        Map<String, Map<String, String>> sectionMap = new LinkedHashMap<>();
+        Map<String, String> current = null;
+        BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(info.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8));
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            if (line.startsWith("#")) {
+                String section = line.substring(1).trim().toLowerCase();
+                current = sectionMap.computeIfAbsent(section, key -> new LinkedHashMap<>());
+                continue;
+            }
+            String[] keyValue = SignUtil.splitByColon(line);
+            if (current == null || keyValue.length < 2) {
+                continue;
+            }
+            String key = keyValue[0];
+            String value = keyValue[1];
+            if (Strings.isNullOrEmpty(key) || Strings.isNullOrEmpty(value)) {
+                continue;
+            }
+            current.put(key, value);
+        }
+        return sectionMap;
+    }
+
+    /**
+     * @param version eg: 6.2.6
+     * @param major
+     * @return false if version is empty or unknown
+     */
+    public static boolean isVersionAtLeast(String version, int major) {
+        if (Strings.isNullOrEmpty(version)) {
+            return false;
+        }
+        int end = version.indexOf('.');
+        try {
+            return Integer.parseInt(end < 0 ? version.trim() : version.substring(0, end).trim()) >= major;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     public static Set<HostAndPort> nodesToHostAndPortSet(String nodes) {
         String[] nodeList = SignUtil.splitByCommas(nodes);
         int length = nodeList.length;
@@ -181,4 +230,53 @@ public class RedisUtil {
         }
     }
 
+    /**
+     * 按 redis-cli 的规则拆分一行命令，支持单引号、双引号以及双引号内的转义
+     *
+     * @param line
+     * @return tokens, empty if blank line or comment
+     */
+    public static List<String> parseCommandLine(String line) {
+        List<String> tokens = new ArrayList<>();
+        if (Strings.isNullOrEmpty(line) || line.trim().startsWith("#")) {
+            return tokens;
+        }
+        StringBuilder token = null;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == '\\' && quote == '"' && i + 1 < line.length()) {
+                    char next = line.charAt(++i);
+                    token.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next == 't' ? '\t' : next);
+                } else if (c == quote) {
+                    quote = 0;
+                } else {
+                    token.append(c);
+                }
+            } else if (Character.isWhitespace(c)) {
+                if (token != null) {
+                    tokens.add(token.toString());
+                    token = null;
+                }
+            } else {
+                if (token == null) {
+                    token = new StringBuilder();
+                }
+                if (c == '"' || c == '\'') {
+                    quote = c;
+                } else {
+                    token.append(c);
+                }
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("Unbalanced quotes in command: " + line);
+        }
+        if (token != null) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
 }
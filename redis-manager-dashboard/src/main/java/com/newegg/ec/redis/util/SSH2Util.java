@@ -3,11 +3,16 @@ package com.newegg.ec.redis.util;
 import ch.ethz.ssh2.Connection;
 import ch.ethz.ssh2.Session;
 import com.newegg.ec.redis.entity.Machine;
+import com.newegg.ec.redis.entity.SSHCommandResult;
+import com.newegg.ec.redis.util.SSHConnectionPool.PooledConnection;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * @author Jay.H.Zou
@@ -15,6 +20,8 @@ import java.io.InputStreamReader;
  */
 public class SSH2Util {
 
+    private static final String BATCH_MARKER = "#redis-manager-exit-";
+
     private SSH2Util() {
     }
 
@@ -161,21 +168,105 @@ public class SSH2Util {
      * @return
      */
     public static String execute(Machine machine, String commands) throws Exception {
-        String result;
-        Connection connection = null;
-        try {
-            connection = getConnection(machine);
-            // 打开一个会话
-            Session session = connection.openSession();
+        return executeInSession(machine, session -> {
             session.execCommand(commands);
             InputStream in = session.getStdout();
-            result = processStandardOutput(in);
+            String result = processStandardOutput(in);
             InputStream errorIn = session.getStderr();
             result += processStandardOutput(errorIn);
-        } finally {
-            close(connection);
+            return result;
+        });
+    }
+
+    /**
+     * 在一个 session 中顺序执行多条命令(同一个 shell，cd 等对后续命令有效)，返回每条命令的退出码和输出
+     *
+     * @param machine
+     * @param commands
+     * @param stopOnError 某条命令失败后不再执行后续命令
+     * @return 按顺序只包含已执行的命令
+     */
+    public static List<SSHCommandResult> executeBatch(Machine machine, List<String> commands, boolean stopOnError) throws Exception {
+        String marker = BATCH_MARKER + UUID.randomUUID().toString().replace("-", "") + ":";
+        String script = buildBatchScript(commands, marker, stopOnError);
+        String output = execute(machine, script);
+        return parseBatchOutput(commands, output, marker);
+    }
+
+    /**
+     * 检查能否登录，连接保留在池中供后续命令使用
+     *
+     * @param machine
+     */
+    public static void checkConnection(Machine machine) throws Exception {
+        SSHConnectionPool.release(SSHConnectionPool.borrow(machine), false);
+    }
+
+    static String buildBatchScript(List<String> commands, String marker, boolean stopOnError) {
+        // stderr 合并到 stdout，保证每条命令的输出顺序
+        StringBuilder script = new StringBuilder("exec 2>&1\n");
+        for (String command : commands) {
+            script.append(command).append("\n");
+            script.append("__rc=$?; echo \"").append(marker).append("$__rc\"");
+            if (stopOnError) {
+                script.append("; [ $__rc -eq 0 ] || exit $__rc");
+            }
+            script.append("\n");
         }
-        return result;
+        return script.toString();
+    }
+
+    static List<SSHCommandResult> parseBatchOutput(List<String> commands, String output, String marker) {
+        List<SSHCommandResult> resultList = new ArrayList<>(commands.size());
+        int start = 0;
+        for (String command : commands) {
+            int index = output.indexOf(marker, start);
+            if (index < 0) {
+                break;
+            }
+            int end = output.indexOf("\n", index);
+            if (end < 0) {
+                end = output.length();
+            }
+            int exitCode = Integer.parseInt(output.substring(index + marker.length(), end).trim());
+            resultList.add(new SSHCommandResult(command, exitCode, output.substring(start, index)));
+            start = Math.min(end + 1, output.length());
+        }
+        return resultList;
+    }
+
+    /**
+     * 从连接池借出连接并打开 session；复用的连接可能已被服务端关闭，打开 session 失败时换新连接重试一次
+     */
+    private static <T> T executeInSession(Machine machine, SessionCallback<T> callback) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            PooledConnection pooledConnection = SSHConnectionPool.borrow(machine);
+            Session session;
+            try {
+                session = pooledConnection.openSession();
+            } catch (IOException e) {
+                SSHConnectionPool.release(pooledConnection, true);
+                if (attempt > 0) {
+                    throw e;
+                }
+                continue;
+            }
+            boolean broken = false;
+            try {
+                return callback.execute(session);
+            } catch (IOException e) {
+                broken = true;
+                throw e;
+            } finally {
+                session.close();
+                SSHConnectionPool.release(pooledConnection, broken);
+            }
+        }
+    }
+
+    private interface SessionCallback<T> {
+
+        T execute(Session session) throws Exception;
     }
 
     @Deprecated
@@ -227,14 +318,9 @@ public class SSH2Util {
         connection.connect();
         boolean success = connection.authenticateWithPassword(userName, password);
         if (!success) {
+            connection.close();
             throw new RuntimeException(host + " login failed.");
         }
         return connection;
     }
-
-    private static void close(Connection connection) {
-        if (connection != null) {
-            connection.close();
-        }
-    }
 }
@@ -0,0 +1,289 @@
+package com.newegg.ec.redis.util;
+
+import ch.ethz.ssh2.Connection;
+import ch.ethz.ssh2.Session;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.newegg.ec.redis.entity.Machine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static javax.management.timer.Timer.ONE_MINUTE;
+import static javax.management.timer.Timer.ONE_SECOND;
+
+/**
+ * SSH 连接池：每台机器保持少量已认证的连接，命令在同一连接上各自打开 session 并发执行
+ * <p>
+ * 空闲超过 IDLE_TIMEOUT 的连接被关闭；空闲超过 HEALTH_CHECK_INTERVAL 的连接借出前先发送 ignore 包检查，
+ * 连接断开后由 ConnectionMonitor 标记，不再借出
+ *
+ * @date 2026/10/19
+ */
+public class SSHConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SSHConnectionPool.class);
+
+    /**
+     * 低于 sshd 默认的 MaxSessions(10)
+     */
+    private static final int MAX_SESSIONS_PER_CONNECTION = 8;
+
+    private static final int MAX_CONNECTIONS_PER_MACHINE = 4;
+
+    private static final long IDLE_TIMEOUT = 5 * ONE_MINUTE;
+
+    private static final long HEALTH_CHECK_INTERVAL = 30 * ONE_SECOND;
+
+    private static final long BORROW_TIMEOUT = ONE_MINUTE;
+
+    private static final int DEFAULT_SSH_PORT = 22;
+
+    /**
+     * userName@host:port -> pool
+     */
+    private static final Map<String, MachinePool> POOL_MAP = new ConcurrentHashMap<>();
+
+    static {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("ssh-pool-evict-thread-%d").setDaemon(true).build());
+        evictor.scheduleWithFixedDelay(SSHConnectionPool::evictIdle, 1, 1, TimeUnit.MINUTES);
+        Metrics.gauge("ssh_pool_connections", "Open pooled ssh connections", () -> count(false));
+        Metrics.gauge("ssh_pool_sessions", "Ssh sessions in use", () -> count(true));
+    }
+
+    private SSHConnectionPool() {
+    }
+
+    /**
+     * 借出的连接必须调用 release 归还
+     *
+     * @param machine
+     * @return
+     * @throws Exception 登录失败或等待超时
+     */
+    public static PooledConnection borrow(Machine machine) throws Exception {
+        return POOL_MAP.computeIfAbsent(getKey(machine), key -> new MachinePool(key)).borrow(machine);
+    }
+
+    /**
+     * @param pooledConnection
+     * @param broken           连接出现 IO 异常，不再复用
+     */
+    public static void release(PooledConnection pooledConnection, boolean broken) {
+        pooledConnection.pool.release(pooledConnection, broken);
+    }
+
+    /**
+     * 关闭机器的所有空闲连接，正在使用的连接归还时关闭
+     *
+     * @param machine
+     */
+    public static void invalidate(Machine machine) {
+        MachinePool pool = POOL_MAP.get(getKey(machine));
+        if (pool != null) {
+            pool.discardAll();
+        }
+    }
+
+    private static void evictIdle() {
+        try {
+            POOL_MAP.values().forEach(MachinePool::evictIdle);
+        } catch (Exception e) {
+            logger.error("Evict idle ssh connection failed.", e);
+        }
+    }
+
+    private static String getKey(Machine machine) {
+        Integer sshPort = machine.getSshPort();
+        return machine.getUserName() + "@" + machine.getHost() + ":" + (sshPort == null ? DEFAULT_SSH_PORT : sshPort);
+    }
+
+    private static int count(boolean sessions) {
+        int count = 0;
+        for (MachinePool pool : POOL_MAP.values()) {
+            count += pool.count(sessions);
+        }
+        return count;
+    }
+
+    public static class PooledConnection {
+
+        private final MachinePool pool;
+
+        private final Connection connection;
+
+        /**
+         * 以下字段由 pool 加锁访问
+         */
+        private int sessions;
+
+        private long lastUsed = System.currentTimeMillis();
+
+        private volatile boolean discarded;
+
+        private PooledConnection(MachinePool pool, Connection connection) {
+            this.pool = pool;
+            this.connection = connection;
+            connection.addConnectionMonitor(reason -> discarded = true);
+        }
+
+        public Session openSession() throws IOException {
+            return connection.openSession();
+        }
+
+        private boolean isHealthy() {
+            if (System.currentTimeMillis() - lastUsed < HEALTH_CHECK_INTERVAL) {
+                return true;
+            }
+            try {
+                connection.sendIgnorePacket();
+                lastUsed = System.currentTimeMillis();
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void close() {
+            try {
+                connection.close();
+            } catch (Exception e) {
+                logger.warn("Close ssh connection failed, " + pool.key, e);
+            }
+        }
+    }
+
+    private static class MachinePool {
+
+        private final String key;
+
+        private final List<PooledConnection> connections = new ArrayList<>();
+
+        private String password;
+
+        /**
+         * 正在建立的连接数
+         */
+        private int connecting;
+
+        MachinePool(String key) {
+            this.key = key;
+        }
+
+        PooledConnection borrow(Machine machine) throws Exception {
+            long deadline = System.currentTimeMillis() + BORROW_TIMEOUT;
+            synchronized (this) {
+                if (!Objects.equals(password, machine.getPassword())) {
+                    // 密码修改后旧连接不再借出
+                    discardAll();
+                    password = machine.getPassword();
+                }
+                while (true) {
+                    PooledConnection pooledConnection = pickConnection();
+                    if (pooledConnection != null) {
+                        pooledConnection.sessions++;
+                        return pooledConnection;
+                    }
+                    if (connections.size() + connecting < MAX_CONNECTIONS_PER_MACHINE) {
+                        connecting++;
+                        break;
+                    }
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        throw new TimeoutException("Borrow ssh connection timeout, " + key);
+                    }
+                    wait(wait);
+                }
+            }
+            // 在锁外握手，不阻塞同一机器上已有连接的借出
+            PooledConnection pooledConnection = null;
+            try {
+                pooledConnection = new PooledConnection(this, SSH2Util.getConnection(machine));
+                return pooledConnection;
+            } finally {
+                synchronized (this) {
+                    connecting--;
+                    if (pooledConnection != null) {
+                        pooledConnection.sessions++;
+                        connections.add(pooledConnection);
+                    }
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * 选择 session 最少且未满的连接
+         */
+        private PooledConnection pickConnection() {
+            PooledConnection best = null;
+            Iterator<PooledConnection> iterator = connections.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection pooledConnection = iterator.next();
+                if (pooledConnection.discarded) {
+                    if (pooledConnection.sessions == 0) {
+                        iterator.remove();
+                        pooledConnection.close();
+                    }
+                    continue;
+                }
+                if (pooledConnection.sessions >= MAX_SESSIONS_PER_CONNECTION
+                        || (best != null && pooledConnection.sessions >= best.sessions)) {
+                    continue;
+                }
+                if (pooledConnection.sessions == 0 && !pooledConnection.isHealthy()) {
+                    iterator.remove();
+                    pooledConnection.close();
+                    continue;
+                }
+                best = pooledConnection;
+            }
+            return best;
+        }
+
+        synchronized void release(PooledConnection pooledConnection, boolean broken) {
+            pooledConnection.sessions--;
+            pooledConnection.lastUsed = System.currentTimeMillis();
+            if (broken) {
+                pooledConnection.discarded = true;
+            }
+            if (pooledConnection.discarded && pooledConnection.sessions == 0) {
+                connections.remove(pooledConnection);
+                pooledConnection.close();
+            }
+            notifyAll();
+        }
+
+        synchronized int count(boolean sessions) {
+            if (!sessions) {
+                return connections.size();
+            }
+            int count = 0;
+            for (PooledConnection pooledConnection : connections) {
+                count += pooledConnection.sessions;
+            }
+            return count;
+        }
+
+        synchronized void discardAll() {
+            connections.forEach(pooledConnection -> pooledConnection.discarded = true);
+            evictIdle();
+        }
+
+        synchronized void evictIdle() {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> iterator = connections.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection pooledConnection = iterator.next();
+                if (pooledConnection.sessions == 0
+                        && (pooledConnection.discarded || now - pooledConnection.lastUsed > IDLE_TIMEOUT)) {
+                    iterator.remove();
+                    pooledConnection.close();
+                }
+            }
+        }
+    }
+}
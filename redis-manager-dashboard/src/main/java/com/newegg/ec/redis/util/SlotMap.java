@@ -0,0 +1,292 @@
+package com.newegg.ec.redis.util;
+
+import com.google.common.base.Strings;
+import com.newegg.ec.redis.entity.NodeRole;
+import com.newegg.ec.redis.entity.RedisNode;
+import redis.clients.jedis.util.SafeEncoder;
+
+import java.util.*;
+
+/**
+ * 集群某一时刻的槽位归属：short[16384] 记录每个槽位所属 master 的下标，每个 master 一个 BitSet
+ * <p>
+ * 构建一次后 slot -> master 为 O(1)，master -> slots 为位运算；不可变，可在线程间共享
+ *
+ * @date 2026/10/19
+ */
+public class SlotMap {
+
+    public static final int SLOT_COUNT = 16384;
+
+    private static final short UNASSIGNED = -1;
+
+    private final List<RedisNode> nodeList;
+
+    private final short[] owners = new short[SLOT_COUNT];
+
+    private final BitSet[] nodeSlots;
+
+    private SlotMap(List<RedisNode> nodeList) {
+        this.nodeList = Collections.unmodifiableList(new ArrayList<>(nodeList));
+        this.nodeSlots = new BitSet[nodeList.size()];
+        for (int i = 0; i < nodeSlots.length; i++) {
+            nodeSlots[i] = new BitSet(SLOT_COUNT);
+        }
+        Arrays.fill(owners, UNASSIGNED);
+    }
+
+    /**
+     * 根据 CLUSTER NODES 解析出的节点构建，只使用 master 的 slot range，保持 master 的顺序和对象引用
+     *
+     * @param redisNodeList
+     * @return
+     */
+    public static SlotMap fromClusterNodes(List<RedisNode> redisNodeList) {
+        List<RedisNode> masterNodeList = new ArrayList<>();
+        redisNodeList.forEach(redisNode -> {
+            if (redisNode.getNodeRole() == null || Objects.equals(NodeRole.MASTER, redisNode.getNodeRole())) {
+                masterNodeList.add(redisNode);
+            }
+        });
+        SlotMap slotMap = new SlotMap(masterNodeList);
+        for (int i = 0; i < masterNodeList.size(); i++) {
+            String slotRanges = masterNodeList.get(i).getSlotRange();
+            if (Strings.isNullOrEmpty(slotRanges)) {
+                continue;
+            }
+            for (String slotRange : SignUtil.splitByCommas(slotRanges)) {
+                // 跳过 [slot->-nodeId] 这样的迁移中状态
+                if (slotRange.startsWith("[")) {
+                    continue;
+                }
+                String[] startAndEnd = SignUtil.splitByMinus(slotRange);
+                int start = Integer.parseInt(startAndEnd[0]);
+                int end = startAndEnd.length == 1 ? start : Integer.parseInt(startAndEnd[1]);
+                slotMap.assign(start, end, i);
+            }
+        }
+        return slotMap;
+    }
+
+    /**
+     * 根据 CLUSTER SLOTS 的回复构建: [[start, end, [host, port, id], [replica]...], ...]
+     *
+     * @param clusterSlots Jedis clusterSlots() 的原始回复
+     * @return
+     */
+    public static SlotMap fromClusterSlots(List<Object> clusterSlots) {
+        Map<String, RedisNode> masterMap = new LinkedHashMap<>();
+        List<Object[]> ranges = new ArrayList<>(clusterSlots.size());
+        for (Object item : clusterSlots) {
+            List<?> slotInfo = (List<?>) item;
+            int start = ((Long) slotInfo.get(0)).intValue();
+            int end = ((Long) slotInfo.get(1)).intValue();
+            List<?> master = (List<?>) slotInfo.get(2);
+            String host = SafeEncoder.encode((byte[]) master.get(0));
+            int port = ((Long) master.get(1)).intValue();
+            String nodeId = master.size() > 2 ? SafeEncoder.encode((byte[]) master.get(2)) : null;
+            String node = host + SignUtil.COLON + port;
+            masterMap.computeIfAbsent(node, key -> new RedisNode(nodeId, host, port, NodeRole.MASTER));
+            ranges.add(new Object[]{start, end, node});
+        }
+        List<RedisNode> masterNodeList = new ArrayList<>(masterMap.values());
+        SlotMap slotMap = new SlotMap(masterNodeList);
+        for (Object[] range : ranges) {
+            slotMap.assign((Integer) range[0], (Integer) range[1], masterNodeList.indexOf(masterMap.get((String) range[2])));
+        }
+        for (int i = 0; i < masterNodeList.size(); i++) {
+            masterNodeList.get(i).setSlotRange(toRangeString(slotMap.nodeSlots[i]));
+            masterNodeList.get(i).setSlotNumber(slotMap.nodeSlots[i].cardinality());
+        }
+        return slotMap;
+    }
+
+    private void assign(int start, int end, int index) {
+        for (int slot = start; slot <= end; slot++) {
+            owners[slot] = (short) index;
+        }
+        nodeSlots[index].set(start, end + 1);
+    }
+
+    /**
+     * @param slot
+     * @return owner master, null if not assigned
+     */
+    public RedisNode getOwner(int slot) {
+        short index = owners[slot];
+        return index == UNASSIGNED ? null : nodeList.get(index);
+    }
+
+    /**
+     * @param slot
+     * @return owner index in getNodeList(), -1 if not assigned
+     */
+    public int getOwnerIndex(int slot) {
+        return owners[slot];
+    }
+
+    /**
+     * 按 host:port 查找 master 的下标
+     *
+     * @param redisNode
+     * @return -1 if not a master in this map
+     */
+    public int indexOf(RedisNode redisNode) {
+        for (int i = 0; i < nodeList.size(); i++) {
+            if (RedisUtil.equals(nodeList.get(i), redisNode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public List<RedisNode> getNodeList() {
+        return nodeList;
+    }
+
+    public BitSet getSlots(int index) {
+        return (BitSet) nodeSlots[index].clone();
+    }
+
+    public int getSlotCount(int index) {
+        return nodeSlots[index].cardinality();
+    }
+
+    public BitSet getUnassignedSlots() {
+        BitSet assigned = new BitSet(SLOT_COUNT);
+        for (BitSet slots : nodeSlots) {
+            assigned.or(slots);
+        }
+        assigned.flip(0, SLOT_COUNT);
+        return assigned;
+    }
+
+    public boolean isFullyAssigned() {
+        return getUnassignedSlots().isEmpty();
+    }
+
+    /**
+     * 指定范围内属于某个 master 的槽位
+     *
+     * @param index
+     * @param start inclusive
+     * @param end   inclusive
+     * @return
+     */
+    public BitSet getSlotsInRange(int index, int start, int end) {
+        BitSet slots = new BitSet(SLOT_COUNT);
+        slots.set(start, end + 1);
+        slots.and(nodeSlots[index]);
+        return slots;
+    }
+
+    /**
+     * @return slot -> owner index, -1 if not assigned
+     */
+    public int[] toOwnerIndexArray() {
+        int[] ownerIndexes = new int[SLOT_COUNT];
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            ownerIndexes[slot] = owners[slot];
+        }
+        return ownerIndexes;
+    }
+
+    /**
+     * 两个拓扑快照之间归属发生变化的槽位，按 host:port 比较，连续且变化相同的槽位合并
+     *
+     * @param before
+     * @param after
+     * @return
+     */
+    public static List<SlotChange> diff(SlotMap before, SlotMap after) {
+        List<SlotChange> slotChangeList = new ArrayList<>();
+        SlotChange current = null;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            String from = nodeString(before.getOwner(slot));
+            String to = nodeString(after.getOwner(slot));
+            if (Objects.equals(from, to)) {
+                current = null;
+                continue;
+            }
+            if (current == null || !Objects.equals(current.from, from) || !Objects.equals(current.to, to)) {
+                current = new SlotChange(slot, from, to);
+                slotChangeList.add(current);
+            }
+            current.endSlot = slot;
+        }
+        return slotChangeList;
+    }
+
+    public static List<SlotBalanceUtil.Shade> toRanges(BitSet slots) {
+        List<SlotBalanceUtil.Shade> shadeList = new ArrayList<>();
+        int start = slots.nextSetBit(0);
+        while (start >= 0) {
+            int end = slots.nextClearBit(start) - 1;
+            shadeList.add(new SlotBalanceUtil.Shade(start, end, end - start + 1));
+            start = slots.nextSetBit(end + 1);
+        }
+        return shadeList;
+    }
+
+    /**
+     * @param slots
+     * @return 0-100,200,300-400
+     */
+    public static String toRangeString(BitSet slots) {
+        StringJoiner joiner = new StringJoiner(SignUtil.COMMAS);
+        toRanges(slots).forEach(shade -> joiner.add(shade.getStartSlot() == shade.getEndSlot()
+                ? String.valueOf(shade.getStartSlot()) : shade.getStartSlot() + SignUtil.MINUS + shade.getEndSlot()));
+        return joiner.toString();
+    }
+
+    private static String nodeString(RedisNode redisNode) {
+        return redisNode == null ? null : RedisUtil.getNodeString(redisNode);
+    }
+
+    public static class SlotChange {
+
+        private final int startSlot;
+
+        private int endSlot;
+
+        /**
+         * host:port, null if not assigned
+         */
+        private final String from;
+
+        private final String to;
+
+        SlotChange(int startSlot, String from, String to) {
+            this.startSlot = startSlot;
+            this.endSlot = startSlot;
+            this.from = from;
+            this.to = to;
+        }
+
+        public int getStartSlot() {
+            return startSlot;
+        }
+
+        public int getEndSlot() {
+            return endSlot;
+        }
+
+        public int getSlotCount() {
+            return endSlot - startSlot + 1;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public String getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return (startSlot == endSlot ? String.valueOf(startSlot) : startSlot + SignUtil.MINUS + endSlot)
+                    + ": " + from + " -> " + to;
+        }
+    }
+}
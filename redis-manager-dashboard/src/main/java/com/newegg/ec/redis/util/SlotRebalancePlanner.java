@@ -0,0 +1,257 @@
+package com.newegg.ec.redis.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 按权重重新分配槽位，贪心地每次把负载最高的节点上的一个槽位移到负载最低的节点
+ * <p>
+ * 每个节点的目标负载 = 总负载 * 节点权重 / 总权重，权重为 0 表示清空该节点；
+ * 优先选择不超过两者差值的最大槽位，使移动的槽位数最少；按字节最少时优先选择 负载/字节 最高的槽位。
+ * 之后权重为 0 的节点上剩余的槽位(包括没有负载的空槽位)全部移走
+ *
+ * @date 2026/10/19
+ */
+public class SlotRebalancePlanner {
+
+    public enum Minimize {
+
+        SLOTS,
+
+        BYTES
+    }
+
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    private SlotRebalancePlanner() {
+    }
+
+    /**
+     * 节点的数据量按比例分摊到槽位；监控数据中的内存以 MB 保存，先换算成字节，否则单个槽位会被截断为 0
+     *
+     * @param megabytes 节点的数据量(MB)
+     * @param share     槽位所占比例
+     * @return 槽位的字节数
+     */
+    public static long spreadMegabytes(long megabytes, double share) {
+        return (long) (megabytes * BYTES_PER_MB * share);
+    }
+
+    /**
+     * @param slotOwners 每个槽位所属节点的下标，-1 表示未分配(不参与)
+     * @param slotLoads  每个槽位的负载
+     * @param slotBytes  每个槽位的数据量
+     * @param weights    每个节点的权重
+     * @param threshold  可接受的不均衡度，max(|load - target|) / 平均目标负载
+     * @param maxMoves   最多移动的槽位数
+     * @param minimize   最少槽位或最少字节
+     * @return
+     */
+    public static Plan plan(int[] slotOwners, double[] slotLoads, long[] slotBytes, double[] weights,
+                            double threshold, int maxMoves, Minimize minimize) {
+        int nodeCount = weights.length;
+        double totalWeight = 0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Total weight must be positive.");
+        }
+        Plan plan = new Plan(nodeCount, slotOwners.clone());
+        List<List<Integer>> nodeSlots = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            nodeSlots.add(new ArrayList<>());
+        }
+        double totalLoad = 0;
+        for (int slot = 0; slot < slotOwners.length; slot++) {
+            int owner = slotOwners[slot];
+            if (owner < 0) {
+                continue;
+            }
+            plan.loadBefore[owner] += slotLoads[slot];
+            nodeSlots.get(owner).add(slot);
+            totalLoad += slotLoads[slot];
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            plan.target[i] = totalLoad * weights[i] / totalWeight;
+            plan.loadAfter[i] = plan.loadBefore[i];
+        }
+        // 优先级高的槽位排在前面；分数相同时槽位号大的在前，使移动的槽位尽量连续
+        Comparator<Integer> priority = minimize == Minimize.BYTES
+                ? Comparator.comparingDouble((Integer slot) -> slotLoads[slot] / (slotBytes[slot] + 1.0))
+                : Comparator.comparingDouble((Integer slot) -> slotLoads[slot]);
+        priority = priority.thenComparingInt(slot -> slot).reversed();
+        for (List<Integer> slots : nodeSlots) {
+            slots.sort(priority);
+        }
+        double average = totalLoad / nodeCount;
+        plan.imbalanceBefore = imbalance(plan.loadBefore, plan.target, average);
+        while (plan.moves.size() < maxMoves && average > 0) {
+            int donor = 0;
+            int receiver = 0;
+            for (int i = 1; i < nodeCount; i++) {
+                if (plan.loadAfter[i] - plan.target[i] > plan.loadAfter[donor] - plan.target[donor]) {
+                    donor = i;
+                }
+                if (plan.loadAfter[i] - plan.target[i] < plan.loadAfter[receiver] - plan.target[receiver]) {
+                    receiver = i;
+                }
+            }
+            double excess = plan.loadAfter[donor] - plan.target[donor];
+            double deficit = plan.target[receiver] - plan.loadAfter[receiver];
+            if (Math.max(excess, deficit) / average <= threshold) {
+                break;
+            }
+            int index = chooseSlot(nodeSlots.get(donor), slotLoads, Math.min(excess, deficit));
+            if (index < 0) {
+                break;
+            }
+            int slot = nodeSlots.get(donor).remove(index);
+            plan.loadAfter[donor] -= slotLoads[slot];
+            plan.loadAfter[receiver] += slotLoads[slot];
+            plan.slotOwners[slot] = receiver;
+            plan.moves.add(new int[]{slot, donor, receiver});
+            plan.movedBytes += slotBytes[slot];
+        }
+        drainZeroWeightNodes(plan, nodeSlots, slotLoads, slotBytes, weights, maxMoves);
+        plan.imbalanceAfter = imbalance(plan.loadAfter, plan.target, average);
+        return plan;
+    }
+
+    /**
+     * 第一个不超过 limit 的非空槽位；没有时选择能够改善两端差值(小于 2 * limit)的最小槽位
+     *
+     * @return index in slots, -1 if no slot helps
+     */
+    private static int chooseSlot(List<Integer> slots, double[] slotLoads, double limit) {
+        int smallest = -1;
+        for (int i = 0; i < slots.size(); i++) {
+            double load = slotLoads[slots.get(i)];
+            if (load <= 0) {
+                continue;
+            }
+            if (load <= limit) {
+                return i;
+            }
+            if (smallest < 0 || load < slotLoads[slots.get(smallest)]) {
+                smallest = i;
+            }
+        }
+        return smallest >= 0 && slotLoads[slots.get(smallest)] < 2 * limit ? smallest : -1;
+    }
+
+    /**
+     * 有负载的槽位移到离目标最远的节点，没有负载的槽位按 槽位数/权重 最小的节点分配
+     */
+    private static void drainZeroWeightNodes(Plan plan, List<List<Integer>> nodeSlots, double[] slotLoads, long[] slotBytes,
+                                             double[] weights, int maxMoves) {
+        int nodeCount = weights.length;
+        int[] slotCount = new int[nodeCount];
+        for (int owner : plan.slotOwners) {
+            if (owner >= 0) {
+                slotCount[owner]++;
+            }
+        }
+        for (int donor = 0; donor < nodeCount; donor++) {
+            if (weights[donor] > 0) {
+                continue;
+            }
+            List<Integer> slots = nodeSlots.get(donor);
+            while (!slots.isEmpty() && plan.moves.size() < maxMoves) {
+                int slot = slots.remove(0);
+                boolean loaded = slotLoads[slot] > 0;
+                int receiver = -1;
+                for (int i = 0; i < nodeCount; i++) {
+                    if (weights[i] <= 0) {
+                        continue;
+                    }
+                    if (receiver < 0 || (loaded
+                            ? plan.loadAfter[i] - plan.target[i] < plan.loadAfter[receiver] - plan.target[receiver]
+                            : slotCount[i] / weights[i] < slotCount[receiver] / weights[receiver])) {
+                        receiver = i;
+                    }
+                }
+                plan.loadAfter[donor] -= slotLoads[slot];
+                plan.loadAfter[receiver] += slotLoads[slot];
+                slotCount[donor]--;
+                slotCount[receiver]++;
+                plan.slotOwners[slot] = receiver;
+                plan.moves.add(new int[]{slot, donor, receiver});
+                plan.movedBytes += slotBytes[slot];
+            }
+        }
+    }
+
+    private static double imbalance(double[] loads, double[] target, double average) {
+        if (average <= 0) {
+            return 0;
+        }
+        double max = 0;
+        for (int i = 0; i < loads.length; i++) {
+            max = Math.max(max, Math.abs(loads[i] - target[i]));
+        }
+        return max / average;
+    }
+
+    public static class Plan {
+
+        private final int[] slotOwners;
+
+        private final double[] loadBefore;
+
+        private final double[] loadAfter;
+
+        private final double[] target;
+
+        /**
+         * slot, from, to
+         */
+        private final List<int[]> moves = new ArrayList<>();
+
+        private long movedBytes;
+
+        private double imbalanceBefore;
+
+        private double imbalanceAfter;
+
+        Plan(int nodeCount, int[] slotOwners) {
+            this.slotOwners = slotOwners;
+            this.loadBefore = new double[nodeCount];
+            this.loadAfter = new double[nodeCount];
+            this.target = new double[nodeCount];
+        }
+
+        public int[] getSlotOwners() {
+            return slotOwners;
+        }
+
+        public double[] getLoadBefore() {
+            return loadBefore;
+        }
+
+        public double[] getLoadAfter() {
+            return loadAfter;
+        }
+
+        public double[] getTarget() {
+            return target;
+        }
+
+        public List<int[]> getMoves() {
+            return moves;
+        }
+
+        public long getMovedBytes() {
+            return movedBytes;
+        }
+
+        public double getImbalanceBefore() {
+            return imbalanceBefore;
+        }
+
+        public double getImbalanceAfter() {
+            return imbalanceAfter;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.newegg.ec.redis.util;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 慢日志命令归一化：命令名 + key 的模式，key 中的数字、UUID、长十六进制串替换为 ?
+ * <p>
+ * SET user:123:name xxx => SET user:?:name
+ *
+ * @date 2026/10/19
+ */
+public class SlowLogUtil {
+
+    /**
+     * 第二个参数是子命令的命令
+     */
+    private static final Set<String> SUB_COMMANDS = new HashSet<>(Arrays.asList(
+            "CONFIG", "CLUSTER", "CLIENT", "SCRIPT", "SLOWLOG", "MEMORY", "OBJECT", "XINFO", "XGROUP",
+            "DEBUG", "COMMAND", "ACL", "MODULE", "PUBSUB", "LATENCY"));
+
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private static final Pattern LONG_HEX = Pattern.compile("(?<![0-9a-zA-Z])[0-9a-fA-F]{16,}(?![0-9a-zA-Z])");
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    /**
+     * slowlog 对过长参数的截断: "... (123 more bytes)"、"... (3 more arguments)"
+     */
+    private static final Pattern TRUNCATED = Pattern.compile("\\.\\.\\. \\(\\d+ more (bytes|arguments)\\)$");
+
+    private static final int MAX_KEY_PATTERN_LENGTH = 100;
+
+    private SlowLogUtil() {
+    }
+
+    public static String fingerprint(List<String> args) {
+        if (args == null || args.isEmpty()) {
+            return "";
+        }
+        String command = args.get(0).toUpperCase();
+        StringBuilder fingerprint = new StringBuilder(command);
+        int keyIndex = 1;
+        if (SUB_COMMANDS.contains(command) && args.size() > 1) {
+            fingerprint.append(SignUtil.SPACE).append(args.get(1).toUpperCase());
+            keyIndex = 2;
+        }
+        if (args.size() > keyIndex && !TRUNCATED.matcher(args.get(keyIndex)).matches()) {
+            fingerprint.append(SignUtil.SPACE).append(keyPattern(args.get(keyIndex)));
+        }
+        return fingerprint.toString();
+    }
+
+    public static String keyPattern(String key) {
+        String pattern = TRUNCATED.matcher(key).replaceFirst("");
+        pattern = UUID.matcher(pattern).replaceAll("?");
+        pattern = LONG_HEX.matcher(pattern).replaceAll("?");
+        pattern = NUMBER.matcher(pattern).replaceAll("?");
+        if (pattern.length() > MAX_KEY_PATTERN_LENGTH) {
+            pattern = pattern.substring(0, MAX_KEY_PATTERN_LENGTH) + "...";
+        }
+        return pattern;
+    }
+
+    /**
+     * @param sortedValues 升序
+     * @param percentile   0-100
+     * @return
+     */
+    public static long percentile(long[] sortedValues, double percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sortedValues.length) - 1;
+        return sortedValues[Math.min(Math.max(index, 0), sortedValues.length - 1)];
+    }
+}
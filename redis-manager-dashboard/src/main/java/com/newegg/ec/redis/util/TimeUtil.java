@@ -3,9 +3,6 @@ package com.newegg.ec.redis.util;
 import java.sql.Timestamp;
 import java.time.format.DateTimeFormatter;
 
-import static javax.management.timer.Timer.ONE_MINUTE;
-import static javax.management.timer.Timer.ONE_SECOND;
-
 /**
  * @author Jay.H.Zou
  * @date 8/3/2019
@@ -14,10 +11,14 @@ public class TimeUtil {
 
     public static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    public static final long ONE_SECOND = 1000;
+
     public static final long FIVE_SECONDS = 5 * ONE_SECOND;
 
     public static final long TEN_SECONDS = 10 * ONE_SECOND;
 
+    public static final long ONE_MINUTE = 60 * ONE_SECOND;
+
     public static final long FIVE_MINUTES = 5 * ONE_MINUTE;
 
     public static final long TEN_MINUTES = 2 * FIVE_MINUTES;
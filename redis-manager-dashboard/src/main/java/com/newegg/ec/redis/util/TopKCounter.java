@@ -0,0 +1,99 @@
+package com.newegg.ec.redis.util;
+
+import java.util.*;
+
+/**
+ * Heavy hitters: count-min sketch 负责计数，有序集合只保留估算值最大的 K 个元素，
+ * 通过 item -> entry 的索引在 O(log K) 内更新已有元素
+ * <p>
+ * 内存占用与流量大小无关，只与 sketch 尺寸和 K 有关
+ * 非线程安全，每个采样会话单独持有一个实例
+ *
+ * @date 2026/10/19
+ */
+public class TopKCounter {
+
+    private static final int DEFAULT_DEPTH = 4;
+
+    private static final int DEFAULT_WIDTH = 4096;
+
+    private final int k;
+
+    private final CountMinSketch sketch;
+
+    private final Map<String, Candidate> candidates;
+
+    /**
+     * 按计数升序，第一个是最小值
+     */
+    private final TreeSet<Candidate> ordered;
+
+    public TopKCounter(int k) {
+        this(k, DEFAULT_DEPTH, DEFAULT_WIDTH);
+    }
+
+    public TopKCounter(int k, int depth, int width) {
+        this.k = k;
+        this.sketch = new CountMinSketch(depth, width);
+        this.candidates = new HashMap<>(k * 2);
+        this.ordered = new TreeSet<>(Comparator.comparingLong((Candidate candidate) -> candidate.count)
+                .thenComparing(candidate -> candidate.item));
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    public void add(String item, long count) {
+        long estimate = sketch.add(item, count);
+        offer(item, estimate);
+    }
+
+    /**
+     * 直接提供一个确定的计数(如 OBJECT FREQ)，不经过 sketch
+     *
+     * @param item
+     * @param count
+     */
+    public void offer(String item, long count) {
+        Candidate old = candidates.get(item);
+        if (old != null) {
+            ordered.remove(old);
+        } else if (candidates.size() >= k) {
+            Candidate min = ordered.isEmpty() ? null : ordered.first();
+            if (min == null || min.count >= count) {
+                return;
+            }
+            ordered.pollFirst();
+            candidates.remove(min.item);
+        }
+        Candidate candidate = new Candidate(item, count);
+        candidates.put(item, candidate);
+        ordered.add(candidate);
+    }
+
+    /**
+     * @return item -> count, sorted by count desc
+     */
+    public LinkedHashMap<String, Long> top() {
+        LinkedHashMap<String, Long> top = new LinkedHashMap<>();
+        ordered.descendingSet().forEach(candidate -> top.put(candidate.item, candidate.count));
+        return top;
+    }
+
+    public long getTotal() {
+        return sketch.getTotal();
+    }
+
+    private static class Candidate {
+
+        private final String item;
+
+        private final long count;
+
+        Candidate(String item, long count) {
+            this.item = item;
+            this.count = count;
+        }
+    }
+}
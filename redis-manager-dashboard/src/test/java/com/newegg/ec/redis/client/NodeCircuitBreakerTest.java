@@ -0,0 +1,75 @@
+package com.newegg.ec.redis.client;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import redis.clients.jedis.HostAndPort;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static javax.management.timer.Timer.ONE_SECOND;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class NodeCircuitBreakerTest {
+
+    private final HostAndPort node = new HostAndPort("127.0.0.1", 16379);
+
+    private final AtomicLong now = new AtomicLong(1000000);
+
+    @Before
+    public void setUp() {
+        NodeCircuitBreaker.clock = now::get;
+        NodeCircuitBreaker.reset(node);
+    }
+
+    @After
+    public void tearDown() {
+        NodeCircuitBreaker.reset(node);
+        NodeCircuitBreaker.clock = System::currentTimeMillis;
+    }
+
+    private NodeCircuitBreaker.State state() {
+        return NodeCircuitBreaker.getState(node.getHost(), node.getPort());
+    }
+
+    @Test
+    public void openAfterThreshold() {
+        NodeCircuitBreaker.onFailure(node);
+        assertEquals(NodeCircuitBreaker.State.CLOSED, state());
+        assertTrue(NodeCircuitBreaker.allowRequest(node));
+        NodeCircuitBreaker.onFailure(node);
+        assertEquals(NodeCircuitBreaker.State.OPEN, state());
+        assertFalse(NodeCircuitBreaker.allowRequest(node));
+        assertEquals(5 * ONE_SECOND, NodeCircuitBreaker.getRetryAfter(node));
+    }
+
+    @Test
+    public void halfOpenProbe() {
+        NodeCircuitBreaker.onFailure(node);
+        NodeCircuitBreaker.onFailure(node);
+        now.addAndGet(5 * ONE_SECOND);
+        // 退避结束只放行一个探测请求
+        assertTrue(NodeCircuitBreaker.allowRequest(node));
+        assertEquals(NodeCircuitBreaker.State.HALF_OPEN, state());
+        assertFalse(NodeCircuitBreaker.allowRequest(node));
+
+        // 探测失败，退避翻倍
+        NodeCircuitBreaker.onFailure(node);
+        assertEquals(NodeCircuitBreaker.State.OPEN, state());
+        assertEquals(10 * ONE_SECOND, NodeCircuitBreaker.getRetryAfter(node));
+        now.addAndGet(10 * ONE_SECOND);
+        assertTrue(NodeCircuitBreaker.allowRequest(node));
+
+        // 探测成功，回到 CLOSED
+        NodeCircuitBreaker.onSuccess(node);
+        assertEquals(NodeCircuitBreaker.State.CLOSED, state());
+        assertTrue(NodeCircuitBreaker.allowRequest(node));
+        NodeCircuitBreaker.onFailure(node);
+        assertEquals(NodeCircuitBreaker.State.CLOSED, state());
+    }
+}
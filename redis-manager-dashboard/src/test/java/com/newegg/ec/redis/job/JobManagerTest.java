@@ -0,0 +1,67 @@
+package com.newegg.ec.redis.job;
+
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class JobManagerTest {
+
+    private static class LatchJob extends AbstractJob {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release;
+
+        private volatile boolean executed;
+
+        LatchJob(String jobType, CountDownLatch release) {
+            super(jobType, 1);
+            this.release = release;
+        }
+
+        @Override
+        protected void execute() throws Exception {
+            executed = true;
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void cancelWaitingJob() throws InterruptedException {
+        JobManager jobManager = new JobManager();
+        ReflectionTestUtils.setField(jobManager, "threads", 1);
+        jobManager.onApplicationEvent(null);
+        CountDownLatch release = new CountDownLatch(1);
+        LatchJob running = new LatchJob("RUNNING_TYPE", release);
+        LatchJob waiting = new LatchJob("WAITING_TYPE", release);
+        jobManager.submit(running);
+        assertTrue(running.started.await(5, TimeUnit.SECONDS));
+        jobManager.submit(waiting);
+        assertTrue(jobManager.isRunning(1, "WAITING_TYPE"));
+
+        assertTrue(jobManager.cancel(waiting.getJobId()));
+        assertEquals(AbstractJob.JobStatus.CANCELED, waiting.getStatus());
+        assertNotNull(waiting.getEndTime());
+        assertFalse(jobManager.isRunning(1, "WAITING_TYPE"));
+        assertFalse(jobManager.cancel(waiting.getJobId()));
+
+        release.countDown();
+        for (int i = 0; i < 50 && !running.isFinished(); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(AbstractJob.JobStatus.SUCCESS, running.getStatus());
+        // 取消的任务不会再执行
+        assertFalse(waiting.executed);
+    }
+}
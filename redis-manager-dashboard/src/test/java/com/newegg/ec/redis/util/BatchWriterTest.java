@@ -0,0 +1,76 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class BatchWriterTest {
+
+    @Test
+    public void flushBySize() throws InterruptedException {
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        BatchWriter<Integer> writer = new BatchWriter<>("test-writer", 100, 10, 60000, batch -> {
+            sizes.add(batch.size());
+            latch.countDown();
+        });
+        for (int i = 0; i < 10; i++) {
+            assertTrue(writer.offer(i));
+        }
+        // 凑满 batchSize 不用等 flushInterval
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(10, (int) sizes.get(0));
+        writer.close(5000);
+    }
+
+    @Test
+    public void flushOnClose() throws InterruptedException {
+        List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        BatchWriter<Integer> writer = new BatchWriter<>("test-writer", 100, 7, 60000, items::addAll);
+        for (int i = 0; i < 20; i++) {
+            writer.offer(i);
+        }
+        // 两个满批写出后，剩余 6 条在等待 flushInterval
+        for (int i = 0; i < 50 && (items.size() < 14 || writer.getPending() > 0); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(14, items.size());
+        Thread.sleep(200);
+        long start = System.currentTimeMillis();
+        writer.close(5000);
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(20, items.size());
+        assertFalse(writer.offer(20));
+        assertEquals(1, writer.getDropped());
+    }
+
+    @Test
+    public void dropWhenFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchWriter<Integer> writer = new BatchWriter<>("test-writer", 2, 1, 1, batch -> {
+            blocked.countDown();
+            release.await();
+        });
+        writer.offer(0);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.offer(1));
+        assertTrue(writer.offer(2));
+        assertFalse(writer.offer(3));
+        assertEquals(1, writer.getDropped());
+        release.countDown();
+        writer.close(5000);
+        assertEquals(0, writer.getPending());
+    }
+}
@@ -0,0 +1,37 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @date 2026/10/19
+ */
+public class CommandStatsUtilTest {
+
+    @Test
+    public void parseAndDelta() {
+        Map<String, String> section = new HashMap<>();
+        section.put("cmdstat_get", "calls=21,usec=175,usec_per_call=8.33,rejected_calls=0,failed_calls=0");
+        section.put("cmdstat_config|get", "calls=2,usec=40,usec_per_call=20.00");
+        Map<String, long[]> last = CommandStatsUtil.parse(section);
+        assertEquals(2, last.size());
+        assertEquals(21, last.get("get")[0]);
+        assertEquals(40, last.get("config|get")[1]);
+
+        section.put("cmdstat_get", "calls=31,usec=275,usec_per_call=8.87");
+        section.put("cmdstat_set", "calls=5,usec=50,usec_per_call=10.00");
+        Map<String, long[]> delta = CommandStatsUtil.delta(last, CommandStatsUtil.parse(section));
+        assertEquals(2, delta.size());
+        assertEquals(10, delta.get("get")[0]);
+        assertEquals(100, delta.get("get")[1]);
+        assertEquals(5, delta.get("set")[0]);
+
+        section.put("cmdstat_get", "calls=1,usec=5,usec_per_call=5.00");
+        assertNull(CommandStatsUtil.delta(last, CommandStatsUtil.parse(section)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.newegg.ec.redis.util;
+
+import com.newegg.ec.redis.entity.ConfigDrift;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ConfigDiffUtilTest {
+
+    @Test
+    public void hashIgnoresNodeSpecificKeys() {
+        Map<String, String> configMap1 = new HashMap<>();
+        configMap1.put("maxmemory", "1073741824");
+        configMap1.put("port", "8000");
+        configMap1.put("requirepass", "secret");
+        Map<String, String> configMap2 = new HashMap<>();
+        configMap2.put("port", "8001");
+        configMap2.put("maxmemory", "1073741824");
+        String content1 = ConfigDiffUtil.toContent(ConfigDiffUtil.normalize(configMap1));
+        String content2 = ConfigDiffUtil.toContent(ConfigDiffUtil.normalize(configMap2));
+        assertEquals(content1, content2);
+        assertEquals(ConfigDiffUtil.hash(content1), ConfigDiffUtil.hash(content2));
+        assertEquals(ConfigDiffUtil.normalize(configMap1), ConfigDiffUtil.fromContent(content1));
+    }
+
+    @Test
+    public void diff() {
+        Map<String, String> baselineMap = new HashMap<>();
+        baselineMap.put("maxmemory", "100");
+        baselineMap.put("appendonly", "no");
+        baselineMap.put("timeout", "0");
+        Map<String, String> configMap = new HashMap<>();
+        configMap.put("maxmemory", "200");
+        configMap.put("appendonly", "no");
+        configMap.put("hz", "10");
+        SortedMap<String, String> normalized = ConfigDiffUtil.normalize(configMap);
+        List<ConfigDrift.DiffItem> diffItemList = ConfigDiffUtil.diff(baselineMap, normalized);
+        assertEquals(3, diffItemList.size());
+        assertEquals("hz", diffItemList.get(0).getKey());
+        assertNull(diffItemList.get(0).getBaselineValue());
+        assertEquals("maxmemory", diffItemList.get(1).getKey());
+        assertEquals("200", diffItemList.get(1).getValue());
+        assertEquals("timeout", diffItemList.get(2).getKey());
+        assertNull(diffItemList.get(2).getValue());
+    }
+}
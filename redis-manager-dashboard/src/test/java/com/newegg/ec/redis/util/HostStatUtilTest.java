@@ -0,0 +1,75 @@
+package com.newegg.ec.redis.util;
+
+import com.newegg.ec.redis.entity.MachineInfo;
+import com.newegg.ec.redis.util.HostStatUtil.HostSample;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @date 2026/10/19
+ */
+public class HostStatUtilTest {
+
+    private static String output(double uptime, long user, long idle, long steal, long rxBytes, long writeSectors, long ioTicks) {
+        return "==> /proc/uptime\n" +
+                uptime + " 3000.00\n" +
+                "==> /proc/stat\n" +
+                "cpu  " + user + " 0 100 " + idle + " 50 0 0 " + steal + " 0 0\n" +
+                "cpu0 1 0 1 1 0 0 0 0 0 0\n" +
+                "cpu1 1 0 1 1 0 0 0 0 0 0\n" +
+                "intr 12345\n" +
+                "==> /proc/loadavg\n" +
+                "0.50 0.40 0.30 1/200 12345\n" +
+                "==> /proc/meminfo\n" +
+                "MemTotal:        8000000 kB\n" +
+                "MemFree:         1000000 kB\n" +
+                "MemAvailable:    4000000 kB\n" +
+                "SwapTotal:       1000 kB\n" +
+                "SwapFree:        1000 kB\n" +
+                "==> /proc/net/dev\n" +
+                "Inter-|   Receive                                                |  Transmit\n" +
+                " face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs drop fifo colls carrier compressed\n" +
+                "    lo: 999999 10 0 0 0 0 0 0 999999 10 0 0 0 0 0 0\n" +
+                "  eth0: " + rxBytes + " 10 0 0 0 0 0 0 500 10 0 0 0 0 0 0\n" +
+                "==> /proc/diskstats\n" +
+                "   8       0 sda 100 0 2000 10 200 0 " + writeSectors + " 20 0 " + ioTicks + " 30\n" +
+                "   8       1 sda1 100 0 2000 10 200 0 " + writeSectors + " 20 0 " + ioTicks + " 30\n" +
+                "   7       0 loop0 1 0 2 0 0 0 0 0 0 0 0\n";
+    }
+
+    @Test
+    public void parse() {
+        HostSample sample = HostStatUtil.parse(output(1000, 1000, 5000, 0, 2048, 4000, 100));
+        assertNotNull(sample);
+        assertEquals(2, sample.getCpuCores());
+        assertEquals(8000000L * 1024, sample.getMemoryTotal());
+        // lo 不计入
+        assertEquals(2048, sample.getNetInBytes());
+        // 分区和 loop 不计入
+        assertEquals(4000 * 512, sample.getDiskWriteBytes());
+        assertNull(HostStatUtil.parse("bash: /proc/stat: No such file"));
+    }
+
+    @Test
+    public void delta() {
+        HostSample last = HostStatUtil.parse(output(1000, 1000, 5000, 0, 2048, 4000, 100));
+        // 10 秒内 user +100, idle +800, steal +100
+        HostSample current = HostStatUtil.parse(output(1010, 1100, 5800, 100, 12288, 6000, 600));
+        MachineInfo machineInfo = HostStatUtil.delta("10.0.0.1", last, current);
+        assertNotNull(machineInfo);
+        assertEquals(10, machineInfo.getCpuUser(), 0.001);
+        assertEquals(80, machineInfo.getCpuIdle(), 0.001);
+        assertEquals(10, machineInfo.getCpuSteal(), 0.001);
+        assertEquals(1024, machineInfo.getNetInBytes(), 0.001);
+        assertEquals(2000 * 512 / 10.0, machineInfo.getDiskWriteBytes(), 0.001);
+        // 10 秒内 500ms 在做 IO
+        assertEquals(5, machineInfo.getDiskUtil(), 0.001);
+        assertEquals(0.5, machineInfo.getLoad1(), 0.001);
+
+        // 重启后 uptime 变小
+        assertNull(HostStatUtil.delta("10.0.0.1", current, last));
+    }
+}
@@ -0,0 +1,33 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class InfoProfileTest {
+
+    @Test
+    public void parse() {
+        InfoProfile infoProfile = InfoProfile.parse("Memory, stats,keyspace/5");
+        assertEquals(Arrays.asList("memory", "stats", "keyspace"), Arrays.asList(infoProfile.getSections().toArray()));
+        assertEquals(Arrays.asList("memory", "stats", "keyspace"), infoProfile.getDueSections(10));
+        assertEquals(Arrays.asList("memory", "stats"), infoProfile.getDueSections(11));
+
+        Map<String, InfoProfile> profileMap = InfoProfile.parseClusterProfiles("cluster-a=memory/2;cluster-b=cpu");
+        assertEquals(2, profileMap.size());
+        assertTrue(profileMap.get("cluster-a").getDueSections(1).isEmpty());
+        assertTrue(InfoProfile.parseClusterProfiles("").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidInterval() {
+        InfoProfile.parse("memory/0");
+    }
+}
@@ -0,0 +1,35 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class MetricsTest {
+
+    @Test
+    public void scrape() {
+        Metrics.counter("test_requests", "Test requests", "node", "127.0.0.1:6379").increment(3);
+        Metrics.timer("test_latency", "Test latency", "cluster", "a\"b").record(1500000000L);
+        Metrics.timer("test_latency", "Test latency", "cluster", "a\"b").record(500000000L);
+        Metrics.summary("test_batch_size", "Test batch size").record(100);
+        Metrics.gauge("test_queue_size", "Test queue size", () -> 7);
+        String text = Metrics.scrape();
+        assertTrue(text.contains("# TYPE redis_manager_test_requests_total counter\n"));
+        assertTrue(text.contains("redis_manager_test_requests_total{node=\"127.0.0.1:6379\"} 3\n"));
+        assertTrue(text.contains("# TYPE redis_manager_test_latency_seconds summary\n"));
+        assertTrue(text.contains("redis_manager_test_latency_seconds_count{cluster=\"a\\\"b\"} 2\n"));
+        assertTrue(text.contains("redis_manager_test_latency_seconds_sum{cluster=\"a\\\"b\"} 2\n"));
+        assertTrue(text.contains("redis_manager_test_latency_seconds_max{cluster=\"a\\\"b\"} 1.5\n"));
+        assertTrue(text.contains("redis_manager_test_batch_size_max 100\n"));
+        assertTrue(text.contains("redis_manager_test_queue_size 7\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void typeConflict() {
+        Metrics.counter("test_conflict", "Test conflict");
+        Metrics.timer("test_conflict", "Test conflict");
+    }
+}
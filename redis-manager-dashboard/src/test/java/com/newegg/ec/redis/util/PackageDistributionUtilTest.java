@@ -0,0 +1,46 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PackageDistributionUtilTest {
+
+    @Test
+    public void buildTree() {
+        List<String> machines = Arrays.asList("m0", "m1", "m2", "m3", "m4", "m5", "m6", "m7");
+        Map<String, String> parentMap = PackageDistributionUtil.buildTree(machines, 2, 2);
+        assertNull(parentMap.get("m0"));
+        assertNull(parentMap.get("m1"));
+        assertEquals("m0", parentMap.get("m2"));
+        assertEquals("m0", parentMap.get("m3"));
+        assertEquals("m1", parentMap.get("m4"));
+        assertEquals("m1", parentMap.get("m5"));
+        assertEquals("m2", parentMap.get("m6"));
+        assertEquals("m2", parentMap.get("m7"));
+    }
+
+    @Test
+    public void buildFetchCommands() {
+        List<String> commands = PackageDistributionUtil.buildFetchCommands("/data/redis/machine/cache/abc/redis.tar.gz", "abc",
+                PackageDistributionUtil.buildWgetTemplate("127.0.0.1:8182/data/machine/redis.tar.gz"), true);
+        String tempPath = commands.get(1).split(" ")[3];
+        assertTrue(tempPath.startsWith("/tmp/redis-manager-abc."));
+        assertEquals("trap 'rm -f " + tempPath + "' EXIT", commands.get(0));
+        assertEquals("/usr/bin/wget -q -O " + tempPath + " 127.0.0.1:8182/data/machine/redis.tar.gz", commands.get(1));
+        assertEquals("echo 'abc  " + tempPath + "' | sha256sum -c --status", commands.get(2));
+        assertEquals("sudo mkdir -p /data/redis/machine/cache/abc", commands.get(3));
+        assertEquals("sudo mv -f " + tempPath + " /data/redis/machine/cache/abc/redis.tar.gz", commands.get(4));
+
+        List<String> otherCommands = PackageDistributionUtil.buildFetchCommands("/data/redis/machine/cache/abc/redis.tar.gz", "abc",
+                PackageDistributionUtil.buildWgetTemplate("127.0.0.1:8182/data/machine/redis.tar.gz"), true);
+        assertNotEquals(commands.get(1), otherCommands.get(1));
+    }
+}
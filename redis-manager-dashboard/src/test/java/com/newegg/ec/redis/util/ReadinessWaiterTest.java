@@ -0,0 +1,37 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class ReadinessWaiterTest {
+
+    @Test
+    public void await() {
+        AtomicInteger checks = new AtomicInteger();
+        assertTrue(ReadinessWaiter.await(() -> {
+            if (checks.incrementAndGet() == 2) {
+                throw new IllegalStateException("not ready");
+            }
+            return checks.get() >= 4;
+        }, 1, 10, 5000));
+        assertEquals(4, checks.get());
+
+        long start = System.currentTimeMillis();
+        assertFalse(ReadinessWaiter.await(() -> false, 1, 10, 50));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    @Test
+    public void nextInterval() {
+        assertEquals(40, ReadinessWaiter.nextInterval(20, 2000));
+        assertEquals(2000, ReadinessWaiter.nextInterval(1500, 2000));
+    }
+}
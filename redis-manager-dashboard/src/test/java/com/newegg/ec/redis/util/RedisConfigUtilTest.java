@@ -6,9 +6,13 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+
 
 /**
  * @author Jay.H.Zou
@@ -39,4 +43,12 @@ public class RedisConfigUtilTest {
         RedisConfigUtil.variableAssignment(machine, path, configs, true);
     }
 
+    @Test
+    public void buildRolloutWaves() {
+        List<Integer> nodeList = Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+        List<List<Integer>> parallel = RedisConfigUtil.buildRolloutWaves(nodeList, false, 3, 2);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6), Arrays.asList(7)), parallel);
+        List<List<Integer>> canary = RedisConfigUtil.buildRolloutWaves(nodeList, true, 3, 4);
+        assertEquals(Arrays.asList(Arrays.asList(1), Arrays.asList(2, 3, 4), Arrays.asList(5, 6, 7)), canary);
+    }
 }
@@ -0,0 +1,43 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class RedisUtilTest {
+
+    @Test
+    public void parseCommandLine() {
+        assertEquals(Arrays.asList("SET", "key", "hello world"), RedisUtil.parseCommandLine("SET key \"hello world\""));
+        assertEquals(Arrays.asList("SET", "key", "a\"b\n"), RedisUtil.parseCommandLine("  SET   key 'a\"b\n' "));
+        assertEquals(Arrays.asList("HSET", "h", "f", "line\nbreak"), RedisUtil.parseCommandLine("HSET h f \"line\\nbreak\""));
+        assertEquals(Arrays.asList("GET", "prefix:suffix"), RedisUtil.parseCommandLine("GET prefix:\"suffix\""));
+        assertEquals(Collections.emptyList(), RedisUtil.parseCommandLine("# comment"));
+        assertEquals(Collections.emptyList(), RedisUtil.parseCommandLine("   "));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseCommandLineUnbalanced() {
+        RedisUtil.parseCommandLine("SET key \"value");
+    }
+
+    @Test
+    public void parseInfoSections() throws Exception {
+        String info = "# Memory\r\nused_memory:1024\r\n\r\n# Keyspace\r\ndb0:keys=1,expires=0,avg_ttl=0\r\n";
+        Map<String, Map<String, String>> sectionMap = RedisUtil.parseInfoSections(info);
+        assertEquals("1024", sectionMap.get("memory").get("used_memory"));
+        assertEquals("keys=1,expires=0,avg_ttl=0", sectionMap.get("keyspace").get("db0"));
+        assertTrue(RedisUtil.isVersionAtLeast("7.0.5", 7));
+        assertFalse(RedisUtil.isVersionAtLeast("6.2.6", 7));
+        assertFalse(RedisUtil.isVersionAtLeast(null, 7));
+    }
+}
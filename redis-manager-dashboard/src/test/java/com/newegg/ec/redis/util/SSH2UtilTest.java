@@ -1,10 +1,17 @@
 package com.newegg.ec.redis.util;
 
 import com.newegg.ec.redis.entity.Machine;
+import com.newegg.ec.redis.entity.SSHCommandResult;
 import com.newegg.ec.redis.plugin.install.service.impl.DockerNodeOperation;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class SSH2UtilTest {
 
     Machine machine = new Machine();
@@ -44,4 +51,20 @@ public class SSH2UtilTest {
         String s = SSH2Util.copyFileToRemote(machine, "/data/redis/docker/cluster", "127.0.0.1:8182/redis-manager/config/cluster/redis.conf", true);
         System.err.println(s);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void parseBatchOutput() {
+        String marker = "#redis-manager-exit-test:";
+        List<String> commands = Arrays.asList("cd /data", "printf abc", "false", "echo skipped");
+        String script = SSH2Util.buildBatchScript(commands, marker, true);
+        assertTrue(script.contains("printf abc\n__rc=$?; echo \"" + marker + "$__rc\"; [ $__rc -eq 0 ] || exit $__rc\n"));
+        String output = marker + "0\nabc" + marker + "0\nsome error\n" + marker + "1\n";
+        List<SSHCommandResult> resultList = SSH2Util.parseBatchOutput(commands, output, marker);
+        assertEquals(3, resultList.size());
+        assertEquals("", resultList.get(0).getOutput());
+        assertEquals("abc", resultList.get(1).getOutput());
+        assertEquals(0, resultList.get(1).getExitCode());
+        assertEquals("some error\n", resultList.get(2).getOutput());
+        assertEquals(1, resultList.get(2).getExitCode());
+    }
+}
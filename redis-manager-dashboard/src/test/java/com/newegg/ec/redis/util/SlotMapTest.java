@@ -0,0 +1,53 @@
+package com.newegg.ec.redis.util;
+
+import com.newegg.ec.redis.entity.RedisNode;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @date 2026/10/19
+ */
+public class SlotMapTest {
+
+    private static RedisNode master(String host, int port, String slotRange) {
+        RedisNode redisNode = RedisNode.masterRedisNode(host, port);
+        redisNode.setSlotRange(slotRange);
+        return redisNode;
+    }
+
+    @Test
+    public void fromClusterNodes() {
+        RedisNode a = master("127.0.0.1", 7000, "0-5460");
+        RedisNode b = master("127.0.0.1", 7001, "5461-10922,[10923->-abc]");
+        RedisNode c = master("127.0.0.1", 7002, "10924-16383");
+        SlotMap slotMap = SlotMap.fromClusterNodes(Arrays.asList(a, b, c));
+        assertSame(a, slotMap.getOwner(0));
+        assertSame(b, slotMap.getOwner(10922));
+        assertNull(slotMap.getOwner(10923));
+        assertEquals(2, slotMap.getOwnerIndex(16383));
+        assertEquals(5462, slotMap.getSlotCount(1));
+        assertFalse(slotMap.isFullyAssigned());
+        assertEquals("10923", SlotMap.toRangeString(slotMap.getUnassignedSlots()));
+        assertEquals("0-5460", SlotMap.toRangeString(slotMap.getSlots(0)));
+        assertEquals(1, slotMap.indexOf(new RedisNode("127.0.0.1", 7001)));
+    }
+
+    @Test
+    public void diff() {
+        SlotMap before = SlotMap.fromClusterNodes(Arrays.asList(
+                master("127.0.0.1", 7000, "0-8191"),
+                master("127.0.0.1", 7001, "8192-16383")));
+        SlotMap after = SlotMap.fromClusterNodes(Arrays.asList(
+                master("127.0.0.1", 7000, "0-8000,8100-8191"),
+                master("127.0.0.1", 7001, "8001-8099,8192-16000")));
+        List<SlotMap.SlotChange> slotChangeList = SlotMap.diff(before, after);
+        assertEquals(2, slotChangeList.size());
+        assertEquals("8001-8099: 127.0.0.1:7000 -> 127.0.0.1:7001", slotChangeList.get(0).toString());
+        assertEquals(99, slotChangeList.get(0).getSlotCount());
+        assertEquals("16001-16383: 127.0.0.1:7001 -> null", slotChangeList.get(1).toString());
+    }
+}
@@ -0,0 +1,131 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @date 2026/10/19
+ */
+public class SlotRebalancePlannerTest {
+
+    private static final int SLOTS = 16384;
+
+    @Test
+    public void balanceBySlotCount() {
+        // 新加入一个空 master
+        int[] owners = new int[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            owners[slot] = slot < SLOTS / 2 ? 0 : 1;
+        }
+        double[] loads = new double[SLOTS];
+        Arrays.fill(loads, 1);
+        SlotRebalancePlanner.Plan plan = SlotRebalancePlanner.plan(owners, loads, new long[SLOTS], new double[]{1, 1, 1},
+                0, SLOTS, SlotRebalancePlanner.Minimize.SLOTS);
+        assertTrue(plan.getImbalanceAfter() < 0.001);
+        // 最少移动：只需要给新节点 16384 / 3 个槽位
+        assertEquals(SLOTS / 3, plan.getMoves().size(), 1);
+        for (int[] move : plan.getMoves()) {
+            assertEquals(2, move[2]);
+        }
+    }
+
+    @Test
+    public void balanceByWeightedLoad() {
+        int[] owners = new int[SLOTS];
+        double[] loads = new double[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            owners[slot] = slot % 2;
+            // 节点 0 上有热点槽位
+            loads[slot] = owners[slot] == 0 && slot < 100 ? 100 : 1;
+        }
+        SlotRebalancePlanner.Plan plan = SlotRebalancePlanner.plan(owners, loads, new long[SLOTS], new double[]{1, 1},
+                0.05, SLOTS, SlotRebalancePlanner.Minimize.SLOTS);
+        assertTrue(plan.getImbalanceBefore() > 0.05);
+        assertTrue(plan.getImbalanceAfter() <= 0.05);
+        // 优先移动热点槽位，远少于按槽位数移动
+        assertTrue(plan.getMoves().size() < 100);
+    }
+
+    @Test
+    public void balanceByMemoryInMegabytes() {
+        // 监控数据以 MB 保存：节点 0 有 3000MB，节点 1 有 1000MB，各 8192 个槽位
+        int[] owners = new int[SLOTS];
+        double[] loads = new double[SLOTS];
+        long[] bytes = new long[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            owners[slot] = slot < SLOTS / 2 ? 0 : 1;
+            bytes[slot] = SlotRebalancePlanner.spreadMegabytes(owners[slot] == 0 ? 3000 : 1000, 1.0 / (SLOTS / 2));
+            loads[slot] = bytes[slot];
+            assertTrue(bytes[slot] > 0);
+        }
+        SlotRebalancePlanner.Plan plan = SlotRebalancePlanner.plan(owners, loads, bytes, new double[]{1, 1},
+                0.01, SLOTS, SlotRebalancePlanner.Minimize.BYTES);
+        assertTrue(plan.getImbalanceBefore() > 0.01);
+        assertTrue(plan.getImbalanceAfter() <= 0.01);
+        // 需要移走约 1000MB
+        assertEquals(1000, plan.getMovedBytes() / 1024 / 1024, 30);
+    }
+
+    @Test
+    public void drainZeroWeightNode() {
+        int[] owners = new int[SLOTS];
+        double[] loads = new double[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            owners[slot] = slot % 3;
+            loads[slot] = 1;
+        }
+        SlotRebalancePlanner.Plan plan = SlotRebalancePlanner.plan(owners, loads, new long[SLOTS], new double[]{1, 1, 0},
+                0, SLOTS, SlotRebalancePlanner.Minimize.SLOTS);
+        assertEquals(0, plan.getLoadAfter()[2], 0);
+        for (int owner : plan.getSlotOwners()) {
+            assertTrue(owner != 2);
+        }
+    }
+
+    @Test
+    public void drainZeroWeightNodeByKeys() {
+        // 按 key 数量：大部分槽位是空的
+        int[] owners = new int[SLOTS];
+        double[] loads = new double[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            owners[slot] = slot % 3;
+            loads[slot] = slot % 10 == 0 ? 5 : 0;
+        }
+        SlotRebalancePlanner.Plan plan = SlotRebalancePlanner.plan(owners, loads, new long[SLOTS], new double[]{1, 1, 0},
+                0.1, SLOTS, SlotRebalancePlanner.Minimize.SLOTS);
+        assertDrained(plan, 2);
+        // 空槽位按权重均分
+        int[] slotCount = new int[3];
+        for (int owner : plan.getSlotOwners()) {
+            slotCount[owner]++;
+        }
+        assertEquals(slotCount[0], slotCount[1], SLOTS / 100);
+    }
+
+    @Test
+    public void drainZeroWeightNodeByMemory() {
+        // 按内存，并且节点 1 上所有槽位都是空的
+        int[] owners = new int[SLOTS];
+        double[] loads = new double[SLOTS];
+        long[] bytes = new long[SLOTS];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            owners[slot] = slot % 2;
+            bytes[slot] = owners[slot] == 0 ? 1024 : 0;
+            loads[slot] = bytes[slot];
+        }
+        SlotRebalancePlanner.Plan plan = SlotRebalancePlanner.plan(owners, loads, bytes, new double[]{1, 0, 1},
+                0, SLOTS, SlotRebalancePlanner.Minimize.BYTES);
+        assertDrained(plan, 1);
+    }
+
+    private static void assertDrained(SlotRebalancePlanner.Plan plan, int node) {
+        assertEquals(0, plan.getLoadAfter()[node], 0);
+        for (int owner : plan.getSlotOwners()) {
+            assertTrue(owner != node);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @date 2026/10/19
+ */
+public class SlowLogUtilTest {
+
+    @Test
+    public void fingerprint() {
+        assertEquals("SET user:?:name", SlowLogUtil.fingerprint(Arrays.asList("set", "user:123:name", "jay")));
+        assertEquals("HGETALL session:?", SlowLogUtil.fingerprint(Arrays.asList("HGETALL", "session:0f8fad5b-d9cb-469f-a165-70867728950e")));
+        assertEquals("GET token:?", SlowLogUtil.fingerprint(Arrays.asList("GET", "token:9f86d081884c7d659a2feaa0c55ad015")));
+        assertEquals("CONFIG GET maxmemory", SlowLogUtil.fingerprint(Arrays.asList("config", "get", "maxmemory")));
+        assertEquals("KEYS", SlowLogUtil.fingerprint(Arrays.asList("KEYS", "... (1 more arguments)")));
+        assertEquals("DBSIZE", SlowLogUtil.fingerprint(Arrays.asList("dbsize")));
+        assertEquals("cache:user", SlowLogUtil.keyPattern("cache:user"));
+    }
+
+    @Test
+    public void percentile() {
+        long[] values = new long[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 1;
+        }
+        assertEquals(99, SlowLogUtil.percentile(values, 99));
+        assertEquals(100, SlowLogUtil.percentile(values, 100));
+        assertEquals(7, SlowLogUtil.percentile(new long[]{7}, 99));
+        assertEquals(0, SlowLogUtil.percentile(new long[0], 99));
+    }
+}
@@ -0,0 +1,42 @@
+package com.newegg.ec.redis.util;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopKCounterTest {
+
+    @Test
+    public void top() {
+        TopKCounter topKCounter = new TopKCounter(3);
+        for (int i = 0; i < 1000; i++) {
+            topKCounter.add("hot");
+            if (i % 2 == 0) {
+                topKCounter.add("warm");
+            }
+            topKCounter.add("cold-" + i);
+        }
+        LinkedHashMap<String, Long> top = topKCounter.top();
+        assertEquals(3, top.size());
+        String first = top.keySet().iterator().next();
+        assertEquals("hot", first);
+        assertTrue(top.containsKey("warm"));
+        assertTrue(top.get("hot") >= 1000);
+    }
+
+    @Test
+    public void offer() {
+        TopKCounter topKCounter = new TopKCounter(2);
+        topKCounter.offer("a", 5);
+        topKCounter.offer("b", 1);
+        topKCounter.offer("c", 3);
+        topKCounter.offer("b", 10);
+        LinkedHashMap<String, Long> top = topKCounter.top();
+        assertEquals(2, top.size());
+        assertEquals(Long.valueOf(10), top.get("b"));
+        assertEquals(Long.valueOf(5), top.get("a"));
+    }
+}